@@ -0,0 +1,67 @@
+package org.example.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Compares the legacy claim schema with the compact schema of {@link CompactClaimSchema}.
+ *
+ * <p>The {@code Authorization} header size of each schema is printed during setup; the
+ * benchmarks report verification and parse time for the same token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class ClaimSchemaBenchmark {
+
+  private static final String SECRET =
+      "dGVzdC1zZWNyZXQta2V5LWZvci10ZXN0aW5nLW11c3QtYmUtYXQtbGVhc3QtMzItYnl0ZXMtbG9uZw==";
+  private static final String SUBJECT = "GOOGLE_109876543210987654321";
+  private static final List<String> ROLES = List.of("ROLE_USER", "ROLE_ADMIN");
+
+  @Param({"legacy", "compact", "compact-user-id"})
+  public String schema;
+
+  private JwtTokenProvider jwtTokenProvider;
+  private String accessToken;
+
+  @Setup
+  public void setUp() {
+    CompactClaimSchema compactClaimSchema = new CompactClaimSchema(
+        !schema.equals("legacy"),
+        schema.equals("compact-user-id"),
+        () -> Map.of("ROLE_USER", 1L, "ROLE_ADMIN", 2L));
+    jwtTokenProvider = new JwtTokenProvider(SECRET, 3_600_000L, 604_800_000L,
+        VerifiedTokenCache.disabled(), compactClaimSchema);
+    accessToken = jwtTokenProvider.generateAccessToken(1_234_567L, SUBJECT, ROLES);
+    System.out.printf("%n[%s] Authorization header: %d bytes%n",
+        schema, ("Bearer " + accessToken).length());
+  }
+
+  @Benchmark
+  public VerifiedToken verify() {
+    return jwtTokenProvider.verify(accessToken);
+  }
+
+  @Benchmark
+  public Claims jjwtParse() {
+    return jwtTokenProvider.parseClaims(accessToken);
+  }
+
+  @Benchmark
+  public String issue() {
+    return jwtTokenProvider.generateAccessToken(1_234_567L, SUBJECT, ROLES);
+  }
+}
@@ -0,0 +1,64 @@
+package org.example.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Compares the jjwt parser with {@link HmacJwtVerifier} on throughput.
+ *
+ * <p>Run with {@code ./gradlew jmh}; the {@code gc} profiler reports bytes allocated per
+ * operation ({@code gc.alloc.rate.norm}) for both paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class HmacJwtVerifierBenchmark {
+
+  private static final String SECRET =
+      "dGVzdC1zZWNyZXQta2V5LWZvci10ZXN0aW5nLW11c3QtYmUtYXQtbGVhc3QtMzItYnl0ZXMtbG9uZw==";
+
+  private JwtTokenProvider jwtTokenProvider;
+  private HmacJwtVerifier hmacJwtVerifier;
+  private String accessToken;
+
+  @Setup
+  public void setUp() {
+    SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    String probe = Jwts.builder().subject("probe").signWith(key).compact();
+    hmacJwtVerifier = new HmacJwtVerifier(key, probe.substring(0, probe.indexOf('.')));
+    jwtTokenProvider = new JwtTokenProvider(SECRET, 3_600_000L, 604_800_000L);
+    accessToken = jwtTokenProvider.generateAccessToken("bench-user", List.of("ROLE_USER"));
+  }
+
+  @Benchmark
+  public Claims jjwtParser() {
+    return jwtTokenProvider.parseClaims(accessToken);
+  }
+
+  @Benchmark
+  public VerifiedToken hmacVerifier() {
+    return hmacJwtVerifier.verify(accessToken, System.currentTimeMillis());
+  }
+
+  /**
+   * End-to-end {@link JwtTokenProvider#verify(String)} with the verified-token cache disabled.
+   */
+  @Benchmark
+  public VerifiedToken providerVerify() {
+    return jwtTokenProvider.verify(accessToken);
+  }
+}
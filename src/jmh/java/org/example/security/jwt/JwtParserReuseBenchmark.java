@@ -0,0 +1,66 @@
+package org.example.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Compares building a JwtParser per call with the parser shared by {@link JwtTokenProvider}.
+ *
+ * <p>Run with {@code ./gradlew jmh}; the {@code gc} profiler reports
+ * {@code gc.alloc.rate.norm} (bytes allocated per operation) next to the latency numbers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(4)
+public class JwtParserReuseBenchmark {
+
+  private static final String SECRET =
+      "dGVzdC1zZWNyZXQta2V5LWZvci10ZXN0aW5nLW11c3QtYmUtYXQtbGVhc3QtMzItYnl0ZXMtbG9uZw==";
+
+  private SecretKey key;
+  private JwtTokenProvider jwtTokenProvider;
+  private String accessToken;
+
+  @Setup
+  public void setUp() {
+    key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    jwtTokenProvider = new JwtTokenProvider(SECRET, 3_600_000L, 604_800_000L);
+    accessToken = jwtTokenProvider.generateAccessToken("bench-user", List.of("ROLE_USER"));
+  }
+
+  /**
+   * Baseline: the pre-change behaviour of rebuilding the parser for every request.
+   */
+  @Benchmark
+  public Claims parserPerCall() {
+    return Jwts.parser()
+        .verifyWith(key)
+        .build()
+        .parseSignedClaims(accessToken)
+        .getPayload();
+  }
+
+  @Benchmark
+  public Claims sharedParser() {
+    return jwtTokenProvider.parseClaims(accessToken);
+  }
+
+  @Benchmark
+  public String issueAccessToken() {
+    return jwtTokenProvider.generateAccessToken("bench-user", List.of("ROLE_USER"));
+  }
+}
@@ -0,0 +1,74 @@
+package org.example.security.jwt;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Issue throughput of the jjwt builder versus {@link JwtTokenProvider}'s template issuer,
+ * for both Access Tokens and Refresh Tokens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class TokenIssueBenchmark {
+
+  private static final String SECRET =
+      "dGVzdC1zZWNyZXQta2V5LWZvci10ZXN0aW5nLW11c3QtYmUtYXQtbGVhc3QtMzItYnl0ZXMtbG9uZw==";
+  private static final List<String> ROLES = List.of("ROLE_USER");
+
+  private SecretKey key;
+  private JwtTokenProvider jwtTokenProvider;
+
+  @Setup
+  public void setUp() {
+    key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    jwtTokenProvider = new JwtTokenProvider(SECRET, 3_600_000L, 604_800_000L);
+  }
+
+  @Benchmark
+  public String jjwtAccessToken() {
+    Date now = new Date();
+    return Jwts.builder()
+        .subject("bench-user")
+        .claim("roles", ROLES)
+        .issuedAt(now)
+        .expiration(new Date(now.getTime() + 3_600_000L))
+        .signWith(key)
+        .compact();
+  }
+
+  @Benchmark
+  public String templateAccessToken() {
+    return jwtTokenProvider.generateAccessToken("bench-user", ROLES);
+  }
+
+  @Benchmark
+  public String jjwtRefreshToken() {
+    Date now = new Date();
+    return Jwts.builder()
+        .subject("bench-user")
+        .issuedAt(now)
+        .expiration(new Date(now.getTime() + 604_800_000L))
+        .signWith(key)
+        .compact();
+  }
+
+  @Benchmark
+  public String templateRefreshToken() {
+    return jwtTokenProvider.generateRefreshToken("bench-user");
+  }
+}
@@ -0,0 +1,63 @@
+package org.example.security.jwt;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Compares rejecting bad tokens by exception ({@link JwtTokenProvider#verify(String)}) with the
+ * result API ({@link JwtTokenProvider#tryVerify(String)}).
+ *
+ * <p>{@code expired} and {@code tampered} tokens carry this service's header and are rejected by
+ * {@link HmacJwtVerifier}; {@code garbage} fails the structural pre-check. Run with
+ * {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class TokenRejectionBenchmark {
+
+  private static final String SECRET =
+      "dGVzdC1zZWNyZXQta2V5LWZvci10ZXN0aW5nLW11c3QtYmUtYXQtbGVhc3QtMzItYnl0ZXMtbG9uZw==";
+
+  @Param({"expired", "tampered", "garbage"})
+  public String kind;
+
+  private JwtTokenProvider jwtTokenProvider;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    jwtTokenProvider = new JwtTokenProvider(SECRET, 3_600_000L, 604_800_000L);
+    token = switch (kind) {
+      case "expired" -> new JwtTokenProvider(SECRET, -60_000L, 604_800_000L)
+          .generateAccessToken("bench-user", List.of("ROLE_USER"));
+      case "tampered" -> jwtTokenProvider
+          .generateAccessToken("bench-user", List.of("ROLE_USER")) + "tampered";
+      default -> "Bearer%20not-a-token";
+    };
+  }
+
+  @Benchmark
+  public Object throwingVerify() {
+    try {
+      return jwtTokenProvider.verify(token);
+    } catch (RuntimeException e) {
+      return e;
+    }
+  }
+
+  @Benchmark
+  public JwtVerificationResult tryVerify() {
+    return jwtTokenProvider.tryVerify(token);
+  }
+}
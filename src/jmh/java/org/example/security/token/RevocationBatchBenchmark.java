@@ -0,0 +1,132 @@
+package org.example.security.token;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.example.repository.TokenRedisRepository;
+import org.example.repository.TokenRedisRepository.RevocationLookup;
+import org.example.repository.TokenRedisRepository.RevocationState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Compares one revocation {@code MGET} per request with {@link RevocationStateBatcher}.
+ *
+ * <p>Redis is modelled in process so the benchmark runs without a server: each command pays a
+ * network round trip outside the server and a fixed cost plus a per-key cost inside a single
+ * server lock, like Redis' single command thread. {@code Throughput} shows lookups per
+ * microsecond, {@code SampleTime} the caller latency percentiles (read {@code p0.99}), and each
+ * iteration prints the Redis commands per second and lookups per command. Run with
+ * {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(64)
+public class RevocationBatchBenchmark {
+
+  private static final long ROUND_TRIP_NANOS = 200_000L;
+  private static final long COMMAND_NANOS = 2_000L;
+  private static final long KEY_NANOS = 100L;
+
+  /** {@code direct}, or {@code batch-<max-batch-size>-<max-wait in µs>}. */
+  @Param({"direct", "batch-16-50", "batch-64-200", "batch-256-500"})
+  public String config;
+
+  private SimulatedRedis redis;
+  private RevocationStateBatcher batcher;
+  private long iterationStart;
+
+  @Setup
+  public void setUp() {
+    redis = new SimulatedRedis();
+    if (!config.equals("direct")) {
+      String[] parts = config.split("-");
+      batcher = new RevocationStateBatcher(redis, true, Integer.parseInt(parts[1]),
+          Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(Long.parseLong(parts[2]))),
+          Duration.ofSeconds(1));
+    }
+  }
+
+  @Setup(Level.Iteration)
+  public void startIteration() {
+    redis.commands.set(0);
+    redis.lookups.set(0);
+    iterationStart = System.nanoTime();
+  }
+
+  @TearDown(Level.Iteration)
+  public void reportIteration() {
+    double seconds = (System.nanoTime() - iterationStart) / 1e9;
+    long commands = redis.commands.get();
+    System.out.printf("%n[%s] Redis commands/s: %.0f, lookups per command: %.1f%n",
+        config, commands / seconds, commands == 0 ? 0.0 : (double) redis.lookups.get() / commands);
+  }
+
+  @TearDown
+  public void tearDown() {
+    if (batcher != null) {
+      batcher.shutdown();
+    }
+  }
+
+  @Benchmark
+  public RevocationState lookup() {
+    RevocationLookup lookup = RevocationLookup.forSubject(
+        Long.toString(ThreadLocalRandom.current().nextLong()), "bench-user");
+    return batcher == null
+        ? redis.findRevocationStates(List.of(lookup)).get(0)
+        : batcher.find(lookup);
+  }
+
+  /**
+   * In-process model of a Redis server answering {@code MGET}.
+   */
+  static final class SimulatedRedis extends TokenRedisRepository {
+
+    private final Object server = new Object();
+    private final AtomicLong commands = new AtomicLong();
+    private final AtomicLong lookups = new AtomicLong();
+
+    SimulatedRedis() {
+      super(null);
+    }
+
+    @Override
+    public List<RevocationState> findRevocationStates(List<RevocationLookup> batch) {
+      LockSupport.parkNanos(ROUND_TRIP_NANOS / 2);
+      synchronized (server) {
+        spin(COMMAND_NANOS + KEY_NANOS * (batch.size() * 2L + 1));
+      }
+      commands.incrementAndGet();
+      lookups.addAndGet(batch.size());
+      LockSupport.parkNanos(ROUND_TRIP_NANOS / 2);
+
+      List<RevocationState> states = new ArrayList<>(batch.size());
+      for (int i = 0; i < batch.size(); i++) {
+        states.add(new RevocationState(false, null));
+      }
+      return states;
+    }
+
+    private static void spin(long nanos) {
+      long deadline = System.nanoTime() + nanos;
+      while (System.nanoTime() < deadline) {
+        Thread.onSpinWait();
+      }
+    }
+  }
+}
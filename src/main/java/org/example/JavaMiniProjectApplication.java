@@ -2,12 +2,14 @@ package org.example;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * 프로젝트 메인 실행 클래스
  * org.example 패키지에 위치하여 하위 패키지(domain, repository, service 등)를 자동으로 스캔합니다.
  */
 @SpringBootApplication
+@EnableScheduling
 public class JavaMiniProjectApplication {
 
   public static void main(String[] args) {
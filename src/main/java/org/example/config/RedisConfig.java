@@ -1,15 +1,19 @@
 package org.example.config;
 
+import org.example.security.authenticated.UserStateChangeBus;
+import org.example.security.token.RevocationReplica;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 
 /**
  * Redis 연결 및 템플릿 설정.
  *
  * <p>AT Blacklist와 RT 저장에 사용할 {@link StringRedisTemplate}을 빈으로 등록한다.
  * 키·값 모두 String 타입으로 직렬화하여 redis-cli로 직접 확인 가능하게 한다.
+ * 인스턴스 간 User 상태 변경·토큰 폐기 전파를 위한 pub/sub 리스너 컨테이너도 등록한다.
  */
 @Configuration
 public class RedisConfig {
@@ -24,4 +28,27 @@ public class RedisConfig {
     public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory connectionFactory) {
         return new StringRedisTemplate(connectionFactory);
     }
+
+    /**
+     * Redis pub/sub 구독 컨테이너 빈.
+     *
+     * <p>User 상태 변경 채널과 토큰 폐기 채널을 구독한다. 연결이 끊기면 컨테이너(와 드라이버)가
+     * 재구독하며, 재구독 시 {@link UserStateChangeBus}는 로컬 principal 캐시를 비우고
+     * {@link RevocationReplica}는 재구성 전까지 Redis로 폐기 여부를 확인한다.
+     *
+     * @param connectionFactory Spring Boot 자동 설정으로 주입되는 연결 팩토리
+     * @param userStateChangeBus User 상태 변경 리스너
+     * @param revocationReplica 토큰 폐기 로컬 복제본
+     * @return RedisMessageListenerContainer 인스턴스
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory connectionFactory, UserStateChangeBus userStateChangeBus,
+            RevocationReplica revocationReplica) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(userStateChangeBus, UserStateChangeBus.TOPIC);
+        container.addMessageListener(revocationReplica, RevocationReplica.TOPIC);
+        return container;
+    }
 }
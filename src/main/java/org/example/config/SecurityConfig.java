@@ -61,6 +61,9 @@ public class SecurityConfig {
 
   /**
    * 일반 로그인(AuthService.login)에서 수동으로 인증을 처리하기 위한 AuthenticationManager 빈 등록.
+   *
+   * <p>{@code PreloadedUserAuthenticationProvider} 빈이 기본 DAO provider를 대신하므로, 로그인 시
+   * 이미 조회한 User로 비밀번호를 확인한다.
    */
   @Bean
   public AuthenticationManager authenticationManager(
@@ -106,9 +109,13 @@ public class SecurityConfig {
                 // OAuth2 인증 시작 경로 (/oauth2/authorization/google 등)
                 "/oauth2/**",
                 // OAuth2 콜백 수신 경로 (/login/oauth2/code/google 등)
-                "/login/oauth2/**"
+                "/login/oauth2/**",
+                // 리소스 서버가 토큰을 로컬 검증할 때 쓰는 공개키 (JWKS)
+                "/.well-known/jwks.json"
             ).permitAll()
             .requestMatchers("/admin/**").hasRole("ADMIN")             // ADMIN 전용
+            .requestMatchers("/actuator/health").permitAll()           // 로드밸런서 헬스체크
+            .requestMatchers("/actuator/**").hasRole("ADMIN")          // 운영 메트릭 ADMIN 전용
             .requestMatchers("/user/**").hasAnyRole("USER", "ADMIN")   // USER 이상
             .anyRequest().authenticated()                              // 그 외 인증 필요
         )
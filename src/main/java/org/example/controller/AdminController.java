@@ -1,15 +1,19 @@
 package org.example.controller;
 
+import jakarta.validation.Valid;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.example.dto.request.TokenRevocationRequest;
 import org.example.service.AdminService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
- * Admin HTTP adapter for account recovery operations.
+ * Admin HTTP adapter for account recovery, token revocation and key management operations.
  */
 @RestController
 @RequestMapping("/admin")
@@ -29,4 +33,47 @@ public class AdminController {
     adminService.unlockUser(username);
     return ResponseEntity.ok("User unlocked successfully.");
   }
+
+  /**
+   * Revokes every token issued so far to one User.
+   *
+   * @param username User login username
+   * @return revocation watermark in ISO-8601
+   */
+  @PostMapping("/users/{username}/revoke-tokens")
+  public ResponseEntity<String> revokeUserTokens(@PathVariable String username) {
+    return ResponseEntity.ok(adminService.revokeUserTokens(List.of(username)).toString());
+  }
+
+  /**
+   * Revokes every token issued so far to a list of Users.
+   *
+   * @param request usernames to revoke
+   * @return revocation watermark in ISO-8601
+   */
+  @PostMapping("/users/revoke-tokens")
+  public ResponseEntity<String> revokeUsersTokens(
+      @Valid @RequestBody TokenRevocationRequest request) {
+    return ResponseEntity.ok(adminService.revokeUserTokens(request.getUsernames()).toString());
+  }
+
+  /**
+   * Revokes every token issued so far to any User.
+   *
+   * @return revocation watermark in ISO-8601
+   */
+  @PostMapping("/tokens/revoke-all")
+  public ResponseEntity<String> revokeAllTokens() {
+    return ResponseEntity.ok(adminService.revokeAllTokens().toString());
+  }
+
+  /**
+   * Stages a new JWT signing key without a restart.
+   *
+   * @return {@code kid} of the new key
+   */
+  @PostMapping("/signing-keys/rotate")
+  public ResponseEntity<String> rotateSigningKey() {
+    return ResponseEntity.ok(adminService.rotateSigningKey());
+  }
 }
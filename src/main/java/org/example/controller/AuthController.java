@@ -12,12 +12,14 @@ import org.example.dto.response.TokenResponseDto;
 import org.example.security.authenticated.AuthenticatedUser;
 import org.example.security.failure.AuthFailureCode;
 import org.example.security.failure.AuthFailureException;
+import org.example.security.jwt.VerifiedToken;
 import org.example.security.token.delivery.TokenDeliveryService;
 import org.example.service.AuthService;
 import org.example.service.UserService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -61,12 +63,12 @@ public class AuthController implements AuthApi {
   @PostMapping("/logout")
   public ResponseEntity<String> logout(
       @AuthenticationPrincipal AuthenticatedUser userDetails,
-      HttpServletRequest request,
+      @RequestAttribute(name = VerifiedToken.REQUEST_ATTRIBUTE, required = false)
+      VerifiedToken accessToken,
       HttpServletResponse response
   ) {
     try {
       if (userDetails != null) {
-        String accessToken = tokenDeliveryService.resolveBearerAccessToken(request).orElse(null);
         authService.logout(userDetails.getJwtSubject(), accessToken);
       }
 
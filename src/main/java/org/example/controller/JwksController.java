@@ -0,0 +1,65 @@
+package org.example.controller;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.example.security.jwt.JwtKeyring;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Publishes the public signing keys as a JWK Set so resource servers can verify service JWTs
+ * without calling this service.
+ *
+ * <p>The response is cacheable by shared caches for {@code jwt.jwks.max-age-seconds}, and the
+ * {@code ETag} is derived from the published key ids so that conditional requests return
+ * {@code 304 Not Modified} until the keys change.
+ */
+@RestController
+public class JwksController {
+
+  private final JwtKeyring keyring;
+  private final CacheControl cacheControl;
+
+  public JwksController(
+      JwtKeyring keyring,
+      @Value("${jwt.jwks.max-age-seconds:600}") long maxAgeSeconds) {
+    this.keyring = keyring;
+    this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic();
+  }
+
+  /**
+   * Returns the JWK Set of keys that may have signed an outstanding token.
+   *
+   * @param request used for {@code If-None-Match} handling
+   * @return {@code {"keys": [...]}}
+   */
+  @GetMapping("/.well-known/jwks.json")
+  public ResponseEntity<Map<String, Object>> jwks(WebRequest request) {
+    List<? extends Map<String, ?>> keys = keyring.publicJwks();
+    String etag = "\"" + Integer.toHexString(keys.stream()
+        .map(key -> String.valueOf(key.get("kid")))
+        .sorted()
+        .collect(Collectors.joining(","))
+        .hashCode()) + "\"";
+
+    if (request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+          .cacheControl(cacheControl)
+          .eTag(etag)
+          .build();
+    }
+    return ResponseEntity.ok()
+        .cacheControl(cacheControl)
+        .eTag(etag)
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(Map.of("keys", keys));
+  }
+}
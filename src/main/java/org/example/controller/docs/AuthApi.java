@@ -11,8 +11,10 @@ import org.example.dto.request.LoginRequestDto;
 import org.example.dto.request.SignupRequest;
 import org.example.dto.response.TokenResponseDto;
 import org.example.security.authenticated.AuthenticatedUser;
+import org.example.security.jwt.VerifiedToken;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import io.swagger.v3.oas.annotations.security.SecurityRequirements;
 
@@ -57,7 +59,8 @@ public interface AuthApi {
         @SecurityRequirement(name = "cookieAuth")
         ResponseEntity<String> logout(
                         @AuthenticationPrincipal @Parameter(hidden = true) AuthenticatedUser userDetails,
-                        HttpServletRequest request,
+                        @RequestAttribute(name = VerifiedToken.REQUEST_ATTRIBUTE, required = false)
+                        @Parameter(hidden = true) VerifiedToken accessToken,
                         HttpServletResponse response);
 
         @Operation(summary = "토큰 갱신", description = "Access Token이 만료되었을 때, 기존의 Refresh Token을 통해 새로운 Access Token과 Refresh Token을 재발급받는 API입니다.<br><br>"
@@ -18,6 +18,8 @@ import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.example.domain.event.UserStateChangedEvent;
+import org.springframework.data.domain.AbstractAggregateRoot;
 
 /**
  * 사용자 계정 정보를 관리하는 엔티티.
@@ -26,13 +28,16 @@ import lombok.NoArgsConstructor;
  * 인증 제공자(provider)와 제공자 고유 ID(providerId)를 통해 두 방식을 구분하며,
  * OAuth2 유저는 비밀번호를 갖지 않으므로 password 필드는 nullable이다.
  *
+ * <p>잠금/해제와 권한 변경은 {@link UserStateChangedEvent}를 등록하며, 저장 시 발행되어
+ * 캐시된 인증 principal을 무효화한다.
+ *
  * <p>향후 계정 연동(LOCAL ↔ GOOGLE)은 별도 API 및 user_oauth_accounts 테이블 분리로 구현 예정.
  */
 @Entity
 @Table(name = "users")
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-public class User {
+public class User extends AbstractAggregateRoot<User> {
 
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -106,6 +111,8 @@ public class User {
     this.provider = AuthProvider.LOCAL;
     this.enabled = true;
     this.accountNonLocked = true;
+    // 같은 JWT Subject로 남아 있는 삭제 User tombstone을 지운다.
+    stateChanged();
   }
 
   /**
@@ -127,6 +134,8 @@ public class User {
     this.providerId = providerId;
     this.enabled = true;
     this.accountNonLocked = true;
+    // 같은 JWT Subject로 남아 있는 삭제 User tombstone을 지운다.
+    stateChanged();
   }
 
   /**
@@ -135,7 +144,9 @@ public class User {
    * @param role 추가할 권한 엔티티
    */
   public void addRole(Role role) {
-    this.roles.add(role);
+    if (this.roles.add(role)) {
+      stateChanged();
+    }
   }
 
   /**
@@ -143,6 +154,7 @@ public class User {
    */
   public void lock() {
     this.accountNonLocked = false;
+    stateChanged();
   }
 
   /**
@@ -150,5 +162,10 @@ public class User {
    */
   public void unlock() {
     this.accountNonLocked = true;
+    stateChanged();
+  }
+
+  private void stateChanged() {
+    registerEvent(new UserStateChangedEvent(id, username));
   }
 }
@@ -0,0 +1,13 @@
+package org.example.domain.event;
+
+/**
+ * Published when a User is created or its authentication state (lock, unlock, roles) changes.
+ *
+ * <p>Registered by {@link org.example.domain.entity.User} and published by Spring Data when the
+ * User is saved, so listeners can drop principals cached for the old state.
+ *
+ * @param userId User id, or {@code null} for a User that has not been persisted yet
+ * @param username JWT Subject of the User
+ */
+public record UserStateChangedEvent(Long userId, String username) {
+}
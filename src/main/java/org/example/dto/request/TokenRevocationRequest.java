@@ -0,0 +1,21 @@
+package org.example.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "토큰 일괄 폐기 요청 데이터")
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocationRequest {
+  @Schema(description = "토큰을 폐기할 사용자 로그인 아이디 목록", example = "[\"testuser\"]")
+  @NotEmpty(message = "폐기할 사용자를 입력해주세요.")
+  private List<@NotBlank(message = "아이디를 입력해주세요.") String> usernames;
+}
@@ -12,6 +12,7 @@ import java.util.Map;
 import org.example.security.failure.AuthFailureCode;
 import org.example.security.failure.AuthFailureException;
 import org.example.security.failure.AuthFailureResponse;
+import org.example.security.failure.InvalidTokenResponse;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.LockedException;
@@ -80,11 +81,9 @@ public class GlobalExceptionHandler {
    * JWT 관련 인증(토큰) 예외 처리(401) = > 403 에러가 없네??
    */
   @ExceptionHandler(JwtException.class)
-  public ResponseEntity<Map<String, String>> handleJwtExceptions(io.jsonwebtoken.JwtException ex) {
-    Map<String, String> errors = new HashMap<>();
-    errors.put("error", "Invalid Token");
-    errors.put("message", ex.getMessage());
-    return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errors);
+  public ResponseEntity<InvalidTokenResponse> handleJwtExceptions(io.jsonwebtoken.JwtException ex) {
+    return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+        .body(InvalidTokenResponse.of(ex.getMessage()));
   }
 
   /**
@@ -61,10 +61,13 @@ public class LoginFailureRedisRepository {
   /**
    * Builds the Redis key for a username failure counter.
    *
+   * <p>Shared with {@link TokenRedisRepository#saveLoginSession(String, String, long)}, which
+   * clears the counter together with the Refresh Token write.
+   *
    * @param username JWT Subject / login username
    * @return Redis key
    */
-  private String accountFailureKey(String username) {
+  static String accountFailureKey(String username) {
     return ACCOUNT_FAILURE_PREFIX + username;
   }
 
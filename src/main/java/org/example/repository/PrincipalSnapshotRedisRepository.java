@@ -0,0 +1,197 @@
+package org.example.repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import org.example.security.authenticated.PrincipalSnapshot;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Redis repository for User principal snapshots.
+ *
+ * <p>Each snapshot is a hash {@code auth:user:snapshot:{username}} with the fields {@code id},
+ * {@code nickname}, {@code enabled}, {@code accountNonLocked} and {@code roles}. The Access Token
+ * check reads the Blacklist, the revocation watermarks, the snapshot and the security epoch in one
+ * script call, so an authenticated request costs a single Redis round trip.
+ *
+ * <p>A User that does not exist is recorded as a tombstone: the same hash holding only
+ * {@code deleted}. Tokens of a deleted User are then rejected from Redis alone.
+ */
+@Repository
+public class PrincipalSnapshotRedisRepository {
+
+  private static final String SNAPSHOT_PREFIX = "auth:user:snapshot:";
+  private static final String ROLE_SEPARATOR = ",";
+  private static final String DELETED_FIELD = "deleted";
+  private static final RedisScript<List> CHECK_ACCESS_TOKEN_SCRIPT =
+      createScript("redis/check-access-token.lua", List.class);
+  private static final RedisScript<Long> SAVE_SNAPSHOT_SCRIPT =
+      createScript("redis/save-user-snapshot.lua", Long.class);
+
+  private final StringRedisTemplate redisTemplate;
+
+  /**
+   * Creates a repository backed by the given Redis template.
+   *
+   * @param redisTemplate Redis string template
+   */
+  public PrincipalSnapshotRedisRepository(StringRedisTemplate redisTemplate) {
+    this.redisTemplate = redisTemplate;
+  }
+
+  /**
+   * Reads the revocation state, snapshot and security epoch for an Access Token in one call.
+   *
+   * @param revocationId Logout Blacklist id of the Access Token
+   * @param jwtSubject JWT Subject of the token
+   * @param issuedAt {@code iat} of the token, or {@code null}
+   * @return revocation verdict with the snapshot and epoch of the User
+   */
+  public AccessTokenState check(String revocationId, String jwtSubject, Instant issuedAt) {
+    List<?> result = redisTemplate.execute(
+        CHECK_ACCESS_TOKEN_SCRIPT,
+        List.of(TokenRedisRepository.blacklistKey(revocationId),
+            snapshotKey(jwtSubject),
+            SecurityEpochRedisRepository.epochKey(jwtSubject),
+            TokenRedisRepository.revocationKey(jwtSubject),
+            TokenRedisRepository.GLOBAL_REVOCATION_KEY),
+        String.valueOf(issuedAt == null ? -1L : issuedAt.getEpochSecond()));
+    if (result == null || result.isEmpty()) {
+      throw new DataAccessResourceFailureException("Redis access token check returned no result");
+    }
+    if (toLong(result.get(0)) == 1L) {
+      return AccessTokenState.BLACKLISTED;
+    }
+    boolean userDeleted = result.size() > 7 && result.get(7) != null;
+    return new AccessTokenState(false, toLongOrNull(result.get(1)),
+        userDeleted ? null : snapshot(jwtSubject, result), userDeleted);
+  }
+
+  /**
+   * Writes the snapshot of a User whose state has just changed, replacing the previous one.
+   *
+   * @param snapshot committed User state
+   * @param ttl snapshot lifetime
+   */
+  public void save(PrincipalSnapshot snapshot, Duration ttl) {
+    save(snapshot, ttl, true);
+  }
+
+  /**
+   * Writes the snapshot loaded after a miss unless another write got there first.
+   *
+   * <p>A snapshot written after a state change is never replaced by an older read.
+   *
+   * @param snapshot User state read from the User store
+   * @param ttl snapshot lifetime
+   * @return {@code true} if the snapshot was written
+   */
+  public boolean saveIfAbsent(PrincipalSnapshot snapshot, Duration ttl) {
+    return save(snapshot, ttl, false);
+  }
+
+  /**
+   * Replaces the snapshot of a User that has just been deleted with a tombstone.
+   *
+   * @param jwtSubject JWT Subject
+   * @param ttl tombstone lifetime
+   */
+  public void saveTombstone(String jwtSubject, Duration ttl) {
+    write(jwtSubject, ttl, true, DELETED_FIELD, "1");
+  }
+
+  /**
+   * Records a User that was not found unless a snapshot was written in the meantime.
+   *
+   * @param jwtSubject JWT Subject
+   * @param ttl tombstone lifetime
+   * @return {@code true} if the tombstone was written
+   */
+  public boolean saveTombstoneIfAbsent(String jwtSubject, Duration ttl) {
+    return write(jwtSubject, ttl, false, DELETED_FIELD, "1");
+  }
+
+  /**
+   * Deletes the snapshot of a User.
+   *
+   * @param jwtSubject JWT Subject
+   */
+  public void delete(String jwtSubject) {
+    redisTemplate.delete(snapshotKey(jwtSubject));
+  }
+
+  private boolean save(PrincipalSnapshot snapshot, Duration ttl, boolean overwrite) {
+    return write(snapshot.jwtSubject(), ttl, overwrite,
+        "id", String.valueOf(snapshot.id()),
+        "nickname", snapshot.nickname() == null ? "" : snapshot.nickname(),
+        "enabled", snapshot.enabled() ? "1" : "0",
+        "accountNonLocked", snapshot.accountNonLocked() ? "1" : "0",
+        "roles", String.join(ROLE_SEPARATOR, snapshot.roles()));
+  }
+
+  private boolean write(String jwtSubject, Duration ttl, boolean overwrite, String... fields) {
+    Object[] args = new Object[fields.length + 2];
+    args[0] = String.valueOf(ttl.toSeconds());
+    args[1] = overwrite ? "1" : "0";
+    System.arraycopy(fields, 0, args, 2, fields.length);
+    Long written = redisTemplate.execute(
+        SAVE_SNAPSHOT_SCRIPT, List.of(snapshotKey(jwtSubject)), args);
+    return written != null && written == 1L;
+  }
+
+  private static PrincipalSnapshot snapshot(String jwtSubject, List<?> result) {
+    if (result.size() < 7 || result.get(2) == null) {
+      return null;
+    }
+    String roles = (String) result.get(6);
+    return new PrincipalSnapshot(
+        Long.valueOf((String) result.get(2)),
+        jwtSubject,
+        (String) result.get(3),
+        "1".equals(result.get(4)),
+        "1".equals(result.get(5)),
+        roles == null || roles.isEmpty()
+            ? List.of()
+            : Arrays.asList(roles.split(ROLE_SEPARATOR)));
+  }
+
+  private static long toLong(Object value) {
+    return value instanceof Number number ? number.longValue() : Long.parseLong((String) value);
+  }
+
+  private static Long toLongOrNull(Object value) {
+    return value == null ? null : toLong(value);
+  }
+
+  private static String snapshotKey(String jwtSubject) {
+    return SNAPSHOT_PREFIX + jwtSubject;
+  }
+
+  private static <T> RedisScript<T> createScript(String location, Class<T> resultType) {
+    DefaultRedisScript<T> script = new DefaultRedisScript<>();
+    script.setLocation(new ClassPathResource(location));
+    script.setResultType(resultType);
+    return script;
+  }
+
+  /**
+   * Result of the combined Access Token check.
+   *
+   * @param blacklisted whether the Access Token is on the Logout Blacklist or was issued no later
+   *     than a revocation watermark
+   * @param epochSecond security epoch of the User, or {@code null}
+   * @param snapshot principal snapshot of the User, or {@code null} when not in Redis
+   * @param userDeleted whether Redis holds a tombstone for the User
+   */
+  public record AccessTokenState(
+      boolean blacklisted, Long epochSecond, PrincipalSnapshot snapshot, boolean userDeleted) {
+
+    static final AccessTokenState BLACKLISTED = new AccessTokenState(true, null, null, false);
+  }
+}
@@ -0,0 +1,56 @@
+package org.example.repository;
+
+import java.time.Duration;
+import java.util.Optional;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Redis repository for per-User security epochs.
+ *
+ * <p>The epoch is the epoch second of the User's last lock, unlock or role change. Access Tokens
+ * issued before it no longer describe the User and are rejected in claims-only authentication.
+ * Each key only needs to live as long as the Access Tokens it invalidates.
+ */
+@Repository
+public class SecurityEpochRedisRepository {
+
+  private static final String EPOCH_PREFIX = "auth:user:epoch:";
+
+  private final StringRedisTemplate redisTemplate;
+
+  /**
+   * Creates a repository backed by the given Redis template.
+   *
+   * @param redisTemplate Redis string template
+   */
+  public SecurityEpochRedisRepository(StringRedisTemplate redisTemplate) {
+    this.redisTemplate = redisTemplate;
+  }
+
+  /**
+   * Stores the security epoch of a User.
+   *
+   * @param jwtSubject JWT Subject
+   * @param epochSecond epoch second of the state change
+   * @param ttl how long tokens issued before the epoch can still be presented
+   */
+  public void save(String jwtSubject, long epochSecond, Duration ttl) {
+    redisTemplate.opsForValue().set(epochKey(jwtSubject), Long.toString(epochSecond), ttl);
+  }
+
+  /**
+   * Returns the security epoch of a User.
+   *
+   * @param jwtSubject JWT Subject
+   * @return epoch second, or empty when the User has no recent state change
+   */
+  public Optional<Long> find(String jwtSubject) {
+    return Optional.ofNullable(redisTemplate.opsForValue().get(epochKey(jwtSubject)))
+        .map(Long::valueOf);
+  }
+
+  static String epochKey(String jwtSubject) {
+    return EPOCH_PREFIX + jwtSubject;
+  }
+}
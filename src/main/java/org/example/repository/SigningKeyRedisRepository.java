@@ -0,0 +1,75 @@
+package org.example.repository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Redis repository for the JWT signing keys shared by every instance.
+ *
+ * <p>Keys are stored in one hash ({@code kid} to the encoded entry) so that each instance can
+ * load the whole keyring with a single {@code HGETALL}. Each entry holds the activation time and
+ * the key material encrypted with a store key that is kept in configuration, never in Redis.
+ */
+@Repository
+public class SigningKeyRedisRepository {
+
+  private static final String SIGNING_KEYS_KEY = "auth:jwt:signing-keys";
+  private static final String ROTATION_LOCK_KEY = "auth:jwt:signing-keys:rotation-lock";
+
+  private final StringRedisTemplate redisTemplate;
+
+  /**
+   * Creates a repository backed by the given Redis template.
+   *
+   * @param redisTemplate Redis string template
+   */
+  public SigningKeyRedisRepository(StringRedisTemplate redisTemplate) {
+    this.redisTemplate = redisTemplate;
+  }
+
+  /**
+   * Returns every stored signing key.
+   *
+   * @return encoded entries by {@code kid}
+   */
+  public Map<String, String> findAll() {
+    return new HashMap<>(
+        redisTemplate.<String, String>opsForHash().entries(SIGNING_KEYS_KEY));
+  }
+
+  /**
+   * Stores a signing key.
+   *
+   * @param keyId {@code kid}
+   * @param entry encoded entry
+   */
+  public void save(String keyId, String entry) {
+    redisTemplate.opsForHash().put(SIGNING_KEYS_KEY, keyId, entry);
+  }
+
+  /**
+   * Deletes retired signing keys.
+   *
+   * @param keyIds {@code kid}s to delete
+   */
+  public void deleteAll(Collection<String> keyIds) {
+    if (!keyIds.isEmpty()) {
+      redisTemplate.opsForHash().delete(SIGNING_KEYS_KEY, keyIds.toArray());
+    }
+  }
+
+  /**
+   * Takes the scheduled rotation lock so that only one instance generates the next key.
+   *
+   * @param ttl lock lifetime
+   * @return {@code true} if this caller holds the lock
+   */
+  public boolean tryLockRotation(Duration ttl) {
+    return Boolean.TRUE.equals(
+        redisTemplate.opsForValue().setIfAbsent(ROTATION_LOCK_KEY, "1", ttl));
+  }
+}
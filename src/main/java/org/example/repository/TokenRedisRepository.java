@@ -1,20 +1,53 @@
 package org.example.repository;
 
-import java.util.Optional;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Repository;
 
 /**
  * Redis 기반 토큰 저장소.
  *
- * <p>Refresh Token(RT)과 Access Token Blacklist(BL)를 Redis에 저장·조회·삭제한다.
+ * <p>Refresh Token(RT)과 Access Token Blacklist(BL), 폐기 기준 시각(RB)을 Redis에 저장·조회·삭제한다.
  * TTL을 Redis에 위임하여 만료된 토큰은 자동으로 제거된다.
  *
  * <p>키 패턴:
  * <ul>
- *   <li>RT:{username} — Refresh Token 저장</li>
- *   <li>BL:{accessToken} — Blacklist 등록된 Access Token</li>
+ *   <li>RT:{username} — Refresh Token의 SHA-256 digest(43자). 토큰 원문은 저장하지 않으므로
+ *       Redis 덤프가 유출되어도 RT로 쓸 수 없다.</li>
+ *   <li>BL:{revocationId} — Blacklist 등록된 Access Token. jti(22자) 또는 jti가 없는 기존 토큰의
+ *       SHA-256 digest(43자)로, 토큰 전체를 키에 담지 않는다.</li>
+ *   <li>RB:{username}, RBID:{userId} — 사용자별 폐기 기준 시각(epoch 초). 이 시각 이하의 iat를 가진
+ *       토큰은 모두 폐기된 것으로 본다.</li>
+ *   <li>RBALL — 전체 사용자에 대한 폐기 기준 시각</li>
+ * </ul>
+ *
+ * <p>폐기 기준 시각은 토큰 수와 무관하게 대상 사용자당 키 하나만 차지한다.
+ *
+ * <p>Blacklist 등록과 폐기 기준 시각 기록은 같은 파이프라인에서 {@link #REVOCATION_CHANNEL}로도
+ * 발행되어 각 인스턴스의 로컬 복제본을 갱신한다. 메시지 형식:
+ * <ul>
+ *   <li>{@code B|{revocationId}} — Blacklist 등록</li>
+ *   <li>{@code W|{epochSecond}|{key}} — 폐기 기준 시각 기록 (key는 위의 RB 키)</li>
  * </ul>
  */
 @Repository
@@ -22,6 +55,16 @@ public class TokenRedisRepository {
 
     private static final String RT_PREFIX = "RT:";
     private static final String BL_PREFIX = "BL:";
+    private static final String RB_PREFIX = "RB:";
+    private static final String RB_ID_PREFIX = "RBID:";
+    private static final int SCAN_COUNT = 1000;
+    private static final RedisScript<Long> ROTATE_REFRESH_TOKEN_SCRIPT = createRotateScript();
+
+    /** 폐기 이벤트 pub/sub 채널. */
+    public static final String REVOCATION_CHANNEL = "auth:revocation";
+
+    /** 전체 사용자 폐기 기준 시각 키. */
+    public static final String GLOBAL_REVOCATION_KEY = "RBALL";
 
     private final StringRedisTemplate redisTemplate;
 
@@ -30,52 +73,375 @@ public class TokenRedisRepository {
     }
 
     /**
-     * Refresh Token을 Redis에 저장한다.
+     * Refresh Token의 digest를 Redis에 저장한다.
      *
      * @param username     사용자 고유 식별자 (JWT subject)
      * @param refreshToken 저장할 Refresh Token 문자열
      * @param ttlSeconds   만료 시간 (초 단위)
      */
     public void saveRefreshToken(String username, String refreshToken, long ttlSeconds) {
-        redisTemplate.opsForValue().set(RT_PREFIX + username, refreshToken, ttlSeconds, TimeUnit.SECONDS);
+        redisTemplate.opsForValue().set(RT_PREFIX + username, refreshTokenDigest(refreshToken),
+                ttlSeconds, TimeUnit.SECONDS);
     }
 
     /**
-     * 저장된 Refresh Token을 조회한다.
+     * 로그인 성공 후의 쓰기를 한 번의 파이프라인으로 보낸다.
      *
-     * @param username 사용자 고유 식별자
-     * @return 저장된 RT가 있으면 Optional.of(token), 없으면 Optional.empty()
+     * <p>Refresh Token 저장과 로그인 실패 횟수 삭제를 함께 보내므로 로그인 성공은 Redis 왕복 1회로
+     * 끝난다. 실패 기록이 없는 사용자의 DEL은 Redis에서 아무것도 바꾸지 않아 복제·AOF로도 전파되지
+     * 않는다.
+     *
+     * <p>DEL을 조건부로 보내지 않는 것은 의도된 것이다. 로그인 경로는 성공한 로그인 전에 실패 횟수를
+     * 읽지 않으며(실패 횟수는 실패 시 INCR 결과로만 얻는다), 존재 여부를 확인하려면 줄이려던 왕복이
+     * 하나 더 든다. 같은 파이프라인에 실린 DEL은 왕복을 늘리지 않는다.
+     *
+     * @param username     사용자 고유 식별자 (JWT subject)
+     * @param refreshToken 저장할 Refresh Token 문자열
+     * @param ttlSeconds   만료 시간 (초 단위)
      */
-    public Optional<String> findRefreshToken(String username) {
-        return Optional.ofNullable(redisTemplate.opsForValue().get(RT_PREFIX + username));
+    public void saveLoginSession(String username, String refreshToken, long ttlSeconds) {
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            redis.setEx(RT_PREFIX + username, ttlSeconds, refreshTokenDigest(refreshToken));
+            redis.del(LoginFailureRedisRepository.accountFailureKey(username));
+            return null;
+        });
     }
 
     /**
-     * 저장된 Refresh Token을 삭제한다.
+     * 제시된 Refresh Token이 저장된 값과 같을 때만 새 토큰으로 교체한다. (Lua 스크립트 1회)
+     *
+     * <p>폐기 기준 시각 검사, 비교, 교체가 원자적으로 수행되므로 같은 RT로 동시에 들어온 요청 중
+     * 하나만 교체에 성공하고 나머지는 {@link RotationResult#REUSED}를 받는다. 비교와 저장은
+     * digest로 한다.
      *
-     * @param username 사용자 고유 식별자
+     * <p>digest 저장 이전에 원문으로 저장된 RT도 받기 위해 제시된 원문을 함께 보낸다. 원문 RT는
+     * 모든 인스턴스가 digest를 저장하기 시작한 뒤 refresh-token-expiration(기본 7일)이 지나면
+     * 모두 만료되므로, 그 이후 배포에서 이 인자와 스크립트의 원문 비교를 제거한다.
+     *
+     * @param username       사용자 고유 식별자 (JWT subject)
+     * @param presentedToken 클라이언트가 제시한 Refresh Token
+     * @param newToken       새로 발급한 Refresh Token
+     * @param ttlSeconds     새 RT 만료 시간 (초 단위)
+     * @param issuedAt       제시된 RT의 iat (epoch 초), 없으면 -1
+     * @return 교체 결과
      */
-    public void deleteRefreshToken(String username) {
-        redisTemplate.delete(RT_PREFIX + username);
+    public RotationResult rotateRefreshToken(String username, String presentedToken,
+                                             String newToken, long ttlSeconds, long issuedAt) {
+        Long result = redisTemplate.execute(ROTATE_REFRESH_TOKEN_SCRIPT,
+                List.of(RT_PREFIX + username, revocationKey(username), GLOBAL_REVOCATION_KEY),
+                refreshTokenDigest(presentedToken), refreshTokenDigest(newToken),
+                Long.toString(ttlSeconds), Long.toString(issuedAt), presentedToken);
+        if (result == null) {
+            throw new DataAccessResourceFailureException(
+                    "Redis refresh token rotation returned no result");
+        }
+        return RotationResult.values()[result.intValue()];
     }
 
     /**
-     * Access Token을 Blacklist에 등록한다.
+     * 로그아웃: Refresh Token 삭제와 Access Token Blacklist 등록을 한 번의 파이프라인으로 보낸다.
+     *
+     * <p>Redis는 한 연결의 명령을 보낸 순서대로 실행하므로 Blacklist 등록을 먼저 보내고 RT 삭제(DEL)를
+     * 마지막에 보낸다. 파이프라인은 트랜잭션이 아니지만, 중간에 연결이 끊기더라도 RT만 지워지고
+     * AT는 계속 유효한 상태는 남지 않는다. Blacklist 등록을 확인하지 못하면 예외를 던지고,
+     * 클라이언트는 로그아웃을 다시 시도할 수 있다.
      *
-     * @param accessToken        블랙리스트에 등록할 AT 문자열
+     * @param username           사용자 고유 식별자 (JWT subject)
+     * @param revocationId       블랙리스트에 등록할 AT의 식별자, 이미 만료된 AT라면 {@code null}
      * @param remainingTtlMillis AT의 남은 유효 시간 (밀리초 단위)
+     * @return 명령별 결과
+     */
+    public LogoutResult logout(String username, String revocationId, long remainingTtlMillis) {
+        boolean blacklist = revocationId != null && remainingTtlMillis > 0;
+        List<Object> results = redisTemplate.executePipelined(
+                (RedisCallback<Object>) connection -> {
+                    StringRedisConnection redis = (StringRedisConnection) connection;
+                    if (blacklist) {
+                        redis.pSetEx(blacklistKey(revocationId), remainingTtlMillis, "1");
+                        redis.publish(REVOCATION_CHANNEL, "B|" + revocationId);
+                    }
+                    redis.del(RT_PREFIX + username);
+                    return null;
+                });
+        boolean refreshTokenDeleted =
+                results.get(results.size() - 1) instanceof Long deleted && deleted > 0;
+        if (blacklist && !Boolean.TRUE.equals(results.get(0))) {
+            throw new DataAccessResourceFailureException(
+                    "Redis did not confirm the access token blacklist entry");
+        }
+        return new LogoutResult(refreshTokenDeleted, blacklist);
+    }
+
+    /**
+     * Blacklist 등록 여부와 사용자·전체 폐기 기준 시각을 한 번의 MGET으로 조회한다.
+     *
+     * @param revocationId AT의 식별자 ({@code VerifiedToken#revocationId()})
+     * @param username     JWT subject
+     * @return Blacklist 등록 여부와 폐기 기준 시각
+     */
+    public RevocationState findRevocationState(String revocationId, String username) {
+        return findRevocationState(revocationId, revocationKey(username));
+    }
+
+    /**
+     * subject 대신 숫자 User id를 담은 압축 AT의 폐기 상태를 조회한다.
+     *
+     * @param revocationId AT의 식별자
+     * @param userId       User id
+     * @return Blacklist 등록 여부와 폐기 기준 시각
+     */
+    public RevocationState findRevocationStateById(String revocationId, Long userId) {
+        return findRevocationState(revocationId, revocationIdKey(userId));
+    }
+
+    /**
+     * 여러 AT의 폐기 상태를 한 번의 MGET으로 조회한다. (동시 요청 묶음 조회용)
+     *
+     * @param lookups 조회할 AT 목록
+     * @return lookups와 같은 순서의 폐기 상태
+     */
+    public List<RevocationState> findRevocationStates(List<RevocationLookup> lookups) {
+        List<String> keys = new ArrayList<>(lookups.size() * 2 + 1);
+        for (RevocationLookup lookup : lookups) {
+            keys.add(blacklistKey(lookup.revocationId()));
+            keys.add(lookup.revocationKey());
+        }
+        keys.add(GLOBAL_REVOCATION_KEY);
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+
+        List<RevocationState> states = new ArrayList<>(lookups.size());
+        String global = values == null ? null : values.get(keys.size() - 1);
+        for (int i = 0; i < lookups.size(); i++) {
+            if (values == null) {
+                states.add(RevocationState.NONE);
+                continue;
+            }
+            states.add(new RevocationState(values.get(i * 2) != null,
+                    latest(Arrays.asList(values.get(i * 2 + 1), global), 0)));
+        }
+        return states;
+    }
+
+    /**
+     * 사용자들의 폐기 기준 시각을 기록하고 Refresh Token을 삭제한다. (파이프라인 한 번)
+     *
+     * @param usernames        JWT subject 목록
+     * @param userIds          압축 AT용 User id 목록
+     * @param epochSecond      폐기 기준 시각 (epoch 초)
+     * @param ttlSeconds       기준 시각 보관 시간 (가장 긴 토큰 수명 이상)
+     */
+    public void revokeUsers(Collection<String> usernames, Collection<Long> userIds,
+                            long epochSecond, long ttlSeconds) {
+        String value = Long.toString(epochSecond);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            for (String username : usernames) {
+                setWatermark(redis, revocationKey(username), value, ttlSeconds);
+                redis.del(RT_PREFIX + username);
+            }
+            for (Long userId : userIds) {
+                setWatermark(redis, revocationIdKey(userId), value, ttlSeconds);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 전체 사용자의 폐기 기준 시각을 기록한다.
+     *
+     * @param epochSecond 폐기 기준 시각 (epoch 초)
+     * @param ttlSeconds  기준 시각 보관 시간 (가장 긴 토큰 수명 이상)
+     */
+    public void revokeAll(long epochSecond, long ttlSeconds) {
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            setWatermark((StringRedisConnection) connection,
+                    GLOBAL_REVOCATION_KEY, Long.toString(epochSecond), ttlSeconds);
+            return null;
+        });
+    }
+
+    /**
+     * Blacklist에 등록된 모든 AT 식별자를 SCAN으로 읽는다. (로컬 복제본 재구성용)
+     *
+     * @return 등록된 revocationId 집합
+     */
+    public Set<String> findBlacklistedIds() {
+        Set<String> ids = new HashSet<>();
+        for (String key : scan(BL_PREFIX + "*")) {
+            ids.add(key.substring(BL_PREFIX.length()));
+        }
+        return ids;
+    }
+
+    /**
+     * 모든 폐기 기준 시각을 SCAN과 MGET으로 읽는다. (로컬 복제본 재구성용)
+     *
+     * @return Redis 키별 폐기 기준 시각(epoch 초)
+     */
+    public Map<String, Long> findRevocationWatermarks() {
+        List<String> keys = scan("RB*");
+        Map<String, Long> watermarks = new HashMap<>();
+        if (keys.isEmpty()) {
+            return watermarks;
+        }
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+        for (int i = 0; values != null && i < keys.size(); i++) {
+            // SCAN과 MGET 사이에 만료된 키는 값이 없다.
+            if (values.get(i) != null) {
+                watermarks.put(keys.get(i), Long.valueOf(values.get(i)));
+            }
+        }
+        return watermarks;
+    }
+
+    private List<String> scan(String pattern) {
+        List<String> keys = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(SCAN_COUNT).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            cursor.forEachRemaining(keys::add);
+        }
+        return keys;
+    }
+
+    /**
+     * Refresh Token의 unpadded base64url SHA-256 digest. (43자)
+     */
+    private static String refreshTokenDigest(String refreshToken) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(refreshToken.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static RedisScript<Long> createRotateScript() {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource("redis/rotate-refresh-token.lua"));
+        script.setResultType(Long.class);
+        return script;
+    }
+
+    private static void setWatermark(
+            StringRedisConnection redis, String key, String epochSecond, long ttlSeconds) {
+        redis.setEx(key, ttlSeconds, epochSecond);
+        redis.publish(REVOCATION_CHANNEL, "W|" + epochSecond + "|" + key);
+    }
+
+    private RevocationState findRevocationState(String revocationId, String revocationKey) {
+        List<String> values = redisTemplate.opsForValue().multiGet(
+                List.of(blacklistKey(revocationId), revocationKey, GLOBAL_REVOCATION_KEY));
+        if (values == null) {
+            return RevocationState.NONE;
+        }
+        return new RevocationState(values.get(0) != null, latest(values, 1));
+    }
+
+    private static Long latest(List<String> values, int from) {
+        Long latest = null;
+        for (int i = from; values != null && i < values.size(); i++) {
+            if (values.get(i) != null) {
+                long value = Long.parseLong(values.get(i));
+                latest = latest == null ? value : Math.max(latest, value);
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Blacklist 키를 만든다. (다른 저장소의 복합 조회 스크립트와 공유)
+     *
+     * @param revocationId AT의 식별자
+     * @return Redis 키
+     */
+    static String blacklistKey(String revocationId) {
+        return BL_PREFIX + revocationId;
+    }
+
+    /**
+     * 사용자 폐기 기준 시각 키를 만든다. (복합 조회 스크립트와 로컬 복제본에서 공유)
+     *
+     * @param username JWT subject
+     * @return Redis 키
+     */
+    public static String revocationKey(String username) {
+        return RB_PREFIX + username;
+    }
+
+    /**
+     * 숫자 User id용 폐기 기준 시각 키를 만든다.
+     *
+     * @param userId User id
+     * @return Redis 키
+     */
+    public static String revocationIdKey(Long userId) {
+        return RB_ID_PREFIX + userId;
+    }
+
+    /**
+     * 로그아웃 파이프라인의 명령별 결과.
+     *
+     * @param refreshTokenDeleted    삭제할 RT가 있었는지
+     * @param accessTokenBlacklisted AT를 Blacklist에 등록했는지 (만료된 AT는 등록하지 않는다)
      */
-    public void addToBlacklist(String accessToken, long remainingTtlMillis) {
-        redisTemplate.opsForValue().set(BL_PREFIX + accessToken, "blacklisted", remainingTtlMillis, TimeUnit.MILLISECONDS);
+    public record LogoutResult(boolean refreshTokenDeleted, boolean accessTokenBlacklisted) {
     }
 
     /**
-     * Access Token이 Blacklist에 등록되어 있는지 확인한다.
+     * Refresh Token 교체 결과. (스크립트 반환값 순서)
+     */
+    public enum RotationResult {
+        /** 교체됨. */
+        ROTATED,
+        /** 저장된 RT가 없음 (만료 또는 로그아웃). */
+        MISSING,
+        /** 저장된 RT와 다름 (이미 교체된 RT의 재사용). */
+        REUSED,
+        /** 폐기 기준 시각 이전에 발급됨. */
+        REVOKED
+    }
+
+    /**
+     * 묶음 조회할 Access Token.
+     *
+     * @param revocationId  AT의 식별자
+     * @param revocationKey 사용자 폐기 기준 시각 키
+     */
+    public record RevocationLookup(String revocationId, String revocationKey) {
+
+        /**
+         * JWT subject를 담은 AT의 조회 대상을 만든다.
+         *
+         * @param revocationId AT의 식별자
+         * @param username     JWT subject
+         * @return 조회 대상
+         */
+        public static RevocationLookup forSubject(String revocationId, String username) {
+            return new RevocationLookup(revocationId, revocationKey(username));
+        }
+
+        /**
+         * 숫자 User id를 담은 압축 AT의 조회 대상을 만든다.
+         *
+         * @param revocationId AT의 식별자
+         * @param userId       User id
+         * @return 조회 대상
+         */
+        public static RevocationLookup forUserId(String revocationId, Long userId) {
+            return new RevocationLookup(revocationId, revocationIdKey(userId));
+        }
+    }
+
+    /**
+     * Access Token의 폐기 상태.
      *
-     * @param accessToken 검사할 AT 문자열
-     * @return Blacklist에 있으면 true, 없으면 false
+     * @param blacklisted    Blacklist 등록 여부
+     * @param revokedThrough 사용자·전체 폐기 기준 시각 중 늦은 쪽(epoch 초), 없으면 {@code null}
      */
-    public boolean isBlacklisted(String accessToken) {
-        return Boolean.TRUE.equals(redisTemplate.hasKey(BL_PREFIX + accessToken));
+    public record RevocationState(boolean blacklisted, Long revokedThrough) {
+
+        static final RevocationState NONE = new RevocationState(false, null);
     }
 }
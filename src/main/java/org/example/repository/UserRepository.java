@@ -1,9 +1,13 @@
 package org.example.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.example.domain.entity.AuthProvider;
 import org.example.domain.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 /**
  * 사용자 데이터 접근 레포지토리.
@@ -40,4 +44,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
    * @return 해당 이메일을 가진 User (없으면 Optional.empty())
    */
   Optional<User> findByEmail(String email);
+
+  /**
+   * 로그인 ID 목록에 해당하는 사용자 ID만 한 번의 쿼리로 조회한다.
+   * 토큰 일괄 폐기 시 숫자 User id를 담은 Access Token까지 폐기하는 데 사용된다.
+   *
+   * @param usernames 로그인 ID 목록
+   * @return 존재하는 사용자의 ID 목록
+   */
+  @Query("select u.id from User u where u.username in :usernames")
+  List<Long> findIdsByUsernameIn(@Param("usernames") Collection<String> usernames);
 }
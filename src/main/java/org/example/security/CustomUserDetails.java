@@ -1,7 +1,6 @@
 package org.example.security;
 
 import java.util.Collection;
-import java.util.stream.Collectors;
 import org.example.domain.entity.User;
 import org.example.security.authenticated.AuthenticatedUser;
 import org.springframework.security.core.GrantedAuthority;
@@ -23,16 +22,30 @@ public class CustomUserDetails implements UserDetails, AuthenticatedUser {
   private final Collection<? extends GrantedAuthority> authorities;
 
   public CustomUserDetails(User user) {
+    this(user, user.getPassword());
+  }
+
+  private CustomUserDetails(User user, String password) {
     this.id = user.getId();
     this.username = user.getUsername();
-    this.password = user.getPassword();
+    this.password = password;
     this.nickname = user.getNickname();
     this.enabled = user.isEnabled();
     this.accountNonLocked = user.isAccountNonLocked();
     // Entity의 Role 정보를 Security의 GrantedAuthority로 변환
     this.authorities = user.getRoles().stream()
         .map(role -> new SimpleGrantedAuthority(role.getName()))
-        .collect(Collectors.toList());
+        .toList();
+  }
+
+  /**
+   * 비밀번호 해시 없이 유저 정보를 만든다.
+   *
+   * <p>요청 인증용 principal은 캐시·보안 컨텍스트에 남으므로 비밀번호 확인이 필요 없는 곳에서 쓴다.
+   * {@link #getPassword()}는 {@code null}을 반환한다.
+   */
+  public static CustomUserDetails withoutPassword(User user) {
+    return new CustomUserDetails(user, null);
   }
 
   /** 사용자 고유 ID 반환 (JWT 토큰 처리 등에 활용) */
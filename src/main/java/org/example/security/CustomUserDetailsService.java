@@ -1,5 +1,6 @@
 package org.example.security;
 
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.example.domain.entity.User;
 import org.example.repository.UserRepository;
@@ -28,4 +29,31 @@ public class CustomUserDetailsService implements UserDetailsService {
     // 조정한 User 정보를 CustomUserDetails로 변환하여 반환
     return new CustomUserDetails(user);
   }
+
+  /**
+   * username으로 사용자 정보를 조회한다. 없으면 예외 대신 빈 값을 반환한다.
+   *
+   * <p>삭제된 User의 토큰처럼 조회 실패가 잦은 요청 경로에서 사용한다. 결과는 principal 캐시에
+   * 남을 수 있으므로 비밀번호 해시를 담지 않는다.
+   *
+   * @param username JWT Subject
+   * @return 비밀번호를 뺀 사용자 정보, 없으면 empty
+   */
+  @Transactional(readOnly = true)
+  public Optional<UserDetails> findByUsername(String username) {
+    return userRepository.findByUsername(username).map(CustomUserDetails::withoutPassword);
+  }
+
+  /**
+   * User id로 사용자 정보를 조회한다. 없으면 예외 대신 빈 값을 반환한다.
+   *
+   * <p>{@link #findByUsername(String)}과 같이 비밀번호 해시를 담지 않는다.
+   *
+   * @param userId 서비스 User id
+   * @return 비밀번호를 뺀 사용자 정보, 없으면 empty
+   */
+  @Transactional(readOnly = true)
+  public Optional<UserDetails> findById(Long userId) {
+    return userRepository.findById(userId).map(CustomUserDetails::withoutPassword);
+  }
 }
@@ -0,0 +1,86 @@
+package org.example.security.account;
+
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.AbstractUserDetailsAuthenticationProvider;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Password authentication that reuses a User loaded by the caller.
+ *
+ * <p>For a {@link PreloadedUserAuthenticationToken} the User is taken from the token, so a login
+ * that already loaded the User for the Account Lock check does not query it again. Other username
+ * and password requests load the User through the {@link UserDetailsService} like the default
+ * provider this one replaces.
+ *
+ * <p>Like {@code DaoAuthenticationProvider}, a missing User is rejected only after the presented
+ * password is checked against a dummy hash encoded at startup, so the response time does not tell
+ * whether the username exists.
+ */
+@Component
+public class PreloadedUserAuthenticationProvider extends AbstractUserDetailsAuthenticationProvider {
+
+  private static final String USER_NOT_FOUND_PASSWORD = "userNotFoundPassword";
+
+  private final UserDetailsService userDetailsService;
+  private final PasswordEncoder passwordEncoder;
+  private final String userNotFoundEncodedPassword;
+
+  /**
+   * Creates the provider.
+   *
+   * @param userDetailsService loads Users for requests without a preloaded User
+   * @param passwordEncoder encoder the stored passwords were hashed with
+   */
+  public PreloadedUserAuthenticationProvider(
+      UserDetailsService userDetailsService,
+      PasswordEncoder passwordEncoder) {
+    this.userDetailsService = userDetailsService;
+    this.passwordEncoder = passwordEncoder;
+    this.userNotFoundEncodedPassword = passwordEncoder.encode(USER_NOT_FOUND_PASSWORD);
+  }
+
+  @Override
+  protected UserDetails retrieveUser(
+      String username, UsernamePasswordAuthenticationToken authentication) {
+    if (authentication instanceof PreloadedUserAuthenticationToken preloaded) {
+      if (preloaded.getPreloadedUser() == null) {
+        throw userNotFound(authentication, null);
+      }
+      return preloaded.getPreloadedUser();
+    }
+    try {
+      return userDetailsService.loadUserByUsername(username);
+    } catch (UsernameNotFoundException e) {
+      throw userNotFound(authentication, e);
+    }
+  }
+
+  @Override
+  protected void additionalAuthenticationChecks(
+      UserDetails userDetails, UsernamePasswordAuthenticationToken authentication) {
+    Object credentials = authentication.getCredentials();
+    if (credentials == null
+        || !passwordEncoder.matches(credentials.toString(), userDetails.getPassword())) {
+      throw new BadCredentialsException(messages.getMessage(
+          "AbstractUserDetailsAuthenticationProvider.badCredentials", "Bad credentials"));
+    }
+  }
+
+  /**
+   * Spends one password check on the dummy hash, then rejects the request as bad credentials.
+   */
+  private BadCredentialsException userNotFound(
+      UsernamePasswordAuthenticationToken authentication, UsernameNotFoundException cause) {
+    Object credentials = authentication.getCredentials();
+    if (credentials != null) {
+      passwordEncoder.matches(credentials.toString(), userNotFoundEncodedPassword);
+    }
+    return new BadCredentialsException(messages.getMessage(
+        "AbstractUserDetailsAuthenticationProvider.badCredentials", "Bad credentials"), cause);
+  }
+}
@@ -0,0 +1,50 @@
+package org.example.security.account;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Login request that carries the User already loaded by the caller.
+ *
+ * <p>{@link PreloadedUserAuthenticationProvider} checks the password against this snapshot instead
+ * of loading the User again. A request for a username the caller did not find carries no User and
+ * is rejected after the same password hashing work.
+ */
+public class PreloadedUserAuthenticationToken extends UsernamePasswordAuthenticationToken {
+
+  private final transient UserDetails preloadedUser;
+
+  /**
+   * Creates an unauthenticated login request.
+   *
+   * @param preloadedUser User loaded for this login
+   * @param credentials presented password
+   */
+  public PreloadedUserAuthenticationToken(UserDetails preloadedUser, Object credentials) {
+    this(preloadedUser.getUsername(), preloadedUser, credentials);
+  }
+
+  private PreloadedUserAuthenticationToken(
+      String username, UserDetails preloadedUser, Object credentials) {
+    super(username, credentials);
+    this.preloadedUser = preloadedUser;
+  }
+
+  /**
+   * Creates a login request for a username the caller found no User for.
+   *
+   * @param username presented username
+   * @param credentials presented password
+   */
+  public static PreloadedUserAuthenticationToken forMissingUser(
+      String username, Object credentials) {
+    return new PreloadedUserAuthenticationToken(username, null, credentials);
+  }
+
+  /**
+   * Returns the User loaded for this login, or {@code null} if none was found.
+   */
+  public UserDetails getPreloadedUser() {
+    return preloadedUser;
+  }
+}
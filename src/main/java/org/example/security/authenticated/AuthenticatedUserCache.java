@@ -0,0 +1,206 @@
+package org.example.security.authenticated;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.function.Function;
+import org.example.domain.event.UserStateChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Bounded in-process cache of Authenticated User principals.
+ *
+ * <p>Principals are cached by JWT Subject (and by User id for compact tokens that carry the
+ * numeric id) whatever their state; whether the User is active is checked on every read. Each
+ * entry lives at most {@code ttl}, and is dropped as soon as a {@link UserStateChangedEvent}
+ * (lock, unlock, role change) commits.
+ *
+ * <p>A lookup that finds no User leaves a tombstone for {@code negativeTtl}, so tokens of a
+ * deleted User are rejected without a User store query until the tombstone expires or a User
+ * with that JWT Subject is created. Lookups that throw are never cached.
+ */
+@Component
+public class AuthenticatedUserCache implements MeterBinder {
+
+  private static final String SUBJECT_CACHE_NAME = "auth.principal.subject";
+  private static final String ID_CACHE_NAME = "auth.principal.id";
+  private static final String MISSING_SUBJECT_CACHE_NAME = "auth.principal.missing-subject";
+  private static final String MISSING_ID_CACHE_NAME = "auth.principal.missing-id";
+
+  private final Cache<String, AuthenticatedUser> bySubject;
+  private final Cache<Long, AuthenticatedUser> byId;
+  private final Cache<String, Boolean> missingSubjects;
+  private final Cache<Long, Boolean> missingIds;
+
+  /**
+   * Creates the cache from {@code auth.principal-cache.*} settings.
+   *
+   * @param enabled whether principals are cached
+   * @param maximumSize maximum number of cached principals per key type
+   * @param ttl maximum time a principal is served without reloading
+   * @param negativeTtl how long a missing User is rejected without a lookup; zero disables
+   */
+  @Autowired
+  public AuthenticatedUserCache(
+      @Value("${auth.principal-cache.enabled:false}") boolean enabled,
+      @Value("${auth.principal-cache.maximum-size:10000}") long maximumSize,
+      @Value("${auth.principal-cache.ttl:60s}") Duration ttl,
+      @Value("${auth.principal-cache.negative-ttl:30s}") Duration negativeTtl) {
+    boolean negative = enabled && negativeTtl.isPositive();
+    this.bySubject = enabled ? buildCache(maximumSize, ttl) : null;
+    this.byId = enabled ? buildCache(maximumSize, ttl) : null;
+    this.missingSubjects = negative ? buildCache(maximumSize, negativeTtl) : null;
+    this.missingIds = negative ? buildCache(maximumSize, negativeTtl) : null;
+  }
+
+  /**
+   * Creates a cache that does not remember missing Users.
+   */
+  public AuthenticatedUserCache(boolean enabled, long maximumSize, Duration ttl) {
+    this(enabled, maximumSize, ttl, Duration.ZERO);
+  }
+
+  /**
+   * Returns a cache that always delegates to the loader.
+   */
+  public static AuthenticatedUserCache disabled() {
+    return new AuthenticatedUserCache(false, 0L, Duration.ZERO);
+  }
+
+  /**
+   * Returns the cached principal for the JWT Subject, or loads and caches it.
+   *
+   * <p>Exceptions thrown by the loader propagate unchanged and are never cached.
+   *
+   * @param jwtSubject JWT Subject
+   * @param loader loads the principal from the User store; returns {@code null} if missing
+   * @return principal, possibly inactive, or {@code null} if the User does not exist
+   */
+  public AuthenticatedUser getBySubject(
+      String jwtSubject, Function<String, AuthenticatedUser> loader) {
+    if (bySubject == null || jwtSubject == null) {
+      return loader.apply(jwtSubject);
+    }
+    return get(bySubject, missingSubjects, jwtSubject, loader);
+  }
+
+  /**
+   * Returns the cached principal for the User id, or loads and caches it.
+   *
+   * @param userId User id
+   * @param loader loads the principal from the User store; returns {@code null} if missing
+   * @return principal, possibly inactive, or {@code null} if the User does not exist
+   */
+  public AuthenticatedUser getById(Long userId, Function<Long, AuthenticatedUser> loader) {
+    if (byId == null || userId == null) {
+      return loader.apply(userId);
+    }
+    return get(byId, missingIds, userId, loader);
+  }
+
+  /**
+   * Drops the cached principals and tombstones of one User.
+   *
+   * @param userId User id, or {@code null} if unknown
+   * @param jwtSubject JWT Subject, or {@code null} if unknown
+   */
+  public void invalidate(Long userId, String jwtSubject) {
+    if (bySubject == null) {
+      return;
+    }
+    if (jwtSubject != null) {
+      bySubject.invalidate(jwtSubject);
+      if (missingSubjects != null) {
+        missingSubjects.invalidate(jwtSubject);
+      }
+    }
+    if (userId != null) {
+      byId.invalidate(userId);
+      if (missingIds != null) {
+        missingIds.invalidate(userId);
+      }
+    }
+  }
+
+  /**
+   * Drops every cached principal.
+   */
+  public void invalidateAll() {
+    if (bySubject != null) {
+      bySubject.invalidateAll();
+      byId.invalidateAll();
+    }
+    if (missingSubjects != null) {
+      missingSubjects.invalidateAll();
+      missingIds.invalidateAll();
+    }
+  }
+
+  /**
+   * Drops the principal of a User whose lock state or roles changed, or who was just created.
+   *
+   * <p>Runs after the change commits so that a concurrent reload cannot cache the old row;
+   * without a transaction it runs immediately.
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserStateChanged(UserStateChangedEvent event) {
+    invalidate(event.userId(), event.username());
+  }
+
+  /**
+   * Returns hit, miss and eviction counts of the JWT Subject cache. Empty when disabled.
+   */
+  public CacheStats stats() {
+    return bySubject == null ? CacheStats.empty() : bySubject.stats();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    if (bySubject == null) {
+      return;
+    }
+    CaffeineCacheMetrics.monitor(registry, bySubject, SUBJECT_CACHE_NAME);
+    CaffeineCacheMetrics.monitor(registry, byId, ID_CACHE_NAME);
+    if (missingSubjects != null) {
+      CaffeineCacheMetrics.monitor(registry, missingSubjects, MISSING_SUBJECT_CACHE_NAME);
+      CaffeineCacheMetrics.monitor(registry, missingIds, MISSING_ID_CACHE_NAME);
+    }
+    Gauge.builder("auth.principal-cache.hit-ratio", this, cache -> cache.hitRatio())
+        .description("Authenticated User principal cache hit ratio (all key types)")
+        .register(registry);
+  }
+
+  private double hitRatio() {
+    CacheStats stats = bySubject.stats().plus(byId.stats());
+    return stats.requestCount() == 0 ? 0.0 : stats.hitRate();
+  }
+
+  private static <K> AuthenticatedUser get(
+      Cache<K, AuthenticatedUser> principals, Cache<K, Boolean> missing, K key,
+      Function<K, AuthenticatedUser> loader) {
+    if (missing != null && missing.getIfPresent(key) != null) {
+      return null;
+    }
+    AuthenticatedUser principal = principals.get(key, loader);
+    if (principal == null && missing != null) {
+      missing.put(key, Boolean.TRUE);
+    }
+    return principal;
+  }
+
+  private static <K, V> Cache<K, V> buildCache(long maximumSize, Duration ttl) {
+    return Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(ttl)
+        .recordStats()
+        .build();
+  }
+}
@@ -11,4 +11,9 @@ public interface AuthenticatedUserService {
    * Finds an enabled and unlocked Authenticated User by JWT Subject.
    */
   Optional<AuthenticatedUser> findActiveUserByJwtSubject(String jwtSubject);
+
+  /**
+   * Finds an enabled and unlocked Authenticated User by service User id.
+   */
+  Optional<AuthenticatedUser> findActiveUserById(Long userId);
 }
@@ -1,24 +1,62 @@
 package org.example.security.authenticated;
 
 import java.util.Optional;
-import lombok.RequiredArgsConstructor;
 import org.example.security.CustomUserDetailsService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 /**
  * Enforces User state before a Protected API request is authenticated.
+ *
+ * <p>Principals are served from {@link AuthenticatedUserCache} so that a request does not need a
+ * User store round trip; the active check runs on every call against the cached snapshot.
+ * A missing User is answered with an empty result rather than an exception, and is remembered
+ * by the cache for a short while.
  */
 @Service
-@RequiredArgsConstructor
 public class AuthenticatedUserServiceImpl implements AuthenticatedUserService {
 
   private final CustomUserDetailsService customUserDetailsService;
+  private final AuthenticatedUserCache authenticatedUserCache;
+
+  @Autowired
+  public AuthenticatedUserServiceImpl(
+      CustomUserDetailsService customUserDetailsService,
+      AuthenticatedUserCache authenticatedUserCache) {
+    this.customUserDetailsService = customUserDetailsService;
+    this.authenticatedUserCache = authenticatedUserCache;
+  }
+
+  /**
+   * Creates a service that loads the User on every call.
+   */
+  public AuthenticatedUserServiceImpl(CustomUserDetailsService customUserDetailsService) {
+    this(customUserDetailsService, AuthenticatedUserCache.disabled());
+  }
 
   @Override
   public Optional<AuthenticatedUser> findActiveUserByJwtSubject(String jwtSubject) {
-    UserDetails userDetails = customUserDetailsService.loadUserByUsername(jwtSubject);
-    if (!(userDetails instanceof AuthenticatedUser authenticatedUser)) {
+    return activeUser(authenticatedUserCache.getBySubject(jwtSubject,
+        subject -> customUserDetailsService.findByUsername(subject)
+            .map(AuthenticatedUserServiceImpl::authenticatedUser)
+            .orElse(null)));
+  }
+
+  @Override
+  public Optional<AuthenticatedUser> findActiveUserById(Long userId) {
+    return activeUser(authenticatedUserCache.getById(userId,
+        id -> customUserDetailsService.findById(id)
+            .map(AuthenticatedUserServiceImpl::authenticatedUser)
+            .orElse(null)));
+  }
+
+  private static AuthenticatedUser authenticatedUser(UserDetails userDetails) {
+    return userDetails instanceof AuthenticatedUser authenticatedUser ? authenticatedUser : null;
+  }
+
+  private Optional<AuthenticatedUser> activeUser(AuthenticatedUser authenticatedUser) {
+    if (authenticatedUser == null) {
       return Optional.empty();
     }
     if (!authenticatedUser.isEnabled() || !authenticatedUser.isAccountNonLocked()) {
@@ -0,0 +1,141 @@
+package org.example.security.authenticated;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.example.security.failure.AuthFailureCode;
+import org.example.security.failure.AuthFailureException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Authenticated User built from Access Token claims, with the User loaded on demand.
+ *
+ * <p>Used by claims-only authentication once the token has passed the User's security epoch
+ * ({@link UserSecurityEpoch}), which guarantees the User was neither locked nor changed roles
+ * after the token was issued. The JWT Subject and authorities come from the token, so
+ * authorization never touches the User store. The id (unless the token carries it), nickname
+ * and enabled state are loaded on first access, at most once per instance, i.e. per request.
+ */
+public final class ClaimsAuthenticatedUser implements AuthenticatedUser {
+
+  private final Long id;
+  private final String jwtSubject;
+  private final List<GrantedAuthority> authorities;
+  private final Supplier<Optional<AuthenticatedUser>> loader;
+  private Optional<AuthenticatedUser> loaded;
+
+  private ClaimsAuthenticatedUser(Long id, String jwtSubject, List<GrantedAuthority> authorities,
+      Supplier<Optional<AuthenticatedUser>> loader) {
+    this.id = id;
+    this.jwtSubject = jwtSubject;
+    this.authorities = authorities;
+    this.loader = loader;
+  }
+
+  /**
+   * Creates a principal from the token's claims.
+   *
+   * @param id User id carried by a compact token, or {@code null}
+   * @param jwtSubject JWT Subject
+   * @param roles Role names from the token
+   * @param loader loads the active User when a User store field is first read
+   */
+  public static ClaimsAuthenticatedUser of(Long id, String jwtSubject, List<String> roles,
+      Supplier<Optional<AuthenticatedUser>> loader) {
+    return new ClaimsAuthenticatedUser(id, jwtSubject, roles.stream()
+        .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+        .toList(), loader);
+  }
+
+  /**
+   * Creates a principal from the token's claims for a User that is already at hand, such as a
+   * principal snapshot, so no User store field is loaded later.
+   *
+   * @param id User id carried by a compact token, or {@code null}
+   * @param jwtSubject JWT Subject
+   * @param roles Role names from the token
+   * @param activeUser enabled and unlocked User the token belongs to
+   */
+  public static ClaimsAuthenticatedUser of(Long id, String jwtSubject, List<String> roles,
+      AuthenticatedUser activeUser) {
+    Optional<AuthenticatedUser> user = Optional.of(activeUser);
+    ClaimsAuthenticatedUser principal = of(id, jwtSubject, roles, () -> user);
+    principal.loaded = user;
+    return principal;
+  }
+
+  /**
+   * Returns the User id from the token, or from the User store when the token has none.
+   *
+   * @throws AuthFailureException if the User is no longer active
+   */
+  @Override
+  public Long getId() {
+    return id != null ? id : activeUser().getId();
+  }
+
+  @Override
+  public String getJwtSubject() {
+    return jwtSubject;
+  }
+
+  /**
+   * Returns the nickname from the User store.
+   *
+   * @throws AuthFailureException if the User is no longer active
+   */
+  @Override
+  public String getNickname() {
+    return activeUser().getNickname();
+  }
+
+  /**
+   * Returns whether the User is still active in the User store.
+   */
+  @Override
+  public boolean isEnabled() {
+    return load().isPresent();
+  }
+
+  /**
+   * Returns whether the User is still active in the User store; the epoch check already
+   * rejected tokens of Users locked after issuance.
+   */
+  @Override
+  public boolean isAccountNonLocked() {
+    return load().isPresent();
+  }
+
+  @Override
+  public Collection<? extends GrantedAuthority> getAuthorities() {
+    return authorities;
+  }
+
+  /**
+   * Returns whether the User store has been read for this principal.
+   */
+  public synchronized boolean isLoaded() {
+    return loaded != null;
+  }
+
+  private AuthenticatedUser activeUser() {
+    return load().orElseThrow(() -> new AuthFailureException(
+        AuthFailureCode.USER_NOT_FOUND,
+        "사용자를 찾을 수 없습니다."));
+  }
+
+  private synchronized Optional<AuthenticatedUser> load() {
+    if (loaded == null) {
+      loaded = loader.get();
+    }
+    return loaded;
+  }
+
+  @Override
+  public String toString() {
+    return "ClaimsAuthenticatedUser[jwtSubject=" + jwtSubject + ", id=" + id
+        + ", authorities=" + authorities + "]";
+  }
+}
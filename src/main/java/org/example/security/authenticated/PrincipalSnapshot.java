@@ -0,0 +1,75 @@
+package org.example.security.authenticated;
+
+import java.util.Collection;
+import java.util.List;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Auth-relevant User state shared by every instance through Redis.
+ *
+ * <p>The snapshot is itself an immutable principal, so a request whose snapshot is found in Redis
+ * authenticates without reading the User store. It never contains the password.
+ *
+ * @param id User id
+ * @param jwtSubject JWT Subject
+ * @param nickname display nickname
+ * @param enabled whether the User is enabled
+ * @param accountNonLocked whether the User is not under Account Lock
+ * @param roles Role names
+ */
+public record PrincipalSnapshot(
+    Long id,
+    String jwtSubject,
+    String nickname,
+    boolean enabled,
+    boolean accountNonLocked,
+    List<String> roles) implements AuthenticatedUser {
+
+  public PrincipalSnapshot {
+    roles = List.copyOf(roles);
+  }
+
+  /**
+   * Copies the state of a loaded principal.
+   */
+  public static PrincipalSnapshot of(AuthenticatedUser user) {
+    return new PrincipalSnapshot(
+        user.getId(),
+        user.getJwtSubject(),
+        user.getNickname(),
+        user.isEnabled(),
+        user.isAccountNonLocked(),
+        user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+  }
+
+  @Override
+  public Long getId() {
+    return id;
+  }
+
+  @Override
+  public String getJwtSubject() {
+    return jwtSubject;
+  }
+
+  @Override
+  public String getNickname() {
+    return nickname;
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  @Override
+  public boolean isAccountNonLocked() {
+    return accountNonLocked;
+  }
+
+  @Override
+  public Collection<? extends GrantedAuthority> getAuthorities() {
+    return roles.stream().map(SimpleGrantedAuthority::new).toList();
+  }
+}
@@ -0,0 +1,181 @@
+package org.example.security.authenticated;
+
+import java.time.Duration;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.example.domain.event.UserStateChangedEvent;
+import org.example.repository.PrincipalSnapshotRedisRepository;
+import org.example.repository.PrincipalSnapshotRedisRepository.AccessTokenState;
+import org.example.security.CustomUserDetailsService;
+import org.example.security.jwt.VerifiedToken;
+import org.example.security.token.RedisFailurePolicy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Authenticates Access Tokens against User snapshots shared in Redis.
+ *
+ * <p>With {@code auth.principal-snapshot.enabled} one script call returns the Logout Blacklist
+ * verdict, the User's security epoch and the User's principal snapshot, so a request needs one
+ * Redis round trip and no User store read. A User state change drops the snapshot before it
+ * commits and writes it through after; a miss is filled in, and a fill never replaces a newer
+ * write-through. A User that does not exist leaves a short-lived tombstone, so stale tokens of a
+ * deleted User are rejected without querying the User store.
+ */
+@Slf4j
+@Component
+public class PrincipalSnapshotStore {
+
+  private final boolean enabled;
+  private final Duration ttl;
+  private final Duration tombstoneTtl;
+  private final PrincipalSnapshotRedisRepository principalSnapshotRedisRepository;
+  private final CustomUserDetailsService customUserDetailsService;
+  private final RedisFailurePolicy redisFailurePolicy;
+
+  /**
+   * Creates the store from {@code auth.principal-snapshot.*} settings.
+   *
+   * @param enabled whether Access Tokens are checked against Redis snapshots
+   * @param ttl lifetime of a snapshot that is not rewritten
+   * @param tombstoneTtl lifetime of the tombstone of a missing User
+   */
+  public PrincipalSnapshotStore(
+      @Value("${auth.principal-snapshot.enabled:false}") boolean enabled,
+      @Value("${auth.principal-snapshot.ttl:1h}") Duration ttl,
+      @Value("${auth.principal-snapshot.tombstone-ttl:5m}") Duration tombstoneTtl,
+      PrincipalSnapshotRedisRepository principalSnapshotRedisRepository,
+      CustomUserDetailsService customUserDetailsService,
+      RedisFailurePolicy redisFailurePolicy) {
+    this.enabled = enabled;
+    this.ttl = ttl;
+    this.tombstoneTtl = tombstoneTtl;
+    this.principalSnapshotRedisRepository = principalSnapshotRedisRepository;
+    this.customUserDetailsService = customUserDetailsService;
+    this.redisFailurePolicy = redisFailurePolicy;
+  }
+
+  /**
+   * Returns whether Access Tokens are checked against Redis snapshots.
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Checks the Logout Blacklist and User state of an Access Token identified by JWT Subject.
+   *
+   * @param accessToken verified Access Token with a JWT Subject
+   * @param claimsOnly whether the principal is built from the token's claims
+   * @return active principal, or empty when the token is blacklisted, predates the User's
+   *     security epoch or belongs to an inactive or deleted User
+   * @throws org.example.security.failure.AuthFailureException if Redis is unavailable
+   */
+  public Optional<AuthenticatedUser> authenticate(VerifiedToken accessToken, boolean claimsOnly) {
+    String jwtSubject = accessToken.subject();
+    AccessTokenState state = redisFailurePolicy.requireAvailable(() ->
+        principalSnapshotRedisRepository.check(
+            accessToken.revocationId(), jwtSubject, accessToken.issuedAt()));
+    if (state.blacklisted() || state.userDeleted()) {
+      return Optional.empty();
+    }
+
+    if (claimsOnly
+        && !UserSecurityEpoch.isCurrent(state.epochSecond(), accessToken.issuedAt())) {
+      return Optional.empty();
+    }
+    PrincipalSnapshot snapshot = state.snapshot();
+    if (claimsOnly) {
+      // 스냅샷이 있으면 그 잠금·활성 상태를 바로 쓰고, 없으면 User는 필드를 읽을 때만 로드한다.
+      if (snapshot == null) {
+        return Optional.of(ClaimsAuthenticatedUser.of(
+            accessToken.userId(), jwtSubject, accessToken.roles(), () -> load(jwtSubject)));
+      }
+      return active(snapshot).map(active -> ClaimsAuthenticatedUser.of(
+          accessToken.userId(), jwtSubject, accessToken.roles(), active));
+    }
+    return snapshot != null ? active(snapshot) : load(jwtSubject);
+  }
+
+  /**
+   * Drops the snapshot of a User whose creation, lock, unlock or role change is about to commit.
+   *
+   * <p>Runs before the change commits, like {@link UserSecurityEpoch}: if Redis is unavailable
+   * the change fails with {@code TOKEN_STORE_UNAVAILABLE} instead of leaving a stale snapshot to
+   * authenticate a locked User until the snapshot expires.
+   */
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+  public void evictBeforeCommit(UserStateChangedEvent event) {
+    if (!enabled) {
+      return;
+    }
+    redisFailurePolicy.requireAvailable(() ->
+        principalSnapshotRedisRepository.delete(event.username()));
+  }
+
+  /**
+   * Rewrites the snapshot of a User after a committed creation, lock, unlock or role change.
+   *
+   * <p>A User that no longer exists is replaced by a tombstone. The stale snapshot is already gone
+   * ({@link #evictBeforeCommit}), so a failed write only costs a User store read on the next
+   * request.
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserStateChanged(UserStateChangedEvent event) {
+    if (!enabled) {
+      return;
+    }
+    try {
+      writeThrough(event.username());
+    } catch (DataAccessException e) {
+      log.warn("User 스냅샷 갱신에 실패했습니다. 다음 요청에서 다시 채웁니다. username: {}",
+          event.username(), e);
+    }
+  }
+
+  private void writeThrough(String jwtSubject) {
+    Optional<AuthenticatedUser> user = findUser(jwtSubject);
+    if (user.isPresent()) {
+      principalSnapshotRedisRepository.save(PrincipalSnapshot.of(user.get()), ttl);
+    } else {
+      principalSnapshotRedisRepository.saveTombstone(jwtSubject, tombstoneTtl);
+    }
+  }
+
+  private Optional<AuthenticatedUser> load(String jwtSubject) {
+    Optional<AuthenticatedUser> user = findUser(jwtSubject);
+    fill(jwtSubject, user.orElse(null));
+    return user.flatMap(PrincipalSnapshotStore::active);
+  }
+
+  private Optional<AuthenticatedUser> findUser(String jwtSubject) {
+    return customUserDetailsService.findByUsername(jwtSubject)
+        .filter(AuthenticatedUser.class::isInstance)
+        .map(AuthenticatedUser.class::cast);
+  }
+
+  /**
+   * Fills a missing snapshot or tombstone; failures only cost another User store read later.
+   */
+  private void fill(String jwtSubject, AuthenticatedUser user) {
+    try {
+      if (user != null) {
+        principalSnapshotRedisRepository.saveIfAbsent(PrincipalSnapshot.of(user), ttl);
+      } else {
+        principalSnapshotRedisRepository.saveTombstoneIfAbsent(jwtSubject, tombstoneTtl);
+      }
+    } catch (DataAccessException e) {
+      log.debug("User 스냅샷 저장에 실패했습니다. username: {}", jwtSubject, e);
+    }
+  }
+
+  private static Optional<AuthenticatedUser> active(AuthenticatedUser user) {
+    if (!user.isEnabled() || !user.isAccountNonLocked()) {
+      return Optional.empty();
+    }
+    return Optional.of(user);
+  }
+}
@@ -0,0 +1,109 @@
+package org.example.security.authenticated;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import org.example.domain.event.UserStateChangedEvent;
+import org.example.repository.SecurityEpochRedisRepository;
+import org.example.security.token.RedisFailurePolicy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Tracks the per-User security epoch used by claims-only authentication.
+ *
+ * <p>Every lock, unlock or role change moves the User's epoch to the current second, so Access
+ * Tokens issued earlier (whose {@code roles} claim or lock state may be stale) are rejected
+ * without reading the User. The epoch is written before the change commits: if Redis is
+ * unavailable the change fails with {@code TOKEN_STORE_UNAVAILABLE} instead of leaving stale
+ * tokens valid.
+ *
+ * <p>Only claims-only authentication reads the epoch, so it is written only while
+ * {@code jwt.claims-only.enabled} is on. Changes made while it is off leave no epoch; enable it on
+ * every instance at once, and expect tokens issued before that to be trusted for their remaining
+ * Access Token lifetime.
+ */
+@Component
+public class UserSecurityEpoch {
+
+  private final SecurityEpochRedisRepository securityEpochRedisRepository;
+  private final RedisFailurePolicy redisFailurePolicy;
+  private final boolean enabled;
+  private final Duration ttl;
+  private final Clock clock;
+
+  /**
+   * Creates the tracker; epochs live as long as an Access Token.
+   *
+   * @param enabled whether claims-only authentication, the only reader of the epoch, is on
+   * @param accessTokenExpiration Access Token lifetime in milliseconds
+   */
+  @Autowired
+  public UserSecurityEpoch(
+      SecurityEpochRedisRepository securityEpochRedisRepository,
+      RedisFailurePolicy redisFailurePolicy,
+      @Value("${jwt.claims-only.enabled:false}") boolean enabled,
+      @Value("${jwt.access-token-expiration}") long accessTokenExpiration) {
+    this(securityEpochRedisRepository, redisFailurePolicy, enabled,
+        Duration.ofMillis(accessTokenExpiration), Clock.systemUTC());
+  }
+
+  UserSecurityEpoch(SecurityEpochRedisRepository securityEpochRedisRepository,
+      RedisFailurePolicy redisFailurePolicy, boolean enabled, Duration ttl, Clock clock) {
+    this.securityEpochRedisRepository = securityEpochRedisRepository;
+    this.redisFailurePolicy = redisFailurePolicy;
+    this.enabled = enabled;
+    // iat는 초 단위로 내림되므로 만료 직전 토큰까지 덮도록 1초 여유를 둔다.
+    this.ttl = ttl.plusSeconds(1);
+    this.clock = clock;
+  }
+
+  /**
+   * Moves the epoch of a User whose lock state or roles are about to change.
+   */
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+  public void onUserStateChanged(UserStateChangedEvent event) {
+    if (!enabled) {
+      return;
+    }
+    if (event.userId() == null) {
+      // 아직 저장되지 않은 신규 User는 발급된 토큰이 없다.
+      return;
+    }
+    long epochSecond = clock.instant().getEpochSecond();
+    redisFailurePolicy.requireAvailable(() ->
+        securityEpochRedisRepository.save(event.username(), epochSecond, ttl));
+  }
+
+  /**
+   * Returns whether a token issued at {@code issuedAt} still reflects the User's state.
+   *
+   * <p>A token issued in the same second as the change is rejected, like a token issued in the
+   * revocation watermark second ({@code TokenLifecycleServiceImpl.isRevoked}): {@code iat} has
+   * second precision, so a login or refresh racing the change cannot be told apart from one that
+   * follows it. A User who logs in right after an unlock is asked to log in again at most once.
+   *
+   * @param jwtSubject JWT Subject
+   * @param issuedAt {@code iat} of the token
+   * @throws org.example.security.failure.AuthFailureException if Redis is unavailable
+   */
+  public boolean isCurrent(String jwtSubject, Instant issuedAt) {
+    return isCurrent(
+        redisFailurePolicy.requireAvailable(() ->
+            securityEpochRedisRepository.find(jwtSubject).orElse(null)),
+        issuedAt);
+  }
+
+  /**
+   * Returns whether a token issued at {@code issuedAt} is newer than the epoch second.
+   *
+   * @param epochSecond security epoch, or {@code null} when the User has no recent state change
+   * @param issuedAt {@code iat} of the token
+   */
+  public static boolean isCurrent(Long epochSecond, Instant issuedAt) {
+    return epochSecond == null || issuedAt.getEpochSecond() > epochSecond;
+  }
+}
@@ -0,0 +1,103 @@
+package org.example.security.authenticated;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.example.domain.event.UserStateChangedEvent;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Broadcasts User state changes to every instance over Redis pub/sub.
+ *
+ * <p>A committed {@link UserStateChangedEvent} is published on {@link #TOPIC} as
+ * {@code instanceId|userId|username}; every other instance drops the User from its
+ * {@link AuthenticatedUserCache}. Pub/sub does not replay messages missed while disconnected, so
+ * each (re)subscription flushes the whole cache. If publishing fails, other instances converge
+ * when their entries reach the cache TTL.
+ */
+@Slf4j
+@Component
+public class UserStateChangeBus implements MessageListener, SubscriptionListener {
+
+  /** Channel carrying User state changes. */
+  public static final ChannelTopic TOPIC = new ChannelTopic("auth:user-state");
+
+  private static final char SEPARATOR = '|';
+
+  private final String instanceId = UUID.randomUUID().toString();
+  private final StringRedisTemplate redisTemplate;
+  private final AuthenticatedUserCache authenticatedUserCache;
+
+  /**
+   * Creates a bus that publishes with the given template and evicts from the given cache.
+   *
+   * @param redisTemplate Redis string template
+   * @param authenticatedUserCache local principal cache
+   */
+  public UserStateChangeBus(
+      StringRedisTemplate redisTemplate, AuthenticatedUserCache authenticatedUserCache) {
+    this.redisTemplate = redisTemplate;
+    this.authenticatedUserCache = authenticatedUserCache;
+  }
+
+  /**
+   * Publishes a committed User state change to the other instances.
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserStateChanged(UserStateChangedEvent event) {
+    try {
+      redisTemplate.convertAndSend(TOPIC.getTopic(), encode(event));
+    } catch (DataAccessException e) {
+      log.warn("User 상태 변경 전파에 실패했습니다. 다른 인스턴스는 캐시 TTL 이후 반영됩니다. "
+          + "username: {}", event.username(), e);
+    }
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    String body = new String(message.getBody(), StandardCharsets.UTF_8);
+    int first = body.indexOf(SEPARATOR);
+    int second = first < 0 ? -1 : body.indexOf(SEPARATOR, first + 1);
+    if (second < 0) {
+      log.warn("잘못된 User 상태 변경 메시지입니다. 전체 principal 캐시를 비웁니다.");
+      authenticatedUserCache.invalidateAll();
+      return;
+    }
+    if (body.startsWith(instanceId) && first == instanceId.length()) {
+      // 발행한 인스턴스는 커밋 직후 이미 로컬 캐시를 무효화했다.
+      return;
+    }
+
+    String userId = body.substring(first + 1, second);
+    try {
+      authenticatedUserCache.invalidate(
+          userId.isEmpty() ? null : Long.valueOf(userId), body.substring(second + 1));
+    } catch (NumberFormatException e) {
+      log.warn("잘못된 User 상태 변경 메시지입니다. 전체 principal 캐시를 비웁니다.");
+      authenticatedUserCache.invalidateAll();
+    }
+  }
+
+  /**
+   * Flushes the cache whenever the channel is (re)subscribed, since changes published while the
+   * subscription was down are lost.
+   */
+  @Override
+  public void onChannelSubscribed(byte[] channel, long count) {
+    log.info("User 상태 변경 채널을 구독했습니다. principal 캐시를 비웁니다.");
+    authenticatedUserCache.invalidateAll();
+  }
+
+  String encode(UserStateChangedEvent event) {
+    return instanceId + SEPARATOR
+        + (event.userId() == null ? "" : event.userId()) + SEPARATOR
+        + event.username();
+  }
+}
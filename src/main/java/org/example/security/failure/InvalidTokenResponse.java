@@ -0,0 +1,14 @@
+package org.example.security.failure;
+
+/**
+ * HTTP response body for rejected JWTs.
+ *
+ * <p>{@code GlobalExceptionHandler} returns it for a {@code JwtException}, and
+ * {@code JwtAuthenticationFilter} encodes it once at startup for the tokens it rejects itself.
+ */
+public record InvalidTokenResponse(String error, String message) {
+
+  public static InvalidTokenResponse of(String message) {
+    return new InvalidTokenResponse("Invalid Token", message);
+  }
+}
@@ -0,0 +1,210 @@
+package org.example.security.jwt;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.example.domain.entity.Role;
+import org.example.repository.RoleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Versioned compact claim schema for Access Tokens.
+ *
+ * <p>Schema version {@value #VERSION} replaces the {@code roles} name array with a bitmask over
+ * the {@code roles} table (bit {@code id - 1}) and may carry the numeric User id in {@code u}
+ * instead of the string JWT Subject:
+ *
+ * <pre>{"v":2,"sub":"testuser","r":3,"iat":...,"exp":...}
+ * {"v":2,"u":42,"r":1,"iat":...,"exp":...}</pre>
+ *
+ * <p>Tokens without {@code v} are the legacy schema. Both are always accepted; only issuing is
+ * switched by {@code jwt.compact-claims.enabled}, so the flag can be turned on after every
+ * instance understands the compact schema.
+ */
+@Slf4j
+@Component
+public class CompactClaimSchema {
+
+  /** Schema version written in the {@code v} claim. */
+  public static final int VERSION = 2;
+
+  static final String VERSION_CLAIM = "v";
+  static final String USER_ID_CLAIM = "u";
+  static final String ROLE_MASK_CLAIM = "r";
+
+  /** Role ids above this value cannot be expressed in a non-negative {@code long} mask. */
+  private static final long MAX_ROLE_ID = 63L;
+
+  /** Unknown roles trigger at most one {@code roles} table read per interval. */
+  private static final long RELOAD_INTERVAL_NANOS = 30_000_000_000L;
+
+  private final boolean enabled;
+  private final boolean numericSubject;
+  private final Supplier<Map<String, Long>> roleIdSource;
+  private volatile RoleTable roleTable;
+
+  /**
+   * Creates the schema from {@code jwt.compact-claims.*} settings.
+   *
+   * @param enabled whether new Access Tokens use the compact schema
+   * @param numericSubject whether compact tokens carry the numeric User id instead of the subject
+   * @param roleRepository source of role ids for the bitmask
+   */
+  @Autowired
+  public CompactClaimSchema(
+      @Value("${jwt.compact-claims.enabled:false}") boolean enabled,
+      @Value("${jwt.compact-claims.numeric-subject:false}") boolean numericSubject,
+      RoleRepository roleRepository) {
+    this(enabled, numericSubject, () -> roleIds(roleRepository.findAll()));
+  }
+
+  /**
+   * Creates a schema with a fixed or custom role id source (role name to {@code roles.id}).
+   */
+  CompactClaimSchema(
+      boolean enabled, boolean numericSubject, Supplier<Map<String, Long>> roleIdSource) {
+    this.enabled = enabled;
+    this.numericSubject = numericSubject;
+    this.roleIdSource = roleIdSource;
+  }
+
+  /**
+   * Returns a schema that never issues compact tokens and has no role table.
+   *
+   * <p>Compact tokens are still verified, but their role bits cannot be named.
+   */
+  public static CompactClaimSchema disabled() {
+    return new CompactClaimSchema(false, false, Map::of);
+  }
+
+  /**
+   * Returns whether new Access Tokens are issued in the compact schema.
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns whether compact tokens identify the User by numeric id.
+   */
+  public boolean isNumericSubject() {
+    return numericSubject;
+  }
+
+  /**
+   * Encodes role names as a bitmask.
+   *
+   * @param roleNames role names such as {@code ROLE_USER}; {@code null} is treated as empty
+   * @return bitmask, or -1 when a role has no bit and the legacy schema must be used
+   */
+  public long encodeRoles(Collection<String> roleNames) {
+    if (roleNames == null) {
+      return 0L;
+    }
+    long mask = 0L;
+    for (String roleName : roleNames) {
+      Integer bit = roleTable(false).bitsByName.get(roleName);
+      if (bit == null) {
+        // 마지막 조회 이후 새 Role이 추가되었을 수 있으므로 다시 읽는다. (주기당 최대 1회)
+        bit = roleTable(true).bitsByName.get(roleName);
+      }
+      if (bit == null) {
+        return -1L;
+      }
+      mask |= 1L << bit;
+    }
+    return mask;
+  }
+
+  /**
+   * Decodes a bitmask into role names in bit order.
+   *
+   * <p>Bits without a matching row are skipped, so an unknown bit can only narrow the roles
+   * reported by the token, never widen them. This matters in claims-only mode, where the
+   * principal's authorities are these decoded roles; otherwise authorities come from the User
+   * record.
+   *
+   * @param mask bitmask from the {@code r} claim
+   * @return role names
+   */
+  public List<String> decodeRoles(long mask) {
+    if (mask == 0L) {
+      return List.of();
+    }
+    RoleTable table = roleTable(false);
+    if (!table.covers(mask)) {
+      table = roleTable(true);
+    }
+    List<String> roleNames = new ArrayList<>(Long.bitCount(mask));
+    for (long remaining = mask; remaining != 0L; remaining &= remaining - 1) {
+      String roleName = table.name(Long.numberOfTrailingZeros(remaining));
+      if (roleName != null) {
+        roleNames.add(roleName);
+      } else {
+        log.debug("Unknown role bit in Access Token. mask: {}", mask);
+      }
+    }
+    return roleNames;
+  }
+
+  private RoleTable roleTable(boolean reload) {
+    RoleTable table = roleTable;
+    if (table != null && !reload) {
+      return table;
+    }
+    synchronized (this) {
+      if (roleTable == null
+          || (reload && System.nanoTime() - roleTable.loadedAtNanos >= RELOAD_INTERVAL_NANOS)) {
+        roleTable = loadRoleTable();
+      }
+      return roleTable;
+    }
+  }
+
+  private RoleTable loadRoleTable() {
+    Map<String, Integer> bitsByName = new HashMap<>();
+    String[] namesByBit = new String[(int) MAX_ROLE_ID];
+    roleIdSource.get().forEach((name, id) -> {
+      if (id != null && id >= 1 && id <= MAX_ROLE_ID) {
+        int bit = (int) (id - 1);
+        bitsByName.put(name, bit);
+        namesByBit[bit] = name;
+      }
+    });
+    return new RoleTable(Map.copyOf(bitsByName), namesByBit, System.nanoTime());
+  }
+
+  private static Map<String, Long> roleIds(List<Role> roles) {
+    Map<String, Long> roleIds = new HashMap<>();
+    for (Role role : roles) {
+      roleIds.put(role.getName(), role.getId());
+    }
+    return roleIds;
+  }
+
+  /**
+   * Immutable snapshot of the {@code roles} table.
+   */
+  private record RoleTable(
+      Map<String, Integer> bitsByName, String[] namesByBit, long loadedAtNanos) {
+
+    private String name(int bit) {
+      return bit < namesByBit.length ? namesByBit[bit] : null;
+    }
+
+    private boolean covers(long mask) {
+      for (long remaining = mask; remaining != 0L; remaining &= remaining - 1) {
+        if (name(Long.numberOfTrailingZeros(remaining)) == null) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package org.example.security.jwt;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -29,7 +30,10 @@ public class ExceptionHandlerFilter extends OncePerRequestFilter {
     try {
       filterChain.doFilter(request, response);
     } catch (Exception e) {
-      log.error("필터 체인 예외 발생. URI: {}, 예외: {}", request.getRequestURI(), e.getMessage());
+      // 토큰 검증 실패는 JwtFailureMonitor가 이미 집계·샘플링했으므로 여기서 다시 로그를 남기지 않는다.
+      if (!(e instanceof JwtException)) {
+        log.error("필터 체인 예외 발생. URI: {}, 예외: {}", request.getRequestURI(), e.getMessage());
+      }
       // SpringBoot 전역핸들러인 GlobalExceptionHandler 에서 처리할 수 있도록 위임
       resolver.resolveException(request, response, null, e);
     }
@@ -0,0 +1,297 @@
+package org.example.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.List;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+
+/**
+ * Template-based issuer for the HMAC-signed tokens this service mints.
+ *
+ * <p>The header segment is encoded once; for each token the claim JSON is written straight into
+ * a per-thread buffer in the field order jjwt uses ({@code sub}, {@code jti}, {@code roles},
+ * {@code iat}, {@code exp}), base64url-encoded in place and signed with a thread-local
+ * {@link Mac}. The result is byte-identical to the jjwt builder output. Values that would need
+ * JSON escaping, and empty role lists, return {@code null} so that the caller can use the jjwt
+ * builder instead.
+ */
+final class HmacJwtIssuer {
+
+  private static final byte[] BASE64URL =
+      "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_"
+          .getBytes(StandardCharsets.US_ASCII);
+
+  private final byte[] headerSegment;
+  private final ThreadLocal<Scratch> scratch;
+
+  /**
+   * Creates an issuer for the given key.
+   *
+   * @param key HMAC signing key
+   * @param headerSegment base64url header segment jjwt writes for this key
+   */
+  HmacJwtIssuer(SecretKey key, String headerSegment) {
+    this.headerSegment = headerSegment.getBytes(StandardCharsets.US_ASCII);
+    this.scratch = ThreadLocal.withInitial(() -> new Scratch(newMac(key)));
+  }
+
+  /**
+   * Issues a signed token without a {@code jti} claim.
+   *
+   * @param subject JWT Subject
+   * @param roles Role names, or {@code null} for a token without the roles claim
+   * @param issuedAtSeconds {@code iat} in epoch seconds
+   * @param expiresAtSeconds {@code exp} in epoch seconds
+   * @return compact JWT, or {@code null} when the jjwt builder must be used
+   */
+  String issue(String subject, List<String> roles, long issuedAtSeconds, long expiresAtSeconds) {
+    return issue(subject, null, roles, issuedAtSeconds, expiresAtSeconds);
+  }
+
+  /**
+   * Issues a signed token.
+   *
+   * @param subject JWT Subject
+   * @param tokenId {@code jti}, or {@code null} for a token without it
+   * @param roles Role names, or {@code null} for a token without the roles claim
+   * @param issuedAtSeconds {@code iat} in epoch seconds
+   * @param expiresAtSeconds {@code exp} in epoch seconds
+   * @return compact JWT, or {@code null} when the jjwt builder must be used
+   */
+  String issue(String subject, String tokenId, List<String> roles,
+      long issuedAtSeconds, long expiresAtSeconds) {
+    if (subject == null || !isPlain(subject) || (roles != null && !isPlain(roles))
+        || (tokenId != null && !isPlain(tokenId))) {
+      return null;
+    }
+
+    Scratch s = scratch.get();
+    s.resetJson();
+    s.writeAscii("{\"sub\":\"");
+    s.writeUtf8(subject);
+    s.writeByte('"');
+    writeTokenId(s, tokenId);
+    if (roles != null) {
+      s.writeAscii(",\"roles\":[");
+      for (int i = 0; i < roles.size(); i++) {
+        if (i > 0) {
+          s.writeByte(',');
+        }
+        s.writeByte('"');
+        s.writeUtf8(roles.get(i));
+        s.writeByte('"');
+      }
+      s.writeByte(']');
+    }
+    return finish(s, issuedAtSeconds, expiresAtSeconds);
+  }
+
+  /**
+   * Issues a signed token in the compact claim schema ({@link CompactClaimSchema}).
+   *
+   * @param subject JWT Subject, used when {@code userId} is {@code null}
+   * @param userId numeric User id, or {@code null} to carry the subject
+   * @param tokenId {@code jti}, or {@code null} for a token without it
+   * @param roleMask role bitmask
+   * @param issuedAtSeconds {@code iat} in epoch seconds
+   * @param expiresAtSeconds {@code exp} in epoch seconds
+   * @return compact JWT, or {@code null} when the jjwt builder must be used
+   */
+  String issueCompact(String subject, Long userId, String tokenId, long roleMask,
+      long issuedAtSeconds, long expiresAtSeconds) {
+    if ((userId == null && (subject == null || !isPlain(subject)))
+        || (tokenId != null && !isPlain(tokenId))) {
+      return null;
+    }
+
+    Scratch s = scratch.get();
+    s.resetJson();
+    s.writeAscii("{\"v\":");
+    s.writeAscii(Integer.toString(CompactClaimSchema.VERSION));
+    if (userId != null) {
+      s.writeAscii(",\"u\":");
+      s.writeAscii(Long.toString(userId));
+    } else {
+      s.writeAscii(",\"sub\":\"");
+      s.writeUtf8(subject);
+      s.writeByte('"');
+    }
+    writeTokenId(s, tokenId);
+    s.writeAscii(",\"r\":");
+    s.writeAscii(Long.toString(roleMask));
+    return finish(s, issuedAtSeconds, expiresAtSeconds);
+  }
+
+  private static void writeTokenId(Scratch s, String tokenId) {
+    if (tokenId != null) {
+      s.writeAscii(",\"jti\":\"");
+      s.writeUtf8(tokenId);
+      s.writeByte('"');
+    }
+  }
+
+  private String finish(Scratch s, long issuedAtSeconds, long expiresAtSeconds) {
+    s.writeAscii(",\"iat\":");
+    s.writeAscii(Long.toString(issuedAtSeconds));
+    s.writeAscii(",\"exp\":");
+    s.writeAscii(Long.toString(expiresAtSeconds));
+    s.writeByte('}');
+
+    return s.sign(headerSegment);
+  }
+
+  private static boolean isPlain(List<String> roles) {
+    if (roles.isEmpty()) {
+      return false;
+    }
+    for (String role : roles) {
+      if (role == null || !isPlain(role)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns whether the value can be written as a JSON string without escaping.
+   */
+  private static boolean isPlain(String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c < 0x20 || c == '"' || c == '\\' || Character.isSurrogate(c)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int encodedLength(int bytes) {
+    return (bytes * 4 + 2) / 3;
+  }
+
+  /**
+   * Base64url-encodes {@code src[0, length)} without padding into {@code dst} at {@code pos}.
+   *
+   * @return position after the last written character
+   */
+  private static int encode(byte[] src, int length, byte[] dst, int pos) {
+    int i = 0;
+    for (; i + 3 <= length; i += 3) {
+      int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF);
+      dst[pos++] = BASE64URL[bits >>> 18];
+      dst[pos++] = BASE64URL[(bits >>> 12) & 0x3F];
+      dst[pos++] = BASE64URL[(bits >>> 6) & 0x3F];
+      dst[pos++] = BASE64URL[bits & 0x3F];
+    }
+    int remaining = length - i;
+    if (remaining == 1) {
+      int bits = (src[i] & 0xFF) << 16;
+      dst[pos++] = BASE64URL[bits >>> 18];
+      dst[pos++] = BASE64URL[(bits >>> 12) & 0x3F];
+    } else if (remaining == 2) {
+      int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8;
+      dst[pos++] = BASE64URL[bits >>> 18];
+      dst[pos++] = BASE64URL[(bits >>> 12) & 0x3F];
+      dst[pos++] = BASE64URL[(bits >>> 6) & 0x3F];
+    }
+    return pos;
+  }
+
+  private static byte[] ensureCapacity(byte[] buffer, int required) {
+    if (buffer.length >= required) {
+      return buffer;
+    }
+    byte[] grown = new byte[Math.max(required, buffer.length * 2)];
+    System.arraycopy(buffer, 0, grown, 0, buffer.length);
+    return grown;
+  }
+
+  private static Mac newMac(SecretKey key) {
+    try {
+      Mac mac = Mac.getInstance(key.getAlgorithm());
+      mac.init(key);
+      return mac;
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("HMAC algorithm is not available: " + key.getAlgorithm(), e);
+    }
+  }
+
+  /**
+   * Per-thread Mac plus reusable JSON and output buffers.
+   */
+  private static final class Scratch {
+
+    private final Mac mac;
+    private final byte[] signature;
+    private byte[] json = new byte[256];
+    private int jsonLength;
+    private byte[] out = new byte[512];
+
+    private Scratch(Mac mac) {
+      this.mac = mac;
+      this.signature = new byte[mac.getMacLength()];
+    }
+
+    private void resetJson() {
+      jsonLength = 0;
+    }
+
+    private void writeByte(int b) {
+      json = ensureCapacity(json, jsonLength + 1);
+      json[jsonLength++] = (byte) b;
+    }
+
+    private void writeAscii(String value) {
+      json = ensureCapacity(json, jsonLength + value.length());
+      for (int i = 0; i < value.length(); i++) {
+        json[jsonLength++] = (byte) value.charAt(i);
+      }
+    }
+
+    /**
+     * Writes a value already checked by {@link #isPlain(String)} (no surrogates) as UTF-8.
+     */
+    private void writeUtf8(String value) {
+      json = ensureCapacity(json, jsonLength + value.length() * 3);
+      for (int i = 0; i < value.length(); i++) {
+        char c = value.charAt(i);
+        if (c < 0x80) {
+          json[jsonLength++] = (byte) c;
+        } else if (c < 0x800) {
+          json[jsonLength++] = (byte) (0xC0 | (c >> 6));
+          json[jsonLength++] = (byte) (0x80 | (c & 0x3F));
+        } else {
+          json[jsonLength++] = (byte) (0xE0 | (c >> 12));
+          json[jsonLength++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+          json[jsonLength++] = (byte) (0x80 | (c & 0x3F));
+        }
+      }
+    }
+
+    /**
+     * Assembles {@code header.payload.signature} in the output buffer.
+     */
+    private String sign(byte[] header) {
+      int signingInputLength = header.length + 1 + encodedLength(jsonLength);
+      out = ensureCapacity(out,
+          signingInputLength + 1 + encodedLength(signature.length));
+      System.arraycopy(header, 0, out, 0, header.length);
+      int pos = header.length;
+      out[pos++] = '.';
+      pos = encode(json, jsonLength, out, pos);
+
+      try {
+        mac.update(out, 0, pos);
+        mac.doFinal(signature, 0);
+      } catch (GeneralSecurityException e) {
+        mac.reset();
+        throw new IllegalStateException("Failed to sign JWT", e);
+      }
+
+      out[pos++] = '.';
+      pos = encode(signature, signature.length, out, pos);
+      return new String(out, 0, pos, StandardCharsets.US_ASCII);
+    }
+  }
+}
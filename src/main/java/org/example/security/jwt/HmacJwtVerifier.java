@@ -0,0 +1,529 @@
+package org.example.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+
+/**
+ * Allocation-light verifier for the HMAC-signed tokens this service issues itself.
+ *
+ * <p>Only tokens whose header segment is byte-identical to the one {@link JwtTokenProvider}
+ * writes, and whose payload holds nothing but the legacy claims ({@code sub}, {@code roles},
+ * {@code iat}, {@code exp}) or the compact schema claims ({@code v}, {@code sub} or {@code u},
+ * {@code r}, {@code iat}, {@code exp}), plus an optional {@code jti}, are handled here. The
+ * verifier decodes base64url into per-thread buffers, checks {@code exp} before computing the HMAC
+ * and compares signatures in constant time. For anything else it returns {@code null} and the
+ * caller falls back to the jjwt parser.
+ */
+final class HmacJwtVerifier {
+
+  private static final int[] BASE64URL = base64UrlTable();
+
+  private final String expectedHeader;
+  private final CompactClaimSchema compactClaimSchema;
+  private final int macLength;
+  private final ThreadLocal<Scratch> scratch;
+
+  /**
+   * Creates a verifier for tokens signed with the given key.
+   *
+   * @param key HMAC signing key
+   * @param expectedHeader base64url header segment written by the token issuer
+   */
+  HmacJwtVerifier(SecretKey key, String expectedHeader) {
+    this(key, expectedHeader, CompactClaimSchema.disabled());
+  }
+
+  /**
+   * Creates a verifier that names compact-token role bits with the given schema.
+   *
+   * @param key HMAC signing key
+   * @param expectedHeader base64url header segment written by the token issuer
+   * @param compactClaimSchema role table for the {@code r} claim
+   */
+  HmacJwtVerifier(SecretKey key, String expectedHeader, CompactClaimSchema compactClaimSchema) {
+    this.expectedHeader = expectedHeader;
+    this.compactClaimSchema = compactClaimSchema;
+    this.macLength = newMac(key).getMacLength();
+    this.scratch = ThreadLocal.withInitial(() -> new Scratch(newMac(key), macLength));
+  }
+
+  /**
+   * Verifies a token issued by this service.
+   *
+   * @param token compact JWT string
+   * @param nowMillis current time
+   * @return verified token, or {@code null} when the token must be handled by jjwt
+   * @throws ExpiredJwtException when {@code exp} has passed (checked before the HMAC)
+   * @throws SignatureException when the signature does not match
+   */
+  VerifiedToken verify(String token, long nowMillis) {
+    JwtVerificationResult result = check(token, nowMillis);
+    if (result == null) {
+      return null;
+    }
+    return switch (result) {
+      case JwtVerificationResult.Valid valid -> valid.token();
+      case JwtVerificationResult.Expired expired -> throw expired(scratch.get(), nowMillis);
+      case JwtVerificationResult.Rejected rejected -> throw signatureMismatch();
+    };
+  }
+
+  /**
+   * Verifies a token issued by this service without throwing.
+   *
+   * @param token compact JWT string
+   * @param nowMillis current time
+   * @return {@link JwtVerificationResult.Valid}, {@link JwtVerificationResult#EXPIRED} (checked
+   *     before the HMAC), {@link JwtVerificationResult#BAD_SIGNATURE}, or {@code null} when the
+   *     token must be handled by jjwt
+   */
+  JwtVerificationResult check(String token, long nowMillis) {
+    if (token == null || !token.startsWith(expectedHeader)) {
+      return null;
+    }
+    int firstDot = expectedHeader.length();
+    if (token.length() <= firstDot || token.charAt(firstDot) != '.') {
+      return null;
+    }
+    int secondDot = token.indexOf('.', firstDot + 1);
+    if (secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0) {
+      return null;
+    }
+
+    Scratch s = scratch.get();
+    s.payload = ensureCapacity(s.payload, decodedLength(secondDot - firstDot - 1));
+    int payloadLength = decode(token, firstDot + 1, secondDot, s.payload);
+    if (payloadLength < 0 || !s.parseClaims(payloadLength)) {
+      return null;
+    }
+
+    if (nowMillis > s.exp * 1000L) {
+      return JwtVerificationResult.EXPIRED;
+    }
+
+    int signatureChars = token.length() - secondDot - 1;
+    if (decodedLength(signatureChars) != macLength) {
+      return JwtVerificationResult.BAD_SIGNATURE;
+    }
+    if (!s.sign(token, secondDot)) {
+      return null;
+    }
+    int signatureLength = decode(token, secondDot + 1, token.length(), s.presented);
+    if (signatureLength != macLength || !constantTimeEquals(s.computed, s.presented, macLength)) {
+      return JwtVerificationResult.BAD_SIGNATURE;
+    }
+
+    return new JwtVerificationResult.Valid(new VerifiedToken(
+        token,
+        s.subject(),
+        s.hasUserId ? s.userId : null,
+        s.hasRoleMask ? compactClaimSchema.decodeRoles(s.roleMask) : s.roles(),
+        s.hasIat ? Instant.ofEpochSecond(s.iat) : null,
+        Instant.ofEpochSecond(s.exp),
+        s.tokenId()));
+  }
+
+  private static ExpiredJwtException expired(Scratch s, long nowMillis) {
+    Date expiration = new Date(s.exp * 1000L);
+    Claims claims = Jwts.claims()
+        .subject(s.subject())
+        .expiration(expiration)
+        .build();
+    long differenceMillis = nowMillis - expiration.getTime();
+    String message = "JWT expired " + differenceMillis + " milliseconds ago at "
+        + expiration.toInstant() + ". Current time: " + Instant.ofEpochMilli(nowMillis) + ".";
+    return new ExpiredJwtException(null, claims, message);
+  }
+
+  private static SignatureException signatureMismatch() {
+    return new SignatureException(
+        "JWT signature does not match locally computed signature.");
+  }
+
+  private static boolean constantTimeEquals(byte[] a, byte[] b, int length) {
+    int result = 0;
+    for (int i = 0; i < length; i++) {
+      result |= a[i] ^ b[i];
+    }
+    return result == 0;
+  }
+
+  private static int decodedLength(int base64Chars) {
+    return base64Chars * 3 / 4;
+  }
+
+  /**
+   * Decodes unpadded base64url characters {@code [from, to)} into {@code dst}.
+   *
+   * @return number of bytes written, or -1 for input jjwt must judge
+   */
+  private static int decode(String src, int from, int to, byte[] dst) {
+    int length = to - from;
+    if (length % 4 == 1) {
+      return -1;
+    }
+    int out = 0;
+    int bits = 0;
+    int bitCount = 0;
+    for (int i = from; i < to; i++) {
+      char c = src.charAt(i);
+      int value = c < 128 ? BASE64URL[c] : -1;
+      if (value < 0) {
+        return -1;
+      }
+      bits = (bits << 6) | value;
+      bitCount += 6;
+      if (bitCount >= 8) {
+        bitCount -= 8;
+        dst[out++] = (byte) (bits >> bitCount);
+      }
+    }
+    return out;
+  }
+
+  private static byte[] ensureCapacity(byte[] buffer, int required) {
+    return buffer.length >= required ? buffer : new byte[Math.max(required, buffer.length * 2)];
+  }
+
+  private static int[] base64UrlTable() {
+    int[] table = new int[128];
+    Arrays.fill(table, -1);
+    String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+    for (int i = 0; i < alphabet.length(); i++) {
+      table[alphabet.charAt(i)] = i;
+    }
+    return table;
+  }
+
+  private static Mac newMac(SecretKey key) {
+    try {
+      Mac mac = Mac.getInstance(key.getAlgorithm());
+      mac.init(key);
+      return mac;
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("HMAC algorithm is not available: " + key.getAlgorithm(), e);
+    }
+  }
+
+  /**
+   * Per-thread Mac and buffers, plus the claim positions of the token being verified.
+   */
+  private static final class Scratch {
+
+    private final Mac mac;
+    private final byte[] computed;
+    private final byte[] presented;
+    private byte[] payload = new byte[256];
+    private byte[] signingInput = new byte[512];
+
+    private int subStart;
+    private int subEnd;
+    private int jtiStart;
+    private int jtiEnd;
+    private int rolesStart;
+    private int rolesEnd;
+    private long iat;
+    private long exp;
+    private boolean hasIat;
+    private long version;
+    private boolean hasVersion;
+    private long userId;
+    private boolean hasUserId;
+    private long roleMask;
+    private boolean hasRoleMask;
+    private long lastNumber;
+
+    private Scratch(Mac mac, int macLength) {
+      this.mac = mac;
+      this.computed = new byte[macLength];
+      this.presented = new byte[macLength + 3];
+    }
+
+    /**
+     * Computes the HMAC of {@code token[0, end)} into {@link #computed}.
+     *
+     * @return false when the signing input is not ASCII
+     */
+    private boolean sign(String token, int end) {
+      signingInput = ensureCapacity(signingInput, end);
+      for (int i = 0; i < end; i++) {
+        char c = token.charAt(i);
+        if (c > 0x7F) {
+          return false;
+        }
+        signingInput[i] = (byte) c;
+      }
+      try {
+        mac.update(signingInput, 0, end);
+        mac.doFinal(computed, 0);
+        return true;
+      } catch (GeneralSecurityException e) {
+        mac.reset();
+        return false;
+      }
+    }
+
+    /**
+     * Records claim positions of a flat payload in the legacy or compact schema.
+     *
+     * @return false when the payload contains anything else
+     */
+    private boolean parseClaims(int length) {
+      subStart = -1;
+      jtiStart = -1;
+      rolesStart = -1;
+      hasIat = false;
+      hasVersion = false;
+      hasUserId = false;
+      hasRoleMask = false;
+      boolean hasExp = false;
+
+      int pos = skipWhitespace(0, length);
+      if (pos >= length || payload[pos] != '{') {
+        return false;
+      }
+      pos = skipWhitespace(pos + 1, length);
+      if (pos < length && payload[pos] == '}') {
+        return false;
+      }
+      while (pos < length) {
+        if (payload[pos] != '"') {
+          return false;
+        }
+        int keyStart = pos + 1;
+        int keyEnd = stringEnd(keyStart, length);
+        if (keyEnd < 0) {
+          return false;
+        }
+        pos = skipWhitespace(keyEnd + 1, length);
+        if (pos >= length || payload[pos] != ':') {
+          return false;
+        }
+        pos = skipWhitespace(pos + 1, length);
+
+        if (keyEquals(keyStart, keyEnd, "sub")) {
+          if (pos >= length || payload[pos] != '"') {
+            return false;
+          }
+          subStart = pos + 1;
+          subEnd = stringEnd(subStart, length);
+          if (subEnd < 0) {
+            return false;
+          }
+          pos = subEnd + 1;
+        } else if (keyEquals(keyStart, keyEnd, "jti")) {
+          if (pos >= length || payload[pos] != '"') {
+            return false;
+          }
+          jtiStart = pos + 1;
+          jtiEnd = stringEnd(jtiStart, length);
+          if (jtiEnd < 0) {
+            return false;
+          }
+          pos = jtiEnd + 1;
+        } else if (keyEquals(keyStart, keyEnd, "roles")) {
+          rolesStart = pos;
+          rolesEnd = arrayEnd(pos, length);
+          if (rolesEnd < 0) {
+            return false;
+          }
+          pos = rolesEnd + 1;
+        } else if (keyEquals(keyStart, keyEnd, "iat")) {
+          pos = number(pos, length);
+          if (pos < 0) {
+            return false;
+          }
+          iat = lastNumber;
+          hasIat = true;
+        } else if (keyEquals(keyStart, keyEnd, "exp")) {
+          pos = number(pos, length);
+          if (pos < 0) {
+            return false;
+          }
+          exp = lastNumber;
+          hasExp = true;
+        } else if (keyEquals(keyStart, keyEnd, CompactClaimSchema.VERSION_CLAIM)) {
+          pos = number(pos, length);
+          if (pos < 0) {
+            return false;
+          }
+          version = lastNumber;
+          hasVersion = true;
+        } else if (keyEquals(keyStart, keyEnd, CompactClaimSchema.USER_ID_CLAIM)) {
+          pos = number(pos, length);
+          if (pos < 0) {
+            return false;
+          }
+          userId = lastNumber;
+          hasUserId = true;
+        } else if (keyEquals(keyStart, keyEnd, CompactClaimSchema.ROLE_MASK_CLAIM)) {
+          pos = number(pos, length);
+          if (pos < 0) {
+            return false;
+          }
+          roleMask = lastNumber;
+          hasRoleMask = true;
+        } else {
+          return false;
+        }
+
+        pos = skipWhitespace(pos, length);
+        if (pos >= length) {
+          return false;
+        }
+        if (payload[pos] == '}') {
+          return hasExp && hasKnownSchema() && skipWhitespace(pos + 1, length) == length;
+        }
+        if (payload[pos] != ',') {
+          return false;
+        }
+        pos = skipWhitespace(pos + 1, length);
+      }
+      return false;
+    }
+
+    /**
+     * Legacy tokens carry {@code sub} and optionally {@code roles}; compact tokens carry
+     * {@code v} = {@value CompactClaimSchema#VERSION}, exactly one of {@code sub} or {@code u},
+     * and {@code r}.
+     */
+    private boolean hasKnownSchema() {
+      if (!hasVersion) {
+        return subStart >= 0 && !hasUserId && !hasRoleMask;
+      }
+      return version == CompactClaimSchema.VERSION
+          && (subStart >= 0) != hasUserId
+          && hasRoleMask
+          && rolesStart < 0;
+    }
+
+    private int number(int pos, int length) {
+      long value = 0;
+      int start = pos;
+      while (pos < length && payload[pos] >= '0' && payload[pos] <= '9') {
+        if (pos - start >= 18) {
+          return -1;
+        }
+        value = value * 10 + (payload[pos] - '0');
+        pos++;
+      }
+      if (pos == start) {
+        return -1;
+      }
+      lastNumber = value;
+      return pos;
+    }
+
+    /**
+     * Returns the index of the closing quote, or -1 for escapes or unterminated strings.
+     */
+    private int stringEnd(int pos, int length) {
+      for (int i = pos; i < length; i++) {
+        if (payload[i] == '\\') {
+          return -1;
+        }
+        if (payload[i] == '"') {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    /**
+     * Returns the index of the closing bracket of an array of plain strings, or -1.
+     */
+    private int arrayEnd(int pos, int length) {
+      if (pos >= length || payload[pos] != '[') {
+        return -1;
+      }
+      pos = skipWhitespace(pos + 1, length);
+      if (pos < length && payload[pos] == ']') {
+        return pos;
+      }
+      while (pos < length) {
+        if (payload[pos] != '"') {
+          return -1;
+        }
+        int end = stringEnd(pos + 1, length);
+        if (end < 0) {
+          return -1;
+        }
+        pos = skipWhitespace(end + 1, length);
+        if (pos >= length) {
+          return -1;
+        }
+        if (payload[pos] == ']') {
+          return pos;
+        }
+        if (payload[pos] != ',') {
+          return -1;
+        }
+        pos = skipWhitespace(pos + 1, length);
+      }
+      return -1;
+    }
+
+    private int skipWhitespace(int pos, int length) {
+      while (pos < length && (payload[pos] == ' ' || payload[pos] == '\t'
+          || payload[pos] == '\n' || payload[pos] == '\r')) {
+        pos++;
+      }
+      return pos;
+    }
+
+    private boolean keyEquals(int start, int end, String key) {
+      if (end - start != key.length()) {
+        return false;
+      }
+      for (int i = 0; i < key.length(); i++) {
+        if (payload[start + i] != key.charAt(i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private String subject() {
+      if (subStart < 0) {
+        return null;
+      }
+      return new String(payload, subStart, subEnd - subStart, StandardCharsets.UTF_8);
+    }
+
+    private String tokenId() {
+      if (jtiStart < 0) {
+        return null;
+      }
+      return new String(payload, jtiStart, jtiEnd - jtiStart, StandardCharsets.UTF_8);
+    }
+
+    private List<String> roles() {
+      if (rolesStart < 0) {
+        return List.of();
+      }
+      List<String> roles = new ArrayList<>(2);
+      int pos = rolesStart + 1;
+      while (pos < rolesEnd) {
+        if (payload[pos] == '"') {
+          int end = stringEnd(pos + 1, rolesEnd);
+          roles.add(new String(payload, pos + 1, end - pos - 1, StandardCharsets.UTF_8));
+          pos = end + 1;
+        } else {
+          pos++;
+        }
+      }
+      return roles;
+    }
+  }
+}
@@ -1,32 +1,100 @@
 package org.example.security.jwt;
 
-import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import lombok.RequiredArgsConstructor;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
 import org.example.security.authenticated.AuthenticatedUser;
 import org.example.security.authenticated.AuthenticatedUserService;
+import org.example.security.authenticated.ClaimsAuthenticatedUser;
+import org.example.security.authenticated.PrincipalSnapshotStore;
+import org.example.security.authenticated.UserSecurityEpoch;
+import org.example.security.failure.InvalidTokenResponse;
 import org.example.security.token.TokenLifecycleService;
 import org.example.security.token.delivery.TokenDeliveryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.json.JsonMapper;
 
 /**
  * Authenticates Bearer Access Tokens for Protected API requests.
+ *
+ * <p>The token is verified once and the resulting {@link VerifiedToken} is exposed as the
+ * {@link VerifiedToken#REQUEST_ATTRIBUTE} request attribute for downstream handlers.
+ *
+ * <p>A rejected token is answered with 401 right here from a pre-encoded body, without throwing
+ * and without going through {@code ExceptionHandlerFilter} and the MVC exception resolvers.
+ *
+ * <p>With {@code jwt.claims-only.enabled} the principal is built from the token's claims and only
+ * the User's security epoch is checked in Redis; the epoch moves on every lock, unlock and role
+ * change, so it stands in for the User's state. The User is loaded only if a handler reads its
+ * profile fields. Compact tokens that carry only the numeric User id still load the User.
+ *
+ * <p>With {@code auth.principal-snapshot.enabled} the Logout Blacklist, security epoch and User
+ * state of a token with a JWT Subject are read in one Redis round trip
+ * ({@link PrincipalSnapshotStore}).
  */
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+  private static final Map<JwtFailureType, byte[]> REJECTION_BODIES = rejectionBodies();
+  private static final String BEARER_CHALLENGE = "Bearer error=\"invalid_token\"";
+
   private final JwtTokenProvider jwtTokenProvider;
   private final AuthenticatedUserService authenticatedUserService;
   private final TokenLifecycleService tokenLifecycleService;
   private final TokenDeliveryService tokenDeliveryService;
+  private final UserSecurityEpoch userSecurityEpoch;
+  private final PrincipalSnapshotStore principalSnapshotStore;
+  private final boolean claimsOnly;
+
+  /**
+   * Creates the filter.
+   *
+   * @param userSecurityEpoch per-User security epoch for claims-only authentication
+   * @param principalSnapshotStore single round trip Blacklist and User state check
+   * @param claimsOnly whether principals are built from token claims
+   */
+  @Autowired
+  public JwtAuthenticationFilter(
+      JwtTokenProvider jwtTokenProvider,
+      AuthenticatedUserService authenticatedUserService,
+      TokenLifecycleService tokenLifecycleService,
+      TokenDeliveryService tokenDeliveryService,
+      UserSecurityEpoch userSecurityEpoch,
+      PrincipalSnapshotStore principalSnapshotStore,
+      @Value("${jwt.claims-only.enabled:false}") boolean claimsOnly) {
+    this.jwtTokenProvider = jwtTokenProvider;
+    this.authenticatedUserService = authenticatedUserService;
+    this.tokenLifecycleService = tokenLifecycleService;
+    this.tokenDeliveryService = tokenDeliveryService;
+    this.userSecurityEpoch = userSecurityEpoch;
+    this.principalSnapshotStore = principalSnapshotStore;
+    this.claimsOnly = claimsOnly;
+  }
+
+  /**
+   * Creates a filter that always loads the User.
+   */
+  public JwtAuthenticationFilter(
+      JwtTokenProvider jwtTokenProvider,
+      AuthenticatedUserService authenticatedUserService,
+      TokenLifecycleService tokenLifecycleService,
+      TokenDeliveryService tokenDeliveryService) {
+    this(jwtTokenProvider, authenticatedUserService, tokenLifecycleService,
+        tokenDeliveryService, null, null, false);
+  }
 
   @Override
   protected boolean shouldNotFilter(HttpServletRequest request) {
@@ -34,7 +102,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     return path.startsWith("/login") || path.startsWith("/signup") || path.startsWith("/refresh")
         || path.startsWith("/v3/api-docs") || path.startsWith("/swagger-ui")
         || path.startsWith("/oauth2/authorization")
-        || path.startsWith("/login/oauth2");
+        || path.startsWith("/login/oauth2")
+        || path.startsWith("/.well-known/");
   }
 
   @Override
@@ -43,18 +112,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     String token = tokenDeliveryService.resolveBearerAccessToken(request).orElse(null);
 
-    if (token != null && jwtTokenProvider.validateToken(token)) {
-      if (!tokenLifecycleService.isAccessTokenAllowed(token)) {
-        filterChain.doFilter(request, response);
-        return;
+    if (token != null) {
+      VerifiedToken accessToken;
+      switch (jwtTokenProvider.tryVerify(token)) {
+        case JwtVerificationResult.Valid valid -> accessToken = valid.token();
+        case JwtVerificationResult.Rejected rejected -> {
+          reject(response, rejected.failureType());
+          return;
+        }
       }
-
-      Claims claims = jwtTokenProvider.parseClaims(token);
-      String username = claims.getSubject();
-
-      AuthenticatedUser authenticatedUser = authenticatedUserService
-          .findActiveUserByJwtSubject(username)
-          .orElse(null);
+      AuthenticatedUser authenticatedUser = authenticate(accessToken).orElse(null);
       if (authenticatedUser == null) {
         filterChain.doFilter(request, response);
         return;
@@ -64,8 +131,74 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
           authenticatedUser, null, authenticatedUser.getAuthorities());
 
       SecurityContextHolder.getContext().setAuthentication(authentication);
+      request.setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, accessToken);
     }
 
     filterChain.doFilter(request, response);
   }
+
+  private static void reject(HttpServletResponse response, JwtFailureType failureType)
+      throws IOException {
+    byte[] body = REJECTION_BODIES.get(failureType);
+    response.setStatus(HttpStatus.UNAUTHORIZED.value());
+    response.setHeader(HttpHeaders.WWW_AUTHENTICATE, BEARER_CHALLENGE);
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setContentLength(body.length);
+    response.getOutputStream().write(body);
+  }
+
+  /**
+   * Encodes the 401 bodies once from the {@link InvalidTokenResponse} that
+   * {@code GlobalExceptionHandler.handleJwtExceptions} returns.
+   */
+  private static Map<JwtFailureType, byte[]> rejectionBodies() {
+    JsonMapper jsonMapper = JsonMapper.builder().build();
+    Map<JwtFailureType, byte[]> bodies = new EnumMap<>(JwtFailureType.class);
+    for (JwtFailureType type : JwtFailureType.values()) {
+      String message = switch (type) {
+        case EXPIRED -> "JWT 토큰이 만료되었습니다.";
+        case MALFORMED -> "JWT 토큰 구조가 잘못되었습니다.";
+        case UNSUPPORTED -> "지원하지 않는 JWT 토큰 형식입니다.";
+        case BAD_SIGNATURE -> "JWT 서명이 올바르지 않습니다.";
+        case INVALID_ARGUMENT -> "JWT 토큰이 비어있거나 잘못된 인자입니다.";
+        case INVALID -> "유효하지 않은 JWT 토큰입니다.";
+      };
+      bodies.put(type, jsonMapper.writeValueAsBytes(InvalidTokenResponse.of(message)));
+    }
+    return bodies;
+  }
+
+  /**
+   * Checks the Logout Blacklist and revocation watermarks and resolves the active User of an
+   * Access Token.
+   */
+  private Optional<AuthenticatedUser> authenticate(VerifiedToken accessToken) {
+    if (accessToken.subject() != null
+        && principalSnapshotStore != null && principalSnapshotStore.isEnabled()) {
+      return principalSnapshotStore.authenticate(accessToken, claimsOnly);
+    }
+    if (!tokenLifecycleService.isAccessTokenAllowed(accessToken)) {
+      return Optional.empty();
+    }
+    return findActiveUser(accessToken);
+  }
+
+  /**
+   * Compact Access Tokens may identify the User by numeric id instead of JWT Subject.
+   */
+  private Optional<AuthenticatedUser> findActiveUser(VerifiedToken accessToken) {
+    if (accessToken.subject() == null) {
+      return authenticatedUserService.findActiveUserById(accessToken.userId());
+    }
+    if (claimsOnly) {
+      if (!userSecurityEpoch.isCurrent(accessToken.subject(), accessToken.issuedAt())) {
+        return Optional.empty();
+      }
+      String jwtSubject = accessToken.subject();
+      return Optional.of(ClaimsAuthenticatedUser.of(
+          accessToken.userId(), jwtSubject, accessToken.roles(),
+          () -> authenticatedUserService.findActiveUserByJwtSubject(jwtSubject)));
+    }
+    return authenticatedUserService.findActiveUserByJwtSubject(accessToken.subject());
+  }
 }
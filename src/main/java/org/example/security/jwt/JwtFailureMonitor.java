@@ -0,0 +1,160 @@
+package org.example.security.jwt;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts JWT verification failures by {@link JwtFailureType} and writes rate-limited, redacted
+ * log lines.
+ *
+ * <p>Every failure increments a {@link LongAdder}, published as the
+ * {@code jwt.verification.failures} counter tagged by {@code type}. At most one line per type is
+ * logged per {@code jwt.failure-log.interval}; it carries the number of failures suppressed since
+ * the previous line, a short SHA-256 fingerprint and the length of the token, never the token
+ * itself. A flood of bad tokens therefore costs a counter increment and one CAS per request.
+ */
+@Slf4j
+@Component
+public class JwtFailureMonitor implements MeterBinder {
+
+  private static final String FAILURES_METRIC = "jwt.verification.failures";
+  private static final String SUPPRESSED_METRIC = "jwt.verification.failure-logs.suppressed";
+  private static final int FINGERPRINT_LENGTH = 12;
+
+  private final long intervalNanos;
+  private final LongSupplier nanoTime;
+  private final Map<JwtFailureType, Counter> counters = new EnumMap<>(JwtFailureType.class);
+  private final LongAdder suppressedLogs = new LongAdder();
+
+  /**
+   * Creates the monitor from {@code jwt.failure-log.*} settings.
+   *
+   * @param interval minimum time between two log lines of the same failure type
+   */
+  @Autowired
+  public JwtFailureMonitor(@Value("${jwt.failure-log.interval:10s}") Duration interval) {
+    this(interval, System::nanoTime);
+  }
+
+  JwtFailureMonitor(Duration interval, LongSupplier nanoTime) {
+    this.intervalNanos = interval.toNanos();
+    this.nanoTime = nanoTime;
+    long now = nanoTime.getAsLong();
+    for (JwtFailureType type : JwtFailureType.values()) {
+      counters.put(type, new Counter(now - intervalNanos));
+    }
+  }
+
+  /**
+   * Returns a monitor with the default log interval that is not bound to a registry.
+   */
+  public static JwtFailureMonitor standalone() {
+    return new JwtFailureMonitor(Duration.ofSeconds(10));
+  }
+
+  /**
+   * Records a verification failure.
+   *
+   * @param token rejected token, used only for a fingerprint when a line is logged
+   * @param failure exception thrown while verifying
+   * @return failure type
+   */
+  public JwtFailureType record(String token, RuntimeException failure) {
+    JwtFailureType type = JwtFailureType.of(failure);
+    record(token, type);
+    return type;
+  }
+
+  /**
+   * Records a verification failure detected without an exception.
+   *
+   * @param token rejected token, used only for a fingerprint when a line is logged
+   * @param type failure type
+   */
+  public void record(String token, JwtFailureType type) {
+    Counter counter = counters.get(type);
+    counter.failures.increment();
+
+    long now = nanoTime.getAsLong();
+    long lastLogged = counter.lastLoggedNanos.get();
+    if (now - lastLogged < intervalNanos
+        || !counter.lastLoggedNanos.compareAndSet(lastLogged, now)) {
+      counter.suppressedSinceLog.increment();
+      suppressedLogs.increment();
+      return;
+    }
+
+    long suppressed = counter.suppressedSinceLog.sumThenReset();
+    if (type == JwtFailureType.EXPIRED) {
+      // 만료는 클라이언트의 정상 흐름(재발급 전 요청)이므로 운영 로그에 남기지 않는다.
+      log.debug("JWT 검증 실패. type: {}, token: {}, suppressed: {}",
+          type, fingerprint(token), suppressed);
+    } else {
+      log.warn("JWT 검증 실패. type: {}, token: {}, suppressed: {}",
+          type, fingerprint(token), suppressed);
+    }
+  }
+
+  /**
+   * Returns the number of failures recorded for the type.
+   */
+  public long count(JwtFailureType type) {
+    return counters.get(type).failures.sum();
+  }
+
+  /**
+   * Returns the number of failures that were counted but not logged.
+   */
+  public long suppressedLogCount() {
+    return suppressedLogs.sum();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    counters.forEach((type, counter) -> FunctionCounter
+        .builder(FAILURES_METRIC, counter.failures, LongAdder::sum)
+        .description("JWT verification failures")
+        .tag("type", type.name().toLowerCase(Locale.ROOT))
+        .register(registry));
+    FunctionCounter.builder(SUPPRESSED_METRIC, suppressedLogs, LongAdder::sum)
+        .description("JWT verification failures not written to the log")
+        .register(registry);
+  }
+
+  /**
+   * Redacts the token to a short digest prefix and its length.
+   */
+  private static String fingerprint(String token) {
+    if (token == null || token.isEmpty()) {
+      return "<empty>";
+    }
+    String digest = VerifiedTokenCache.digest(token);
+    return digest.substring(0, FINGERPRINT_LENGTH) + " (" + token.length() + " chars)";
+  }
+
+  /**
+   * Failure count and log rate limit state for one failure type.
+   */
+  private static final class Counter {
+
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder suppressedSinceLog = new LongAdder();
+    private final AtomicLong lastLoggedNanos;
+
+    private Counter(long lastLoggedNanos) {
+      this.lastLoggedNanos = new AtomicLong(lastLoggedNanos);
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package org.example.security.jwt;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.SecurityException;
+
+/**
+ * Why a JWT failed verification.
+ */
+public enum JwtFailureType {
+
+  /** {@code exp} has passed. */
+  EXPIRED,
+
+  /** Not a well-formed compact JWS, or required claims are missing. */
+  MALFORMED,
+
+  /** Unknown {@code kid}, algorithm or claim schema version. */
+  UNSUPPORTED,
+
+  /** The signature does not match. */
+  BAD_SIGNATURE,
+
+  /** Empty or otherwise unusable token string. */
+  INVALID_ARGUMENT,
+
+  /** Any other verification failure. */
+  INVALID;
+
+  /**
+   * Classifies a verification exception.
+   *
+   * @param failure exception thrown while verifying a token
+   * @return failure type
+   */
+  public static JwtFailureType of(RuntimeException failure) {
+    if (failure instanceof ExpiredJwtException) {
+      return EXPIRED;
+    }
+    if (failure instanceof MalformedJwtException) {
+      return MALFORMED;
+    }
+    if (failure instanceof UnsupportedJwtException) {
+      return UNSUPPORTED;
+    }
+    if (failure instanceof SecurityException) {
+      return BAD_SIGNATURE;
+    }
+    if (failure instanceof IllegalArgumentException) {
+      return INVALID_ARGUMENT;
+    }
+    return INVALID;
+  }
+}
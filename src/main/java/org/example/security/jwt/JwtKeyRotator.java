@@ -0,0 +1,219 @@
+package org.example.security.jwt;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.example.repository.SigningKeyRedisRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rotates JWT signing keys without a restart and keeps every instance's {@link JwtKeyring} in
+ * sync with the shared key store.
+ *
+ * <p>A new key is first stored with an activation time one refresh cycle in the future, so that
+ * every instance already verifies (and the JWKS already publishes) the key before any instance
+ * signs with it. Once the next key is active, the previous key stays verify-only until every
+ * token it could have signed has expired ({@code jwt.refresh-token-expiration} plus one refresh
+ * cycle for clock skew), and is then dropped. Outstanding tokens therefore stay valid until
+ * their own {@code exp} and rotation does not cause a {@code /refresh} spike. The legacy
+ * {@code jwt.secret} key and the configured {@code jwt.signing.*} key are retired the same way,
+ * once the first stored key has been active for that long.
+ *
+ * <p>Each instance reloads the key store every {@code jwt.signing.rotation.check-interval}. When
+ * {@code jwt.signing.rotation.interval} is positive, the instance that wins the rotation lock also
+ * stages the next key once the newest key is that old. {@link #rotate()} stages a key at once.
+ *
+ * <p>Key material is encrypted by {@link SigningKeyCipher} before it is written, so the shared
+ * hash only holds the {@code kid}, the activation time and ciphertext.
+ */
+@Slf4j
+@Component
+public class JwtKeyRotator {
+
+  private final JwtKeyring keyring;
+  private final SigningKeyRedisRepository signingKeyRedisRepository;
+  private final SigningKeyCipher signingKeyCipher;
+  private final String algorithm;
+  private final Duration rotationInterval;
+  private final Duration checkInterval;
+  private final Duration retention;
+  private final Clock clock;
+
+  /**
+   * Creates the rotator from {@code jwt.signing.*} settings.
+   *
+   * @param keyring keyring updated on every reload
+   * @param signingKeyRedisRepository shared key store
+   * @param signingKeyCipher encrypts key material written to the key store
+   * @param algorithm algorithm of generated keys: {@code HMAC}, {@code ES256} or {@code EdDSA}
+   * @param rotationInterval age at which the next key is staged; zero disables scheduling
+   * @param checkInterval key store reload interval
+   * @param refreshTokenExpiration longest token lifetime in milliseconds
+   */
+  @Autowired
+  public JwtKeyRotator(
+      JwtKeyring keyring,
+      SigningKeyRedisRepository signingKeyRedisRepository,
+      SigningKeyCipher signingKeyCipher,
+      @Value("${jwt.signing.algorithm:HMAC}") String algorithm,
+      @Value("${jwt.signing.rotation.interval:0s}") Duration rotationInterval,
+      @Value("${jwt.signing.rotation.check-interval:30s}") Duration checkInterval,
+      @Value("${jwt.refresh-token-expiration}") long refreshTokenExpiration) {
+    this(keyring, signingKeyRedisRepository, signingKeyCipher, algorithm, rotationInterval,
+        checkInterval, refreshTokenExpiration, Clock.systemUTC());
+  }
+
+  JwtKeyRotator(
+      JwtKeyring keyring,
+      SigningKeyRedisRepository signingKeyRedisRepository,
+      SigningKeyCipher signingKeyCipher,
+      String algorithm,
+      Duration rotationInterval,
+      Duration checkInterval,
+      long refreshTokenExpiration,
+      Clock clock) {
+    this.keyring = keyring;
+    this.signingKeyRedisRepository = signingKeyRedisRepository;
+    this.signingKeyCipher = signingKeyCipher;
+    this.algorithm = algorithm;
+    this.rotationInterval = rotationInterval;
+    this.checkInterval = checkInterval;
+    this.retention = Duration.ofMillis(refreshTokenExpiration).plus(checkInterval);
+    this.clock = clock;
+  }
+
+  /**
+   * Reloads the key store into the keyring and stages the next key when rotation is due.
+   *
+   * <p>If Redis is unavailable the current keyring is kept; tokens keep verifying with the keys
+   * loaded last time.
+   */
+  @Scheduled(fixedDelayString = "${jwt.signing.rotation.check-interval:30s}")
+  public void refresh() {
+    try {
+      List<StoredKey> keys = load();
+      if (rotationDue(keys) && signingKeyRedisRepository.tryLockRotation(checkInterval)) {
+        keys.add(stage());
+      }
+      install(keys);
+    } catch (DataAccessException e) {
+      log.warn("JWT 서명 키 저장소를 읽지 못해 기존 keyring을 유지합니다.", e);
+    }
+  }
+
+  /**
+   * Stages a new signing key immediately.
+   *
+   * <p>The key is verifiable at once and signs new tokens after one refresh cycle.
+   *
+   * @return {@code kid} of the new key
+   * @throws DataAccessException if the key store is unavailable
+   */
+  public String rotate() {
+    StoredKey next = stage();
+    List<StoredKey> keys = load();
+    install(keys);
+    log.info("JWT 서명 키 교체를 예약했습니다. kid: {}, activateAt: {}",
+        next.key().keyId(), next.activateAt());
+    return next.key().keyId();
+  }
+
+  private StoredKey stage() {
+    // 모든 인스턴스가 새 키를 읽은 뒤에 서명을 시작하도록 활성화 시각을 한 주기 이상 미룬다.
+    Instant activateAt = clock.instant().plus(checkInterval.multipliedBy(2));
+    JwtSigningKey key = JwtSigningKey.generate(algorithm);
+    save(key.keyId(), activateAt, key.encode());
+    return new StoredKey(key, activateAt);
+  }
+
+  private void save(String keyId, Instant activateAt, String encoded) {
+    signingKeyRedisRepository.save(
+        keyId, activateAt.toEpochMilli() + ";" + signingKeyCipher.encrypt(keyId, encoded));
+  }
+
+  private List<StoredKey> load() {
+    List<StoredKey> keys = new ArrayList<>();
+    for (Map.Entry<String, String> entry : signingKeyRedisRepository.findAll().entrySet()) {
+      try {
+        String keyId = entry.getKey();
+        String value = entry.getValue();
+        int separator = value.indexOf(';');
+        Instant activateAt = Instant.ofEpochMilli(Long.parseLong(value.substring(0, separator)));
+        String stored = value.substring(separator + 1);
+        boolean encrypted = signingKeyCipher.isEncrypted(stored);
+        String encoded = encrypted ? signingKeyCipher.decrypt(keyId, stored) : stored;
+        keys.add(new StoredKey(JwtSigningKey.decode(keyId, encoded), activateAt));
+        if (!encrypted) {
+          // 이전 형식의 평문 엔트리는 암호화해 덮어쓴다.
+          save(keyId, activateAt, encoded);
+        }
+      } catch (RuntimeException e) {
+        log.error("저장된 JWT 서명 키를 읽을 수 없어 건너뜁니다. kid: {}", entry.getKey(), e);
+      }
+    }
+    return keys;
+  }
+
+  private boolean rotationDue(List<StoredKey> keys) {
+    if (rotationInterval.isZero() || rotationInterval.isNegative()) {
+      return false;
+    }
+    Instant newest = keys.stream()
+        .map(StoredKey::activateAt)
+        .max(Comparator.naturalOrder())
+        .orElse(Instant.EPOCH);
+    return !newest.plus(rotationInterval).isAfter(clock.instant());
+  }
+
+  /**
+   * Installs the newest activated key as the signer and every other unretired key as
+   * verify-only, then deletes retired keys from the store.
+   *
+   * <p>The configured keys stopped signing when the oldest stored key was activated; a key is
+   * only deleted once its successor is past retention, so the oldest remaining key tells whether
+   * tokens signed by the configured keys can still be valid.
+   */
+  private void install(List<StoredKey> keys) {
+    Instant now = clock.instant();
+    keys.sort(Comparator.comparing(StoredKey::activateAt));
+
+    JwtSigningKey activeKey = null;
+    List<JwtSigningKey> verifyOnlyKeys = new ArrayList<>();
+    List<String> retiredKeyIds = new ArrayList<>();
+    for (int i = 0; i < keys.size(); i++) {
+      StoredKey key = keys.get(i);
+      // 다음 키가 활성화된 뒤 가장 긴 토큰 수명이 지나면 이 키로 서명된 토큰은 남아 있지 않다.
+      boolean retired = i + 1 < keys.size()
+          && !keys.get(i + 1).activateAt().plus(retention).isAfter(now);
+      if (retired) {
+        retiredKeyIds.add(key.key().keyId());
+      } else if (!key.activateAt().isAfter(now)) {
+        if (activeKey != null) {
+          verifyOnlyKeys.add(activeKey);
+        }
+        activeKey = key.key();
+      } else {
+        verifyOnlyKeys.add(key.key());
+      }
+    }
+    boolean legacyRetired = !keys.isEmpty()
+        && !keys.get(0).activateAt().plus(retention).isAfter(now);
+    keyring.install(activeKey, verifyOnlyKeys, legacyRetired);
+    signingKeyRedisRepository.deleteAll(retiredKeyIds);
+  }
+
+  /**
+   * Stored key and the time it starts signing.
+   */
+  private record StoredKey(JwtSigningKey key, Instant activateAt) {
+  }
+}
@@ -0,0 +1,236 @@
+package org.example.security.jwt;
+
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.Locator;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import java.security.Key;
+import java.security.KeyPair;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keys that sign and verify service JWTs.
+ *
+ * <p>The keyring holds one active signing key plus any number of verify-only keys, indexed by
+ * {@code kid} in a hash map so that each verification is a single lookup. The legacy HMAC key
+ * derived from {@code jwt.secret} verifies tokens without a {@code kid} header, and the key
+ * configured under {@code jwt.signing.*} signs until {@link JwtKeyRotator} installs a rotated
+ * key. Once no token signed by them can still be valid, the rotator retires both and only
+ * rotated keys are accepted. Asymmetric public keys are published through
+ * {@code /.well-known/jwks.json}.
+ *
+ * <p>The key set is an immutable snapshot swapped atomically by {@link #install}, so request
+ * threads never lock and always see a consistent active key and index.
+ */
+@Slf4j
+@Component
+public class JwtKeyring implements Locator<Key> {
+
+  private static final String HMAC = "HMAC";
+
+  private final JwtSigningKey hmacKey;
+  private final JwtSigningKey configuredKey;
+  private volatile KeySet keySet;
+
+  /**
+   * Creates the keyring from {@code jwt.secret} and {@code jwt.signing.*} settings.
+   *
+   * @param secret base64 HMAC secret for legacy tokens
+   * @param algorithm {@code HMAC}, {@code ES256} or {@code EdDSA}
+   * @param keyId {@code kid} for the asymmetric key; JWK thumbprint when blank
+   * @param privateKey base64 PKCS#8 private key (PEM armor allowed)
+   * @param publicKey base64 X.509 public key (PEM armor allowed)
+   * @param allowGeneratedKeys whether a missing asymmetric key pair may be replaced by a
+   *     temporary one generated at startup (local development only)
+   * @throws IllegalStateException if an asymmetric algorithm is configured without a key pair
+   *     and generated keys are not allowed
+   */
+  @Autowired
+  public JwtKeyring(
+      @Value("${jwt.secret}") String secret,
+      @Value("${jwt.signing.algorithm:HMAC}") String algorithm,
+      @Value("${jwt.signing.key-id:}") String keyId,
+      @Value("${jwt.signing.private-key:}") String privateKey,
+      @Value("${jwt.signing.public-key:}") String publicKey,
+      @Value("${jwt.signing.allow-generated-keys:false}") boolean allowGeneratedKeys) {
+    this(JwtSigningKey.hmac(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret))),
+        HMAC.equalsIgnoreCase(algorithm)
+            ? null
+            : asymmetricKey(algorithm, keyId, privateKey, publicKey, allowGeneratedKeys));
+  }
+
+  /**
+   * Creates a keyring that signs with {@code configuredKey}, or with the HMAC key when it is
+   * {@code null}.
+   */
+  JwtKeyring(JwtSigningKey hmacKey, JwtSigningKey configuredKey) {
+    this.hmacKey = hmacKey;
+    this.configuredKey = configuredKey != null ? configuredKey : hmacKey;
+    install(null, List.of(), false);
+  }
+
+  /**
+   * Returns a keyring that only uses the legacy HMAC secret.
+   */
+  public static JwtKeyring hmac(String secret) {
+    return new JwtKeyring(
+        JwtSigningKey.hmac(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret))), null);
+  }
+
+  /**
+   * Returns the key that signs new tokens.
+   */
+  public JwtSigningKey activeKey() {
+    return keySet.activeKey();
+  }
+
+  /**
+   * Returns the legacy HMAC key used for tokens without {@code kid}.
+   */
+  public JwtSigningKey hmacKey() {
+    return hmacKey;
+  }
+
+  /**
+   * Returns whether the legacy HMAC key and the configured key are still accepted.
+   */
+  public boolean acceptsLegacyKeys() {
+    return keySet.legacyKey() != null;
+  }
+
+  /**
+   * Returns the key with the given {@code kid}, or {@code null} if it is not in the keyring.
+   *
+   * <p>A {@code null} {@code kid} maps to the legacy HMAC key until it is retired.
+   */
+  public JwtSigningKey findKey(String keyId) {
+    return keyId == null ? keySet.legacyKey() : keySet.keysById().get(keyId);
+  }
+
+  /**
+   * Returns the public keys published in the JWKS, including verify-only keys.
+   */
+  public List<PublicJwk<?>> publicJwks() {
+    return keySet.keysById().values().stream()
+        .filter(key -> !key.isHmac())
+        .<PublicJwk<?>>map(JwtSigningKey::toPublicJwk)
+        .toList();
+  }
+
+  /**
+   * Replaces the key set.
+   *
+   * <p>Until {@code legacyRetired} is set the legacy HMAC key and the configured key stay
+   * verifiable, and the configured key signs when {@code activeKey} is {@code null}. Keys left
+   * out of {@code verifyOnlyKeys} are no longer accepted.
+   *
+   * @param activeKey key that signs new tokens, or {@code null} for the configured key
+   * @param verifyOnlyKeys keys that only verify outstanding (or not yet active) tokens
+   * @param legacyRetired whether every token signed by the legacy or configured key has expired
+   * @throws IllegalArgumentException if the active key cannot sign, or if the legacy keys are
+   *     retired without a rotated active key
+   */
+  public void install(JwtSigningKey activeKey, Collection<JwtSigningKey> verifyOnlyKeys,
+      boolean legacyRetired) {
+    if (legacyRetired && activeKey == null) {
+      throw new IllegalArgumentException("Legacy keys cannot be retired without an active key");
+    }
+    JwtSigningKey signingKey = activeKey != null ? activeKey : configuredKey;
+    if (!signingKey.canSign()) {
+      throw new IllegalArgumentException("Active key cannot sign: " + signingKey);
+    }
+    Map<String, JwtSigningKey> keysById = new HashMap<>();
+    for (JwtSigningKey key : verifyOnlyKeys) {
+      keysById.put(Objects.requireNonNull(key.keyId(), "kid"), key);
+    }
+    if (!legacyRetired && configuredKey.keyId() != null) {
+      keysById.put(configuredKey.keyId(), configuredKey);
+    }
+    if (signingKey.keyId() != null) {
+      keysById.put(signingKey.keyId(), signingKey);
+    }
+    KeySet previous = keySet;
+    keySet = new KeySet(signingKey, Map.copyOf(keysById), legacyRetired ? null : hmacKey);
+    if (previous != null && previous.activeKey() != signingKey) {
+      log.info("JWT 서명 키가 교체되었습니다. active: {}, keys: {}",
+          signingKey, keysById.keySet());
+    }
+    if (previous != null && previous.legacyKey() != null && legacyRetired) {
+      log.info("jwt.secret 키와 설정된 서명 키로 서명된 토큰을 더 이상 허용하지 않습니다.");
+    }
+  }
+
+  /**
+   * Picks the verification key for a token header.
+   *
+   * <p>The header {@code alg} must match the algorithm of the key so that a public key can
+   * never be used as an HMAC secret.
+   */
+  @Override
+  public Key locate(Header header) {
+    String keyId = header instanceof ProtectedHeader protectedHeader
+        ? protectedHeader.getKeyId()
+        : null;
+    JwtSigningKey key = findKey(keyId);
+    if (key == null) {
+      throw new UnsupportedJwtException("알 수 없는 서명 키(kid)입니다: " + keyId);
+    }
+    if (!key.algorithmId().equals(header.getAlgorithm())) {
+      throw new UnsupportedJwtException("서명 키와 알고리즘이 일치하지 않습니다: " + keyId);
+    }
+    return key.verificationKey();
+  }
+
+  private static JwtSigningKey asymmetricKey(String algorithm, String keyId, String privateKey,
+      String publicKey, boolean allowGeneratedKeys) {
+    SignatureAlgorithm signatureAlgorithm = JwtSigningKey.signatureAlgorithm(algorithm);
+
+    KeyPair keyPair;
+    if (privateKey.isBlank() || publicKey.isBlank()) {
+      if (!allowGeneratedKeys) {
+        // 인스턴스마다 다른 키로 서명하면 다른 인스턴스가 발급한 토큰을 검증하지 못한다.
+        throw new IllegalStateException("jwt.signing.private-key/public-key are required for "
+            + algorithm + " unless jwt.signing.allow-generated-keys is set");
+      }
+      // 로컬 개발용: 키를 설정하지 않으면 기동할 때마다 새 키 쌍을 만든다. (재시작 시 기존 토큰 무효)
+      log.warn("jwt.signing.private-key/public-key가 없어 임시 {} 키 쌍을 생성합니다.", algorithm);
+      keyPair = JwtSigningKey.generateKeyPair(signatureAlgorithm);
+    } else {
+      try {
+        keyPair = new KeyPair(
+            JwtSigningKey.decodePublicKey(signatureAlgorithm, decodePem(publicKey)),
+            JwtSigningKey.decodePrivateKey(signatureAlgorithm, decodePem(privateKey)));
+      } catch (IllegalArgumentException e) {
+        throw new IllegalStateException("Invalid jwt.signing.private-key/public-key", e);
+      }
+    }
+    return JwtSigningKey.asymmetric(keyId, signatureAlgorithm, keyPair);
+  }
+
+  private static byte[] decodePem(String encoded) {
+    String base64 = encoded
+        .replaceAll("-----(BEGIN|END) [A-Z ]+-----", "")
+        .replaceAll("\\s", "");
+    return Base64.getDecoder().decode(base64);
+  }
+
+  /**
+   * Immutable active key, {@code kid} index and legacy key ({@code null} once retired).
+   */
+  private record KeySet(
+      JwtSigningKey activeKey, Map<String, JwtSigningKey> keysById, JwtSigningKey legacyKey) {
+  }
+}
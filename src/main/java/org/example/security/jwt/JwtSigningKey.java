@@ -0,0 +1,282 @@
+package org.example.security.jwt;
+
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.MacAlgorithm;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.UUID;
+import javax.crypto.SecretKey;
+
+/**
+ * One key used to sign or verify service JWTs.
+ *
+ * <p>The legacy HMAC key from {@code jwt.secret} signs without a {@code kid} header so that
+ * tokens stay byte-compatible with the original format. Every other key (rotated HMAC keys and
+ * asymmetric ES256/EdDSA keys) writes its {@code kid} so that verifiers can pick the matching
+ * key from the keyring or the JWKS.
+ */
+public final class JwtSigningKey {
+
+  private static final Base64.Encoder ENCODER = Base64.getEncoder();
+  private static final Base64.Decoder DECODER = Base64.getDecoder();
+
+  private final String keyId;
+  private final String algorithmId;
+  private final SecretKey secretKey;
+  private final MacAlgorithm macAlgorithm;
+  private final PrivateKey privateKey;
+  private final PublicKey publicKey;
+  private final SignatureAlgorithm signatureAlgorithm;
+
+  private JwtSigningKey(String keyId, String algorithmId, SecretKey secretKey,
+      MacAlgorithm macAlgorithm, PrivateKey privateKey, PublicKey publicKey,
+      SignatureAlgorithm signatureAlgorithm) {
+    this.keyId = keyId;
+    this.algorithmId = algorithmId;
+    this.secretKey = secretKey;
+    this.macAlgorithm = macAlgorithm;
+    this.privateKey = privateKey;
+    this.publicKey = publicKey;
+    this.signatureAlgorithm = signatureAlgorithm;
+  }
+
+  /**
+   * Creates the legacy HMAC key, picking HS256/384/512 from the key length like
+   * {@code signWith(key)} does.
+   *
+   * @param secretKey HMAC key from {@code jwt.secret}
+   */
+  public static JwtSigningKey hmac(SecretKey secretKey) {
+    return hmac(null, secretKey);
+  }
+
+  /**
+   * Creates an HMAC key.
+   *
+   * @param keyId {@code kid} header value, or {@code null} for the legacy key
+   * @param secretKey HMAC key
+   */
+  public static JwtSigningKey hmac(String keyId, SecretKey secretKey) {
+    MacAlgorithm algorithm = switch (secretKey.getAlgorithm()) {
+      case "HmacSHA512" -> Jwts.SIG.HS512;
+      case "HmacSHA384" -> Jwts.SIG.HS384;
+      default -> Jwts.SIG.HS256;
+    };
+    return new JwtSigningKey(keyId, algorithm.getId(), secretKey, algorithm, null, null, null);
+  }
+
+  /**
+   * Creates an asymmetric key.
+   *
+   * @param keyId {@code kid} header value; derived from the JWK thumbprint when {@code null}
+   * @param algorithm {@link Jwts.SIG#ES256} or {@link Jwts.SIG#EdDSA}
+   * @param keyPair key pair; the private key may be {@code null} for a verify-only key
+   */
+  public static JwtSigningKey asymmetric(
+      String keyId, SignatureAlgorithm algorithm, KeyPair keyPair) {
+    PublicKey publicKey = keyPair.getPublic();
+    String resolvedKeyId = keyId != null && !keyId.isBlank()
+        ? keyId
+        : Jwks.builder().key(publicKey).idFromThumbprint().build().getId();
+    return new JwtSigningKey(resolvedKeyId, algorithm.getId(), null, null,
+        keyPair.getPrivate(), publicKey, algorithm);
+  }
+
+  /**
+   * Generates a fresh key for rotation.
+   *
+   * <p>HMAC keys are HS512 with a random {@code kid}; asymmetric keys use the JWK thumbprint.
+   *
+   * @param algorithm {@code HMAC}, {@code ES256} or {@code EdDSA}
+   */
+  public static JwtSigningKey generate(String algorithm) {
+    if ("HMAC".equalsIgnoreCase(algorithm)) {
+      return hmac(UUID.randomUUID().toString(), Jwts.SIG.HS512.key().build());
+    }
+    SignatureAlgorithm signatureAlgorithm = signatureAlgorithm(algorithm);
+    return asymmetric(null, signatureAlgorithm, generateKeyPair(signatureAlgorithm));
+  }
+
+  /**
+   * Restores a key written by {@link #encode()}.
+   *
+   * @param keyId {@code kid} of the stored key
+   * @param encoded {@code alg:base64(secret or PKCS#8 private key)[:base64(X.509 public key)]}
+   * @throws IllegalArgumentException if the value cannot be decoded
+   */
+  public static JwtSigningKey decode(String keyId, String encoded) {
+    String[] parts = encoded.split(":", -1);
+    if (parts.length < 2) {
+      throw new IllegalArgumentException("Invalid stored signing key: " + keyId);
+    }
+    if (parts[0].startsWith("HS")) {
+      return hmac(keyId, Keys.hmacShaKeyFor(DECODER.decode(parts[1])));
+    }
+    if (parts.length != 3) {
+      throw new IllegalArgumentException("Invalid stored signing key: " + keyId);
+    }
+    SignatureAlgorithm algorithm = signatureAlgorithm(parts[0]);
+    KeyPair keyPair = new KeyPair(
+        decodePublicKey(algorithm, DECODER.decode(parts[2])),
+        decodePrivateKey(algorithm, DECODER.decode(parts[1])));
+    return asymmetric(keyId, algorithm, keyPair);
+  }
+
+  /**
+   * Encodes the key material for the shared key store ({@link #decode}).
+   *
+   * <p>The value contains the secret or private key; {@link JwtKeyRotator} encrypts it with
+   * {@link SigningKeyCipher} before it is written to the key store.
+   */
+  public String encode() {
+    if (isHmac()) {
+      return algorithmId + ":" + ENCODER.encodeToString(secretKey.getEncoded());
+    }
+    if (privateKey == null) {
+      throw new IllegalStateException("Verify-only key cannot be stored: " + keyId);
+    }
+    return algorithmId
+        + ":" + ENCODER.encodeToString(privateKey.getEncoded())
+        + ":" + ENCODER.encodeToString(publicKey.getEncoded());
+  }
+
+  /**
+   * Returns the {@code kid} header value, or {@code null} for the legacy HMAC key.
+   */
+  public String keyId() {
+    return keyId;
+  }
+
+  /**
+   * Returns the JWS {@code alg} header value.
+   */
+  public String algorithmId() {
+    return algorithmId;
+  }
+
+  /**
+   * Returns whether this is an HMAC key.
+   */
+  public boolean isHmac() {
+    return secretKey != null;
+  }
+
+  /**
+   * Returns whether this key can sign new tokens.
+   */
+  public boolean canSign() {
+    return secretKey != null || privateKey != null;
+  }
+
+  /**
+   * Returns the key that verifies signatures made with this key.
+   */
+  public Key verificationKey() {
+    return isHmac() ? secretKey : publicKey;
+  }
+
+  /**
+   * Returns the HMAC key, or {@code null} for an asymmetric key.
+   */
+  SecretKey secretKey() {
+    return secretKey;
+  }
+
+  /**
+   * Returns the public JWK published in the JWKS, or {@code null} for an HMAC key.
+   */
+  public PublicJwk<?> toPublicJwk() {
+    if (isHmac()) {
+      return null;
+    }
+    return Jwks.builder()
+        .key(publicKey)
+        .id(keyId)
+        .algorithm(algorithmId)
+        .publicKeyUse("sig")
+        .build();
+  }
+
+  /**
+   * Applies the {@code kid} header and signature algorithm to a builder.
+   */
+  JwtBuilder signWith(JwtBuilder builder) {
+    if (isHmac()) {
+      if (keyId != null) {
+        builder.header().keyId(keyId);
+      }
+      return builder.signWith(secretKey, macAlgorithm);
+    }
+    if (privateKey == null) {
+      throw new IllegalStateException("Verify-only key cannot sign: " + keyId);
+    }
+    return builder
+        .header().keyId(keyId).and()
+        .signWith(privateKey, signatureAlgorithm);
+  }
+
+  /**
+   * Maps {@code ES256}/{@code EdDSA} to the jjwt signature algorithm.
+   */
+  static SignatureAlgorithm signatureAlgorithm(String algorithm) {
+    return switch (algorithm) {
+      case "ES256" -> Jwts.SIG.ES256;
+      case "EdDSA" -> Jwts.SIG.EdDSA;
+      default -> throw new IllegalStateException(
+          "Unsupported jwt.signing.algorithm: " + algorithm);
+    };
+  }
+
+  static KeyPair generateKeyPair(SignatureAlgorithm algorithm) {
+    try {
+      KeyPairGenerator generator = KeyPairGenerator.getInstance(keyAlgorithm(algorithm));
+      if (algorithm == Jwts.SIG.ES256) {
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+      }
+      return generator.generateKeyPair();
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Cannot generate " + algorithm.getId() + " key pair", e);
+    }
+  }
+
+  static PrivateKey decodePrivateKey(SignatureAlgorithm algorithm, byte[] encoded) {
+    try {
+      return KeyFactory.getInstance(keyAlgorithm(algorithm))
+          .generatePrivate(new PKCS8EncodedKeySpec(encoded));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalArgumentException("Invalid " + algorithm.getId() + " private key", e);
+    }
+  }
+
+  static PublicKey decodePublicKey(SignatureAlgorithm algorithm, byte[] encoded) {
+    try {
+      return KeyFactory.getInstance(keyAlgorithm(algorithm))
+          .generatePublic(new X509EncodedKeySpec(encoded));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalArgumentException("Invalid " + algorithm.getId() + " public key", e);
+    }
+  }
+
+  private static String keyAlgorithm(SignatureAlgorithm algorithm) {
+    return algorithm == Jwts.SIG.ES256 ? "EC" : "Ed25519";
+  }
+
+  @Override
+  public String toString() {
+    return "JwtSigningKey[kid=" + keyId + ", alg=" + algorithmId + "]";
+  }
+}
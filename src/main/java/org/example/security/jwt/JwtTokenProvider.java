@@ -1,52 +1,167 @@
 package org.example.security.jwt;
 
+import java.security.SecureRandom;
+import java.util.Base64;
 import java.util.Date;
 import java.util.List;
 
-import javax.crypto.SecretKey;
-
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import lombok.extern.slf4j.Slf4j;
 
-@Slf4j
 @Component
 public class JwtTokenProvider {
 
-  private final SecretKey key;
+  private static final String ROLES_CLAIM = "roles";
+  /** jti 길이(바이트): base64url 22자로 인코딩된다. */
+  private static final int TOKEN_ID_BYTES = 16;
+  private static final SecureRandom TOKEN_ID_RANDOM = new SecureRandom();
+  private static final Base64.Encoder TOKEN_ID_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+  private final JwtKeyring keyring;
+  private final JwtParser jwtParser;
+  private final HmacTemplates legacyTemplates;
+  private volatile HmacTemplates activeTemplates;
   private final long accessTokenExpiration;
   private final long refreshTokenExpiration;
+  private final VerifiedTokenCache verifiedTokenCache;
+  private final CompactClaimSchema compactClaimSchema;
+  private final JwtFailureMonitor failureMonitor;
+
+  public JwtTokenProvider(
+      String secretKey,
+      long accessTokenExpiration,
+      long refreshTokenExpiration) {
+    this(secretKey, accessTokenExpiration, refreshTokenExpiration,
+        VerifiedTokenCache.disabled(), CompactClaimSchema.disabled());
+  }
+
+  public JwtTokenProvider(
+      String secretKey,
+      long accessTokenExpiration,
+      long refreshTokenExpiration,
+      VerifiedTokenCache verifiedTokenCache,
+      CompactClaimSchema compactClaimSchema) {
+    this(JwtKeyring.hmac(secretKey), accessTokenExpiration, refreshTokenExpiration,
+        verifiedTokenCache, compactClaimSchema);
+  }
+
+  public JwtTokenProvider(
+      JwtKeyring keyring,
+      long accessTokenExpiration,
+      long refreshTokenExpiration,
+      VerifiedTokenCache verifiedTokenCache,
+      CompactClaimSchema compactClaimSchema) {
+    this(keyring, accessTokenExpiration, refreshTokenExpiration,
+        verifiedTokenCache, compactClaimSchema, JwtFailureMonitor.standalone());
+  }
 
+  @Autowired
   public JwtTokenProvider(
-      @Value("${jwt.secret}") String secretKey,
+      JwtKeyring keyring,
       @Value("${jwt.access-token-expiration}") long accessTokenExpiration,
-      @Value("${jwt.refresh-token-expiration}") long refreshTokenExpiration) {
-    byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-    this.key = Keys.hmacShaKeyFor(keyBytes); // 바이트 배열을 HS256 알고리즘에 사용할 비밀키 생성
+      @Value("${jwt.refresh-token-expiration}") long refreshTokenExpiration,
+      VerifiedTokenCache verifiedTokenCache,
+      CompactClaimSchema compactClaimSchema,
+      JwtFailureMonitor failureMonitor) {
+    this.keyring = keyring;
+    // 파서는 불변·스레드 안전하므로 생성 시 한 번만 만들어 모든 요청이 공유한다.
+    // kid가 없으면 기존 HMAC 키, 있으면 keyring에서 kid로 찾은 키로 검증한다.
+    this.jwtParser = Jwts.parser()
+        .keyLocator(keyring)
+        .build();
     this.accessTokenExpiration = accessTokenExpiration;
     this.refreshTokenExpiration = refreshTokenExpiration;
+    this.verifiedTokenCache = verifiedTokenCache;
+    this.compactClaimSchema = compactClaimSchema;
+    this.failureMonitor = failureMonitor;
+    this.legacyTemplates = HmacTemplates.of(keyring.hmacKey(), compactClaimSchema);
+    this.activeTemplates = legacyTemplates;
   }
 
   // Access Token 생성
   public String generateAccessToken(String username, List<String> roles) {
+    return generateAccessToken(null, username, roles);
+  }
+
+  /**
+   * Access Token을 생성한다.
+   *
+   * <p>{@link CompactClaimSchema}가 활성화되어 있으면 roles를 비트마스크로 줄인 압축 스키마로 발급하고,
+   * numeric-subject 설정이 켜져 있고 userId가 있으면 JWT Subject 대신 숫자 User id를 담는다.
+   * 비트가 없는 Role이 섞여 있으면 기존 스키마로 발급한다.
+   * 모든 Access Token에는 로그아웃 Blacklist 키로 쓰는 무작위 jti(22자)를 담는다.
+   *
+   * @param userId 서비스 User id (없으면 {@code null})
+   * @param username JWT Subject
+   * @param roles Role 이름 목록
+   * @return 서명된 Access Token
+   */
+  public String generateAccessToken(Long userId, String username, List<String> roles) {
     Date now = new Date();
     Date expiryDate = new Date(now.getTime() + accessTokenExpiration);
+    JwtSigningKey signingKey = keyring.activeKey();
+    String tokenId = newTokenId();
 
-    return Jwts.builder()
+    if (compactClaimSchema.isEnabled()) {
+      long roleMask = compactClaimSchema.encodeRoles(roles);
+      if (roleMask >= 0) {
+        Long subjectId = compactClaimSchema.isNumericSubject() ? userId : null;
+        return generateCompactAccessToken(
+            signingKey, subjectId, username, tokenId, roleMask, now, expiryDate);
+      }
+    }
+
+    // 헤더를 미리 인코딩한 템플릿 발급기로 먼저 시도하고, 이스케이프가 필요한 값은 jjwt 빌더로 발급한다.
+    HmacTemplates templates = templatesFor(signingKey);
+    String token = templates != null
+        ? templates.issuer().issue(
+            username, tokenId, roles, epochSeconds(now), epochSeconds(expiryDate))
+        : null;
+    if (token != null) {
+      return token;
+    }
+
+    return signingKey.signWith(Jwts.builder()) // 서명
         .subject(username) // 토큰의 주체
-        .claim("roles", roles) // 토큰에 담을 정보
+        .id(tokenId) // 토큰 식별자 (Blacklist 키)
+        .claim(ROLES_CLAIM, roles) // 토큰에 담을 정보
+        .issuedAt(now) // 토큰 발급 시간
+        .expiration(expiryDate) // 토큰 만료 시간
+        .compact(); // 토큰 생성
+  }
+
+  private String generateCompactAccessToken(JwtSigningKey signingKey, Long userId,
+      String username, String tokenId, long roleMask, Date now, Date expiryDate) {
+    HmacTemplates templates = templatesFor(signingKey);
+    String token = templates != null
+        ? templates.issuer().issueCompact(
+            username, userId, tokenId, roleMask, epochSeconds(now), epochSeconds(expiryDate))
+        : null;
+    if (token != null) {
+      return token;
+    }
+
+    JwtBuilder builder = signingKey.signWith(Jwts.builder()) // 서명
+        .claim(CompactClaimSchema.VERSION_CLAIM, CompactClaimSchema.VERSION); // 스키마 버전
+    if (userId != null) {
+      builder.claim(CompactClaimSchema.USER_ID_CLAIM, userId); // 숫자 User id
+    } else {
+      builder.subject(username); // 토큰의 주체
+    }
+    return builder
+        .id(tokenId) // 토큰 식별자 (Blacklist 키)
+        .claim(CompactClaimSchema.ROLE_MASK_CLAIM, roleMask) // Role 비트마스크
         .issuedAt(now) // 토큰 발급 시간
         .expiration(expiryDate) // 토큰 만료 시간
-        .signWith(key) // 서명
         .compact(); // 토큰 생성
   }
 
@@ -54,46 +169,129 @@ public class JwtTokenProvider {
   public String generateRefreshToken(String username) {
     Date now = new Date();
     Date expiryDate = new Date(now.getTime() + refreshTokenExpiration);
+    JwtSigningKey signingKey = keyring.activeKey();
+
+    HmacTemplates templates = templatesFor(signingKey);
+    String token = templates != null
+        ? templates.issuer().issue(username, null, epochSeconds(now), epochSeconds(expiryDate))
+        : null;
+    if (token != null) {
+      return token;
+    }
 
-    return Jwts.builder()
+    return signingKey.signWith(Jwts.builder()) // 서명
         .subject(username) // 토큰의 주체
         .issuedAt(now) // 토큰 발급 시간
         .expiration(expiryDate) // 토큰 만료 시간
-        .signWith(key) // 서명
         .compact(); // 토큰 생성
   }
 
   // JWT 파싱 및 Claims 추출
   public Claims parseClaims(String token) {
-    return Jwts.parser()
-        .verifyWith(key)
-        .build()
+    return jwtParser
         .parseSignedClaims(token)
         .getPayload();
   }
 
-  // 토큰 서명 유효성 검증
-  public boolean validateToken(String token) {
+  /**
+   * 토큰을 한 번만 파싱·서명 검증하고 검증된 값을 반환한다.
+   *
+   * <p>필터, TokenLifecycleService, 컨트롤러는 이 값을 전달받아 사용하므로
+   * 한 요청 안에서 같은 토큰을 다시 파싱하지 않는다.
+   * {@link VerifiedTokenCache}가 활성화되어 있으면 같은 토큰의 반복 요청은 base64 디코딩과
+   * HMAC 계산 없이 캐시된 결과를 사용한다.
+   *
+   * @param token 검사할 JWT 문자열
+   * @return 서명과 만료 시간이 확인된 토큰
+   * @throws JwtException 만료, 변조, 형식 오류 등으로 검증에 실패한 경우
+   */
+  public VerifiedToken verify(String token) {
+    return verifiedTokenCache.get(token, this::verifySignature);
+  }
+
+  /**
+   * 토큰을 검증하되 실패를 예외 대신 결과 값으로 반환한다.
+   *
+   * <p>직접 발급한 형태의 토큰과 구조부터 잘못된 토큰은 예외를 만들지 않고 공유 상수로 거부하므로,
+   * 잘못된 토큰이 대량으로 들어와도 스택 트레이스 생성과 MVC 예외 처리 비용이 들지 않는다.
+   * 그 외 형식의 토큰만 jjwt 파서로 위임하며, 이때 발생한 예외도 결과 값으로 바꾼다.
+   *
+   * @param token 검사할 JWT 문자열
+   * @return 검증 결과
+   */
+  public JwtVerificationResult tryVerify(String token) {
+    return verifiedTokenCache.check(token, this::checkSignature);
+  }
+
+  private JwtVerificationResult checkSignature(String token) {
+    JwtVerificationResult result;
+    if (token == null || token.isEmpty()) {
+      result = JwtVerificationResult.INVALID_ARGUMENT;
+    } else {
+      long now = System.currentTimeMillis();
+      result = keyring.acceptsLegacyKeys() ? legacyTemplates.verifier().check(token, now) : null;
+      if (result == null) {
+        HmacTemplates templates = templatesFor(keyring.activeKey());
+        if (templates != null && templates != legacyTemplates) {
+          result = templates.verifier().check(token, now);
+        }
+      }
+      if (result == null) {
+        result = isCompactJws(token) ? parse(token) : JwtVerificationResult.MALFORMED;
+      }
+    }
+    if (result instanceof JwtVerificationResult.Rejected rejected) {
+      failureMonitor.record(token, rejected.failureType());
+    }
+    return result;
+  }
+
+  private JwtVerificationResult parse(String token) {
     try {
-      Jwts.parser()
-          .verifyWith(key)
-          .build()
-          .parseSignedClaims(token);
-      return true;
-    } catch (ExpiredJwtException e) { // JwtException 자식
-      log.warn("JWT 토큰이 만료되었습니다. token: {}", token);
-      throw e;
-    } catch (MalformedJwtException e) { // JwtException 자식
-      log.warn("JWT 토큰 구조가 잘못되었습니다. token: {}", token);
-      throw e;
-    } catch (UnsupportedJwtException e) { // JwtException 자식
-      log.warn("지원하지 않는 JWT 토큰 형식입니다. token: {}", token);
-      throw e;
+      return new JwtVerificationResult.Valid(toVerifiedToken(token, parseClaims(token)));
+    } catch (JwtException | IllegalArgumentException e) {
+      return JwtVerificationResult.rejected(JwtFailureType.of(e));
+    }
+  }
+
+  /**
+   * 점 두 개로 나뉜 base64url 세 부분인지만 확인한다. (jjwt에 넘기기 전 저렴한 사전 검사)
+   */
+  private static boolean isCompactJws(String token) {
+    int dots = 0;
+    for (int i = 0; i < token.length(); i++) {
+      char c = token.charAt(i);
+      if (c == '.') {
+        dots++;
+      } else if (!(c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' || c >= '0' && c <= '9'
+          || c == '-' || c == '_')) {
+        return false;
+      }
+    }
+    return dots == 2;
+  }
+
+  private VerifiedToken verifySignature(String token) {
+    try {
+      // 직접 발급한 형태의 토큰은 경량 검증기로 처리하고, 그 외에는 jjwt 파서로 위임한다.
+      // 경량 검증기는 헤더가 정확히 일치하는 토큰만 처리하므로 kid가 다른 토큰은 그대로 통과시킨다.
+      long now = System.currentTimeMillis();
+      VerifiedToken verified = keyring.acceptsLegacyKeys()
+          ? legacyTemplates.verifier().verify(token, now)
+          : null;
+      if (verified == null) {
+        HmacTemplates templates = templatesFor(keyring.activeKey());
+        if (templates != null && templates != legacyTemplates) {
+          verified = templates.verifier().verify(token, now);
+        }
+      }
+      return verified != null ? verified : toVerifiedToken(token, parseClaims(token));
     } catch (IllegalArgumentException e) { // RuntimeException 자식
-      log.warn("JWT 토큰이 비어있거나 잘못된 인자입니다. token: {}", token);
+      failureMonitor.record(token, e);
       throw new JwtException("JWT 토큰이 비어있거나 잘못된 인자입니다.", e);
-    } catch (JwtException e) { // RuntimeException 자식
-      log.warn("유효하지 않은 JWT 토큰입니다. token: {}", token);
+    } catch (JwtException e) { // 만료, 형식 오류, 서명 불일치 등
+      // 실패 유형별로 집계하고, 로그는 유형당 일정 간격으로 토큰 지문만 남긴다.
+      failureMonitor.record(token, e);
       throw e;
     }
   }
@@ -104,18 +302,93 @@ public class JwtTokenProvider {
   }
 
   /**
-   * 토큰의 남은 유효 시간을 밀리초 단위로 반환한다.
-   *
-   * <p>로그아웃 시 AT를 Blacklist에 등록할 때 TTL로 사용된다.
-   * 만료된 토큰을 전달하면 {@link io.jsonwebtoken.ExpiredJwtException}이 발생한다.
+   * 서명 키에 맞는 템플릿 발급기·경량 검증기를 반환한다.
    *
-   * @param token 검사할 JWT 문자열
-   * @return 현재 시각 기준 남은 만료 시간 (밀리초)
+   * <p>템플릿은 HMAC 키에만 만들 수 있으므로 비대칭 키면 {@code null}을 반환한다.
+   * 키가 교체되면 새 활성 키의 헤더(kid 포함)로 한 번만 다시 만들고 이후 요청은 공유한다.
+   */
+  private HmacTemplates templatesFor(JwtSigningKey signingKey) {
+    if (!signingKey.isHmac()) {
+      return null;
+    }
+    HmacTemplates templates = activeTemplates;
+    if (templates.key() != signingKey) {
+      templates = signingKey == legacyTemplates.key()
+          ? legacyTemplates
+          : HmacTemplates.of(signingKey, compactClaimSchema);
+      activeTemplates = templates;
+    }
+    return templates;
+  }
+
+  /**
+   * 128비트 무작위 jti를 만든다.
    */
-  public long getRemainingExpiration(String token) {
-    Date expiration = parseClaims(token).getExpiration();
-    return expiration.getTime() - System.currentTimeMillis();
+  private static String newTokenId() {
+    byte[] bytes = new byte[TOKEN_ID_BYTES];
+    TOKEN_ID_RANDOM.nextBytes(bytes);
+    return TOKEN_ID_ENCODER.encodeToString(bytes);
   }
-}
 
+  /**
+   * jjwt와 같은 방식(밀리초 절삭)으로 JWT NumericDate 초 값을 구한다.
+   */
+  private static long epochSeconds(Date date) {
+    return date.getTime() / 1000;
+  }
 
+  private VerifiedToken toVerifiedToken(String token, Claims claims) {
+    Long userId = null;
+    List<String> roles;
+    if (claims.containsKey(CompactClaimSchema.VERSION_CLAIM)) {
+      if (!(claims.get(CompactClaimSchema.VERSION_CLAIM) instanceof Number version)
+          || version.intValue() != CompactClaimSchema.VERSION) {
+        throw new UnsupportedJwtException("지원하지 않는 클레임 스키마 버전입니다.");
+      }
+      if (claims.get(CompactClaimSchema.USER_ID_CLAIM) instanceof Number id) {
+        userId = id.longValue();
+      }
+      roles = claims.get(CompactClaimSchema.ROLE_MASK_CLAIM) instanceof Number mask
+          ? compactClaimSchema.decodeRoles(mask.longValue())
+          : List.of();
+    } else {
+      roles = claims.get(ROLES_CLAIM) instanceof List<?> values
+          ? values.stream().map(String::valueOf).toList()
+          : List.of();
+    }
+    if (claims.getSubject() == null && userId == null) {
+      throw new MalformedJwtException("JWT에 subject가 없습니다.");
+    }
+    return new VerifiedToken(
+        token,
+        claims.getSubject(),
+        userId,
+        roles,
+        claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant(),
+        claims.getExpiration().toInstant(),
+        claims.getId());
+  }
+
+  /**
+   * HMAC 키 하나에 대한 템플릿 발급기와 경량 검증기.
+   */
+  private record HmacTemplates(
+      JwtSigningKey key, HmacJwtIssuer issuer, HmacJwtVerifier verifier) {
+
+    private static HmacTemplates of(JwtSigningKey key, CompactClaimSchema compactClaimSchema) {
+      String headerSegment = issuedHeaderSegment(key);
+      return new HmacTemplates(key,
+          new HmacJwtIssuer(key.secretKey(), headerSegment),
+          new HmacJwtVerifier(key.secretKey(), headerSegment, compactClaimSchema));
+    }
+
+    /**
+     * 이 키로 발급하는 토큰의 헤더 세그먼트(base64url)를 구한다.
+     * 경량 검증기는 헤더가 이 값과 정확히 같은 토큰만 처리한다.
+     */
+    private static String issuedHeaderSegment(JwtSigningKey key) {
+      String probe = key.signWith(Jwts.builder()).subject("header-probe").compact();
+      return probe.substring(0, probe.indexOf('.'));
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package org.example.security.jwt;
+
+/**
+ * Outcome of verifying a JWT without throwing.
+ *
+ * <p>Rejections are shared constants, so rejecting a token allocates nothing and carries no
+ * stack trace. Callers switch over the permitted types:
+ *
+ * <pre>{@code
+ * switch (jwtTokenProvider.tryVerify(token)) {
+ *   case JwtVerificationResult.Valid valid -> authenticate(valid.token());
+ *   case JwtVerificationResult.Rejected rejected -> reject(rejected.failureType());
+ * }
+ * }</pre>
+ */
+public sealed interface JwtVerificationResult
+    permits JwtVerificationResult.Valid, JwtVerificationResult.Rejected {
+
+  /** {@code exp} has passed. */
+  Expired EXPIRED = new Expired();
+
+  /** The signature does not match. */
+  BadSignature BAD_SIGNATURE = new BadSignature();
+
+  /** Not a well-formed compact JWS, or required claims are missing. */
+  Malformed MALFORMED = new Malformed(JwtFailureType.MALFORMED);
+
+  /** Empty or otherwise unusable token string. */
+  Malformed INVALID_ARGUMENT = new Malformed(JwtFailureType.INVALID_ARGUMENT);
+
+  /** Unknown {@code kid}, algorithm or claim schema version. */
+  Unsupported UNSUPPORTED = new Unsupported(JwtFailureType.UNSUPPORTED);
+
+  /** Any other verification failure. */
+  Unsupported INVALID = new Unsupported(JwtFailureType.INVALID);
+
+  /**
+   * Returns the shared rejection for a failure type.
+   */
+  static Rejected rejected(JwtFailureType type) {
+    return switch (type) {
+      case EXPIRED -> JwtVerificationResult.EXPIRED;
+      case BAD_SIGNATURE -> JwtVerificationResult.BAD_SIGNATURE;
+      case MALFORMED -> JwtVerificationResult.MALFORMED;
+      case INVALID_ARGUMENT -> JwtVerificationResult.INVALID_ARGUMENT;
+      case UNSUPPORTED -> JwtVerificationResult.UNSUPPORTED;
+      case INVALID -> JwtVerificationResult.INVALID;
+    };
+  }
+
+  /**
+   * The token is authentic and not expired.
+   *
+   * @param token verified token
+   */
+  record Valid(VerifiedToken token) implements JwtVerificationResult {
+  }
+
+  /**
+   * The token must not be used.
+   */
+  sealed interface Rejected extends JwtVerificationResult
+      permits Expired, BadSignature, Malformed, Unsupported {
+
+    /**
+     * Returns why the token was rejected.
+     */
+    JwtFailureType failureType();
+  }
+
+  /**
+   * {@code exp} has passed; the client should refresh.
+   */
+  record Expired() implements Rejected {
+
+    @Override
+    public JwtFailureType failureType() {
+      return JwtFailureType.EXPIRED;
+    }
+  }
+
+  /**
+   * The signature does not match any key in the keyring.
+   */
+  record BadSignature() implements Rejected {
+
+    @Override
+    public JwtFailureType failureType() {
+      return JwtFailureType.BAD_SIGNATURE;
+    }
+  }
+
+  /**
+   * The token is not a well-formed service JWT.
+   *
+   * @param failureType {@link JwtFailureType#MALFORMED} or
+   *     {@link JwtFailureType#INVALID_ARGUMENT}
+   */
+  record Malformed(JwtFailureType failureType) implements Rejected {
+  }
+
+  /**
+   * The token is well-formed but uses something this service does not accept.
+   *
+   * @param failureType {@link JwtFailureType#UNSUPPORTED} or {@link JwtFailureType#INVALID}
+   */
+  record Unsupported(JwtFailureType failureType) implements Rejected {
+  }
+}
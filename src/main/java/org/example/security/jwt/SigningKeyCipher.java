@@ -0,0 +1,126 @@
+package org.example.security.jwt;
+
+import io.jsonwebtoken.io.Decoders;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Encrypts rotated signing keys before they are written to the shared key store.
+ *
+ * <p>Entries are AES-GCM encrypted with the {@code kid} as associated data, so a value cannot be
+ * read without the store key or moved under another {@code kid}. The store key comes from
+ * {@code jwt.signing.rotation.store-key}; when that is blank it is derived from
+ * {@code jwt.secret} with HMAC-SHA256. Either way it only lives in configuration, never in Redis.
+ */
+@Component
+public class SigningKeyCipher {
+
+  private static final String PREFIX = "enc:";
+  private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+  private static final int IV_LENGTH = 12;
+  private static final int TAG_LENGTH_BITS = 128;
+  private static final byte[] DERIVATION_LABEL =
+      "auth:jwt:signing-keys".getBytes(StandardCharsets.UTF_8);
+
+  private final SecretKey storeKey;
+  private final SecureRandom random = new SecureRandom();
+
+  /**
+   * Creates the cipher from {@code jwt.secret} and {@code jwt.signing.rotation.store-key}.
+   *
+   * @param secret base64 HMAC secret, used to derive the store key when none is configured
+   * @param storeKey base64 AES key of 16, 24 or 32 bytes, or blank
+   */
+  @Autowired
+  public SigningKeyCipher(
+      @Value("${jwt.secret}") String secret,
+      @Value("${jwt.signing.rotation.store-key:}") String storeKey) {
+    byte[] keyBytes = storeKey.isBlank()
+        ? derive(Decoders.BASE64.decode(secret))
+        : Decoders.BASE64.decode(storeKey);
+    if (keyBytes.length != 16 && keyBytes.length != 24 && keyBytes.length != 32) {
+      throw new IllegalStateException(
+          "jwt.signing.rotation.store-key must be a 128, 192 or 256-bit AES key");
+    }
+    this.storeKey = new SecretKeySpec(keyBytes, "AES");
+  }
+
+  /**
+   * Returns whether a stored value was written by {@link #encrypt}.
+   */
+  public boolean isEncrypted(String value) {
+    return value.startsWith(PREFIX);
+  }
+
+  /**
+   * Encrypts an encoded signing key.
+   *
+   * @param keyId {@code kid} bound to the ciphertext
+   * @param encoded value from {@link JwtSigningKey#encode()}
+   * @return value for the key store
+   */
+  public String encrypt(String keyId, String encoded) {
+    byte[] iv = new byte[IV_LENGTH];
+    random.nextBytes(iv);
+    try {
+      Cipher cipher = cipher(Cipher.ENCRYPT_MODE, keyId, iv);
+      byte[] ciphertext = cipher.doFinal(encoded.getBytes(StandardCharsets.UTF_8));
+      return PREFIX + Base64.getEncoder().encodeToString(
+          ByteBuffer.allocate(iv.length + ciphertext.length).put(iv).put(ciphertext).array());
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Cannot encrypt signing key: " + keyId, e);
+    }
+  }
+
+  /**
+   * Decrypts a value written by {@link #encrypt}.
+   *
+   * @param keyId {@code kid} the value is stored under
+   * @param value stored value
+   * @return value for {@link JwtSigningKey#decode}
+   * @throws IllegalArgumentException if the value was not encrypted with this store key and
+   *     {@code kid}
+   */
+  public String decrypt(String keyId, String value) {
+    try {
+      byte[] bytes = Base64.getDecoder().decode(value.substring(PREFIX.length()));
+      if (bytes.length <= IV_LENGTH) {
+        throw new IllegalArgumentException("Invalid stored signing key: " + keyId);
+      }
+      Cipher cipher = cipher(Cipher.DECRYPT_MODE, keyId, Arrays.copyOf(bytes, IV_LENGTH));
+      byte[] plaintext = cipher.doFinal(bytes, IV_LENGTH, bytes.length - IV_LENGTH);
+      return new String(plaintext, StandardCharsets.UTF_8);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalArgumentException("Cannot decrypt stored signing key: " + keyId, e);
+    }
+  }
+
+  private Cipher cipher(int mode, String keyId, byte[] iv) throws GeneralSecurityException {
+    Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+    cipher.init(mode, storeKey, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+    cipher.updateAAD(keyId.getBytes(StandardCharsets.UTF_8));
+    return cipher;
+  }
+
+  private static byte[] derive(byte[] secret) {
+    try {
+      Mac mac = Mac.getInstance("HmacSHA256");
+      mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+      return mac.doFinal(DERIVATION_LABEL);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Cannot derive signing key store key", e);
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package org.example.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Service JWT whose signature and expiration have already been checked once.
+ *
+ * <p>{@link JwtTokenProvider#verify(String)} creates this value so that the JWT filter,
+ * token lifecycle policy and controllers can share the claims without parsing the token again.
+ *
+ * @param token compact JWT string as presented by the client
+ * @param subject JWT Subject, or {@code null} when a compact token identifies the User by id
+ * @param userId numeric User id carried by a compact token, or {@code null}
+ * @param roles Role names carried by an Access Token (empty for a Refresh Token)
+ * @param issuedAt issue time
+ * @param expiresAt expiration time
+ * @param tokenId {@code jti} claim, or {@code null} for tokens issued before it was added
+ */
+public record VerifiedToken(
+    String token,
+    String subject,
+    Long userId,
+    List<String> roles,
+    Instant issuedAt,
+    Instant expiresAt,
+    String tokenId) {
+
+  /**
+   * Request attribute under which {@link JwtAuthenticationFilter} exposes the verified Access Token.
+   */
+  public static final String REQUEST_ATTRIBUTE = "org.example.security.jwt.VerifiedToken";
+
+  public VerifiedToken {
+    roles = roles == null ? List.of() : List.copyOf(roles);
+  }
+
+  /**
+   * Creates a verified token without a {@code jti} claim.
+   */
+  public VerifiedToken(String token, String subject, Long userId, List<String> roles,
+      Instant issuedAt, Instant expiresAt) {
+    this(token, subject, userId, roles, issuedAt, expiresAt, null);
+  }
+
+  /**
+   * Creates a verified token identified by JWT Subject.
+   */
+  public VerifiedToken(
+      String token, String subject, List<String> roles, Instant issuedAt, Instant expiresAt) {
+    this(token, subject, null, roles, issuedAt, expiresAt, null);
+  }
+
+  /**
+   * Returns the fixed-size id under which this token is revoked.
+   *
+   * <p>The {@code jti} claim when present; otherwise the unpadded base64url SHA-256 digest of the
+   * token, so that Logout Blacklist keys never hold the full token. The two never collide:
+   * a {@code jti} is 22 characters and a digest 43.
+   *
+   * @return Logout Blacklist id
+   */
+  public String revocationId() {
+    return tokenId != null ? tokenId : digest(token);
+  }
+
+  /**
+   * Returns the unpadded base64url SHA-256 digest of a token.
+   */
+  static String digest(String token) {
+    try {
+      byte[] hash = MessageDigest.getInstance("SHA-256")
+          .digest(token.getBytes(StandardCharsets.UTF_8));
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /**
+   * Returns the remaining lifetime in milliseconds, or zero when the token has already expired.
+   *
+   * @param now reference time
+   * @return remaining lifetime (밀리초)
+   */
+  public long remainingMillis(Instant now) {
+    return Math.max(0L, expiresAt.toEpochMilli() - now.toEpochMilli());
+  }
+
+  /**
+   * Omits the raw token so that verified tokens can be logged safely.
+   */
+  @Override
+  public String toString() {
+    return "VerifiedToken[subject=" + subject + ", userId=" + userId + ", roles=" + roles
+        + ", issuedAt=" + issuedAt + ", expiresAt=" + expiresAt + ", tokenId=" + tokenId + "]";
+  }
+}
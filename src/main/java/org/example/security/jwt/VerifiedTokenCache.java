@@ -0,0 +1,173 @@
+package org.example.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded in-process cache of already verified service JWTs.
+ *
+ * <p>Entries are keyed by the SHA-256 digest of the token so that raw tokens are never used as
+ * map keys, and each entry expires no later than the token's own {@code exp}. Only successful
+ * verifications are cached; Logout Blacklist and User state checks still run on every request.
+ */
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+
+  private static final String CACHE_NAME = "jwt.verified-token";
+
+  private static final ThreadLocal<MessageDigest> SHA_256 =
+      ThreadLocal.withInitial(VerifiedTokenCache::newSha256);
+
+  private final Cache<String, VerifiedToken> cache;
+  private final Clock clock;
+
+  /**
+   * Creates the cache from {@code jwt.verified-token-cache.*} settings.
+   *
+   * @param enabled whether verified tokens are cached
+   * @param maximumSize maximum number of cached tokens
+   */
+  @Autowired
+  public VerifiedTokenCache(
+      @Value("${jwt.verified-token-cache.enabled:false}") boolean enabled,
+      @Value("${jwt.verified-token-cache.maximum-size:10000}") long maximumSize) {
+    this(enabled, maximumSize, Clock.systemUTC());
+  }
+
+  VerifiedTokenCache(boolean enabled, long maximumSize, Clock clock) {
+    this.clock = clock;
+    this.cache = enabled ? buildCache(maximumSize, clock) : null;
+  }
+
+  /**
+   * Returns a cache that always delegates to the verifier.
+   */
+  public static VerifiedTokenCache disabled() {
+    return new VerifiedTokenCache(false, 0L, Clock.systemUTC());
+  }
+
+  /**
+   * Returns the cached verification for the token, or verifies and caches it.
+   *
+   * <p>Exceptions thrown by the verifier propagate unchanged and are never cached.
+   *
+   * @param token compact JWT string
+   * @param verifier full signature and expiration check
+   * @return verified token
+   */
+  public VerifiedToken get(String token, Function<String, VerifiedToken> verifier) {
+    if (cache == null || token == null || token.isEmpty()) {
+      return verifier.apply(token);
+    }
+
+    String key = digest(token);
+    VerifiedToken cached = findUnexpired(key);
+    if (cached != null) {
+      return cached;
+    }
+
+    VerifiedToken verified = verifier.apply(token);
+    cache.put(key, verified);
+    return verified;
+  }
+
+  /**
+   * Returns the cached verification for the token, or verifies it and caches a valid result.
+   *
+   * <p>Rejections are never cached.
+   *
+   * @param token compact JWT string
+   * @param verifier full signature and expiration check that does not throw
+   * @return verification result
+   */
+  public JwtVerificationResult check(
+      String token, Function<String, JwtVerificationResult> verifier) {
+    if (cache == null || token == null || token.isEmpty()) {
+      return verifier.apply(token);
+    }
+
+    String key = digest(token);
+    VerifiedToken cached = findUnexpired(key);
+    if (cached != null) {
+      return new JwtVerificationResult.Valid(cached);
+    }
+
+    JwtVerificationResult result = verifier.apply(token);
+    if (result instanceof JwtVerificationResult.Valid valid) {
+      cache.put(key, valid.token());
+    }
+    return result;
+  }
+
+  private VerifiedToken findUnexpired(String key) {
+    VerifiedToken cached = cache.getIfPresent(key);
+    if (cached != null) {
+      if (cached.expiresAt().isAfter(clock.instant())) {
+        return cached;
+      }
+      cache.invalidate(key);
+    }
+    return null;
+  }
+
+  /**
+   * Returns hit, miss and eviction counts. Empty when the cache is disabled.
+   */
+  public CacheStats stats() {
+    return cache == null ? CacheStats.empty() : cache.stats();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    if (cache != null) {
+      CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+  }
+
+  private static Cache<String, VerifiedToken> buildCache(long maximumSize, Clock clock) {
+    return Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfter(Expiry.creating((String key, VerifiedToken token) ->
+            timeToLive(token, clock.instant())))
+        .recordStats()
+        .build();
+  }
+
+  private static Duration timeToLive(VerifiedToken token, Instant now) {
+    Duration remaining = Duration.between(now, token.expiresAt());
+    return remaining.isNegative() ? Duration.ZERO : remaining;
+  }
+
+  /**
+   * Returns the unpadded base64 SHA-256 digest of the token.
+   */
+  static String digest(String token) {
+    MessageDigest sha256 = SHA_256.get();
+    byte[] hash = sha256.digest(token.getBytes(StandardCharsets.UTF_8));
+    return Base64.getEncoder().withoutPadding().encodeToString(hash);
+  }
+
+  private static MessageDigest newSha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
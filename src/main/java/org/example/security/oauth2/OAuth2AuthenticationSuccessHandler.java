@@ -50,7 +50,7 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
         .collect(Collectors.toList());
 
     TokenResponseDto tokenResponse = tokenLifecycleService.issue(
-        authenticatedUser.getJwtSubject(), roles);
+        authenticatedUser.getId(), authenticatedUser.getJwtSubject(), roles);
     tokenDeliveryService.addRefreshTokenCookie(response, tokenResponse.getRefreshToken());
 
     cookieAuthorizationRequestRepository.deleteCookie(
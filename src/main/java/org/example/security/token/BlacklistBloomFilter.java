@@ -0,0 +1,93 @@
+package org.example.security.token;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter of Logout Blacklist revocation ids.
+ *
+ * <p>{@link #mightContain(String)} never returns {@code false} for an added id. It returns
+ * {@code true} for an id that was not added with about the configured false positive rate, as
+ * long as no more than the expected number of ids is added. Entries cannot be removed; the owner
+ * replaces the whole filter when it rebuilds from Redis.
+ */
+final class BlacklistBloomFilter {
+
+  private final AtomicLongArray bits;
+  private final long bitCount;
+  private final int hashCount;
+
+  /**
+   * Creates a filter sized for the given load.
+   *
+   * @param expectedInsertions number of ids the filter is sized for
+   * @param falsePositiveRate target false positive rate, between 0 and 1 exclusive
+   */
+  BlacklistBloomFilter(int expectedInsertions, double falsePositiveRate) {
+    if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+      throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1");
+    }
+    long n = Math.max(1, expectedInsertions);
+    long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    int words = (int) Math.min(Integer.MAX_VALUE, Math.max(1, (m + 63) / 64));
+    this.bits = new AtomicLongArray(words);
+    this.bitCount = (long) words * 64;
+    this.hashCount = (int) Math.max(1, Math.round((double) bitCount / n * Math.log(2)));
+  }
+
+  /**
+   * Adds a revocation id.
+   *
+   * @param revocationId Logout Blacklist id of an Access Token
+   */
+  void add(String revocationId) {
+    long h1 = hash(revocationId);
+    long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+    for (int i = 0; i < hashCount; i++) {
+      long index = Long.remainderUnsigned(h1 + i * h2, bitCount);
+      long mask = 1L << index;
+      int word = (int) (index >>> 6);
+      if ((bits.get(word) & mask) == 0) {
+        bits.getAndAccumulate(word, mask, (current, bit) -> current | bit);
+      }
+    }
+  }
+
+  /**
+   * Returns whether the id may have been added.
+   *
+   * @param revocationId Logout Blacklist id of an Access Token
+   * @return {@code false} if the id was certainly never added
+   */
+  boolean mightContain(String revocationId) {
+    long h1 = hash(revocationId);
+    long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+    for (int i = 0; i < hashCount; i++) {
+      long index = Long.remainderUnsigned(h1 + i * h2, bitCount);
+      if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * 64-bit FNV-1a over the UTF-16 code units, finished with a murmur3 mix.
+   */
+  private static long hash(String value) {
+    long h = 0xCBF29CE484222325L;
+    for (int i = 0; i < value.length(); i++) {
+      h ^= value.charAt(i);
+      h *= 0x100000001B3L;
+    }
+    return mix(h);
+  }
+
+  private static long mix(long h) {
+    h ^= h >>> 33;
+    h *= 0xFF51AFD7ED558CCDL;
+    h ^= h >>> 33;
+    h *= 0xC4CEB9FE1A85EC53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
@@ -0,0 +1,237 @@
+package org.example.security.token;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.example.repository.TokenRedisRepository;
+import org.example.security.jwt.VerifiedToken;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local replica of the Logout Blacklist and revocation watermarks.
+ *
+ * <p>Blacklisted revocation ids are kept in a {@link BlacklistBloomFilter} and watermarks in a
+ * map keyed like Redis. Both are fed by the {@link #TOPIC} messages that
+ * {@link TokenRedisRepository} publishes with every write. The replica is rebuilt from a Redis
+ * scan only when it cannot be trusted (at startup, after the subscription is re-established, and
+ * after a malformed message or a failed rebuild) and when more ids were added than the Bloom
+ * filter is sized for, which also drops expired Blacklist entries. Between rebuilds no instance
+ * scans the keyspace.
+ *
+ * <p>{@link #check(VerifiedToken)} answers from memory only while the channel is subscribed and
+ * a rebuild has completed since the last subscription, because pub/sub does not replay messages
+ * missed while disconnected. Otherwise, and on every Bloom filter hit, the caller asks Redis. A
+ * revocation reaches other instances after the pub/sub delivery delay.
+ */
+@Slf4j
+@Component
+public class RevocationReplica implements MessageListener, SubscriptionListener {
+
+  /** Channel carrying Blacklist and watermark writes. */
+  public static final ChannelTopic TOPIC =
+      new ChannelTopic(TokenRedisRepository.REVOCATION_CHANNEL);
+
+  private final TokenRedisRepository tokenRedisRepository;
+  private final boolean enabled;
+  private final int expectedBlacklistSize;
+  private final double falsePositiveRate;
+
+  private volatile State current;
+  private volatile State rebuilding;
+  private volatile boolean subscribed;
+  private volatile boolean synced;
+  private volatile long subscriptionGeneration;
+  private int lastBlacklistSize;
+
+  /**
+   * Creates the replica from {@code auth.revocation-replica.*} settings.
+   *
+   * @param tokenRedisRepository Token Store the replica is rebuilt from
+   * @param enabled whether checks may be answered locally
+   * @param expectedBlacklistSize Blacklist size the Bloom filter is sized for
+   * @param falsePositiveRate Bloom filter false positive rate at the expected size
+   */
+  public RevocationReplica(
+      TokenRedisRepository tokenRedisRepository,
+      @Value("${auth.revocation-replica.enabled:false}") boolean enabled,
+      @Value("${auth.revocation-replica.expected-blacklist-size:100000}")
+      int expectedBlacklistSize,
+      @Value("${auth.revocation-replica.false-positive-rate:0.001}") double falsePositiveRate) {
+    this.tokenRedisRepository = tokenRedisRepository;
+    this.enabled = enabled;
+    this.expectedBlacklistSize = expectedBlacklistSize;
+    this.falsePositiveRate = falsePositiveRate;
+    this.current = new State(
+        new BlacklistBloomFilter(expectedBlacklistSize, falsePositiveRate), expectedBlacklistSize);
+  }
+
+  /**
+   * Local verdict on an Access Token.
+   */
+  public enum Verdict {
+    /** Not blacklisted and not under a watermark. */
+    ALLOWED,
+    /** Issued no later than a revocation watermark. */
+    REVOKED,
+    /** Redis must be asked. */
+    UNKNOWN
+  }
+
+  /**
+   * Checks an Access Token against the replica.
+   *
+   * @param accessToken verified Access Token
+   * @return local verdict
+   */
+  public Verdict check(VerifiedToken accessToken) {
+    if (!enabled || !synced) {
+      return Verdict.UNKNOWN;
+    }
+    State state = current;
+    String key = accessToken.subject() != null
+        ? TokenRedisRepository.revocationKey(accessToken.subject())
+        : TokenRedisRepository.revocationIdKey(accessToken.userId());
+    Long revokedThrough = latest(state.watermarks.get(key),
+        state.watermarks.get(TokenRedisRepository.GLOBAL_REVOCATION_KEY));
+    if (TokenLifecycleServiceImpl.isRevoked(revokedThrough, accessToken.issuedAt())) {
+      return Verdict.REVOKED;
+    }
+    return state.blacklist.mightContain(accessToken.revocationId())
+        ? Verdict.UNKNOWN : Verdict.ALLOWED;
+  }
+
+  /**
+   * Rebuilds the replica from Redis if it is not synced or its Bloom filter is over capacity.
+   *
+   * <p>Writes published during the scan are applied to the new replica as well. The replica is
+   * trusted only if the subscription stayed up for the whole rebuild.
+   */
+  @Scheduled(fixedDelayString = "${auth.revocation-replica.rebuild-check-interval:1s}")
+  public void resync() {
+    long generation = subscriptionGeneration;
+    if (!enabled || !subscribed || (synced && !current.isOverCapacity())) {
+      return;
+    }
+    try {
+      int capacity = (int) Math.min(Integer.MAX_VALUE,
+          Math.max(expectedBlacklistSize, lastBlacklistSize * 2L));
+      State next = new State(new BlacklistBloomFilter(capacity, falsePositiveRate), capacity);
+      // 스캔 전에 공개해야 스캔 도중 발행된 기록도 새 복제본에 들어간다.
+      rebuilding = next;
+      Set<String> blacklisted = tokenRedisRepository.findBlacklistedIds();
+      blacklisted.forEach(next::blacklist);
+      tokenRedisRepository.findRevocationWatermarks().forEach(next::watermark);
+      lastBlacklistSize = blacklisted.size();
+      current = next;
+      synced = subscribed && generation == subscriptionGeneration;
+    } catch (DataAccessException e) {
+      synced = false;
+      log.warn("토큰 폐기 복제본을 재구성하지 못했습니다. Redis로 폐기 여부를 확인합니다.", e);
+    } finally {
+      rebuilding = null;
+    }
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    if (!enabled) {
+      return;
+    }
+    String body = new String(message.getBody(), StandardCharsets.UTF_8);
+    // 재구성 중인 복제본을 먼저 읽는다. 아직 없다면 이 기록은 재구성 스캔이 읽는다.
+    State next = rebuilding;
+    if (!apply(current, body)) {
+      log.warn("잘못된 토큰 폐기 메시지입니다. 재구성 전까지 Redis로 확인합니다.");
+      synced = false;
+      return;
+    }
+    if (next != null) {
+      apply(next, body);
+    }
+  }
+
+  /**
+   * Messages published before the subscription was (re)established are lost, so the replica is
+   * trusted again only after the next rebuild.
+   */
+  @Override
+  public void onChannelSubscribed(byte[] channel, long count) {
+    subscriptionGeneration++;
+    synced = false;
+    subscribed = true;
+    log.info("토큰 폐기 채널을 구독했습니다. 재구성 후 로컬 확인을 시작합니다.");
+  }
+
+  @Override
+  public void onChannelUnsubscribed(byte[] channel, long count) {
+    subscriptionGeneration++;
+    subscribed = false;
+    synced = false;
+  }
+
+  private static boolean apply(State state, String body) {
+    if (body.startsWith("B|")) {
+      state.blacklist(body.substring(2));
+      return true;
+    }
+    int separator = body.indexOf('|', 2);
+    if (!body.startsWith("W|") || separator < 0) {
+      return false;
+    }
+    try {
+      state.watermark(body.substring(separator + 1), Long.valueOf(body.substring(2, separator)));
+      return true;
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+
+  private static Long latest(Long first, Long second) {
+    if (first == null) {
+      return second;
+    }
+    return second == null ? first : Math.max(first, second);
+  }
+
+  /**
+   * One generation of the replica.
+   */
+  private static final class State {
+
+    private final BlacklistBloomFilter blacklist;
+    private final int capacity;
+    private final AtomicInteger blacklistSize = new AtomicInteger();
+    private final Map<String, Long> watermarks = new ConcurrentHashMap<>();
+
+    private State(BlacklistBloomFilter blacklist, int capacity) {
+      this.blacklist = blacklist;
+      this.capacity = capacity;
+    }
+
+    private void blacklist(String revocationId) {
+      blacklist.add(revocationId);
+      blacklistSize.incrementAndGet();
+    }
+
+    /**
+     * Past its sized load the filter's false positive rate climbs, sending more checks to Redis.
+     */
+    private boolean isOverCapacity() {
+      return blacklistSize.get() > capacity;
+    }
+
+    private void watermark(String key, Long epochSecond) {
+      watermarks.merge(key, epochSecond, Math::max);
+    }
+  }
+}
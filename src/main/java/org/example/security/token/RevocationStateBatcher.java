@@ -0,0 +1,199 @@
+package org.example.security.token;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.example.repository.TokenRedisRepository;
+import org.example.repository.TokenRedisRepository.RevocationLookup;
+import org.example.repository.TokenRedisRepository.RevocationState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Coalesces concurrent revocation lookups into one Redis {@code MGET}.
+ *
+ * <p>A single flusher thread takes the first waiting lookup, collects more for at most
+ * {@code auth.revocation-batch.max-wait} or until {@code max-batch-size} lookups are waiting, and
+ * answers the whole batch with {@link TokenRedisRepository#findRevocationStates(List)}. Lookups
+ * that arrive while a batch is in flight wait for the next one, so under load Redis sees one
+ * command per batch instead of one per request, at the price of up to {@code max-wait} extra
+ * latency. When the queue is full, a lookup goes to Redis directly.
+ *
+ * <p>A failed batch fails every lookup in it with the same exception, which the caller maps to
+ * the Token Store policy as before. A lookup whose batch has not answered within
+ * {@code auth.revocation-batch.timeout} (for example because the flusher is stuck behind a slow
+ * {@code MGET}) leaves the queue and goes to Redis directly, so the wait is bounded.
+ */
+@Slf4j
+@Component
+public class RevocationStateBatcher implements MeterBinder {
+
+  private static final int QUEUE_CAPACITY_BATCHES = 16;
+
+  private final TokenRedisRepository tokenRedisRepository;
+  private final boolean enabled;
+  private final int maxBatchSize;
+  private final long maxWaitNanos;
+  private final long timeoutNanos;
+  private final BlockingQueue<Pending> queue;
+  private final Thread flusher;
+  private volatile boolean running;
+  private volatile DistributionSummary batchSizes;
+
+  /**
+   * Creates the batcher from {@code auth.revocation-batch.*} settings.
+   *
+   * @param tokenRedisRepository Token Store answering the batches
+   * @param enabled whether lookups are batched
+   * @param maxBatchSize largest number of lookups in one {@code MGET}
+   * @param maxWait longest time the first lookup of a batch waits for more
+   * @param timeout longest time a lookup waits for its batch before going to Redis directly
+   */
+  public RevocationStateBatcher(
+      TokenRedisRepository tokenRedisRepository,
+      @Value("${auth.revocation-batch.enabled:false}") boolean enabled,
+      @Value("${auth.revocation-batch.max-batch-size:64}") int maxBatchSize,
+      @Value("${auth.revocation-batch.max-wait:200us}") Duration maxWait,
+      @Value("${auth.revocation-batch.timeout:500ms}") Duration timeout) {
+    this.tokenRedisRepository = tokenRedisRepository;
+    this.enabled = enabled;
+    this.maxBatchSize = Math.max(1, maxBatchSize);
+    this.maxWaitNanos = maxWait.toNanos();
+    this.timeoutNanos = timeout.toNanos();
+    this.queue = new ArrayBlockingQueue<>(this.maxBatchSize * QUEUE_CAPACITY_BATCHES);
+    this.flusher = new Thread(this::run, "revocation-batcher");
+    this.flusher.setDaemon(true);
+    if (enabled) {
+      running = true;
+      flusher.start();
+    }
+  }
+
+  /**
+   * Returns whether lookups are batched.
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Looks up the revocation state of an Access Token as part of the next batch.
+   *
+   * @param lookup Access Token to look up
+   * @return Blacklist entry and revocation watermark
+   * @throws org.springframework.dao.DataAccessException if the batch failed in Redis
+   */
+  public RevocationState find(RevocationLookup lookup) {
+    Pending pending = new Pending(lookup, new CompletableFuture<>());
+    if (!running || !queue.offer(pending) || (!running && queue.remove(pending))) {
+      // 큐가 가득 찼거나 종료 중이면 묶지 않고 바로 조회한다.
+      return findDirectly(lookup);
+    }
+    try {
+      return pending.result().get(timeoutNanos, TimeUnit.NANOSECONDS);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new DataAccessResourceFailureException("Revocation batch failed", e.getCause());
+    } catch (TimeoutException e) {
+      // 묶음 응답이 늦으면 큐에서 빼고 바로 조회한다. (이미 묶음에 들어갔다면 그 결과는 버린다)
+      queue.remove(pending);
+      log.debug("폐기 상태 묶음 조회가 제한 시간을 넘어 바로 조회합니다. lookup: {}", lookup);
+      return findDirectly(lookup);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DataAccessResourceFailureException("Interrupted waiting for revocation batch", e);
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    batchSizes = DistributionSummary.builder("auth.revocation.batch.size")
+        .description("Revocation lookups answered by one Redis MGET")
+        .register(registry);
+  }
+
+  /**
+   * Stops the flusher and fails the lookups still waiting.
+   */
+  @PreDestroy
+  public void shutdown() {
+    running = false;
+    flusher.interrupt();
+  }
+
+  private void run() {
+    List<Pending> batch = new ArrayList<>(maxBatchSize);
+    try {
+      while (running) {
+        batch.add(queue.take());
+        collect(batch);
+        flush(batch);
+        batch.clear();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      queue.drainTo(batch);
+      DataAccessResourceFailureException stopped =
+          new DataAccessResourceFailureException("Revocation batcher stopped");
+      batch.forEach(pending -> pending.result().completeExceptionally(stopped));
+    }
+  }
+
+  private void collect(List<Pending> batch) throws InterruptedException {
+    long deadline = System.nanoTime() + maxWaitNanos;
+    while (batch.size() < maxBatchSize) {
+      queue.drainTo(batch, maxBatchSize - batch.size());
+      long remaining = deadline - System.nanoTime();
+      if (batch.size() >= maxBatchSize || remaining <= 0) {
+        return;
+      }
+      Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+      if (next == null) {
+        return;
+      }
+      batch.add(next);
+    }
+  }
+
+  private void flush(List<Pending> batch) {
+    List<RevocationLookup> lookups = new ArrayList<>(batch.size());
+    for (Pending pending : batch) {
+      lookups.add(pending.lookup());
+    }
+    try {
+      List<RevocationState> states = tokenRedisRepository.findRevocationStates(lookups);
+      for (int i = 0; i < batch.size(); i++) {
+        batch.get(i).result().complete(states.get(i));
+      }
+    } catch (RuntimeException e) {
+      log.debug("폐기 상태 묶음 조회에 실패했습니다. size: {}", batch.size(), e);
+      batch.forEach(pending -> pending.result().completeExceptionally(e));
+    }
+    DistributionSummary summary = batchSizes;
+    if (summary != null) {
+      summary.record(batch.size());
+    }
+  }
+
+  private RevocationState findDirectly(RevocationLookup lookup) {
+    return tokenRedisRepository.findRevocationStates(List.of(lookup)).get(0);
+  }
+
+  private record Pending(RevocationLookup lookup, CompletableFuture<RevocationState> result) {
+  }
+}
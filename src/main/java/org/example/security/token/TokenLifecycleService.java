@@ -1,7 +1,10 @@
 package org.example.security.token;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import org.example.dto.response.TokenResponseDto;
+import org.example.security.jwt.VerifiedToken;
 
 /**
  * Coordinates Access Token and Refresh Token lifecycle policy.
@@ -10,8 +13,18 @@ public interface TokenLifecycleService {
 
   /**
    * Issues a new token pair and stores the active Refresh Token for the JWT Subject.
+   *
+   * <p>The User id lets compact Access Tokens carry a numeric subject; it may be {@code null}.
    */
-  TokenResponseDto issue(String jwtSubject, List<String> roles);
+  TokenResponseDto issue(Long userId, String jwtSubject, List<String> roles);
+
+  /**
+   * Issues a new token pair after a successful password login.
+   *
+   * <p>Stores the Refresh Token and clears the login failure counter of the JWT Subject in one
+   * Token Store round trip.
+   */
+  TokenResponseDto issueForLogin(Long userId, String jwtSubject, List<String> roles);
 
   /**
    * Rotates the active Refresh Token and returns a new token pair.
@@ -21,12 +34,33 @@ public interface TokenLifecycleService {
   /**
    * Removes the active Refresh Token and blacklists the current Access Token.
    */
-  void logout(String jwtSubject, String accessToken);
+  void logout(String jwtSubject, VerifiedToken accessToken);
 
   /**
    * Returns whether the Access Token may authenticate a Protected API request.
+   *
+   * <p>A token is rejected when it is blacklisted or was issued no later than the revocation
+   * watermark of its User or of all Users.
+   */
+  boolean isAccessTokenAllowed(VerifiedToken accessToken);
+
+  /**
+   * Revokes every token issued so far to the given JWT Subjects.
+   *
+   * <p>Sets a revocation watermark per User and removes their active Refresh Tokens. Tokens
+   * issued in the same second as the watermark are revoked as well.
+   *
+   * @param jwtSubjects JWT Subjects of the Users to revoke
+   * @return revocation watermark
+   */
+  Instant revokeIssuedTokens(Collection<String> jwtSubjects);
+
+  /**
+   * Revokes every token issued so far to any User.
+   *
+   * @return revocation watermark
    */
-  boolean isAccessTokenAllowed(String accessToken);
+  Instant revokeAllIssuedTokens();
 
   /**
    * Returns the Refresh Token lifetime in seconds.
@@ -1,15 +1,21 @@
 package org.example.security.token;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.example.domain.entity.User;
 import org.example.dto.response.TokenResponseDto;
 import org.example.repository.TokenRedisRepository;
+import org.example.repository.TokenRedisRepository.RevocationLookup;
+import org.example.repository.TokenRedisRepository.RevocationState;
+import org.example.repository.TokenRedisRepository.RotationResult;
 import org.example.repository.UserRepository;
 import org.example.security.failure.AuthFailureCode;
 import org.example.security.failure.AuthFailureException;
 import org.example.security.jwt.JwtTokenProvider;
+import org.example.security.jwt.VerifiedToken;
 import org.springframework.stereotype.Service;
 
 /**
@@ -23,63 +29,171 @@ public class TokenLifecycleServiceImpl implements TokenLifecycleService {
   private final TokenRedisRepository tokenRedisRepository;
   private final UserRepository userRepository;
   private final RedisFailurePolicy redisFailurePolicy;
+  private final RevocationReplica revocationReplica;
+  private final RevocationStateBatcher revocationStateBatcher;
 
   @Override
-  public TokenResponseDto issue(String jwtSubject, List<String> roles) {
-    String accessToken = jwtTokenProvider.generateAccessToken(jwtSubject, roles);
+  public TokenResponseDto issue(Long userId, String jwtSubject, List<String> roles) {
+    String accessToken = jwtTokenProvider.generateAccessToken(userId, jwtSubject, roles);
     String refreshToken = jwtTokenProvider.generateRefreshToken(jwtSubject);
     redisFailurePolicy.requireAvailable(() ->
         tokenRedisRepository.saveRefreshToken(jwtSubject, refreshToken, getRefreshTokenTtlSeconds()));
 
-    return TokenResponseDto.builder()
-        .accessToken(accessToken)
-        .refreshToken(refreshToken)
-        .tokenType("Bearer")
-        .build();
+    return tokenResponse(accessToken, refreshToken);
+  }
+
+  @Override
+  public TokenResponseDto issueForLogin(Long userId, String jwtSubject, List<String> roles) {
+    String accessToken = jwtTokenProvider.generateAccessToken(userId, jwtSubject, roles);
+    String refreshToken = jwtTokenProvider.generateRefreshToken(jwtSubject);
+    redisFailurePolicy.requireAvailable(() -> tokenRedisRepository.saveLoginSession(
+        jwtSubject, refreshToken, getRefreshTokenTtlSeconds()));
+
+    return tokenResponse(accessToken, refreshToken);
   }
 
+  /**
+   * Compares and swaps the Refresh Token in one Redis script, so of two concurrent refreshes with
+   * the same token exactly one succeeds and the other is reported as reuse.
+   */
   @Override
   public TokenResponseDto rotate(String refreshToken) {
-    String jwtSubject = jwtTokenProvider.parseClaims(refreshToken).getSubject();
-    String storedToken = redisFailurePolicy.requireAvailable(
-            () -> tokenRedisRepository.findRefreshToken(jwtSubject))
-        .orElseThrow(() -> new AuthFailureException(
-            AuthFailureCode.REFRESH_TOKEN_INVALID,
-            "유효하지 않은 Refresh Token입니다. (만료 또는 미존재)"));
+    VerifiedToken verified = jwtTokenProvider.verify(refreshToken);
+    String jwtSubject = verified.subject();
+    long issuedAt = verified.issuedAt() != null ? verified.issuedAt().getEpochSecond() : -1;
+    String newRefreshToken = jwtTokenProvider.generateRefreshToken(jwtSubject);
+    RotationResult result = redisFailurePolicy.requireAvailable(() ->
+        tokenRedisRepository.rotateRefreshToken(
+            jwtSubject, refreshToken, newRefreshToken, getRefreshTokenTtlSeconds(), issuedAt));
 
-    if (!storedToken.equals(refreshToken)) {
-      throw new AuthFailureException(
-          AuthFailureCode.REFRESH_TOKEN_REUSED,
-          "Refresh Token이 일치하지 않습니다. (탈취 의심)");
+    if (result != RotationResult.ROTATED) {
+      throw rotationFailure(result);
     }
 
     User user = userRepository.findByUsername(jwtSubject)
         .orElseThrow(() -> new AuthFailureException(
             AuthFailureCode.USER_NOT_FOUND,
             "사용자를 찾을 수 없습니다."));
+    // 교체된 RT는 반환하지 않으므로 잠기거나 비활성화된 User의 세션은 여기서 끝난다.
+    if (!user.isAccountNonLocked()) {
+      throw new AuthFailureException(
+          AuthFailureCode.ACCOUNT_LOCKED,
+          "User account is locked.");
+    }
+    if (!user.isEnabled()) {
+      throw new AuthFailureException(
+          AuthFailureCode.USER_DISABLED,
+          "User account is disabled.");
+    }
     List<String> roles = user.getRoles().stream()
         .map(role -> role.getName())
         .collect(Collectors.toList());
 
-    return issue(jwtSubject, roles);
+    String accessToken = jwtTokenProvider.generateAccessToken(user.getId(), jwtSubject, roles);
+    return tokenResponse(accessToken, newRefreshToken);
   }
 
+  /**
+   * Deletes the Refresh Token and blacklists the Access Token in one Redis round trip.
+   */
   @Override
-  public void logout(String jwtSubject, String accessToken) {
-    redisFailurePolicy.requireAvailable(() -> tokenRedisRepository.deleteRefreshToken(jwtSubject));
+  public void logout(String jwtSubject, VerifiedToken accessToken) {
+    long remainingTtl = accessToken.remainingMillis(Instant.now());
+    redisFailurePolicy.requireAvailable(() -> tokenRedisRepository.logout(
+        jwtSubject, remainingTtl > 0 ? accessToken.revocationId() : null, remainingTtl));
+  }
 
-    long remainingTtl = jwtTokenProvider.getRemainingExpiration(accessToken);
-    redisFailurePolicy.requireAvailable(() ->
-        tokenRedisRepository.addToBlacklist(accessToken, remainingTtl));
+  @Override
+  public boolean isAccessTokenAllowed(VerifiedToken accessToken) {
+    RevocationReplica.Verdict verdict = revocationReplica.check(accessToken);
+    if (verdict == RevocationReplica.Verdict.ALLOWED) {
+      return true;
+    }
+    if (verdict == RevocationReplica.Verdict.REVOKED) {
+      return false;
+    }
+    RevocationState state =
+        redisFailurePolicy.requireAvailable(() -> findRevocationState(accessToken));
+    return !state.blacklisted() && !isRevoked(state.revokedThrough(), accessToken.issuedAt());
   }
 
   @Override
-  public boolean isAccessTokenAllowed(String accessToken) {
-    return redisFailurePolicy.requireAvailable(() -> !tokenRedisRepository.isBlacklisted(accessToken));
+  public Instant revokeIssuedTokens(Collection<String> jwtSubjects) {
+    Instant now = Instant.now();
+    List<Long> userIds = jwtSubjects.isEmpty() ? List.of()
+        : userRepository.findIdsByUsernameIn(jwtSubjects);
+    redisFailurePolicy.requireAvailable(() -> tokenRedisRepository.revokeUsers(
+        jwtSubjects, userIds, now.getEpochSecond(), revocationTtlSeconds()));
+    return now;
+  }
+
+  @Override
+  public Instant revokeAllIssuedTokens() {
+    Instant now = Instant.now();
+    redisFailurePolicy.requireAvailable(() ->
+        tokenRedisRepository.revokeAll(now.getEpochSecond(), revocationTtlSeconds()));
+    return now;
   }
 
   @Override
   public long getRefreshTokenTtlSeconds() {
     return jwtTokenProvider.getRefreshTokenExpiration() / 1000;
   }
+
+  /**
+   * Returns whether a token issued at {@code issuedAt} falls under the revocation watermark.
+   *
+   * <p>{@code iat} has second precision, so a token from the watermark second is revoked. A token
+   * without {@code iat} is revoked whenever a watermark exists.
+   *
+   * @param revokedThrough revocation watermark in epoch seconds, or {@code null}
+   * @param issuedAt token {@code iat}, or {@code null}
+   * @return {@code true} if the token is revoked
+   */
+  public static boolean isRevoked(Long revokedThrough, Instant issuedAt) {
+    return revokedThrough != null
+        && (issuedAt == null || issuedAt.getEpochSecond() <= revokedThrough);
+  }
+
+  private static TokenResponseDto tokenResponse(String accessToken, String refreshToken) {
+    return TokenResponseDto.builder()
+        .accessToken(accessToken)
+        .refreshToken(refreshToken)
+        .tokenType("Bearer")
+        .build();
+  }
+
+  private static AuthFailureException rotationFailure(RotationResult result) {
+    return switch (result) {
+      case REVOKED -> new AuthFailureException(
+          AuthFailureCode.REFRESH_TOKEN_INVALID,
+          "폐기된 Refresh Token입니다.");
+      case REUSED -> new AuthFailureException(
+          AuthFailureCode.REFRESH_TOKEN_REUSED,
+          "Refresh Token이 일치하지 않습니다. (탈취 의심)");
+      default -> new AuthFailureException(
+          AuthFailureCode.REFRESH_TOKEN_INVALID,
+          "유효하지 않은 Refresh Token입니다. (만료 또는 미존재)");
+    };
+  }
+
+  private RevocationState findRevocationState(VerifiedToken accessToken) {
+    String revocationId = accessToken.revocationId();
+    String jwtSubject = accessToken.subject();
+    if (revocationStateBatcher.isEnabled()) {
+      return revocationStateBatcher.find(jwtSubject != null
+          ? RevocationLookup.forSubject(revocationId, jwtSubject)
+          : RevocationLookup.forUserId(revocationId, accessToken.userId()));
+    }
+    return jwtSubject != null
+        ? tokenRedisRepository.findRevocationState(revocationId, jwtSubject)
+        : tokenRedisRepository.findRevocationStateById(revocationId, accessToken.userId());
+  }
+
+  /**
+   * Watermarks outlive every token they may revoke; Refresh Tokens live longest.
+   */
+  private long revocationTtlSeconds() {
+    return getRefreshTokenTtlSeconds() + 1;
+  }
 }
@@ -1,7 +1,10 @@
 package org.example.service;
 
+import java.time.Instant;
+import java.util.List;
+
 /**
- * Admin recovery use cases.
+ * Admin recovery, token revocation and key management use cases.
  */
 public interface AdminService {
 
@@ -11,4 +14,26 @@ public interface AdminService {
    * @param username User login username
    */
   void unlockUser(String username);
+
+  /**
+   * Stages a new JWT signing key; outstanding tokens stay valid until they expire.
+   *
+   * @return {@code kid} of the new key
+   */
+  String rotateSigningKey();
+
+  /**
+   * Revokes every token issued so far to the given Users.
+   *
+   * @param usernames User login usernames
+   * @return revocation watermark
+   */
+  Instant revokeUserTokens(List<String> usernames);
+
+  /**
+   * Revokes every token issued so far to any User.
+   *
+   * @return revocation watermark
+   */
+  Instant revokeAllTokens();
 }
@@ -1,16 +1,21 @@
 package org.example.service;
 
+import java.time.Instant;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.example.domain.entity.User;
 import org.example.repository.UserRepository;
 import org.example.security.account.LoginFailureCounter;
 import org.example.security.failure.AuthFailureCode;
 import org.example.security.failure.AuthFailureException;
+import org.example.security.jwt.JwtKeyRotator;
+import org.example.security.token.RedisFailurePolicy;
+import org.example.security.token.TokenLifecycleService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
- * Transactional service for ADMIN account recovery.
+ * Transactional service for ADMIN account recovery and token revocation.
  */
 @Service
 @RequiredArgsConstructor
@@ -18,6 +23,9 @@ public class AdminServiceImpl implements AdminService {
 
   private final UserRepository userRepository;
   private final LoginFailureCounter loginFailureCounter;
+  private final JwtKeyRotator jwtKeyRotator;
+  private final RedisFailurePolicy redisFailurePolicy;
+  private final TokenLifecycleService tokenLifecycleService;
 
   @Override
   @Transactional
@@ -28,6 +36,23 @@ public class AdminServiceImpl implements AdminService {
             "User not found."));
 
     user.unlock();
+    // 저장 시 UserStateChangedEvent가 발행되어 캐시된 principal이 무효화된다.
+    userRepository.save(user);
     loginFailureCounter.clear(username);
   }
+
+  @Override
+  public String rotateSigningKey() {
+    return redisFailurePolicy.requireAvailable(jwtKeyRotator::rotate);
+  }
+
+  @Override
+  public Instant revokeUserTokens(List<String> usernames) {
+    return tokenLifecycleService.revokeIssuedTokens(List.copyOf(usernames));
+  }
+
+  @Override
+  public Instant revokeAllTokens() {
+    return tokenLifecycleService.revokeAllIssuedTokens();
+  }
 }
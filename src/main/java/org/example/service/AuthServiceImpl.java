@@ -8,14 +8,16 @@ import org.example.domain.entity.User;
 import org.example.dto.request.LoginRequestDto;
 import org.example.dto.response.TokenResponseDto;
 import org.example.repository.UserRepository;
+import org.example.security.CustomUserDetails;
 import org.example.security.account.LoginFailureCounter;
+import org.example.security.account.PreloadedUserAuthenticationToken;
 import org.example.security.authenticated.AuthenticatedUser;
 import org.example.security.failure.AuthFailureCode;
 import org.example.security.failure.AuthFailureException;
+import org.example.security.jwt.VerifiedToken;
 import org.example.security.token.TokenLifecycleService;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
@@ -36,12 +38,9 @@ public class AuthServiceImpl implements AuthService {
   @Override
   public TokenResponseDto login(LoginRequestDto requestDto) {
     String username = requestDto.getUsername();
-    User user = userRepository.findByUsername(username)
-        .orElseThrow(() -> new AuthFailureException(
-            AuthFailureCode.BAD_CREDENTIALS,
-            "Invalid username or password."));
+    User user = userRepository.findByUsername(username).orElse(null);
 
-    if (!user.isAccountNonLocked()) {
+    if (user != null && !user.isAccountNonLocked()) {
       throw new AuthFailureException(
           AuthFailureCode.ACCOUNT_LOCKED,
           "User account is locked.");
@@ -49,12 +48,15 @@ public class AuthServiceImpl implements AuthService {
 
     Authentication authentication;
     try {
-      authentication = authenticationManager.authenticate(
-          new UsernamePasswordAuthenticationToken(
-              username,
-              requestDto.getPassword()));
+      // 잠금 확인에 쓴 User를 그대로 넘겨 비밀번호 확인에서 다시 조회하지 않는다.
+      // 없는 User도 같은 비밀번호 확인 비용을 치르도록 provider에 넘겨 거부한다.
+      authentication = authenticationManager.authenticate(user != null
+          ? new PreloadedUserAuthenticationToken(
+              new CustomUserDetails(user),
+              requestDto.getPassword())
+          : PreloadedUserAuthenticationToken.forMissingUser(username, requestDto.getPassword()));
     } catch (BadCredentialsException e) {
-      if (loginFailureCounter.recordFailure(username)) {
+      if (user != null && loginFailureCounter.recordFailure(username)) {
         user.lock();
         userRepository.save(user);
         throw new AuthFailureException(
@@ -68,18 +70,18 @@ public class AuthServiceImpl implements AuthService {
           e);
     }
 
-    loginFailureCounter.clear(username);
-
     AuthenticatedUser userDetails = (AuthenticatedUser) authentication.getPrincipal();
     List<String> roles = authentication.getAuthorities().stream()
         .map(GrantedAuthority::getAuthority)
         .collect(Collectors.toList());
 
-    return tokenLifecycleService.issue(userDetails.getJwtSubject(), roles);
+    // RT 저장과 로그인 실패 횟수 삭제를 한 번의 Redis 왕복으로 처리한다.
+    return tokenLifecycleService.issueForLogin(
+        userDetails.getId(), userDetails.getJwtSubject(), roles);
   }
 
   @Override
-  public void logout(String username, String accessToken) {
+  public void logout(String username, VerifiedToken accessToken) {
     tokenLifecycleService.logout(username, accessToken);
   }
 
@@ -0,0 +1,19 @@
+-- KEYS[1]: Access Token Blacklist key, KEYS[2]: User snapshot hash, KEYS[3]: User security epoch,
+-- KEYS[4]: User revocation watermark, KEYS[5]: global revocation watermark
+-- ARGV[1]: token iat in epoch seconds, or -1 when the token has none
+-- Returns {1} for a blacklisted or revoked token, otherwise {0, epoch, id, nickname, enabled,
+-- accountNonLocked, roles, deleted} with nil for missing values.
+if redis.call('EXISTS', KEYS[1]) == 1 then
+  return {1}
+end
+local issuedAt = tonumber(ARGV[1])
+for i = 4, 5 do
+  local revokedThrough = redis.call('GET', KEYS[i])
+  if revokedThrough and (issuedAt < 0 or issuedAt <= tonumber(revokedThrough)) then
+    return {1}
+  end
+end
+local snapshot = redis.call('HMGET', KEYS[2],
+  'id', 'nickname', 'enabled', 'accountNonLocked', 'roles', 'deleted')
+return {0, redis.call('GET', KEYS[3]),
+  snapshot[1], snapshot[2], snapshot[3], snapshot[4], snapshot[5], snapshot[6]}
@@ -0,0 +1,27 @@
+-- KEYS[1]: Refresh Token key, KEYS[2]: User revocation watermark, KEYS[3]: global revocation watermark
+-- ARGV[1]: presented Refresh Token digest, ARGV[2]: new Refresh Token digest,
+-- ARGV[3]: TTL in seconds, ARGV[4]: presented token iat in epoch seconds, or -1 when it has none,
+-- ARGV[5]: presented Refresh Token, matched only against values stored before digests were used.
+--          Remove it and the plaintext compare below once refresh-token-expiration (7 days by
+--          default) has passed since every instance stores digests; no plaintext value is left.
+-- Returns 0 when rotated, 1 when no Refresh Token is stored, 2 when the presented token is not the
+-- stored one (reuse), 3 when the presented token was issued no later than a revocation watermark.
+local issuedAt = tonumber(ARGV[4])
+for i = 2, 3 do
+  local revokedThrough = redis.call('GET', KEYS[i])
+  if revokedThrough and (issuedAt < 0 or issuedAt <= tonumber(revokedThrough)) then
+    return 3
+  end
+end
+local stored = redis.call('GET', KEYS[1])
+if not stored then
+  return 1
+end
+-- ARGV[1] is a digest the caller cannot steer byte by byte, so timing the compare does not let
+-- them guess the stored value. A plaintext value is hashed on both sides before it is compared
+-- for the same reason.
+if stored ~= ARGV[1] and redis.sha1hex(stored) ~= redis.sha1hex(ARGV[5]) then
+  return 2
+end
+redis.call('SET', KEYS[1], ARGV[2], 'EX', ARGV[3])
+return 0
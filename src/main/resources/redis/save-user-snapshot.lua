@@ -0,0 +1,10 @@
+-- KEYS[1]: User snapshot hash
+-- ARGV[1]: TTL seconds, ARGV[2]: '1' to overwrite, '0' to keep an existing snapshot,
+-- ARGV[3..]: field/value pairs
+if ARGV[2] ~= '1' and redis.call('EXISTS', KEYS[1]) == 1 then
+  return 0
+end
+redis.call('DEL', KEYS[1])
+redis.call('HSET', KEYS[1], unpack(ARGV, 3))
+redis.call('EXPIRE', KEYS[1], ARGV[1])
+return 1
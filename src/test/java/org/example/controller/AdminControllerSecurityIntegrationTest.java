@@ -10,12 +10,16 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import java.util.List;
 import java.util.Optional;
 import org.example.config.SecurityConfig;
+import org.example.security.authenticated.AuthenticatedUser;
 import org.example.security.authenticated.AuthenticatedUserService;
+import org.example.security.authenticated.PrincipalSnapshotStore;
+import org.example.security.authenticated.UserSecurityEpoch;
 import org.example.security.exception.CustomAccessDeniedHandler;
 import org.example.security.exception.CustomAuthenticationEntryPoint;
 import org.example.security.jwt.ExceptionHandlerFilter;
 import org.example.security.jwt.JwtAuthenticationFilter;
 import org.example.security.jwt.JwtTokenProvider;
+import org.example.security.jwt.VerifiedToken;
 import org.example.security.oauth2.CookieOAuth2AuthorizationRequestRepository;
 import org.example.security.oauth2.CustomOAuth2UserService;
 import org.example.security.oauth2.OAuth2AuthenticationFailureHandler;
@@ -55,6 +59,12 @@ class AdminControllerSecurityIntegrationTest {
   @MockitoBean
   private AdminService adminService;
 
+  @MockitoBean
+  private UserSecurityEpoch userSecurityEpoch;
+
+  @MockitoBean
+  private PrincipalSnapshotStore principalSnapshotStore;
+
   @Test
   @DisplayName("production SecurityConfig returns 403 when USER unlocks account")
   void userCannotUnlockAccount_withProductionSecurityConfig() throws Exception {
@@ -115,33 +125,59 @@ class AdminControllerSecurityIntegrationTest {
 
     @Bean
     AuthenticatedUserService authenticatedUserService() {
-      return jwtSubject -> Optional.empty();
+      return new AuthenticatedUserService() {
+        @Override
+        public Optional<AuthenticatedUser> findActiveUserByJwtSubject(String jwtSubject) {
+          return Optional.empty();
+        }
+
+        @Override
+        public Optional<AuthenticatedUser> findActiveUserById(Long userId) {
+          return Optional.empty();
+        }
+      };
     }
 
     @Bean
     TokenLifecycleService tokenLifecycleService() {
       return new TokenLifecycleService() {
         @Override
-        public org.example.dto.response.TokenResponseDto issue(String jwtSubject,
+        public org.example.dto.response.TokenResponseDto issue(Long userId, String jwtSubject,
             List<String> roles) {
           throw new UnsupportedOperationException("Not used in admin security tests");
         }
 
+        @Override
+        public org.example.dto.response.TokenResponseDto issueForLogin(Long userId,
+            String jwtSubject, List<String> roles) {
+          throw new UnsupportedOperationException("Not used in admin security tests");
+        }
+
         @Override
         public org.example.dto.response.TokenResponseDto rotate(String refreshToken) {
           throw new UnsupportedOperationException("Not used in admin security tests");
         }
 
         @Override
-        public void logout(String jwtSubject, String accessToken) {
+        public void logout(String jwtSubject, VerifiedToken accessToken) {
           throw new UnsupportedOperationException("Not used in admin security tests");
         }
 
         @Override
-        public boolean isAccessTokenAllowed(String accessToken) {
+        public boolean isAccessTokenAllowed(VerifiedToken accessToken) {
           return true;
         }
 
+        @Override
+        public java.time.Instant revokeIssuedTokens(java.util.Collection<String> jwtSubjects) {
+          throw new UnsupportedOperationException("Not used in admin security tests");
+        }
+
+        @Override
+        public java.time.Instant revokeAllIssuedTokens() {
+          throw new UnsupportedOperationException("Not used in admin security tests");
+        }
+
         @Override
         public long getRefreshTokenTtlSeconds() {
           return 604_800L;
@@ -1,11 +1,17 @@
 package org.example.controller;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 
+import java.time.Instant;
+import java.util.List;
 import org.example.security.authenticated.AuthenticatedUserService;
+import org.example.security.authenticated.PrincipalSnapshotStore;
+import org.example.security.authenticated.UserSecurityEpoch;
 import org.example.security.jwt.JwtTokenProvider;
 import org.example.security.token.TokenLifecycleService;
 import org.example.security.token.delivery.TokenDeliveryServiceImpl;
@@ -16,6 +22,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.assertj.MockMvcTester;
 
@@ -38,6 +45,12 @@ class AdminControllerSecurityTest {
   @MockitoBean
   private TokenLifecycleService tokenLifecycleService;
 
+  @MockitoBean
+  private UserSecurityEpoch userSecurityEpoch;
+
+  @MockitoBean
+  private PrincipalSnapshotStore principalSnapshotStore;
+
   @Test
   @DisplayName("ROLE_USER cannot unlock account")
   void userCannotUnlockAccount() {
@@ -57,4 +70,56 @@ class AdminControllerSecurityTest {
 
     verify(adminService).unlockUser("testuser");
   }
+
+  @Test
+  @DisplayName("ROLE_USER cannot rotate the signing key")
+  void userCannotRotateSigningKey() {
+    assertThat(mvc.post().uri("/admin/signing-keys/rotate")
+        .with(user("testuser").roles("USER")))
+        .hasStatus(HttpStatus.FORBIDDEN);
+
+    verify(adminService, never()).rotateSigningKey();
+  }
+
+  @Test
+  @DisplayName("ROLE_ADMIN can rotate the signing key")
+  void adminCanRotateSigningKey() {
+    given(adminService.rotateSigningKey()).willReturn("new-kid");
+
+    assertThat(mvc.post().uri("/admin/signing-keys/rotate")
+        .with(user("admin").roles("ADMIN")))
+        .hasStatusOk()
+        .hasBodyTextEqualTo("new-kid");
+  }
+
+  @Test
+  @DisplayName("ROLE_USER cannot revoke tokens")
+  void userCannotRevokeTokens() {
+    assertThat(mvc.post().uri("/admin/tokens/revoke-all")
+        .with(user("testuser").roles("USER")))
+        .hasStatus(HttpStatus.FORBIDDEN);
+
+    verify(adminService, never()).revokeAllTokens();
+    verify(adminService, never()).revokeUserTokens(any());
+  }
+
+  @Test
+  @DisplayName("ROLE_ADMIN can revoke the tokens of one User or a list of Users")
+  void adminCanRevokeUserTokens() {
+    given(adminService.revokeUserTokens(any()))
+        .willReturn(Instant.parse("2026-01-01T00:00:00Z"));
+
+    assertThat(mvc.post().uri("/admin/users/testuser/revoke-tokens")
+        .with(user("admin").roles("ADMIN")))
+        .hasStatusOk()
+        .hasBodyTextEqualTo("2026-01-01T00:00:00Z");
+    assertThat(mvc.post().uri("/admin/users/revoke-tokens")
+        .with(user("admin").roles("ADMIN"))
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"usernames\":[\"testuser\",\"other\"]}"))
+        .hasStatusOk();
+
+    verify(adminService).revokeUserTokens(List.of("testuser"));
+    verify(adminService).revokeUserTokens(List.of("testuser", "other"));
+  }
 }
@@ -8,6 +8,8 @@ import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 
+import java.time.Instant;
+import java.util.List;
 import org.example.domain.entity.User;
 import org.example.dto.request.LoginRequestDto;
 import org.example.dto.request.SignupRequest;
@@ -15,9 +17,12 @@ import org.example.dto.response.TokenResponseDto;
 import org.example.security.CustomUserDetails;
 import org.example.security.CustomUserDetailsService;
 import org.example.security.authenticated.AuthenticatedUserService;
+import org.example.security.authenticated.PrincipalSnapshotStore;
+import org.example.security.authenticated.UserSecurityEpoch;
 import org.example.security.failure.AuthFailureCode;
 import org.example.security.failure.AuthFailureException;
 import org.example.security.jwt.JwtTokenProvider;
+import org.example.security.jwt.VerifiedToken;
 import org.example.security.token.TokenLifecycleService;
 import org.example.security.token.delivery.TokenDeliveryServiceImpl;
 import org.example.service.AuthService;
@@ -56,6 +61,13 @@ import tools.jackson.databind.json.JsonMapper;
 @Import({TestSecurityConfig.class, TokenDeliveryServiceImpl.class})
 class AuthControllerTest {
 
+    private static final VerifiedToken ACCESS_TOKEN = new VerifiedToken(
+            "test-access-token",
+            "testuser",
+            List.of("ROLE_USER"),
+            Instant.parse("2026-01-01T00:00:00Z"),
+            Instant.parse("2026-01-01T01:00:00Z"));
+
     @Autowired
     private MockMvcTester mvc;
 
@@ -80,6 +92,12 @@ class AuthControllerTest {
     @MockitoBean
     private TokenLifecycleService tokenLifecycleService;
 
+    @MockitoBean
+    private UserSecurityEpoch userSecurityEpoch;
+
+    @MockitoBean
+    private PrincipalSnapshotStore principalSnapshotStore;
+
     // ======================== POST /logout ========================
 
     @Nested
@@ -87,14 +105,14 @@ class AuthControllerTest {
     class Logout {
 
         @Test
-        @DisplayName("인증된 사용자가 Authorization 헤더와 함께 요청하면 authService.logout이 호출된다")
+        @DisplayName("인증된 사용자가 요청하면 JWT 필터가 검증한 Access Token으로 authService.logout이 호출된다")
         void callsAuthServiceLogout_whenAuthenticated() {
             assertThat(mvc.post().uri("/logout")
                     .with(authenticatedUser("testuser"))
-                    .header("Authorization", "Bearer test-access-token"))
+                    .requestAttr(VerifiedToken.REQUEST_ATTRIBUTE, ACCESS_TOKEN))
                     .hasStatusOk();
 
-            verify(authService).logout(eq("testuser"), eq("test-access-token"));
+            verify(authService).logout(eq("testuser"), eq(ACCESS_TOKEN));
         }
 
         @Test
@@ -102,7 +120,7 @@ class AuthControllerTest {
         void deletesCookieWithMaxAgeZero() {
             assertThat(mvc.post().uri("/logout")
                     .with(authenticatedUser("testuser"))
-                    .header("Authorization", "Bearer test-access-token"))
+                    .requestAttr(VerifiedToken.REQUEST_ATTRIBUTE, ACCESS_TOKEN))
                     .hasStatusOk()
                     .cookies()
                     .extractingByKey("Refresh-Token")
@@ -118,11 +136,11 @@ class AuthControllerTest {
                     AuthFailureCode.TOKEN_STORE_UNAVAILABLE,
                     "Token Store를 사용할 수 없습니다."))
                     .when(authService)
-                    .logout("testuser", "test-access-token");
+                    .logout("testuser", ACCESS_TOKEN);
 
             assertThat(mvc.post().uri("/logout")
                     .with(authenticatedUser("testuser"))
-                    .header("Authorization", "Bearer test-access-token"))
+                    .requestAttr(VerifiedToken.REQUEST_ATTRIBUTE, ACCESS_TOKEN))
                     .hasStatus(HttpStatus.SERVICE_UNAVAILABLE)
                     .cookies()
                     .extractingByKey("Refresh-Token")
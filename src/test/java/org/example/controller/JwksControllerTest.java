@@ -0,0 +1,53 @@
+package org.example.controller;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.example.security.jwt.JwtKeyring;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class JwksControllerTest {
+
+  private static final String SECRET =
+      "dGVzdC1zZWNyZXQta2V5LWZvci10ZXN0aW5nLW11c3QtYmUtYXQtbGVhc3QtMzItYnl0ZXMtbG9uZw==";
+
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() {
+    JwtKeyring keyring = new JwtKeyring(SECRET, "ES256", "es-key-1", "", "", true);
+    mockMvc = MockMvcBuilders.standaloneSetup(new JwksController(keyring, 600)).build();
+  }
+
+  @Test
+  @DisplayName("Publishes the active public key with shared-cache headers")
+  void jwks_returnsPublicKeysWithCacheHeaders() throws Exception {
+    mockMvc.perform(get("/.well-known/jwks.json"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Cache-Control", containsString("max-age=600")))
+        .andExpect(header().string("Cache-Control", containsString("public")))
+        .andExpect(header().exists("ETag"))
+        .andExpect(jsonPath("$.keys[0].kid").value("es-key-1"))
+        .andExpect(jsonPath("$.keys[0].kty").value("EC"))
+        .andExpect(jsonPath("$.keys[0].d").doesNotExist());
+  }
+
+  @Test
+  @DisplayName("Returns 304 when the client already has the current key set")
+  void jwks_returnsNotModified_whenEtagMatches() throws Exception {
+    String etag = mockMvc.perform(get("/.well-known/jwks.json"))
+        .andReturn()
+        .getResponse()
+        .getHeader("ETag");
+
+    mockMvc.perform(get("/.well-known/jwks.json").header("If-None-Match", etag))
+        .andExpect(status().isNotModified());
+  }
+}
@@ -0,0 +1,160 @@
+package org.example.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.redis.testcontainers.RedisContainer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.example.repository.PrincipalSnapshotRedisRepository.AccessTokenState;
+import org.example.security.authenticated.PrincipalSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@SpringBootTest
+@Testcontainers
+@ActiveProfiles("test")
+class PrincipalSnapshotRedisRepositoryTest {
+
+  private static final Instant ISSUED_AT = Instant.parse("2026-01-01T00:00:00Z");
+
+  @Container
+  static RedisContainer redisContainer = new RedisContainer(
+      RedisContainer.DEFAULT_IMAGE_NAME.withTag(RedisContainer.DEFAULT_TAG));
+
+  @DynamicPropertySource
+  static void redisProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.data.redis.host", redisContainer::getHost);
+    registry.add("spring.data.redis.port", redisContainer::getFirstMappedPort);
+  }
+
+  @Autowired
+  private PrincipalSnapshotRedisRepository repository;
+
+  @Autowired
+  private TokenRedisRepository tokenRedisRepository;
+
+  @Autowired
+  private SecurityEpochRedisRepository securityEpochRedisRepository;
+
+  @Autowired
+  private StringRedisTemplate redisTemplate;
+
+  @BeforeEach
+  void setUp() {
+    redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+  }
+
+  @Test
+  @DisplayName("check returns the snapshot and epoch of a token that is not blacklisted")
+  void check_returnsSnapshotAndEpoch() {
+    repository.save(snapshot("tester", true), Duration.ofHours(1));
+    securityEpochRedisRepository.save("testuser", 1_700_000_000L, Duration.ofHours(1));
+
+    AccessTokenState state = repository.check("access-token", "testuser", ISSUED_AT);
+
+    assertThat(state.blacklisted()).isFalse();
+    assertThat(state.epochSecond()).isEqualTo(1_700_000_000L);
+    assertThat(state.snapshot()).isEqualTo(snapshot("tester", true));
+    assertThat(redisTemplate.getExpire("auth:user:snapshot:testuser")).isPositive();
+  }
+
+  @Test
+  @DisplayName("check returns no snapshot or epoch for a User without Redis state")
+  void check_returnsEmptyState_whenNothingIsStored() {
+    AccessTokenState state = repository.check("access-token", "testuser", ISSUED_AT);
+
+    assertThat(state.blacklisted()).isFalse();
+    assertThat(state.epochSecond()).isNull();
+    assertThat(state.snapshot()).isNull();
+    assertThat(state.userDeleted()).isFalse();
+  }
+
+  @Test
+  @DisplayName("check reports the tombstone of a deleted User until a snapshot replaces it")
+  void check_returnsUserDeleted_untilSnapshotIsWritten() {
+    repository.save(snapshot("tester", true), Duration.ofHours(1));
+    repository.saveTombstone("testuser", Duration.ofMinutes(5));
+
+    AccessTokenState deleted = repository.check("access-token", "testuser", ISSUED_AT);
+    boolean filled = repository.saveIfAbsent(snapshot("tester", true), Duration.ofHours(1));
+    repository.save(snapshot("recreated", true), Duration.ofHours(1));
+
+    assertThat(deleted.userDeleted()).isTrue();
+    assertThat(deleted.snapshot()).isNull();
+    assertThat(filled).isFalse();
+    assertThat(repository.check("access-token", "testuser", ISSUED_AT).userDeleted()).isFalse();
+    assertThat(repository.check("access-token", "testuser", ISSUED_AT).snapshot().nickname())
+        .isEqualTo("recreated");
+  }
+
+  @Test
+  @DisplayName("check reports a blacklisted token")
+  void check_returnsBlacklisted() {
+    tokenRedisRepository.logout("testuser", "access-token", 60_000L);
+    repository.save(snapshot("tester", true), Duration.ofHours(1));
+
+    AccessTokenState state = repository.check("access-token", "testuser", ISSUED_AT);
+
+    assertThat(state.blacklisted()).isTrue();
+    assertThat(state.snapshot()).isNull();
+  }
+
+  @Test
+  @DisplayName("check reports a token issued no later than a User or global revocation watermark")
+  void check_returnsBlacklisted_whenIssuedBeforeRevocationWatermark() {
+    repository.save(snapshot("tester", true), Duration.ofHours(1));
+    long revokedThrough = ISSUED_AT.getEpochSecond();
+
+    tokenRedisRepository.revokeUsers(List.of("testuser"), List.of(), revokedThrough, 60L);
+    boolean userRevoked = repository.check("access-token", "testuser", ISSUED_AT).blacklisted();
+    AccessTokenState later = repository.check(
+        "access-token", "testuser", ISSUED_AT.plusSeconds(1));
+    redisTemplate.delete("RB:testuser");
+    tokenRedisRepository.revokeAll(revokedThrough, 60L);
+
+    assertThat(userRevoked).isTrue();
+    assertThat(later.blacklisted()).isFalse();
+    assertThat(later.snapshot()).isEqualTo(snapshot("tester", true));
+    assertThat(repository.check("access-token", "testuser", ISSUED_AT).blacklisted()).isTrue();
+    assertThat(repository.check("access-token", "testuser", null).blacklisted()).isTrue();
+  }
+
+  @Test
+  @DisplayName("saveIfAbsent keeps a snapshot written through after a state change")
+  void saveIfAbsent_doesNotReplaceExistingSnapshot() {
+    repository.save(snapshot("tester", false), Duration.ofHours(1));
+
+    boolean written = repository.saveIfAbsent(snapshot("stale", true), Duration.ofHours(1));
+
+    assertThat(written).isFalse();
+    assertThat(repository.check("access-token", "testuser", ISSUED_AT).snapshot())
+        .isEqualTo(snapshot("tester", false));
+  }
+
+  @Test
+  @DisplayName("save replaces an existing snapshot")
+  void save_replacesSnapshot() {
+    repository.save(snapshot("tester", true), Duration.ofHours(1));
+
+    repository.save(snapshot("tester", false), Duration.ofHours(1));
+
+    assertThat(repository.check("access-token", "testuser", ISSUED_AT).snapshot())
+        .extracting(PrincipalSnapshot::accountNonLocked)
+        .isEqualTo(false);
+  }
+
+  private static PrincipalSnapshot snapshot(String nickname, boolean accountNonLocked) {
+    return new PrincipalSnapshot(
+        42L, "testuser", nickname, true, accountNonLocked, List.of("ROLE_USER", "ROLE_ADMIN"));
+  }
+}
@@ -3,11 +3,34 @@ package org.example.repository;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.redis.testcontainers.RedisContainer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import org.example.repository.TokenRedisRepository.LogoutResult;
+import org.example.repository.TokenRedisRepository.RevocationLookup;
+import org.example.repository.TokenRedisRepository.RevocationState;
+import org.example.repository.TokenRedisRepository.RotationResult;
+import org.example.security.jwt.JwtTokenProvider;
+import org.example.security.jwt.VerifiedToken;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
@@ -41,6 +64,9 @@ class TokenRedisRepositoryTest {
     @Autowired
     private StringRedisTemplate stringRedisTemplate;
 
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
     @BeforeEach
     void setUp() {
         // 각 테스트 전 Redis 데이터 초기화
@@ -48,8 +74,8 @@ class TokenRedisRepositoryTest {
     }
 
     @Test
-    @DisplayName("saveRefreshToken 저장 후 findRefreshToken으로 조회할 수 있다")
-    void saveAndFindRefreshToken() {
+    @DisplayName("saveRefreshToken으로 저장한 RT로만 교체할 수 있다")
+    void saveRefreshToken_thenRotateWithSameTokenOnly() {
         // given
         String username = "testuser";
         String refreshToken = "sample-refresh-token";
@@ -59,22 +85,59 @@ class TokenRedisRepositoryTest {
         tokenRedisRepository.saveRefreshToken(username, refreshToken, ttlSeconds);
 
         // then
-        assertThat(tokenRedisRepository.findRefreshToken(username))
-            .isPresent()
-            .hasValue(refreshToken);
+        assertThat(tokenRedisRepository.rotateRefreshToken(
+            username, "other-refresh-token", "new-token", 3600L, -1L))
+            .isEqualTo(RotationResult.REUSED);
+        assertThat(tokenRedisRepository.rotateRefreshToken(
+            username, refreshToken, "new-token", 3600L, -1L))
+            .isEqualTo(RotationResult.ROTATED);
+    }
+
+    @Test
+    @DisplayName("Redis에는 RT 원문 대신 43자 digest만 저장된다")
+    void saveRefreshToken_storesDigestOnly() {
+        // given
+        String refreshToken = jwtTokenProvider.generateRefreshToken("testuser");
+
+        // when
+        tokenRedisRepository.saveRefreshToken("testuser", refreshToken, 3600L);
+
+        // then
+        String stored = stringRedisTemplate.opsForValue().get("RT:testuser");
+        assertThat(stored).hasSize(43).isNotEqualTo(refreshToken);
+        assertThat(refreshToken.length()).isGreaterThan(stored.length() * 2);
+    }
+
+    @Test
+    @DisplayName("digest 저장 이전에 원문으로 저장된 RT도 만료 전까지 교체할 수 있다")
+    void rotateRefreshToken_acceptsLegacyPlainValue() {
+        // given
+        stringRedisTemplate.opsForValue().set("RT:testuser", "legacy-token");
+
+        // when & then
+        assertThat(tokenRedisRepository.rotateRefreshToken(
+            "testuser", "other-token", "new-token", 3600L, -1L))
+            .isEqualTo(RotationResult.REUSED);
+        assertThat(tokenRedisRepository.rotateRefreshToken(
+            "testuser", "legacy-token", "new-token", 3600L, -1L))
+            .isEqualTo(RotationResult.ROTATED);
+        assertThat(storedRefreshToken("testuser")).isEqualTo(digest("new-token"));
     }
 
     @Test
-    @DisplayName("deleteRefreshToken 삭제 후 findRefreshToken은 Optional.empty()를 반환한다")
-    void deleteRefreshToken_returnsEmpty() {
+    @DisplayName("logout으로 RT를 삭제한 후에는 RT를 교체할 수 없다")
+    void logout_preventsRotation() {
         // given
         tokenRedisRepository.saveRefreshToken("testuser", "token", 3600L);
 
         // when
-        tokenRedisRepository.deleteRefreshToken("testuser");
+        tokenRedisRepository.logout("testuser", null, 0L);
 
         // then
-        assertThat(tokenRedisRepository.findRefreshToken("testuser")).isEmpty();
+        assertThat(stringRedisTemplate.hasKey("RT:testuser")).isFalse();
+        assertThat(tokenRedisRepository.rotateRefreshToken(
+            "testuser", "token", "new-token", 3600L, -1L))
+            .isEqualTo(RotationResult.MISSING);
     }
 
     @Test
@@ -93,26 +156,256 @@ class TokenRedisRepositoryTest {
     }
 
     @Test
-    @DisplayName("addToBlacklist 등록 후 isBlacklisted는 true를 반환한다")
-    void addToBlacklist_andIsBlacklisted_returnsTrue() {
+    @DisplayName("saveLoginSession은 RT를 저장하고 로그인 실패 횟수를 함께 지운다")
+    void saveLoginSession_savesRefreshTokenAndClearsFailures() {
         // given
-        String accessToken = "blacklisted-access-token";
-        long remainingTtlMillis = 3600_000L;
+        stringRedisTemplate.opsForValue().set("auth:login:fail:user:testuser", "3");
 
         // when
-        tokenRedisRepository.addToBlacklist(accessToken, remainingTtlMillis);
+        tokenRedisRepository.saveLoginSession("testuser", "refresh-token", 3600L);
 
         // then
-        assertThat(tokenRedisRepository.isBlacklisted(accessToken)).isTrue();
+        assertThat(storedRefreshToken("testuser")).isEqualTo(digest("refresh-token"));
+        assertThat(stringRedisTemplate.getExpire("RT:testuser")).isPositive();
+        assertThat(stringRedisTemplate.hasKey("auth:login:fail:user:testuser")).isFalse();
+        assertThat(tokenRedisRepository.rotateRefreshToken(
+            "testuser", "refresh-token", "new-token", 3600L, -1L))
+            .isEqualTo(RotationResult.ROTATED);
     }
 
     @Test
-    @DisplayName("Blacklist에 없는 토큰에 대해 isBlacklisted는 false를 반환한다")
-    void isBlacklisted_returnsFalse_forUnregisteredToken() {
+    @DisplayName("rotateRefreshToken은 저장된 RT와 같을 때만 새 RT로 교체하고 결과를 구분한다")
+    void rotateRefreshToken_distinguishesResults() {
         // given
-        String accessToken = "not-blacklisted-token";
+        tokenRedisRepository.saveRefreshToken("testuser", "old-token", 3600L);
 
         // when & then
-        assertThat(tokenRedisRepository.isBlacklisted(accessToken)).isFalse();
+        assertThat(tokenRedisRepository.rotateRefreshToken(
+            "testuser", "old-token", "new-token", 7200L, 1_700_000_001L))
+            .isEqualTo(RotationResult.ROTATED);
+        assertThat(storedRefreshToken("testuser")).isEqualTo(digest("new-token"));
+        assertThat(stringRedisTemplate.getExpire("RT:testuser")).isGreaterThan(3600L);
+
+        assertThat(tokenRedisRepository.rotateRefreshToken(
+            "testuser", "old-token", "other-token", 7200L, 1_700_000_001L))
+            .isEqualTo(RotationResult.REUSED);
+        assertThat(storedRefreshToken("testuser")).isEqualTo(digest("new-token"));
+
+        assertThat(tokenRedisRepository.rotateRefreshToken(
+            "missinguser", "old-token", "new-token", 7200L, 1_700_000_001L))
+            .isEqualTo(RotationResult.MISSING);
+        assertThat(stringRedisTemplate.hasKey("RT:missinguser")).isFalse();
+
+        tokenRedisRepository.revokeAll(1_700_000_001L, 3600L);
+        tokenRedisRepository.saveRefreshToken("testuser", "new-token", 3600L);
+        assertThat(tokenRedisRepository.rotateRefreshToken(
+            "testuser", "new-token", "next-token", 7200L, 1_700_000_001L))
+            .isEqualTo(RotationResult.REVOKED);
+        assertThat(storedRefreshToken("testuser")).isEqualTo(digest("new-token"));
+    }
+
+    @Test
+    @DisplayName("같은 RT로 동시에 교체를 요청하면 하나만 성공하고 나머지는 재사용으로 판정된다")
+    void rotateRefreshToken_concurrentRequests_rotateOnce() throws Exception {
+        // given
+        tokenRedisRepository.saveRefreshToken("testuser", "old-token", 3600L);
+        int requests = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // when
+        List<Future<RotationResult>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < requests; i++) {
+                String newToken = "new-token-" + i;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return tokenRedisRepository.rotateRefreshToken(
+                        "testuser", "old-token", newToken, 3600L, -1L);
+                }));
+            }
+            start.countDown();
+            List<RotationResult> outcomes = new ArrayList<>();
+            for (Future<RotationResult> result : results) {
+                outcomes.add(result.get(10, TimeUnit.SECONDS));
+            }
+
+            // then
+            assertThat(outcomes).containsOnlyOnce(RotationResult.ROTATED);
+            assertThat(outcomes).filteredOn(outcome -> outcome != RotationResult.ROTATED)
+                .containsOnly(RotationResult.REUSED);
+            String stored = storedRefreshToken("testuser");
+            assertThat(IntStream.range(0, requests)
+                .filter(i -> digest("new-token-" + i).equals(stored)))
+                .hasSize(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("logout은 한 번의 파이프라인으로 RT를 삭제하고 AT를 Blacklist에 등록한다")
+    void logout_deletesRefreshTokenAndBlacklistsAccessToken() {
+        // given
+        tokenRedisRepository.saveRefreshToken("testuser", "refresh-token", 3600L);
+
+        // when
+        LogoutResult result = tokenRedisRepository.logout("testuser", "token-id", 60_000L);
+
+        // then
+        assertThat(result).isEqualTo(new LogoutResult(true, true));
+        assertThat(stringRedisTemplate.hasKey("RT:testuser")).isFalse();
+        assertThat(tokenRedisRepository.findRevocationState("token-id", "testuser").blacklisted())
+            .isTrue();
+        assertThat(stringRedisTemplate.getExpire("BL:token-id")).isPositive();
+    }
+
+    @Test
+    @DisplayName("만료된 AT로 로그아웃하면 RT만 삭제하고 결과에 구분해 알린다")
+    void logout_withoutAccessToken_onlyDeletesRefreshToken() {
+        // when
+        LogoutResult result = tokenRedisRepository.logout("testuser", null, 0L);
+
+        // then
+        assertThat(result).isEqualTo(new LogoutResult(false, false));
+        assertThat(tokenRedisRepository.findBlacklistedIds()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("revokeUsers는 사용자별 폐기 기준 시각을 남기고 Refresh Token을 삭제한다")
+    void revokeUsers_storesWatermarkAndDeletesRefreshToken() {
+        // given
+        tokenRedisRepository.logout("otheruser", "token-id", 60_000L);
+        tokenRedisRepository.saveRefreshToken("testuser", "refresh-token", 3600L);
+
+        // when
+        tokenRedisRepository.revokeUsers(List.of("testuser"), List.of(42L), 1_700_000_000L, 3600L);
+
+        // then
+        assertThat(stringRedisTemplate.hasKey("RT:testuser")).isFalse();
+        assertThat(tokenRedisRepository.findRevocationState("token-id", "testuser"))
+            .isEqualTo(new RevocationState(true, 1_700_000_000L));
+        assertThat(tokenRedisRepository.findRevocationStateById("other-id", 42L))
+            .isEqualTo(new RevocationState(false, 1_700_000_000L));
+        assertThat(tokenRedisRepository.findRevocationState("other-id", "otheruser"))
+            .isEqualTo(new RevocationState(false, null));
+        assertThat(stringRedisTemplate.getExpire("RB:testuser")).isPositive();
+    }
+
+    @Test
+    @DisplayName("전체 폐기 기준 시각은 모든 사용자에 적용되고 더 늦은 기준 시각이 우선한다")
+    void revokeAll_appliesToEveryUser() {
+        // given
+        tokenRedisRepository.revokeUsers(List.of("testuser"), List.of(), 1_700_000_100L, 3600L);
+
+        // when
+        tokenRedisRepository.revokeAll(1_700_000_000L, 3600L);
+
+        // then
+        assertThat(tokenRedisRepository.findRevocationState("token-id", "testuser"))
+            .isEqualTo(new RevocationState(false, 1_700_000_100L));
+        assertThat(tokenRedisRepository.findRevocationState("token-id", "otheruser"))
+            .isEqualTo(new RevocationState(false, 1_700_000_000L));
+        assertThat(tokenRedisRepository.findRevocationStateById("token-id", 42L).revokedThrough())
+            .isEqualTo(1_700_000_000L);
+    }
+
+    @Test
+    @DisplayName("findRevocationStates는 여러 AT의 폐기 상태를 조회 순서대로 돌려준다")
+    void findRevocationStates_returnsStatesInLookupOrder() {
+        // given
+        tokenRedisRepository.logout("otheruser", "blacklisted-id", 60_000L);
+        tokenRedisRepository.revokeUsers(List.of("testuser"), List.of(42L), 1_700_000_000L, 3600L);
+
+        // when
+        List<RevocationState> states = tokenRedisRepository.findRevocationStates(List.of(
+            RevocationLookup.forSubject("blacklisted-id", "otheruser"),
+            RevocationLookup.forSubject("token-id", "testuser"),
+            RevocationLookup.forUserId("token-id", 42L)));
+
+        // then
+        assertThat(states).containsExactly(
+            new RevocationState(true, null),
+            new RevocationState(false, 1_700_000_000L),
+            new RevocationState(false, 1_700_000_000L));
+    }
+
+    @Test
+    @DisplayName("로컬 복제본 재구성용으로 Blacklist 식별자와 폐기 기준 시각을 모두 읽는다")
+    void findBlacklistedIdsAndWatermarks_scanAllEntries() {
+        // given
+        for (int i = 0; i < 1500; i++) {
+            tokenRedisRepository.logout("otheruser", "token-" + i, 60_000L);
+        }
+        tokenRedisRepository.revokeUsers(List.of("testuser"), List.of(42L), 1_700_000_000L, 3600L);
+        tokenRedisRepository.revokeAll(1_700_000_100L, 3600L);
+        tokenRedisRepository.saveRefreshToken("otheruser", "refresh-token", 3600L);
+
+        // when & then
+        assertThat(tokenRedisRepository.findBlacklistedIds())
+            .hasSize(1500)
+            .contains("token-0", "token-1499");
+        assertThat(tokenRedisRepository.findRevocationWatermarks()).isEqualTo(Map.of(
+            "RB:testuser", 1_700_000_000L,
+            "RBID:42", 1_700_000_000L,
+            "RBALL", 1_700_000_100L));
+    }
+
+    @Test
+    @DisplayName("jti·digest 키 Blacklist 항목은 토큰 전체를 키로 쓸 때의 절반 미만 메모리를 쓴다")
+    void blacklist_memoryPerEntry_isSmallerForRevocationIds() {
+        // given: 실제 발급 형식의 Access Token
+        int entries = 1_000;
+        String[] tokens = new String[entries];
+        for (int i = 0; i < entries; i++) {
+            tokens[i] = jwtTokenProvider.generateAccessToken(
+                (long) i, "GOOGLE_" + (1_000_000_000L + i), List.of("ROLE_USER"));
+        }
+
+        // when: 같은 수의 항목을 키 방식별로 등록하고 항목당 used_memory 증가량을 잰다
+        long fullToken = bytesPerEntry(tokens, token -> token);
+        long tokenId = bytesPerEntry(
+            tokens, token -> jwtTokenProvider.verify(token).revocationId());
+        long digest = bytesPerEntry(tokens, token -> legacyToken(token).revocationId());
+
+        // then
+        assertThat(tokenId)
+            .as("bytes per entry: full token=%d, jti=%d, digest=%d", fullToken, tokenId, digest)
+            .isLessThan(fullToken / 2);
+        assertThat(digest).isLessThan(fullToken / 2);
+    }
+
+    private long bytesPerEntry(String[] tokens, Function<String, String> revocationId) {
+        stringRedisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+        long before = usedMemory();
+        for (String token : tokens) {
+            tokenRedisRepository.logout("testuser", revocationId.apply(token), 3_600_000L);
+        }
+        return (usedMemory() - before) / tokens.length;
+    }
+
+    private long usedMemory() {
+        Properties info = stringRedisTemplate.execute(
+            (RedisCallback<Properties>) connection -> connection.serverCommands().info("memory"));
+        return Long.parseLong(info.getProperty("used_memory"));
+    }
+
+    private String storedRefreshToken(String username) {
+        return stringRedisTemplate.opsForValue().get("RT:" + username);
+    }
+
+    private static String digest(String refreshToken) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                .digest(refreshToken.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static VerifiedToken legacyToken(String token) {
+        Instant now = Instant.now();
+        return new VerifiedToken(token, "legacy", List.of(), now, now.plusSeconds(3_600));
     }
 }
@@ -0,0 +1,64 @@
+package org.example.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+import java.util.Optional;
+import org.example.domain.entity.Role;
+import org.example.domain.entity.User;
+import org.example.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CustomUserDetailsServiceTest {
+
+  @Mock
+  private UserRepository userRepository;
+
+  private CustomUserDetailsService customUserDetailsService;
+
+  @BeforeEach
+  void setUp() {
+    customUserDetailsService = new CustomUserDetailsService(userRepository);
+  }
+
+  @Test
+  @DisplayName("loadUserByUsername keeps the password hash for password authentication")
+  void loadUserByUsername_keepsPassword() {
+    given(userRepository.findByUsername("testuser")).willReturn(Optional.of(user()));
+
+    assertThat(customUserDetailsService.loadUserByUsername("testuser").getPassword())
+        .isEqualTo("encoded-password");
+  }
+
+  @Test
+  @DisplayName("Request-path finders return principals without the password hash")
+  void finders_dropPassword() {
+    User user = user();
+    given(userRepository.findByUsername("testuser")).willReturn(Optional.of(user));
+    given(userRepository.findById(42L)).willReturn(Optional.of(user));
+
+    assertThat(customUserDetailsService.findByUsername("testuser")).hasValueSatisfying(details -> {
+      assertThat(details.getPassword()).isNull();
+      assertThat(details.getUsername()).isEqualTo("testuser");
+      assertThat(details.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+    });
+    assertThat(customUserDetailsService.findById(42L))
+        .hasValueSatisfying(details -> assertThat(details.getPassword()).isNull());
+  }
+
+  private static User user() {
+    User user = User.builder()
+        .username("testuser")
+        .password("encoded-password")
+        .nickname("tester")
+        .build();
+    user.addRole(new Role("ROLE_USER"));
+    return user;
+  }
+}
@@ -0,0 +1,109 @@
+package org.example.security.account;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import org.example.domain.entity.Role;
+import org.example.domain.entity.User;
+import org.example.security.CustomUserDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+@ExtendWith(MockitoExtension.class)
+class PreloadedUserAuthenticationProviderTest {
+
+  private static final PasswordEncoder PASSWORD_ENCODER = new BCryptPasswordEncoder(4);
+
+  @Mock
+  private UserDetailsService userDetailsService;
+
+  private PreloadedUserAuthenticationProvider provider;
+
+  @BeforeEach
+  void setUp() {
+    provider = new PreloadedUserAuthenticationProvider(userDetailsService, PASSWORD_ENCODER);
+  }
+
+  @Test
+  @DisplayName("authenticate checks the password against the preloaded User without loading it")
+  void authenticate_usesPreloadedUser() {
+    CustomUserDetails user = userDetails("testuser", "password123");
+
+    Authentication result = provider.authenticate(
+        new PreloadedUserAuthenticationToken(user, "password123"));
+
+    assertThat(result.isAuthenticated()).isTrue();
+    assertThat(result.getPrincipal()).isSameAs(user);
+    assertThat(result.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+    verifyNoInteractions(userDetailsService);
+  }
+
+  @Test
+  @DisplayName("authenticate rejects a wrong password for the preloaded User")
+  void authenticate_rejectsWrongPassword() {
+    CustomUserDetails user = userDetails("testuser", "password123");
+
+    assertThatThrownBy(() -> provider.authenticate(
+        new PreloadedUserAuthenticationToken(user, "wrong-password")))
+        .isInstanceOf(BadCredentialsException.class);
+    verifyNoInteractions(userDetailsService);
+  }
+
+  @Test
+  @DisplayName("authenticate loads the User for a request without a preloaded User")
+  void authenticate_loadsUser_whenNotPreloaded() {
+    CustomUserDetails user = userDetails("testuser", "password123");
+    given(userDetailsService.loadUserByUsername("testuser")).willReturn(user);
+
+    Authentication result = provider.authenticate(
+        new UsernamePasswordAuthenticationToken("testuser", "password123"));
+
+    assertThat(result.getPrincipal()).isSameAs(user);
+  }
+
+  @Test
+  @DisplayName("authenticate checks a dummy hash before rejecting a missing User")
+  void authenticate_spendsPasswordCheck_whenUserIsMissing() {
+    PasswordEncoder passwordEncoder = spy(new BCryptPasswordEncoder(4));
+    provider = new PreloadedUserAuthenticationProvider(userDetailsService, passwordEncoder);
+    given(userDetailsService.loadUserByUsername("unknown"))
+        .willThrow(new UsernameNotFoundException("unknown"));
+
+    assertThatThrownBy(() -> provider.authenticate(
+        PreloadedUserAuthenticationToken.forMissingUser("missing", "password123")))
+        .isInstanceOf(BadCredentialsException.class);
+    assertThatThrownBy(() -> provider.authenticate(
+        new UsernamePasswordAuthenticationToken("unknown", "password123")))
+        .isInstanceOf(BadCredentialsException.class);
+
+    then(passwordEncoder).should(times(2)).matches(eq("password123"), anyString());
+  }
+
+  private CustomUserDetails userDetails(String username, String rawPassword) {
+    User user = User.builder()
+        .username(username)
+        .password(PASSWORD_ENCODER.encode(rawPassword))
+        .nickname("tester")
+        .build();
+    user.addRole(new Role("ROLE_USER"));
+    return new CustomUserDetails(user);
+  }
+}
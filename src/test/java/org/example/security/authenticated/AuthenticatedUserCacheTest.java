@@ -0,0 +1,133 @@
+package org.example.security.authenticated;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.example.domain.entity.User;
+import org.example.domain.event.UserStateChangedEvent;
+import org.example.security.CustomUserDetails;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class AuthenticatedUserCacheTest {
+
+  private final AtomicInteger loads = new AtomicInteger();
+
+  private final AuthenticatedUserCache cache =
+      new AuthenticatedUserCache(true, 100, Duration.ofMinutes(1));
+
+  @Test
+  @DisplayName("Returns the cached principal for a repeated JWT Subject and records hit and miss")
+  void getBySubject_returnsCachedPrincipal_onRepeatRequest() {
+    AuthenticatedUser first = cache.getBySubject("testuser", loader());
+    AuthenticatedUser second = cache.getBySubject("testuser", loader());
+
+    assertThat(second).isSameAs(first);
+    assertThat(loads).hasValue(1);
+    assertThat(cache.stats().hitCount()).isEqualTo(1);
+    assertThat(cache.stats().missCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Reloads the principal after a User state change event")
+  void onUserStateChanged_invalidatesSubjectAndId() {
+    cache.getBySubject("testuser", loader());
+    cache.getById(1L, id -> principal("testuser"));
+
+    cache.onUserStateChanged(new UserStateChangedEvent(1L, "testuser"));
+
+    AtomicInteger idLoads = new AtomicInteger();
+    cache.getBySubject("testuser", loader());
+    cache.getById(1L, id -> {
+      idLoads.incrementAndGet();
+      return principal("testuser");
+    });
+    assertThat(loads).hasValue(2);
+    assertThat(idLoads).hasValue(1);
+  }
+
+  @Test
+  @DisplayName("Does not cache a failed lookup")
+  void getBySubject_doesNotCacheFailure() {
+    Function<String, AuthenticatedUser> missing = subject -> {
+      loads.incrementAndGet();
+      throw new UsernameNotFoundException(subject);
+    };
+
+    assertThatThrownBy(() -> cache.getBySubject("missing", missing))
+        .isInstanceOf(UsernameNotFoundException.class);
+    assertThatThrownBy(() -> cache.getBySubject("missing", missing))
+        .isInstanceOf(UsernameNotFoundException.class);
+
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  @DisplayName("Keeps a tombstone for a missing User until that JWT Subject is created")
+  void getBySubject_remembersMissingUser_untilCreated() {
+    AuthenticatedUserCache negativeCache = new AuthenticatedUserCache(
+        true, 100, Duration.ofMinutes(1), Duration.ofSeconds(30));
+    Function<String, AuthenticatedUser> missing = subject -> {
+      loads.incrementAndGet();
+      return null;
+    };
+
+    assertThat(negativeCache.getBySubject("deleted", missing)).isNull();
+    assertThat(negativeCache.getBySubject("deleted", missing)).isNull();
+    assertThat(loads).hasValue(1);
+
+    negativeCache.onUserStateChanged(new UserStateChangedEvent(null, "deleted"));
+
+    assertThat(negativeCache.getBySubject("deleted", loader())).isNotNull();
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  @DisplayName("A disabled cache always delegates to the loader")
+  void disabled_alwaysLoads() {
+    AuthenticatedUserCache disabled = AuthenticatedUserCache.disabled();
+
+    disabled.getBySubject("testuser", loader());
+    disabled.getBySubject("testuser", loader());
+
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  @DisplayName("Publishes the hit ratio gauge")
+  void bindTo_registersHitRatio() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    cache.bindTo(registry);
+
+    cache.getBySubject("testuser", loader());
+    cache.getBySubject("testuser", loader());
+    cache.getBySubject("testuser", loader());
+    cache.getBySubject("other", loader());
+
+    assertThat(registry.get("auth.principal-cache.hit-ratio").gauge().value())
+        .isEqualTo(0.5);
+  }
+
+  private Function<String, AuthenticatedUser> loader() {
+    return subject -> {
+      loads.incrementAndGet();
+      return principal(subject);
+    };
+  }
+
+  private static AuthenticatedUser principal(String username) {
+    User user = User.builder()
+        .username(username)
+        .password("encoded-password")
+        .nickname("nickname")
+        .build();
+    ReflectionTestUtils.setField(user, "id", 1L);
+    return new CustomUserDetails(user);
+  }
+}
@@ -2,10 +2,14 @@ package org.example.security.authenticated;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.time.Duration;
+import java.util.Optional;
 import org.example.domain.entity.Role;
 import org.example.domain.entity.User;
+import org.example.domain.event.UserStateChangedEvent;
 import org.example.security.CustomUserDetails;
 import org.example.security.CustomUserDetailsService;
 import org.junit.jupiter.api.BeforeEach;
@@ -33,18 +37,18 @@ class AuthenticatedUserServiceImplTest {
   @DisplayName("Returns an active Authenticated User for an enabled and unlocked JWT Subject")
   void findActiveUserByJwtSubject_returnsUser_whenUserIsActive() {
     CustomUserDetails userDetails = userDetails("testuser", true, true);
-    given(customUserDetailsService.loadUserByUsername("testuser")).willReturn(userDetails);
+    given(customUserDetailsService.findByUsername("testuser")).willReturn(Optional.of(userDetails));
 
     assertThat(authenticatedUserService.findActiveUserByJwtSubject("testuser"))
         .hasValue(userDetails);
-    verify(customUserDetailsService).loadUserByUsername("testuser");
+    verify(customUserDetailsService).findByUsername("testuser");
   }
 
   @Test
   @DisplayName("Returns empty when the JWT Subject belongs to a locked User")
   void findActiveUserByJwtSubject_returnsEmpty_whenUserIsLocked() {
     CustomUserDetails userDetails = userDetails("testuser", true, false);
-    given(customUserDetailsService.loadUserByUsername("testuser")).willReturn(userDetails);
+    given(customUserDetailsService.findByUsername("testuser")).willReturn(Optional.of(userDetails));
 
     assertThat(authenticatedUserService.findActiveUserByJwtSubject("testuser")).isEmpty();
   }
@@ -53,11 +57,62 @@ class AuthenticatedUserServiceImplTest {
   @DisplayName("Returns empty when the JWT Subject belongs to a disabled User")
   void findActiveUserByJwtSubject_returnsEmpty_whenUserIsDisabled() {
     CustomUserDetails userDetails = userDetails("testuser", false, true);
-    given(customUserDetailsService.loadUserByUsername("testuser")).willReturn(userDetails);
+    given(customUserDetailsService.findByUsername("testuser")).willReturn(Optional.of(userDetails));
 
     assertThat(authenticatedUserService.findActiveUserByJwtSubject("testuser")).isEmpty();
   }
 
+  @Test
+  @DisplayName("Returns an active Authenticated User for a numeric User id")
+  void findActiveUserById_returnsUser_whenUserIsActive() {
+    CustomUserDetails userDetails = userDetails("testuser", true, true);
+    given(customUserDetailsService.findById(42L)).willReturn(Optional.of(userDetails));
+
+    assertThat(authenticatedUserService.findActiveUserById(42L)).hasValue(userDetails);
+  }
+
+  @Test
+  @DisplayName("Returns empty when the User id belongs to a locked User")
+  void findActiveUserById_returnsEmpty_whenUserIsLocked() {
+    CustomUserDetails userDetails = userDetails("testuser", true, false);
+    given(customUserDetailsService.findById(42L)).willReturn(Optional.of(userDetails));
+
+    assertThat(authenticatedUserService.findActiveUserById(42L)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Serves cached principals until the User state changes")
+  void findActiveUserByJwtSubject_usesCacheUntilInvalidated() {
+    AuthenticatedUserCache cache = new AuthenticatedUserCache(true, 100, Duration.ofMinutes(1));
+    authenticatedUserService = new AuthenticatedUserServiceImpl(customUserDetailsService, cache);
+    CustomUserDetails locked = userDetails("testuser", true, false);
+    CustomUserDetails unlocked = userDetails("testuser", true, true);
+    given(customUserDetailsService.findByUsername("testuser"))
+        .willReturn(Optional.of(locked), Optional.of(unlocked));
+
+    assertThat(authenticatedUserService.findActiveUserByJwtSubject("testuser")).isEmpty();
+    assertThat(authenticatedUserService.findActiveUserByJwtSubject("testuser")).isEmpty();
+    cache.onUserStateChanged(new UserStateChangedEvent(null, "testuser"));
+
+    assertThat(authenticatedUserService.findActiveUserByJwtSubject("testuser"))
+        .hasValue(unlocked);
+    verify(customUserDetailsService, times(2)).findByUsername("testuser");
+  }
+
+  @Test
+  @DisplayName("Rejects a deleted User without an exception and remembers the miss")
+  void findActiveUserByJwtSubject_remembersMissingUser() {
+    AuthenticatedUserCache cache = new AuthenticatedUserCache(
+        true, 100, Duration.ofMinutes(1), Duration.ofSeconds(30));
+    authenticatedUserService = new AuthenticatedUserServiceImpl(customUserDetailsService, cache);
+    given(customUserDetailsService.findByUsername("deleted")).willReturn(Optional.empty());
+
+    assertThat(authenticatedUserService.findActiveUserByJwtSubject("deleted")).isEmpty();
+    assertThat(authenticatedUserService.findActiveUserByJwtSubject("deleted")).isEmpty();
+
+    verify(customUserDetailsService, times(1)).findByUsername("deleted");
+  }
+
   private CustomUserDetails userDetails(
       String username, boolean enabled, boolean accountNonLocked) {
     User user = User.builder()
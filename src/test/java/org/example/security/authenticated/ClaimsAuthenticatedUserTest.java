@@ -0,0 +1,90 @@
+package org.example.security.authenticated;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.example.domain.entity.User;
+import org.example.security.CustomUserDetails;
+import org.example.security.failure.AuthFailureCode;
+import org.example.security.failure.AuthFailureException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class ClaimsAuthenticatedUserTest {
+
+  private final AtomicInteger loads = new AtomicInteger();
+
+  @Test
+  @DisplayName("Serves subject and authorities from claims without loading the User")
+  void claims_doNotLoadUser() {
+    ClaimsAuthenticatedUser principal =
+        ClaimsAuthenticatedUser.of(null, "testuser", List.of("ROLE_USER"), loader("tester"));
+
+    assertThat(principal.getJwtSubject()).isEqualTo("testuser");
+    assertThat(principal.getAuthorities())
+        .extracting(GrantedAuthority::getAuthority)
+        .containsExactly("ROLE_USER");
+    assertThat(principal.isLoaded()).isFalse();
+    assertThat(loads).hasValue(0);
+  }
+
+  @Test
+  @DisplayName("Uses the User id from a compact token without loading the User")
+  void getId_usesClaim_whenTokenCarriesUserId() {
+    ClaimsAuthenticatedUser principal =
+        ClaimsAuthenticatedUser.of(42L, "testuser", List.of("ROLE_USER"), loader("tester"));
+
+    assertThat(principal.getId()).isEqualTo(42L);
+    assertThat(loads).hasValue(0);
+  }
+
+  @Test
+  @DisplayName("Loads the User once when profile fields are read")
+  void profileFields_loadUserOnce() {
+    ClaimsAuthenticatedUser principal =
+        ClaimsAuthenticatedUser.of(null, "testuser", List.of("ROLE_USER"), loader("tester"));
+
+    assertThat(principal.getNickname()).isEqualTo("tester");
+    assertThat(principal.getId()).isEqualTo(7L);
+    assertThat(principal.isEnabled()).isTrue();
+    assertThat(principal.isAccountNonLocked()).isTrue();
+
+    assertThat(principal.isLoaded()).isTrue();
+    assertThat(loads).hasValue(1);
+  }
+
+  @Test
+  @DisplayName("Reports an inactive User and throws USER_NOT_FOUND for its profile fields")
+  void profileFields_throwUserNotFound_whenUserIsInactive() {
+    ClaimsAuthenticatedUser principal = ClaimsAuthenticatedUser.of(
+        null, "testuser", List.of("ROLE_USER"), () -> {
+          loads.incrementAndGet();
+          return Optional.empty();
+        });
+
+    assertThat(principal.isEnabled()).isFalse();
+    assertThatThrownBy(principal::getNickname)
+        .isInstanceOfSatisfying(AuthFailureException.class, failure ->
+            assertThat(failure.getCode()).isEqualTo(AuthFailureCode.USER_NOT_FOUND));
+    assertThat(loads).hasValue(1);
+  }
+
+  private Supplier<Optional<AuthenticatedUser>> loader(String nickname) {
+    return () -> {
+      loads.incrementAndGet();
+      User user = User.builder()
+          .username("testuser")
+          .password("encoded-password")
+          .nickname(nickname)
+          .build();
+      ReflectionTestUtils.setField(user, "id", 7L);
+      return Optional.of(new CustomUserDetails(user));
+    };
+  }
+}
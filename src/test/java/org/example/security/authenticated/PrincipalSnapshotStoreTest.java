@@ -0,0 +1,235 @@
+package org.example.security.authenticated;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.example.domain.entity.User;
+import org.example.domain.event.UserStateChangedEvent;
+import org.example.repository.PrincipalSnapshotRedisRepository;
+import org.example.repository.PrincipalSnapshotRedisRepository.AccessTokenState;
+import org.example.security.CustomUserDetails;
+import org.example.security.CustomUserDetailsService;
+import org.example.security.failure.AuthFailureCode;
+import org.example.security.failure.AuthFailureException;
+import org.example.security.jwt.VerifiedToken;
+import org.example.security.token.RedisFailurePolicy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class PrincipalSnapshotStoreTest {
+
+  private static final Instant ISSUED_AT = Instant.parse("2026-01-01T00:00:00Z");
+  private static final Duration TTL = Duration.ofHours(1);
+  private static final Duration TOMBSTONE_TTL = Duration.ofMinutes(5);
+
+  @Mock
+  private PrincipalSnapshotRedisRepository principalSnapshotRedisRepository;
+
+  @Mock
+  private CustomUserDetailsService customUserDetailsService;
+
+  private PrincipalSnapshotStore store;
+
+  @BeforeEach
+  void setUp() {
+    store = new PrincipalSnapshotStore(true, TTL, TOMBSTONE_TTL, principalSnapshotRedisRepository,
+        customUserDetailsService, new RedisFailurePolicy());
+  }
+
+  @Test
+  @DisplayName("Authenticates from the Redis snapshot without reading the User store")
+  void authenticate_returnsSnapshot_withoutUserStore() {
+    PrincipalSnapshot snapshot = snapshot(true);
+    given(principalSnapshotRedisRepository.check("token-id", "testuser", ISSUED_AT))
+        .willReturn(new AccessTokenState(false, null, snapshot, false));
+
+    assertThat(store.authenticate(accessToken(), false)).hasValue(snapshot);
+    verifyNoInteractions(customUserDetailsService);
+  }
+
+  @Test
+  @DisplayName("Rejects a blacklisted token")
+  void authenticate_returnsEmpty_whenBlacklisted() {
+    given(principalSnapshotRedisRepository.check("token-id", "testuser", ISSUED_AT))
+        .willReturn(new AccessTokenState(true, null, null, false));
+
+    assertThat(store.authenticate(accessToken(), false)).isEmpty();
+    verifyNoInteractions(customUserDetailsService);
+  }
+
+  @Test
+  @DisplayName("Rejects a locked User from the snapshot")
+  void authenticate_returnsEmpty_whenSnapshotIsLocked() {
+    given(principalSnapshotRedisRepository.check("token-id", "testuser", ISSUED_AT))
+        .willReturn(new AccessTokenState(false, null, snapshot(false), false));
+
+    assertThat(store.authenticate(accessToken(), false)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Loads the User on a snapshot miss and fills the snapshot")
+  void authenticate_loadsAndFills_whenSnapshotIsMissing() {
+    AuthenticatedUser user = userDetails();
+    given(principalSnapshotRedisRepository.check("token-id", "testuser", ISSUED_AT))
+        .willReturn(new AccessTokenState(false, null, null, false));
+    given(customUserDetailsService.findByUsername("testuser")).willReturn(Optional.of(user));
+
+    assertThat(store.authenticate(accessToken(), false)).hasValue(user);
+    verify(principalSnapshotRedisRepository).saveIfAbsent(PrincipalSnapshot.of(user), TTL);
+  }
+
+  @Test
+  @DisplayName("Rejects a claims-only token issued in or before the security epoch second")
+  void authenticate_returnsEmpty_whenClaimsOnlyTokenPredatesEpoch() {
+    given(principalSnapshotRedisRepository.check("token-id", "testuser", ISSUED_AT))
+        .willReturn(new AccessTokenState(
+            false, ISSUED_AT.getEpochSecond(), snapshot(true), false));
+
+    assertThat(store.authenticate(accessToken(), true)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Serves claims-only profile fields from the snapshot")
+  void authenticate_usesSnapshotForClaimsOnlyProfile() {
+    given(principalSnapshotRedisRepository.check("token-id", "testuser", ISSUED_AT))
+        .willReturn(new AccessTokenState(
+            false, ISSUED_AT.getEpochSecond() - 1, snapshot(true), false));
+
+    AuthenticatedUser principal = store.authenticate(accessToken(), true).orElseThrow();
+
+    assertThat(principal).isInstanceOf(ClaimsAuthenticatedUser.class);
+    assertThat(principal.getNickname()).isEqualTo("tester");
+    verifyNoInteractions(customUserDetailsService);
+  }
+
+  @Test
+  @DisplayName("Rejects a claims-only token of a User locked in the snapshot")
+  void authenticate_returnsEmpty_whenClaimsOnlySnapshotIsLocked() {
+    given(principalSnapshotRedisRepository.check("token-id", "testuser", ISSUED_AT))
+        .willReturn(new AccessTokenState(
+            false, ISSUED_AT.getEpochSecond() - 1, snapshot(false), false));
+
+    assertThat(store.authenticate(accessToken(), true)).isEmpty();
+    verifyNoInteractions(customUserDetailsService);
+  }
+
+  @Test
+  @DisplayName("Loads the User of a claims-only token on a snapshot miss only when a field is read")
+  void authenticate_loadsClaimsOnlyUserOnDemand_whenSnapshotIsMissing() {
+    AuthenticatedUser user = userDetails();
+    given(principalSnapshotRedisRepository.check("token-id", "testuser", ISSUED_AT))
+        .willReturn(new AccessTokenState(false, null, null, false));
+
+    ClaimsAuthenticatedUser principal =
+        (ClaimsAuthenticatedUser) store.authenticate(accessToken(), true).orElseThrow();
+
+    assertThat(principal.isLoaded()).isFalse();
+    verifyNoInteractions(customUserDetailsService);
+
+    given(customUserDetailsService.findByUsername("testuser")).willReturn(Optional.of(user));
+    assertThat(principal.getNickname()).isEqualTo("tester");
+    verify(principalSnapshotRedisRepository).saveIfAbsent(PrincipalSnapshot.of(user), TTL);
+  }
+
+  @Test
+  @DisplayName("Writes the committed User state through after a change")
+  void onUserStateChanged_writesSnapshot() {
+    CustomUserDetails user = userDetails();
+    given(customUserDetailsService.findByUsername("testuser")).willReturn(Optional.of(user));
+
+    store.onUserStateChanged(new UserStateChangedEvent(42L, "testuser"));
+
+    verify(principalSnapshotRedisRepository).save(PrincipalSnapshot.of(user), TTL);
+  }
+
+  @Test
+  @DisplayName("Replaces the snapshot of a deleted User with a tombstone")
+  void onUserStateChanged_writesTombstone_whenUserIsMissing() {
+    given(customUserDetailsService.findByUsername("testuser")).willReturn(Optional.empty());
+
+    store.onUserStateChanged(new UserStateChangedEvent(42L, "testuser"));
+
+    verify(principalSnapshotRedisRepository).saveTombstone("testuser", TOMBSTONE_TTL);
+  }
+
+  @Test
+  @DisplayName("Fails the User state change when the snapshot cannot be dropped before commit")
+  void evictBeforeCommit_throwsTokenStoreUnavailable_whenRedisFails() {
+    willThrow(new RedisConnectionFailureException("down"))
+        .given(principalSnapshotRedisRepository).delete("testuser");
+
+    assertThatThrownBy(() -> store.evictBeforeCommit(new UserStateChangedEvent(42L, "testuser")))
+        .isInstanceOfSatisfying(AuthFailureException.class, failure ->
+            assertThat(failure.getCode()).isEqualTo(AuthFailureCode.TOKEN_STORE_UNAVAILABLE));
+  }
+
+  @Test
+  @DisplayName("Leaves Redis alone on a User state change while snapshots are disabled")
+  void onUserStateChanged_skipsRedis_whenDisabled() {
+    PrincipalSnapshotStore disabled = new PrincipalSnapshotStore(false, TTL, TOMBSTONE_TTL,
+        principalSnapshotRedisRepository, customUserDetailsService, new RedisFailurePolicy());
+    UserStateChangedEvent event = new UserStateChangedEvent(42L, "testuser");
+
+    disabled.evictBeforeCommit(event);
+    disabled.onUserStateChanged(event);
+
+    verifyNoInteractions(principalSnapshotRedisRepository, customUserDetailsService);
+  }
+
+  @Test
+  @DisplayName("Rejects a token of a deleted User from the tombstone alone")
+  void authenticate_returnsEmpty_whenUserIsDeleted() {
+    given(principalSnapshotRedisRepository.check("token-id", "testuser", ISSUED_AT))
+        .willReturn(new AccessTokenState(false, null, null, true));
+
+    assertThat(store.authenticate(accessToken(), false)).isEmpty();
+    assertThat(store.authenticate(accessToken(), true)).isEmpty();
+    verifyNoInteractions(customUserDetailsService);
+  }
+
+  @Test
+  @DisplayName("Leaves a tombstone when a missing User is looked up")
+  void authenticate_fillsTombstone_whenUserIsMissing() {
+    given(principalSnapshotRedisRepository.check("token-id", "testuser", ISSUED_AT))
+        .willReturn(new AccessTokenState(false, null, null, false));
+    given(customUserDetailsService.findByUsername("testuser")).willReturn(Optional.empty());
+
+    assertThat(store.authenticate(accessToken(), false)).isEmpty();
+    verify(principalSnapshotRedisRepository).saveTombstoneIfAbsent("testuser", TOMBSTONE_TTL);
+  }
+
+  private static VerifiedToken accessToken() {
+    return new VerifiedToken("access-token", "testuser", null, List.of("ROLE_USER"),
+        ISSUED_AT, ISSUED_AT.plusSeconds(3_600), "token-id");
+  }
+
+  private static PrincipalSnapshot snapshot(boolean accountNonLocked) {
+    return new PrincipalSnapshot(
+        42L, "testuser", "tester", true, accountNonLocked, List.of("ROLE_USER"));
+  }
+
+  private static CustomUserDetails userDetails() {
+    User user = User.builder()
+        .username("testuser")
+        .password("encoded-password")
+        .nickname("tester")
+        .build();
+    ReflectionTestUtils.setField(user, "id", 42L);
+    return new CustomUserDetails(user);
+  }
+}
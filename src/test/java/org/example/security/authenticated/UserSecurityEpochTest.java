@@ -0,0 +1,105 @@
+package org.example.security.authenticated;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import org.example.domain.event.UserStateChangedEvent;
+import org.example.repository.SecurityEpochRedisRepository;
+import org.example.security.failure.AuthFailureCode;
+import org.example.security.failure.AuthFailureException;
+import org.example.security.token.RedisFailurePolicy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+@ExtendWith(MockitoExtension.class)
+class UserSecurityEpochTest {
+
+  private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+  @Mock
+  private SecurityEpochRedisRepository securityEpochRedisRepository;
+
+  private UserSecurityEpoch userSecurityEpoch;
+
+  @BeforeEach
+  void setUp() {
+    userSecurityEpoch = new UserSecurityEpoch(securityEpochRedisRepository,
+        new RedisFailurePolicy(), true, Duration.ofHours(1), Clock.fixed(NOW, ZoneOffset.UTC));
+  }
+
+  @Test
+  @DisplayName("Moves the epoch to the current second for an Access Token lifetime")
+  void onUserStateChanged_savesEpoch() {
+    userSecurityEpoch.onUserStateChanged(new UserStateChangedEvent(42L, "testuser"));
+
+    verify(securityEpochRedisRepository).save(
+        "testuser", NOW.getEpochSecond(), Duration.ofHours(1).plusSeconds(1));
+  }
+
+  @Test
+  @DisplayName("Leaves Redis alone while claims-only authentication is off")
+  void onUserStateChanged_skipsRedis_whenClaimsOnlyIsDisabled() {
+    UserSecurityEpoch disabled = new UserSecurityEpoch(securityEpochRedisRepository,
+        new RedisFailurePolicy(), false, Duration.ofHours(1), Clock.fixed(NOW, ZoneOffset.UTC));
+
+    disabled.onUserStateChanged(new UserStateChangedEvent(42L, "testuser"));
+
+    verifyNoInteractions(securityEpochRedisRepository);
+  }
+
+  @Test
+  @DisplayName("Skips Users that have not been saved yet")
+  void onUserStateChanged_skipsNewUser() {
+    userSecurityEpoch.onUserStateChanged(new UserStateChangedEvent(null, "newuser"));
+
+    verifyNoInteractions(securityEpochRedisRepository);
+  }
+
+  @Test
+  @DisplayName("Fails the state change with TOKEN_STORE_UNAVAILABLE when Redis is down")
+  void onUserStateChanged_throwsTokenStoreUnavailable_whenRedisIsDown() {
+    willThrow(new RedisConnectionFailureException("down"))
+        .given(securityEpochRedisRepository).save(anyString(), anyLong(), any());
+
+    assertThatThrownBy(() ->
+        userSecurityEpoch.onUserStateChanged(new UserStateChangedEvent(42L, "testuser")))
+        .isInstanceOfSatisfying(AuthFailureException.class, failure ->
+            assertThat(failure.getCode()).isEqualTo(AuthFailureCode.TOKEN_STORE_UNAVAILABLE));
+  }
+
+  @Test
+  @DisplayName("Accepts tokens issued after the epoch second and rejects the rest")
+  void isCurrent_comparesIssuedAtWithEpoch() {
+    given(securityEpochRedisRepository.find("testuser"))
+        .willReturn(Optional.of(NOW.getEpochSecond()));
+
+    assertThat(userSecurityEpoch.isCurrent("testuser", NOW.minusSeconds(1))).isFalse();
+    assertThat(userSecurityEpoch.isCurrent("testuser", NOW)).isFalse();
+    assertThat(userSecurityEpoch.isCurrent("testuser", NOW.plusSeconds(1))).isTrue();
+  }
+
+  @Test
+  @DisplayName("Accepts any token when the User has no recent state change")
+  void isCurrent_returnsTrue_whenNoEpoch() {
+    given(securityEpochRedisRepository.find("testuser")).willReturn(Optional.empty());
+
+    assertThat(userSecurityEpoch.isCurrent("testuser", NOW.minusSeconds(3_600))).isTrue();
+  }
+}
@@ -0,0 +1,102 @@
+package org.example.security.authenticated;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.nio.charset.StandardCharsets;
+import org.example.domain.event.UserStateChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class UserStateChangeBusTest {
+
+  @Mock
+  private StringRedisTemplate redisTemplate;
+
+  @Mock
+  private AuthenticatedUserCache authenticatedUserCache;
+
+  private UserStateChangeBus bus;
+
+  @BeforeEach
+  void setUp() {
+    bus = new UserStateChangeBus(redisTemplate, authenticatedUserCache);
+  }
+
+  @Test
+  @DisplayName("Publishes a committed User state change on the shared channel")
+  void onUserStateChanged_publishesChange() {
+    UserStateChangedEvent event = new UserStateChangedEvent(42L, "testuser");
+
+    bus.onUserStateChanged(event);
+
+    verify(redisTemplate).convertAndSend(UserStateChangeBus.TOPIC.getTopic(), bus.encode(event));
+  }
+
+  @Test
+  @DisplayName("Does not fail the caller when Redis is down")
+  void onUserStateChanged_ignoresRedisFailure() {
+    given(redisTemplate.convertAndSend(anyString(), anyString()))
+        .willThrow(new RedisConnectionFailureException("down"));
+
+    assertThatCode(() -> bus.onUserStateChanged(new UserStateChangedEvent(42L, "testuser")))
+        .doesNotThrowAnyException();
+  }
+
+  @Test
+  @DisplayName("Evicts the User named by a change from another instance")
+  void onMessage_invalidatesUser_fromOtherInstance() {
+    bus.onMessage(message("other-instance|42|test|user"), null);
+
+    verify(authenticatedUserCache).invalidate(42L, "test|user");
+  }
+
+  @Test
+  @DisplayName("Evicts by JWT Subject when the change has no User id")
+  void onMessage_invalidatesSubject_withoutUserId() {
+    bus.onMessage(message("other-instance||testuser"), null);
+
+    verify(authenticatedUserCache).invalidate(null, "testuser");
+  }
+
+  @Test
+  @DisplayName("Ignores its own changes")
+  void onMessage_ignoresOwnChange() {
+    bus.onMessage(message(bus.encode(new UserStateChangedEvent(42L, "testuser"))), null);
+
+    verify(authenticatedUserCache, never()).invalidate(42L, "testuser");
+  }
+
+  @Test
+  @DisplayName("Flushes the cache on a malformed message")
+  void onMessage_flushesCache_whenMalformed() {
+    bus.onMessage(message("garbage"), null);
+
+    verify(authenticatedUserCache).invalidateAll();
+  }
+
+  @Test
+  @DisplayName("Flushes the cache when the channel is (re)subscribed")
+  void onChannelSubscribed_flushesCache() {
+    bus.onChannelSubscribed(UserStateChangeBus.TOPIC.getTopic().getBytes(), 1L);
+
+    verify(authenticatedUserCache).invalidateAll();
+  }
+
+  private static DefaultMessage message(String body) {
+    return new DefaultMessage(
+        UserStateChangeBus.TOPIC.getTopic().getBytes(StandardCharsets.UTF_8),
+        body.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,134 @@
+package org.example.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.util.Date;
+import java.util.List;
+import javax.crypto.SecretKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class HmacJwtIssuerTest {
+
+    private static final String SECRET = "dGVzdC1zZWNyZXQta2V5LWZvci10ZXN0aW5nLW11c3QtYmUtYXQtbGVhc3QtMzItYnl0ZXMtbG9uZw==";
+    private static final long IAT = 1_767_225_600L;
+    private static final long EXP = IAT + 3_600L;
+
+    private SecretKey key;
+    private HmacJwtIssuer issuer;
+
+    @BeforeEach
+    void setUp() {
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        String probe = Jwts.builder().subject("probe").signWith(key).compact();
+        issuer = new HmacJwtIssuer(key, probe.substring(0, probe.indexOf('.')));
+    }
+
+    @Test
+    @DisplayName("Access Token은 jjwt 빌더 결과와 바이트 단위로 같다")
+    void issue_matchesJjwtOutput_forAccessToken() {
+        List<String> roles = List.of("ROLE_USER", "ROLE_ADMIN");
+
+        String expected = Jwts.builder()
+                .subject("GOOGLE_1234567890")
+                .claim("roles", roles)
+                .issuedAt(new Date(IAT * 1000))
+                .expiration(new Date(EXP * 1000))
+                .signWith(key)
+                .compact();
+
+        assertThat(issuer.issue("GOOGLE_1234567890", roles, IAT, EXP)).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Refresh Token과 비ASCII subject도 jjwt 빌더 결과와 같다")
+    void issue_matchesJjwtOutput_forRefreshTokenWithUnicodeSubject() {
+        String expected = Jwts.builder()
+                .subject("테스트유저")
+                .issuedAt(new Date(IAT * 1000))
+                .expiration(new Date(EXP * 1000))
+                .signWith(key)
+                .compact();
+
+        assertThat(issuer.issue("테스트유저", null, IAT, EXP)).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("압축 스키마 토큰도 같은 클레임 순서의 jjwt 빌더 결과와 같다")
+    void issueCompact_matchesJjwtOutput() {
+        String withSubject = Jwts.builder()
+                .claim("v", CompactClaimSchema.VERSION)
+                .subject("GOOGLE_1234567890")
+                .claim("r", 3L)
+                .issuedAt(new Date(IAT * 1000))
+                .expiration(new Date(EXP * 1000))
+                .signWith(key)
+                .compact();
+        String withUserId = Jwts.builder()
+                .claim("v", CompactClaimSchema.VERSION)
+                .claim("u", 42L)
+                .claim("r", 1L)
+                .issuedAt(new Date(IAT * 1000))
+                .expiration(new Date(EXP * 1000))
+                .signWith(key)
+                .compact();
+
+        assertThat(issuer.issueCompact("GOOGLE_1234567890", null, null, 3L, IAT, EXP))
+                .isEqualTo(withSubject);
+        assertThat(issuer.issueCompact("GOOGLE_1234567890", 42L, null, 1L, IAT, EXP))
+                .isEqualTo(withUserId);
+    }
+
+    @Test
+    @DisplayName("jti를 담은 토큰도 sub 다음에 jti를 쓰는 jjwt 빌더 결과와 같다")
+    void issue_matchesJjwtOutput_withTokenId() {
+        String tokenId = "AAECAwQFBgcICQoLDA0ODw";
+        List<String> roles = List.of("ROLE_USER");
+        String legacy = Jwts.builder()
+                .subject("testuser")
+                .id(tokenId)
+                .claim("roles", roles)
+                .issuedAt(new Date(IAT * 1000))
+                .expiration(new Date(EXP * 1000))
+                .signWith(key)
+                .compact();
+        String compact = Jwts.builder()
+                .claim("v", CompactClaimSchema.VERSION)
+                .claim("u", 42L)
+                .id(tokenId)
+                .claim("r", 1L)
+                .issuedAt(new Date(IAT * 1000))
+                .expiration(new Date(EXP * 1000))
+                .signWith(key)
+                .compact();
+
+        assertThat(issuer.issue("testuser", tokenId, roles, IAT, EXP))
+                .isEqualTo(legacy);
+        assertThat(issuer.issueCompact("testuser", 42L, tokenId, 1L, IAT, EXP))
+                .isEqualTo(compact);
+    }
+
+    @Test
+    @DisplayName("JSON 이스케이프가 필요한 값이나 빈 roles는 null을 반환해 jjwt로 위임한다")
+    void issue_returnsNull_whenJjwtMustBeUsed() {
+        assertThat(issuer.issue("quote\"user", null, IAT, EXP)).isNull();
+        assertThat(issuer.issue("testuser", List.of("ROLE\\USER"), IAT, EXP)).isNull();
+        assertThat(issuer.issue("testuser", List.of(), IAT, EXP)).isNull();
+        assertThat(issuer.issue(null, null, IAT, EXP)).isNull();
+    }
+
+    @Test
+    @DisplayName("발급한 토큰은 JwtTokenProvider의 jjwt 파서로 검증된다")
+    void issue_producesTokenAcceptedByParser() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 3_600_000L, 604_800_000L);
+        long now = System.currentTimeMillis() / 1000;
+
+        String token = issuer.issue("testuser", List.of("ROLE_USER"), now, now + 60);
+
+        assertThat(provider.parseClaims(token).getSubject()).isEqualTo("testuser");
+    }
+}
@@ -0,0 +1,162 @@
+package org.example.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import java.util.Date;
+import java.util.List;
+import javax.crypto.SecretKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class HmacJwtVerifierTest {
+
+    private static final String SECRET = "dGVzdC1zZWNyZXQta2V5LWZvci10ZXN0aW5nLW11c3QtYmUtYXQtbGVhc3QtMzItYnl0ZXMtbG9uZw==";
+
+    private SecretKey key;
+    private JwtTokenProvider jwtTokenProvider;
+    private HmacJwtVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        jwtTokenProvider = new JwtTokenProvider(SECRET, 3_600_000L, 604_800_000L);
+        String probe = Jwts.builder().subject("probe").signWith(key).compact();
+        verifier = new HmacJwtVerifier(key, probe.substring(0, probe.indexOf('.')));
+    }
+
+    @Test
+    @DisplayName("직접 발급한 Access Token은 jjwt와 같은 claim 값으로 검증된다")
+    void verify_extractsSameClaimsAsJjwt() {
+        String token = jwtTokenProvider.generateAccessToken("테스트유저", List.of("ROLE_USER", "ROLE_ADMIN"));
+
+        VerifiedToken verified = verifier.verify(token, System.currentTimeMillis());
+        io.jsonwebtoken.Claims claims = jwtTokenProvider.parseClaims(token);
+
+        assertThat(verified).isNotNull();
+        assertThat(verified.subject()).isEqualTo(claims.getSubject());
+        assertThat(verified.roles()).containsExactly("ROLE_USER", "ROLE_ADMIN");
+        assertThat(verified.issuedAt()).isEqualTo(claims.getIssuedAt().toInstant());
+        assertThat(verified.expiresAt()).isEqualTo(claims.getExpiration().toInstant());
+        assertThat(verified.tokenId()).isNotNull().isEqualTo(claims.getId());
+    }
+
+    @Test
+    @DisplayName("압축 스키마 토큰은 숫자 User id와 Role 비트마스크로 검증된다")
+    void verify_handlesCompactSchemaWithUserId() {
+        long now = System.currentTimeMillis() / 1000;
+        String token = Jwts.builder()
+                .claim("v", CompactClaimSchema.VERSION)
+                .claim("u", 42L)
+                .claim("r", 1L)
+                .issuedAt(new Date(now * 1000))
+                .expiration(new Date((now + 60) * 1000))
+                .signWith(key)
+                .compact();
+
+        VerifiedToken verified = verifier.verify(token, System.currentTimeMillis());
+
+        assertThat(verified).isNotNull();
+        assertThat(verified.subject()).isNull();
+        assertThat(verified.userId()).isEqualTo(42L);
+    }
+
+    @Test
+    @DisplayName("알 수 없는 스키마 버전이나 sub와 u가 함께 있는 토큰은 jjwt로 위임한다")
+    void verify_returnsNull_forUnknownSchemaShape() {
+        Date expiration = new Date(System.currentTimeMillis() + 60_000L);
+        String unknownVersion = Jwts.builder()
+                .claim("v", 3).subject("testuser").claim("r", 1L)
+                .expiration(expiration).signWith(key).compact();
+        String subjectAndUserId = Jwts.builder()
+                .claim("v", CompactClaimSchema.VERSION).subject("testuser").claim("u", 42L)
+                .claim("r", 1L).expiration(expiration).signWith(key).compact();
+
+        assertThat(verifier.verify(unknownVersion, System.currentTimeMillis())).isNull();
+        assertThat(verifier.verify(subjectAndUserId, System.currentTimeMillis())).isNull();
+    }
+
+    @Test
+    @DisplayName("Refresh Token처럼 roles가 없는 토큰도 처리한다")
+    void verify_handlesTokenWithoutRoles() {
+        String token = jwtTokenProvider.generateRefreshToken("refresh-user");
+
+        VerifiedToken verified = verifier.verify(token, System.currentTimeMillis());
+
+        assertThat(verified).isNotNull();
+        assertThat(verified.roles()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("서명이 다르면 SignatureException이 발생한다")
+    void verify_throwsSignatureException_forForeignSignature() {
+        String token = jwtTokenProvider.generateAccessToken("testuser", List.of("ROLE_USER"));
+        String forged = token.substring(0, token.lastIndexOf('.') + 1)
+                + new StringBuilder(token.substring(token.lastIndexOf('.') + 1)).reverse();
+
+        assertThatThrownBy(() -> verifier.verify(forged, System.currentTimeMillis()))
+                .isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    @DisplayName("만료 여부는 HMAC 계산 전에 판단한다")
+    void verify_throwsExpired_beforeCheckingSignature() {
+        String token = jwtTokenProvider.generateAccessToken("testuser", List.of("ROLE_USER"));
+        String badSignature = token.substring(0, token.lastIndexOf('.') + 1) + "AAAA";
+        long afterExpiry = System.currentTimeMillis() + 3_700_000L;
+
+        assertThatThrownBy(() -> verifier.verify(badSignature, afterExpiry))
+                .isInstanceOfSatisfying(ExpiredJwtException.class, e ->
+                        assertThat(e.getClaims().getSubject()).isEqualTo("testuser"));
+    }
+
+    @Test
+    @DisplayName("예상하지 못한 claim이 있으면 null을 반환해 jjwt로 위임한다")
+    void verify_returnsNull_forUnexpectedClaims() {
+        String token = Jwts.builder()
+                .subject("testuser")
+                .issuer("someone-else")
+                .expiration(new Date(System.currentTimeMillis() + 60_000L))
+                .signWith(key)
+                .compact();
+
+        assertThat(verifier.verify(token, System.currentTimeMillis())).isNull();
+    }
+
+    @Test
+    @DisplayName("헤더가 다르면 null을 반환해 jjwt로 위임한다")
+    void verify_returnsNull_forDifferentHeader() {
+        String token = Jwts.builder()
+                .header().keyId("other").and()
+                .subject("testuser")
+                .expiration(new Date(System.currentTimeMillis() + 60_000L))
+                .signWith(key)
+                .compact();
+
+        assertThat(verifier.verify(token, System.currentTimeMillis())).isNull();
+        assertThat(verifier.verify(null, System.currentTimeMillis())).isNull();
+    }
+
+    @Test
+    @DisplayName("JwtTokenProvider는 경량 검증기가 위임한 토큰을 jjwt로 검증한다")
+    void jwtTokenProvider_fallsBackToJjwt_forForeignShapedToken() {
+        String token = Jwts.builder()
+                .header().keyId("other").and()
+                .subject("testuser")
+                .claim("roles", List.of("ROLE_USER"))
+                .expiration(new Date(System.currentTimeMillis() + 60_000L))
+                .signWith(key)
+                .compact();
+
+        VerifiedToken verified = jwtTokenProvider.verify(token);
+
+        assertThat(verified.subject()).isEqualTo("testuser");
+        assertThat(verified.roles()).containsExactly("ROLE_USER");
+    }
+}
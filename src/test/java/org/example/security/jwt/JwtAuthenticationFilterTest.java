@@ -1,19 +1,25 @@
 package org.example.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
-import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import org.example.domain.entity.Role;
 import org.example.domain.entity.User;
+import org.example.repository.RoleRepository;
 import org.example.security.CustomUserDetails;
+import org.example.security.authenticated.AuthenticatedUser;
 import org.example.security.authenticated.AuthenticatedUserService;
+import org.example.security.authenticated.PrincipalSnapshotStore;
+import org.example.security.authenticated.UserSecurityEpoch;
 import org.example.security.token.TokenLifecycleService;
 import org.example.security.token.delivery.TokenDeliveryServiceImpl;
 import org.junit.jupiter.api.AfterEach;
@@ -83,7 +89,7 @@ class JwtAuthenticationFilterTest {
         MockHttpServletResponse response = new MockHttpServletResponse();
         when(authenticatedUserService.findActiveUserByJwtSubject("testuser"))
                 .thenReturn(java.util.Optional.of(userDetails));
-        when(tokenLifecycleService.isAccessTokenAllowed(token)).thenReturn(true);
+        when(tokenLifecycleService.isAccessTokenAllowed(verifiedToken(token))).thenReturn(true);
 
         jwtAuthenticationFilter.doFilter(request, response, filterChain);
 
@@ -97,19 +103,56 @@ class JwtAuthenticationFilterTest {
         assertThat(authentication.getAuthorities())
                 .extracting(grantedAuthority -> grantedAuthority.getAuthority())
                 .containsExactly("ROLE_USER");
+        // 컨트롤러가 토큰을 다시 파싱하지 않도록 검증된 토큰을 요청 속성으로 노출해야 한다.
+        assertThat(request.getAttribute(VerifiedToken.REQUEST_ATTRIBUTE))
+                .isInstanceOfSatisfying(VerifiedToken.class, verified -> {
+                    assertThat(verified.token()).isEqualTo(token);
+                    assertThat(verified.subject()).isEqualTo("testuser");
+                });
         // 유효한 토큰이므로 userDetailsService를 정확히 한 번 호출해야 한다.
         verify(authenticatedUserService).findActiveUserByJwtSubject("testuser");
         // 인증 처리가 끝나면 필터 체인이 계속 진행되어야 한다.
         verify(filterChain).doFilter(request, response);
     }
 
+    @Test
+    @DisplayName("Loads the User by id for a compact Access Token with a numeric subject")
+    void doFilter_loadsUserById_whenCompactTokenCarriesUserId() throws Exception {
+        // 압축 스키마에서 numeric-subject가 켜져 있으면 토큰에는 JWT Subject 대신 User id만 들어 있다.
+        RoleRepository roleRepository = mock(RoleRepository.class);
+        Role userRole = new Role("ROLE_USER");
+        ReflectionTestUtils.setField(userRole, "id", 1L);
+        when(roleRepository.findAll()).thenReturn(List.of(userRole));
+        JwtTokenProvider compactProvider = new JwtTokenProvider(SECRET, 3_600_000L, 604_800_000L,
+                VerifiedTokenCache.disabled(), new CompactClaimSchema(true, true, roleRepository));
+        JwtAuthenticationFilter compactFilter = new JwtAuthenticationFilter(
+                compactProvider,
+                authenticatedUserService,
+                tokenLifecycleService,
+                new TokenDeliveryServiceImpl(604_800_000L, true, "Lax"));
+        String token = compactProvider.generateAccessToken(42L, "testuser", List.of("ROLE_USER"));
+        CustomUserDetails userDetails = createUserDetails("testuser", "tester", "ROLE_USER");
+        MockHttpServletRequest request = requestWithBearerToken("/user/profile", token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(tokenLifecycleService.isAccessTokenAllowed(verifiedToken(token))).thenReturn(true);
+        when(authenticatedUserService.findActiveUserById(42L))
+                .thenReturn(java.util.Optional.of(userDetails));
+
+        compactFilter.doFilter(request, response, filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal())
+                .isEqualTo(userDetails);
+        verify(authenticatedUserService, never()).findActiveUserByJwtSubject(any());
+        verify(filterChain).doFilter(request, response);
+    }
+
     @Test
     @DisplayName("Does not authenticate a Blacklisted Access Token")
     void doFilter_doesNotAuthenticate_whenAccessTokenIsBlacklisted() throws Exception {
         String token = accessToken("testuser", "ROLE_USER");
         MockHttpServletRequest request = requestWithBearerToken("/user/profile", token);
         MockHttpServletResponse response = new MockHttpServletResponse();
-        when(tokenLifecycleService.isAccessTokenAllowed(token)).thenReturn(false);
+        when(tokenLifecycleService.isAccessTokenAllowed(verifiedToken(token))).thenReturn(false);
 
         jwtAuthenticationFilter.doFilter(request, response, filterChain);
 
@@ -126,7 +169,7 @@ class JwtAuthenticationFilterTest {
                 "testuser", "tester", true, false, "ROLE_USER");
         MockHttpServletRequest request = requestWithBearerToken("/user/profile", token);
         MockHttpServletResponse response = new MockHttpServletResponse();
-        when(tokenLifecycleService.isAccessTokenAllowed(token)).thenReturn(true);
+        when(tokenLifecycleService.isAccessTokenAllowed(verifiedToken(token))).thenReturn(true);
         when(authenticatedUserService.findActiveUserByJwtSubject("testuser"))
                 .thenReturn(java.util.Optional.empty());
 
@@ -145,7 +188,7 @@ class JwtAuthenticationFilterTest {
                 "testuser", "tester", false, true, "ROLE_USER");
         MockHttpServletRequest request = requestWithBearerToken("/user/profile", token);
         MockHttpServletResponse response = new MockHttpServletResponse();
-        when(tokenLifecycleService.isAccessTokenAllowed(token)).thenReturn(true);
+        when(tokenLifecycleService.isAccessTokenAllowed(verifiedToken(token))).thenReturn(true);
         when(authenticatedUserService.findActiveUserByJwtSubject("testuser"))
                 .thenReturn(java.util.Optional.empty());
 
@@ -212,26 +255,108 @@ class JwtAuthenticationFilterTest {
     }
 
     @Test
-    @DisplayName("Propagates an exception and stops the chain for an invalid token")
-    void doFilter_throwsJwtException_whenTokenIsInvalid() throws Exception {
+    @DisplayName("Writes 401 directly and stops the chain for an invalid token")
+    void doFilter_writesUnauthorized_whenTokenIsInvalid() throws Exception {
         // 정상 토큰 뒤에 문자열을 덧붙여 서명을 깨뜨린다.
-        // 이렇게 하면 필터가 토큰 위조를 감지하고 예외를 던지는지 확인할 수 있다.
+        // 필터는 예외를 던지지 않고 바로 401 응답을 작성해야 한다.
         MockHttpServletRequest request = requestWithBearerToken("/user/profile",
                 accessToken("testuser", "ROLE_USER") + "tampered");
         MockHttpServletResponse response = new MockHttpServletResponse();
 
-        // 잘못된 토큰은 조용히 무시하면 안 되고, 예외로 실패해야 한다.
-        assertThatThrownBy(() -> jwtAuthenticationFilter.doFilter(request, response, filterChain))
-                .isInstanceOf(JwtException.class);
+        jwtAuthenticationFilter.doFilter(request, response, filterChain);
 
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(response.getHeader("WWW-Authenticate")).contains("invalid_token");
+        assertThat(response.getContentAsString(StandardCharsets.UTF_8))
+                .isEqualTo("{\"error\":\"Invalid Token\",\"message\":\"JWT 서명이 올바르지 않습니다.\"}");
         // 검증에 실패했으므로 인증 정보는 절대 세팅되면 안 된다.
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
         // 토큰 검증이 실패했으니 사용자 조회도 발생하면 안 된다.
         verifyNoInteractions(authenticatedUserService);
-        // 예외가 발생한 경우 필터 체인은 진행되지 않아야 한다.
+        // 거부된 요청은 필터 체인을 진행하지 않아야 한다.
+        verify(filterChain, never()).doFilter(request, response);
+    }
+
+    @Test
+    @DisplayName("Reports an expired Access Token by message without calling the chain")
+    void doFilter_writesExpired_whenTokenIsExpired() throws Exception {
+        String token = new JwtTokenProvider(SECRET, -1_000L, 604_800_000L)
+                .generateAccessToken("testuser", List.of("ROLE_USER"));
+        MockHttpServletRequest request = requestWithBearerToken("/user/profile", token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        jwtAuthenticationFilter.doFilter(request, response, filterChain);
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(response.getContentAsString(StandardCharsets.UTF_8))
+                .contains("\"message\":\"JWT 토큰이 만료되었습니다.\"");
+        verifyNoInteractions(tokenLifecycleService);
         verify(filterChain, never()).doFilter(request, response);
     }
 
+    @Test
+    @DisplayName("Builds the principal from claims and loads the User only when profile is read")
+    void doFilter_usesClaims_whenClaimsOnlyAndEpochIsCurrent() throws Exception {
+        UserSecurityEpoch userSecurityEpoch = mock(UserSecurityEpoch.class);
+        JwtAuthenticationFilter claimsOnlyFilter = claimsOnlyFilter(userSecurityEpoch);
+        String token = accessToken("testuser", "ROLE_USER");
+        MockHttpServletRequest request = requestWithBearerToken("/user/profile", token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(tokenLifecycleService.isAccessTokenAllowed(verifiedToken(token))).thenReturn(true);
+        when(userSecurityEpoch.isCurrent(any(), any())).thenReturn(true);
+
+        claimsOnlyFilter.doFilter(request, response, filterChain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getPrincipal())
+                .isInstanceOfSatisfying(AuthenticatedUser.class, principal ->
+                        assertThat(principal.getJwtSubject()).isEqualTo("testuser"));
+        assertThat(authentication.getAuthorities())
+                .extracting(grantedAuthority -> grantedAuthority.getAuthority())
+                .containsExactly("ROLE_USER");
+        verifyNoInteractions(authenticatedUserService);
+        verify(filterChain).doFilter(request, response);
+
+        // 핸들러가 닉네임을 읽을 때에만 User를 조회한다.
+        CustomUserDetails userDetails = createUserDetails("testuser", "tester", "ROLE_USER");
+        when(authenticatedUserService.findActiveUserByJwtSubject("testuser"))
+                .thenReturn(java.util.Optional.of(userDetails));
+        AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
+        assertThat(principal.getNickname()).isEqualTo("tester");
+        assertThat(principal.getNickname()).isEqualTo("tester");
+        verify(authenticatedUserService).findActiveUserByJwtSubject("testuser");
+    }
+
+    @Test
+    @DisplayName("Leaves the request unauthenticated for a token issued before the security epoch")
+    void doFilter_doesNotAuthenticate_whenClaimsOnlyAndEpochIsNewer() throws Exception {
+        UserSecurityEpoch userSecurityEpoch = mock(UserSecurityEpoch.class);
+        JwtAuthenticationFilter claimsOnlyFilter = claimsOnlyFilter(userSecurityEpoch);
+        String token = accessToken("testuser", "ROLE_ADMIN");
+        MockHttpServletRequest request = requestWithBearerToken("/admin/users", token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(tokenLifecycleService.isAccessTokenAllowed(verifiedToken(token))).thenReturn(true);
+        when(userSecurityEpoch.isCurrent(any(), any())).thenReturn(false);
+
+        claimsOnlyFilter.doFilter(request, response, filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verifyNoInteractions(authenticatedUserService);
+        verify(filterChain).doFilter(request, response);
+    }
+
+    private JwtAuthenticationFilter claimsOnlyFilter(UserSecurityEpoch userSecurityEpoch) {
+        return new JwtAuthenticationFilter(
+                jwtTokenProvider,
+                authenticatedUserService,
+                tokenLifecycleService,
+                new TokenDeliveryServiceImpl(604_800_000L, true, "Lax"),
+                userSecurityEpoch,
+                mock(PrincipalSnapshotStore.class),
+                true);
+    }
+
     private CustomUserDetails createUserDetails(String username, String nickname, String... roles) {
         return createUserDetails(username, nickname, true, true, roles);
     }
@@ -254,6 +379,11 @@ class JwtAuthenticationFilterTest {
         return new CustomUserDetails(user);
     }
 
+    private VerifiedToken verifiedToken(String token) {
+        // 필터가 한 번 검증한 토큰을 TokenLifecycleService에 그대로 넘기는지 원문 토큰으로 매칭한다.
+        return argThat(verified -> verified != null && token.equals(verified.token()));
+    }
+
     private String accessToken(String username, String... roles) {
         // 테스트에서 사용할 access token을 직접 만들어 반환한다.
         // username과 role 정보가 토큰 클레임에 들어가야 필터가 이를 읽어 인증 객체를 구성할 수 있다.
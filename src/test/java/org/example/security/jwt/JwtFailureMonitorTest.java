@@ -0,0 +1,101 @@
+package org.example.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class JwtFailureMonitorTest {
+
+    private static final String SECRET = "dGVzdC1zZWNyZXQta2V5LWZvci10ZXN0aW5nLW11c3QtYmUtYXQtbGVhc3QtMzItYnl0ZXMtbG9uZw==";
+
+    private AtomicLong nanoTime;
+    private JwtFailureMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        nanoTime = new AtomicLong();
+        monitor = new JwtFailureMonitor(Duration.ofSeconds(10), nanoTime::get);
+    }
+
+    @Test
+    @DisplayName("예외 종류별로 실패 유형을 분류한다")
+    void record_classifiesFailureType() {
+        assertThat(monitor.record("t", new ExpiredJwtException(null, null, "expired")))
+                .isEqualTo(JwtFailureType.EXPIRED);
+        assertThat(monitor.record("t", new MalformedJwtException("malformed")))
+                .isEqualTo(JwtFailureType.MALFORMED);
+        assertThat(monitor.record("t", new UnsupportedJwtException("unsupported")))
+                .isEqualTo(JwtFailureType.UNSUPPORTED);
+        assertThat(monitor.record("t", new SignatureException("bad signature")))
+                .isEqualTo(JwtFailureType.BAD_SIGNATURE);
+        assertThat(monitor.record("", new IllegalArgumentException("empty")))
+                .isEqualTo(JwtFailureType.INVALID_ARGUMENT);
+        assertThat(monitor.record("t", new JwtException("invalid")))
+                .isEqualTo(JwtFailureType.INVALID);
+    }
+
+    @Test
+    @DisplayName("같은 유형의 로그는 interval마다 한 줄만 남기고 나머지는 집계만 한다")
+    void record_rateLimitsLogLinesPerType() {
+        for (int i = 0; i < 100; i++) {
+            monitor.record("bad-token-" + i, new SignatureException("bad signature"));
+        }
+
+        assertThat(monitor.count(JwtFailureType.BAD_SIGNATURE)).isEqualTo(100);
+        assertThat(monitor.suppressedLogCount()).isEqualTo(99);
+
+        monitor.record("malformed", new MalformedJwtException("malformed"));
+        assertThat(monitor.suppressedLogCount()).isEqualTo(99);
+
+        nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+        monitor.record("bad-token", new SignatureException("bad signature"));
+        assertThat(monitor.suppressedLogCount()).isEqualTo(99);
+    }
+
+    @Test
+    @DisplayName("유형별 실패 건수를 jwt.verification.failures 메트릭으로 노출한다")
+    void bindTo_registersCounterPerType() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        monitor.bindTo(registry);
+
+        monitor.record("t", new SignatureException("bad signature"));
+        monitor.record("t", new SignatureException("bad signature"));
+        monitor.record("t", new ExpiredJwtException(null, null, "expired"));
+
+        assertThat(registry.get("jwt.verification.failures").tag("type", "bad_signature")
+                .functionCounter().count()).isEqualTo(2.0);
+        assertThat(registry.get("jwt.verification.failures").tag("type", "expired")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(registry.get("jwt.verification.failure-logs.suppressed")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("JwtTokenProvider는 검증 실패를 유형별로 기록한 뒤 예외를 그대로 던진다")
+    void provider_recordsVerificationFailures() {
+        JwtTokenProvider provider = new JwtTokenProvider(JwtKeyring.hmac(SECRET),
+                3_600_000L, 604_800_000L, VerifiedTokenCache.disabled(),
+                CompactClaimSchema.disabled(), monitor);
+        String token = provider.generateAccessToken("testuser", List.of("ROLE_USER"));
+        String tampered = token.substring(0, token.length() - 2)
+                + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> provider.verify(tampered)).isInstanceOf(SignatureException.class);
+        assertThatThrownBy(() -> provider.verify("not-a-jwt")).isInstanceOf(JwtException.class);
+
+        assertThat(monitor.count(JwtFailureType.BAD_SIGNATURE)).isOne();
+        assertThat(monitor.count(JwtFailureType.MALFORMED)).isOne();
+    }
+}
@@ -0,0 +1,321 @@
+package org.example.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.example.repository.SigningKeyRedisRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+class JwtKeyRotatorTest {
+
+    private static final String SECRET = "dGVzdC1zZWNyZXQta2V5LWZvci10ZXN0aW5nLW11c3QtYmUtYXQtbGVhc3QtMzItYnl0ZXMtbG9uZw==";
+    private static final Duration CHECK_INTERVAL = Duration.ofSeconds(30);
+    private static final long REFRESH_TOKEN_EXPIRATION = Duration.ofDays(7).toMillis();
+
+    private InMemorySigningKeyRepository repository;
+    private SigningKeyCipher cipher;
+    private MutableClock clock;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemorySigningKeyRepository();
+        cipher = new SigningKeyCipher(SECRET, "");
+        clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    }
+
+    @Test
+    @DisplayName("rotate는 새 키를 먼저 검증용으로 배포하고 한 주기 뒤부터 서명에 사용한다")
+    void rotate_publishesKeyBeforeSigningWithIt() {
+        JwtKeyring keyring = JwtKeyring.hmac(SECRET);
+        JwtKeyRotator rotator = rotator(keyring, "HMAC", Duration.ZERO);
+        JwtTokenProvider provider = provider(keyring);
+
+        String kid = rotator.rotate();
+
+        assertThat(keyring.findKey(kid)).isNotNull();
+        assertThat(keyring.activeKey()).isSameAs(keyring.hmacKey());
+
+        clock.advance(CHECK_INTERVAL.multipliedBy(2));
+        rotator.refresh();
+
+        assertThat(keyring.activeKey().keyId()).isEqualTo(kid);
+        String token = provider.generateAccessToken("testuser", List.of("ROLE_USER"));
+        assertThat(header(token)).contains("\"kid\":\"" + kid + "\"");
+        assertThat(provider.verify(token).subject()).isEqualTo("testuser");
+    }
+
+    @Test
+    @DisplayName("교체 전에 발급된 토큰은 만료될 때까지 계속 검증된다")
+    void rotate_keepsOutstandingTokensValid() {
+        JwtKeyring keyring = JwtKeyring.hmac(SECRET);
+        JwtKeyRotator rotator = rotator(keyring, "HMAC", Duration.ZERO);
+        JwtTokenProvider provider = provider(keyring);
+        String legacyToken = provider.generateAccessToken("testuser", List.of("ROLE_USER"));
+
+        rotator.rotate();
+        clock.advance(CHECK_INTERVAL.multipliedBy(2));
+        rotator.refresh();
+        String firstRotatedToken = provider.generateRefreshToken("testuser");
+        rotator.rotate();
+        clock.advance(CHECK_INTERVAL.multipliedBy(2));
+        rotator.refresh();
+
+        assertThat(provider.verify(legacyToken).subject()).isEqualTo("testuser");
+        assertThat(provider.verify(firstRotatedToken).subject()).isEqualTo("testuser");
+    }
+
+    @Test
+    @DisplayName("다음 키 활성화 후 가장 긴 토큰 수명이 지나면 이전 키를 keyring과 저장소에서 제거한다")
+    void refresh_dropsKeyAfterRetention() {
+        JwtKeyring keyring = JwtKeyring.hmac(SECRET);
+        JwtKeyRotator rotator = rotator(keyring, "HMAC", Duration.ZERO);
+        String first = rotator.rotate();
+        clock.advance(CHECK_INTERVAL.multipliedBy(2));
+        String second = rotator.rotate();
+        clock.advance(CHECK_INTERVAL.multipliedBy(2));
+        rotator.refresh();
+
+        clock.advance(Duration.ofMillis(REFRESH_TOKEN_EXPIRATION));
+        rotator.refresh();
+        assertThat(keyring.findKey(first)).isNotNull();
+
+        clock.advance(CHECK_INTERVAL);
+        rotator.refresh();
+
+        assertThat(keyring.findKey(first)).isNull();
+        assertThat(repository.entries).containsOnlyKeys(second);
+        assertThat(keyring.activeKey().keyId()).isEqualTo(second);
+    }
+
+    @Test
+    @DisplayName("첫 교체 키 활성화 후 가장 긴 토큰 수명이 지나면 jwt.secret 키로 서명된 토큰을 거부한다")
+    void refresh_retiresLegacyKeyAfterRetention() {
+        JwtKeyring keyring = JwtKeyring.hmac(SECRET);
+        JwtKeyRotator rotator = rotator(keyring, "HMAC", Duration.ZERO);
+        JwtTokenProvider provider = provider(keyring);
+        String legacyToken = Jwts.builder()
+                .subject("testuser")
+                .expiration(new Date(System.currentTimeMillis() + Duration.ofDays(30).toMillis()))
+                .signWith(keyring.hmacKey().secretKey())
+                .compact();
+        rotator.rotate();
+        clock.advance(CHECK_INTERVAL.multipliedBy(2));
+        rotator.refresh();
+
+        clock.advance(Duration.ofMillis(REFRESH_TOKEN_EXPIRATION));
+        rotator.refresh();
+        assertThat(keyring.acceptsLegacyKeys()).isTrue();
+        assertThat(provider.verify(legacyToken).subject()).isEqualTo("testuser");
+
+        clock.advance(CHECK_INTERVAL);
+        rotator.refresh();
+
+        assertThat(keyring.acceptsLegacyKeys()).isFalse();
+        assertThat(keyring.findKey(null)).isNull();
+        assertThatThrownBy(() -> provider.verify(legacyToken)).isInstanceOf(JwtException.class);
+        String token = provider.generateAccessToken("testuser", List.of("ROLE_USER"));
+        assertThat(provider.verify(token).subject()).isEqualTo("testuser");
+    }
+
+    @Test
+    @DisplayName("다른 인스턴스는 저장소를 다시 읽은 뒤 교체된 키로 서명된 토큰을 검증한다")
+    void refresh_sharesKeysAcrossInstances() {
+        JwtKeyring keyringA = new JwtKeyring(SECRET, "ES256", "", "", "", true);
+        JwtKeyring keyringB = new JwtKeyring(SECRET, "ES256", "", "", "", true);
+        JwtKeyRotator rotatorA = rotator(keyringA, "ES256", Duration.ZERO);
+        JwtKeyRotator rotatorB = rotator(keyringB, "ES256", Duration.ZERO);
+
+        String kid = rotatorA.rotate();
+        rotatorB.refresh();
+        clock.advance(CHECK_INTERVAL.multipliedBy(2));
+        rotatorA.refresh();
+        rotatorB.refresh();
+
+        String token = provider(keyringA).generateAccessToken("testuser", List.of("ROLE_USER"));
+        assertThat(header(token)).contains("\"kid\":\"" + kid + "\"");
+        assertThat(provider(keyringB).verify(token).subject()).isEqualTo("testuser");
+        assertThat(keyringB.publicJwks()).anySatisfy(jwk -> assertThat(jwk.getId()).isEqualTo(kid));
+    }
+
+    @Test
+    @DisplayName("교체 주기가 지날 때마다 다음 키를 한 번만 생성한다")
+    void refresh_stagesNextKeyWhenRotationIsDue() {
+        JwtKeyRotator rotatorA = rotator(JwtKeyring.hmac(SECRET), "HMAC", Duration.ofDays(30));
+        JwtKeyRotator rotatorB = rotator(JwtKeyring.hmac(SECRET), "HMAC", Duration.ofDays(30));
+
+        rotatorA.refresh();
+        rotatorB.refresh();
+        assertThat(repository.entries).hasSize(1);
+
+        clock.advance(Duration.ofDays(1));
+        rotatorA.refresh();
+        assertThat(repository.entries).hasSize(1);
+
+        clock.advance(Duration.ofDays(30));
+        rotatorB.refresh();
+        assertThat(repository.entries).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("저장소를 사용할 수 없으면 기존 keyring을 유지한다")
+    void refresh_keepsKeyring_whenRedisIsUnavailable() {
+        JwtKeyring keyring = JwtKeyring.hmac(SECRET);
+        JwtKeyRotator rotator = rotator(keyring, "HMAC", Duration.ZERO);
+        String kid = rotator.rotate();
+        repository.unavailable = true;
+
+        assertThatCode(rotator::refresh).doesNotThrowAnyException();
+        assertThat(keyring.findKey(kid)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("저장소에는 서명 키를 암호화해 저장하고 평문 키 material은 남기지 않는다")
+    void rotate_storesOnlyEncryptedKeyMaterial() {
+        JwtKeyRotator rotator = rotator(JwtKeyring.hmac(SECRET), "HMAC", Duration.ZERO);
+
+        String kid = rotator.rotate();
+
+        String stored = repository.entries.get(kid);
+        assertThat(stored.substring(stored.indexOf(';') + 1)).startsWith("enc:");
+        assertThat(stored).doesNotContain("HS512:");
+    }
+
+    @Test
+    @DisplayName("다른 store key로 암호화된 키는 읽지 않는다")
+    void refresh_skipsKeyEncryptedWithDifferentStoreKey() {
+        JwtKeyRotator rotator = rotator(JwtKeyring.hmac(SECRET), "HMAC", Duration.ZERO);
+        String kid = rotator.rotate();
+
+        cipher = new SigningKeyCipher(SECRET, Base64.getEncoder().encodeToString(new byte[32]));
+        JwtKeyring keyring = JwtKeyring.hmac(SECRET);
+        rotator(keyring, "HMAC", Duration.ZERO).refresh();
+
+        assertThat(keyring.findKey(kid)).isNull();
+    }
+
+    @Test
+    @DisplayName("이전 형식의 평문 엔트리는 읽은 뒤 암호화해 덮어쓴다")
+    void refresh_encryptsLegacyPlaintextEntry() {
+        JwtSigningKey key = JwtSigningKey.generate("ES256");
+        repository.entries.put(key.keyId(), clock.instant().toEpochMilli() + ";" + key.encode());
+        JwtKeyring keyring = JwtKeyring.hmac(SECRET);
+
+        rotator(keyring, "ES256", Duration.ZERO).refresh();
+
+        assertThat(keyring.activeKey().keyId()).isEqualTo(key.keyId());
+        assertThat(repository.entries.get(key.keyId())).contains(";enc:");
+    }
+
+    @Test
+    @DisplayName("keyring에 없는 kid로 서명된 토큰은 거부한다")
+    void verify_rejectsTokenFromUnknownKey() {
+        JwtKeyring other = JwtKeyring.hmac(SECRET);
+        JwtKeyRotator otherRotator = rotator(other, "HMAC", Duration.ZERO);
+        otherRotator.rotate();
+        clock.advance(CHECK_INTERVAL.multipliedBy(2));
+        otherRotator.refresh();
+        String token = provider(other).generateAccessToken("testuser", List.of("ROLE_USER"));
+
+        JwtTokenProvider provider = provider(JwtKeyring.hmac(SECRET));
+
+        assertThatThrownBy(() -> provider.verify(token)).isInstanceOf(JwtException.class);
+    }
+
+    private JwtKeyRotator rotator(JwtKeyring keyring, String algorithm, Duration interval) {
+        return new JwtKeyRotator(keyring, repository, cipher, algorithm, interval, CHECK_INTERVAL,
+                REFRESH_TOKEN_EXPIRATION, clock);
+    }
+
+    private JwtTokenProvider provider(JwtKeyring keyring) {
+        return new JwtTokenProvider(keyring, 3_600_000L, REFRESH_TOKEN_EXPIRATION,
+                VerifiedTokenCache.disabled(), CompactClaimSchema.disabled());
+    }
+
+    private String header(String token) {
+        String segment = token.substring(0, token.indexOf('.'));
+        return new String(Base64.getUrlDecoder().decode(segment));
+    }
+
+    private class InMemorySigningKeyRepository extends SigningKeyRedisRepository {
+
+        private final Map<String, String> entries = new HashMap<>();
+        private Instant lockedUntil = Instant.MIN;
+        private boolean unavailable;
+
+        private InMemorySigningKeyRepository() {
+            super(null);
+        }
+
+        @Override
+        public Map<String, String> findAll() {
+            if (unavailable) {
+                throw new RedisConnectionFailureException("down");
+            }
+            return new HashMap<>(entries);
+        }
+
+        @Override
+        public void save(String keyId, String entry) {
+            entries.put(keyId, entry);
+        }
+
+        @Override
+        public void deleteAll(Collection<String> keyIds) {
+            keyIds.forEach(entries::remove);
+        }
+
+        @Override
+        public boolean tryLockRotation(Duration ttl) {
+            if (clock.instant().isBefore(lockedUntil)) {
+                return false;
+            }
+            lockedUntil = clock.instant().plus(ttl);
+            return true;
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
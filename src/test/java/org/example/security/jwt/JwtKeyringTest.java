@@ -0,0 +1,138 @@
+package org.example.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.PublicJwk;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class JwtKeyringTest {
+
+    private static final String SECRET = "dGVzdC1zZWNyZXQta2V5LWZvci10ZXN0aW5nLW11c3QtYmUtYXQtbGVhc3QtMzItYnl0ZXMtbG9uZw==";
+
+    @Test
+    @DisplayName("ES256 키로 서명한 토큰은 kid 헤더를 가지며 같은 keyring으로 검증된다")
+    void es256_signsWithKidAndVerifies() {
+        JwtKeyring keyring = generatedKeyring("ES256", "es-key-1");
+        JwtTokenProvider provider = provider(keyring);
+
+        String token = provider.generateAccessToken("testuser", List.of("ROLE_USER"));
+
+        assertThat(header(token)).contains("\"kid\":\"es-key-1\"").contains("\"alg\":\"ES256\"");
+        assertThat(provider.verify(token).subject()).isEqualTo("testuser");
+        assertThat(provider.verify(token).roles()).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    @DisplayName("EdDSA 키는 kid가 없으면 JWK thumbprint를 kid로 사용한다")
+    void eddsa_derivesKidFromThumbprint() {
+        JwtKeyring keyring = generatedKeyring("EdDSA", "");
+        JwtTokenProvider provider = provider(keyring);
+
+        String token = provider.generateRefreshToken("refresh-user");
+
+        assertThat(keyring.activeKey().keyId()).isNotBlank();
+        assertThat(header(token)).contains("\"kid\":\"" + keyring.activeKey().keyId() + "\"");
+        assertThat(provider.verify(token).subject()).isEqualTo("refresh-user");
+    }
+
+    @Test
+    @DisplayName("비대칭 키로 전환해도 kid 없는 기존 HMAC 토큰은 계속 검증된다")
+    void asymmetricKeyring_stillVerifiesLegacyHmacTokens() {
+        String legacyToken = new JwtTokenProvider(SECRET, 3_600_000L, 604_800_000L)
+                .generateAccessToken("testuser", List.of("ROLE_USER"));
+        JwtTokenProvider provider = provider(generatedKeyring("ES256", "es-key-1"));
+
+        assertThat(provider.verify(legacyToken).subject()).isEqualTo("testuser");
+    }
+
+    @Test
+    @DisplayName("모르는 kid로 서명된 토큰은 거부한다")
+    void locate_rejectsUnknownKid() {
+        JwtTokenProvider other = provider(generatedKeyring("ES256", "other-key"));
+        JwtTokenProvider provider = provider(generatedKeyring("ES256", "es-key-1"));
+        String token = other.generateAccessToken("testuser", List.of("ROLE_USER"));
+
+        assertThatThrownBy(() -> provider.verify(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    @DisplayName("같은 kid라도 다른 키로 서명된 토큰은 서명 검증에 실패한다")
+    void verify_rejectsTokenSignedWithDifferentKeyUnderSameKid() {
+        JwtTokenProvider other = provider(generatedKeyring("ES256", "es-key-1"));
+        JwtTokenProvider provider = provider(generatedKeyring("ES256", "es-key-1"));
+        String token = other.generateAccessToken("testuser", List.of("ROLE_USER"));
+
+        assertThatThrownBy(() -> provider.verify(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    @DisplayName("설정된 base64 DER 키 쌍을 읽고 JWKS에는 공개키만 노출한다")
+    void configuredKeyPair_isLoadedAndPublishedWithoutPrivateParts() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = generator.generateKeyPair();
+        String privateKey = Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded());
+        String publicKey = "-----BEGIN PUBLIC KEY-----\n"
+                + Base64.getMimeEncoder().encodeToString(keyPair.getPublic().getEncoded())
+                + "\n-----END PUBLIC KEY-----";
+
+        JwtKeyring keyring =
+                new JwtKeyring(SECRET, "ES256", "es-key-1", privateKey, publicKey, false);
+        List<PublicJwk<?>> jwks = keyring.publicJwks();
+
+        assertThat(keyring.activeKey().verificationKey()).isEqualTo(keyPair.getPublic());
+        assertThat(jwks).singleElement().satisfies(jwk -> {
+            assertThat(jwk.getId()).isEqualTo("es-key-1");
+            assertThat(jwk.get("kty")).isEqualTo("EC");
+            assertThat(jwk.get("alg")).isEqualTo("ES256");
+            assertThat(jwk.get("use")).isEqualTo("sig");
+            assertThat(jwk).doesNotContainKey("d");
+        });
+    }
+
+    @Test
+    @DisplayName("비대칭 알고리즘에 키 쌍이 없으면 임시 키 생성을 허용하지 않는 한 기동에 실패한다")
+    void asymmetricKeyring_requiresKeyPair_unlessGeneratedKeysAreAllowed() {
+        assertThatThrownBy(() -> new JwtKeyring(SECRET, "ES256", "es-key-1", "", "", false))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("jwt.signing.allow-generated-keys");
+        assertThatThrownBy(() -> new JwtKeyring(SECRET, "EdDSA", "", "", "", false))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("HMAC keyring은 JWKS에 아무 키도 공개하지 않는다")
+    void hmacKeyring_publishesNoKeys() {
+        JwtKeyring keyring = JwtKeyring.hmac(SECRET);
+
+        assertThat(keyring.activeKey().isHmac()).isTrue();
+        assertThat(keyring.activeKey().algorithmId()).isEqualTo(Jwts.SIG.HS384.getId());
+        assertThat(keyring.publicJwks()).isEmpty();
+    }
+
+    /**
+     * 기동마다 새 키 쌍을 만드는 로컬 개발용 keyring.
+     */
+    private static JwtKeyring generatedKeyring(String algorithm, String keyId) {
+        return new JwtKeyring(SECRET, algorithm, keyId, "", "", true);
+    }
+
+    private JwtTokenProvider provider(JwtKeyring keyring) {
+        return new JwtTokenProvider(keyring, 3_600_000L, 604_800_000L,
+                VerifiedTokenCache.disabled(), CompactClaimSchema.disabled());
+    }
+
+    private String header(String token) {
+        String segment = token.substring(0, token.indexOf('.'));
+        return new String(Base64.getUrlDecoder().decode(segment));
+    }
+}
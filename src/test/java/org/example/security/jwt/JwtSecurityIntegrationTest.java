@@ -7,6 +7,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.List;
+import java.util.Optional;
 import org.example.controller.TestController;
 import org.example.domain.entity.Role;
 import org.example.domain.entity.User;
@@ -38,8 +39,8 @@ class JwtSecurityIntegrationTest {
     @Test
     @DisplayName("Allows a valid USER token to access a protected user endpoint")
     void returnsOk_whenUserTokenAccessesUserEndpoint() throws Exception {
-        given(customUserDetailsService.loadUserByUsername("testuser"))
-            .willReturn(createUserDetails("testuser", "tester", "ROLE_USER"));
+        given(customUserDetailsService.findByUsername("testuser"))
+            .willReturn(Optional.of(createUserDetails("testuser", "tester", "ROLE_USER")));
 
         performAuthorizedGet("/user/profile", "testuser", "ROLE_USER")
             .andExpect(status().isOk())
@@ -57,8 +58,8 @@ class JwtSecurityIntegrationTest {
     @Test
     @DisplayName("Returns 403 when a USER token accesses an admin endpoint")
     void returnsForbidden_whenUserTokenAccessesAdminEndpoint() throws Exception {
-        given(customUserDetailsService.loadUserByUsername("testuser"))
-            .willReturn(createUserDetails("testuser", "tester", "ROLE_USER"));
+        given(customUserDetailsService.findByUsername("testuser"))
+            .willReturn(Optional.of(createUserDetails("testuser", "tester", "ROLE_USER")));
 
         performAuthorizedGet("/admin/manage", "testuser", "ROLE_USER")
             .andExpect(status().isForbidden())
@@ -68,15 +69,15 @@ class JwtSecurityIntegrationTest {
     @Test
     @DisplayName("Allows an ADMIN token to access an admin endpoint")
     void returnsOk_whenAdminTokenAccessesAdminEndpoint() throws Exception {
-        given(customUserDetailsService.loadUserByUsername("admin"))
-            .willReturn(createUserDetails("admin", "admin-user", "ROLE_ADMIN"));
+        given(customUserDetailsService.findByUsername("admin"))
+            .willReturn(Optional.of(createUserDetails("admin", "admin-user", "ROLE_ADMIN")));
 
         performAuthorizedGet("/admin/manage", "admin", "ROLE_ADMIN")
             .andExpect(status().isOk());
     }
 
     @Test
-    @DisplayName("Returns 401 through the exception handler filter for a tampered token")
+    @DisplayName("Returns 401 from the JWT filter for a tampered token")
     void returnsUnauthorized_whenTokenIsTampered() throws Exception {
         String token = bearerToken("testuser", "ROLE_USER") + "tampered";
 
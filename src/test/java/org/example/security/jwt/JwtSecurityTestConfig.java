@@ -59,7 +59,14 @@ class JwtSecurityTestConfig {
     TokenLifecycleService tokenLifecycleService() {
         return new TokenLifecycleService() {
             @Override
-            public TokenResponseDto issue(String jwtSubject, java.util.List<String> roles) {
+            public TokenResponseDto issue(
+                    Long userId, String jwtSubject, java.util.List<String> roles) {
+                throw new UnsupportedOperationException("Not used in JWT security slice tests");
+            }
+
+            @Override
+            public TokenResponseDto issueForLogin(
+                    Long userId, String jwtSubject, java.util.List<String> roles) {
                 throw new UnsupportedOperationException("Not used in JWT security slice tests");
             }
 
@@ -69,15 +76,25 @@ class JwtSecurityTestConfig {
             }
 
             @Override
-            public void logout(String jwtSubject, String accessToken) {
+            public void logout(String jwtSubject, VerifiedToken accessToken) {
                 throw new UnsupportedOperationException("Not used in JWT security slice tests");
             }
 
             @Override
-            public boolean isAccessTokenAllowed(String accessToken) {
+            public boolean isAccessTokenAllowed(VerifiedToken accessToken) {
                 return true;
             }
 
+            @Override
+            public java.time.Instant revokeIssuedTokens(java.util.Collection<String> jwtSubjects) {
+                throw new UnsupportedOperationException("Not used in JWT security slice tests");
+            }
+
+            @Override
+            public java.time.Instant revokeAllIssuedTokens() {
+                throw new UnsupportedOperationException("Not used in JWT security slice tests");
+            }
+
             @Override
             public long getRefreshTokenTtlSeconds() {
                 return 604_800L;
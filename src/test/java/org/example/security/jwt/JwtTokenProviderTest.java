@@ -3,14 +3,29 @@ package org.example.security.jwt;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.InstanceOfAssertFactories.list;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import javax.crypto.SecretKey;
+import org.example.domain.entity.Role;
+import org.example.repository.RoleRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
 
 class JwtTokenProviderTest {
 
@@ -24,16 +39,6 @@ class JwtTokenProviderTest {
         jwtTokenProvider = new JwtTokenProvider(SECRET, 3_600_000L, 604_800_000L);
     }
 
-    @Test
-    @DisplayName("액세스 토큰 생성 후 남은 만료 시간은 양수이고 최대 만료 시간 이하이다")
-    void getRemainingExpiration_returnsPositive_afterGenerate() {
-        String token = jwtTokenProvider.generateAccessToken("testuser", List.of("ROLE_USER"));
-
-        long remaining = jwtTokenProvider.getRemainingExpiration(token);
-
-        assertThat(remaining).isPositive().isLessThanOrEqualTo(3_600_000L);
-    }
-
     @Test
     @DisplayName("액세스 토큰에는 subject와 roles claim이 포함된다")
     void generateAccessToken_containsSubjectAndRolesClaims() {
@@ -58,65 +63,261 @@ class JwtTokenProviderTest {
     }
 
     @Test
-    @DisplayName("만료된 토큰으로 남은 만료 시간을 조회하면 ExpiredJwtException이 발생한다")
-    void getRemainingExpiration_throwsExpiredJwtException_forExpiredToken() {
-        String expiredToken = expiredAccessToken();
+    @DisplayName("verify는 한 번의 파싱으로 subject, roles, 발급·만료 시간을 담은 값을 반환한다")
+    void verify_returnsVerifiedTokenWithClaims() {
+        List<String> roles = List.of("ROLE_USER", "ROLE_ADMIN");
+        String token = jwtTokenProvider.generateAccessToken("testuser", roles);
 
-        assertThatThrownBy(() -> jwtTokenProvider.getRemainingExpiration(expiredToken))
-                .isInstanceOf(ExpiredJwtException.class);
+        VerifiedToken verified = jwtTokenProvider.verify(token);
+
+        assertThat(verified.token()).isEqualTo(token);
+        assertThat(verified.subject()).isEqualTo("testuser");
+        assertThat(verified.roles()).containsExactlyElementsOf(roles);
+        assertThat(verified.expiresAt()).isAfter(verified.issuedAt());
+        assertThat(verified.remainingMillis(Instant.now()))
+                .isPositive()
+                .isLessThanOrEqualTo(3_600_000L);
+        assertThat(verified.toString()).doesNotContain(token);
     }
 
     @Test
-    @DisplayName("유효한 토큰 검증은 true를 반환한다")
-    void validateToken_returnsTrue_forValidToken() {
-        String token = jwtTokenProvider.generateAccessToken("testuser", List.of("ROLE_USER"));
+    @DisplayName("Access Token마다 22자 무작위 jti를 담고 Blacklist 식별자로 사용한다")
+    void generateAccessToken_carriesUniqueTokenId() {
+        String first = jwtTokenProvider.generateAccessToken("testuser", List.of("ROLE_USER"));
+        String second = jwtTokenProvider.generateAccessToken("testuser", List.of("ROLE_USER"));
+        JwtTokenProvider compactProvider = compactProvider(true);
+        String compact = compactProvider.generateAccessToken(42L, "testuser", List.of("ROLE_USER"));
+        String refresh = jwtTokenProvider.generateRefreshToken("testuser");
+
+        VerifiedToken verified = jwtTokenProvider.verify(first);
+
+        assertThat(verified.tokenId())
+                .hasSize(22)
+                .isEqualTo(jwtTokenProvider.parseClaims(first).getId());
+        assertThat(verified.revocationId()).isEqualTo(verified.tokenId());
+        assertThat(jwtTokenProvider.verify(second).tokenId()).isNotEqualTo(verified.tokenId());
+        assertThat(compactProvider.verify(compact).tokenId()).hasSize(22);
+        assertThat(jwtTokenProvider.verify(refresh).tokenId()).isNull();
+    }
+
+    @Test
+    @DisplayName("리프레시 토큰을 verify하면 roles는 빈 목록이다")
+    void verify_returnsEmptyRoles_forRefreshToken() {
+        String token = jwtTokenProvider.generateRefreshToken("refresh-user");
+
+        VerifiedToken verified = jwtTokenProvider.verify(token);
 
-        assertThat(jwtTokenProvider.validateToken(token)).isTrue();
+        assertThat(verified.subject()).isEqualTo("refresh-user");
+        assertThat(verified.roles()).isEmpty();
     }
 
     @Test
-    @DisplayName("만료된 토큰 검증 시 ExpiredJwtException이 발생한다")
-    void validateToken_throwsExpiredJwtException_forExpiredToken() {
+    @DisplayName("만료된 토큰을 verify하면 ExpiredJwtException이 발생한다")
+    void verify_throwsExpiredJwtException_forExpiredToken() {
         String expiredToken = expiredAccessToken();
 
-        assertThatThrownBy(() -> jwtTokenProvider.validateToken(expiredToken))
+        assertThatThrownBy(() -> jwtTokenProvider.verify(expiredToken))
                 .isInstanceOf(ExpiredJwtException.class);
     }
 
     @Test
     @DisplayName("변조된 토큰 검증 시 JwtException이 발생한다")
-    void validateToken_throwsJwtException_forTamperedToken() {
+    void verify_throwsJwtException_forTamperedToken() {
         String token = jwtTokenProvider.generateAccessToken("testuser", List.of("ROLE_USER"));
         String tamperedToken = token + "tampered";
 
-        assertThatThrownBy(() -> jwtTokenProvider.validateToken(tamperedToken))
+        assertThatThrownBy(() -> jwtTokenProvider.verify(tamperedToken))
                 .isInstanceOf(JwtException.class);
     }
 
     @Test
     @DisplayName("다른 secret으로 서명된 토큰 검증 시 JwtException이 발생한다")
-    void validateToken_throwsJwtException_forTokenSignedWithDifferentSecret() {
+    void verify_throwsJwtException_forTokenSignedWithDifferentSecret() {
         JwtTokenProvider otherProvider = new JwtTokenProvider(OTHER_SECRET, 3_600_000L, 604_800_000L);
         String token = otherProvider.generateAccessToken("testuser", List.of("ROLE_USER"));
 
-        assertThatThrownBy(() -> jwtTokenProvider.validateToken(token))
+        assertThatThrownBy(() -> jwtTokenProvider.verify(token))
                 .isInstanceOf(JwtException.class);
     }
 
     @Test
     @DisplayName("null 토큰 검증 시 JwtException이 발생한다")
-    void validateToken_throwsJwtException_forNullToken() {
-        assertThatThrownBy(() -> jwtTokenProvider.validateToken(null))
+    void verify_throwsJwtException_forNullToken() {
+        assertThatThrownBy(() -> jwtTokenProvider.verify(null))
                 .isInstanceOf(JwtException.class);
     }
 
     @Test
     @DisplayName("빈 문자열 토큰 검증 시 JwtException이 발생한다")
-    void validateToken_throwsJwtException_forBlankToken() {
-        assertThatThrownBy(() -> jwtTokenProvider.validateToken(""))
+    void verify_throwsJwtException_forBlankToken() {
+        assertThatThrownBy(() -> jwtTokenProvider.verify(""))
+                .isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    @DisplayName("공유 서명 알고리즘은 signWith(key)가 키 길이로 고르던 알고리즘과 같은 헤더를 만든다")
+    void generateAccessToken_keepsKeyLengthBasedAlgorithmHeader() {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        String reference = Jwts.builder().subject("testuser").signWith(key).compact();
+
+        String token = jwtTokenProvider.generateAccessToken("testuser", List.of("ROLE_USER"));
+
+        assertThat(token.substring(0, token.indexOf('.')))
+                .isEqualTo(reference.substring(0, reference.indexOf('.')));
+    }
+
+    @Test
+    @DisplayName("하나의 provider 인스턴스를 여러 스레드가 동시에 사용해도 검증 결과가 섞이지 않는다")
+    void verify_isThreadSafe_whenProviderIsShared() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<String>> tasks = IntStream.range(0, 200)
+                    .mapToObj(i -> (Callable<String>) () -> {
+                        String token = jwtTokenProvider.generateAccessToken("user-" + i, List.of("ROLE_USER"));
+                        return jwtTokenProvider.verify(token).subject();
+                    })
+                    .toList();
+
+            List<Future<String>> results = executor.invokeAll(tasks);
+
+            for (int i = 0; i < results.size(); i++) {
+                assertThat(results.get(i).get()).isEqualTo("user-" + i);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("압축 스키마 Access Token은 roles를 비트마스크로 담아 기존 형식보다 짧다")
+    void generateAccessToken_compactSchema_isShorterAndVerifiesToSameRoles() {
+        JwtTokenProvider compactProvider = compactProvider(false);
+        List<String> roles = List.of("ROLE_USER", "ROLE_ADMIN");
+
+        String legacyToken = jwtTokenProvider.generateAccessToken("GOOGLE_1234567890", roles);
+        String compactToken = compactProvider.generateAccessToken(
+                42L, "GOOGLE_1234567890", roles);
+        Claims claims = compactProvider.parseClaims(compactToken);
+        VerifiedToken verified = compactProvider.verify(compactToken);
+
+        assertThat(compactToken.length()).isLessThan(legacyToken.length());
+        assertThat(((Number) claims.get("v")).intValue()).isEqualTo(CompactClaimSchema.VERSION);
+        assertThat(((Number) claims.get("r")).longValue()).isEqualTo(0b11L);
+        assertThat(claims.get("roles")).isNull();
+        assertThat(verified.subject()).isEqualTo("GOOGLE_1234567890");
+        assertThat(verified.userId()).isNull();
+        assertThat(verified.roles()).containsExactly("ROLE_USER", "ROLE_ADMIN");
+    }
+
+    @Test
+    @DisplayName("numeric-subject 설정이면 압축 토큰은 JWT Subject 대신 숫자 User id를 담는다")
+    void generateAccessToken_compactSchema_carriesNumericUserId() {
+        JwtTokenProvider compactProvider = compactProvider(true);
+
+        String token = compactProvider.generateAccessToken(
+                42L, "GOOGLE_1234567890", List.of("ROLE_USER"));
+        VerifiedToken verified = compactProvider.verify(token);
+
+        assertThat(compactProvider.parseClaims(token).getSubject()).isNull();
+        assertThat(verified.subject()).isNull();
+        assertThat(verified.userId()).isEqualTo(42L);
+        assertThat(verified.roles()).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    @DisplayName("롤아웃 중에는 기존 형식과 압축 형식을 모두 검증한다")
+    void verify_acceptsLegacyAndCompactSchemas() {
+        JwtTokenProvider compactProvider = compactProvider(false);
+        String legacyToken = jwtTokenProvider.generateAccessToken("testuser", List.of("ROLE_USER"));
+        String compactToken = compactProvider.generateAccessToken(
+                1L, "testuser", List.of("ROLE_USER"));
+
+        assertThat(compactProvider.verify(legacyToken).roles()).containsExactly("ROLE_USER");
+        assertThat(jwtTokenProvider.verify(compactToken).subject()).isEqualTo("testuser");
+    }
+
+    @Test
+    @DisplayName("roles 테이블에 없는 Role이 있으면 기존 스키마로 발급한다")
+    void generateAccessToken_fallsBackToLegacySchema_whenRoleHasNoBit() {
+        JwtTokenProvider compactProvider = compactProvider(false);
+
+        String token = compactProvider.generateAccessToken(
+                1L, "testuser", List.of("ROLE_UNKNOWN"));
+        Claims claims = compactProvider.parseClaims(token);
+
+        assertThat(claims.get("v")).isNull();
+        assertThat(claims.get("roles")).asInstanceOf(list(String.class))
+                .containsExactly("ROLE_UNKNOWN");
+    }
+
+    @Test
+    @DisplayName("지원하지 않는 스키마 버전은 거부한다")
+    void verify_throwsJwtException_forUnsupportedSchemaVersion() {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        String token = Jwts.builder()
+                .claim("v", 3)
+                .subject("testuser")
+                .expiration(new java.util.Date(System.currentTimeMillis() + 60_000L))
+                .signWith(key)
+                .compact();
+
+        assertThatThrownBy(() -> jwtTokenProvider.verify(token))
                 .isInstanceOf(JwtException.class);
     }
 
+    @Test
+    @DisplayName("tryVerify는 유효한 토큰을 Valid로 반환한다")
+    void tryVerify_returnsValid_forValidToken() {
+        String token = jwtTokenProvider.generateAccessToken("testuser", List.of("ROLE_USER"));
+
+        assertThat(jwtTokenProvider.tryVerify(token))
+                .isInstanceOfSatisfying(JwtVerificationResult.Valid.class, valid ->
+                        assertThat(valid.token().subject()).isEqualTo("testuser"));
+    }
+
+    @Test
+    @DisplayName("tryVerify는 예외를 던지지 않고 실패 유형별 결과를 반환한다")
+    void tryVerify_returnsRejection_insteadOfThrowing() {
+        String token = jwtTokenProvider.generateAccessToken("testuser", List.of("ROLE_USER"));
+        String otherToken = new JwtTokenProvider(OTHER_SECRET, 3_600_000L, 604_800_000L)
+                .generateAccessToken("testuser", List.of("ROLE_USER"));
+
+        assertThat(jwtTokenProvider.tryVerify(expiredAccessToken()))
+                .isSameAs(JwtVerificationResult.EXPIRED);
+        assertThat(jwtTokenProvider.tryVerify(token + "tampered"))
+                .isSameAs(JwtVerificationResult.BAD_SIGNATURE);
+        assertThat(jwtTokenProvider.tryVerify(otherToken))
+                .isInstanceOf(JwtVerificationResult.Rejected.class);
+        assertThat(jwtTokenProvider.tryVerify("not a jwt"))
+                .isSameAs(JwtVerificationResult.MALFORMED);
+        assertThat(jwtTokenProvider.tryVerify(""))
+                .isSameAs(JwtVerificationResult.INVALID_ARGUMENT);
+    }
+
+    @Test
+    @DisplayName("tryVerify는 jjwt 파서가 거부한 토큰도 결과 값으로 바꾼다")
+    void tryVerify_mapsParserExceptions() {
+        String unsigned = Jwts.builder().subject("testuser").compact() + "x";
+
+        assertThat(jwtTokenProvider.tryVerify(unsigned))
+                .isInstanceOf(JwtVerificationResult.Rejected.class);
+    }
+
+    private JwtTokenProvider compactProvider(boolean numericSubject) {
+        RoleRepository roleRepository = mock(RoleRepository.class);
+        when(roleRepository.findAll())
+                .thenReturn(List.of(role(1L, "ROLE_USER"), role(2L, "ROLE_ADMIN")));
+        return new JwtTokenProvider(SECRET, 3_600_000L, 604_800_000L,
+                VerifiedTokenCache.disabled(),
+                new CompactClaimSchema(true, numericSubject, roleRepository));
+    }
+
+    private Role role(Long id, String name) {
+        Role role = new Role(name);
+        ReflectionTestUtils.setField(role, "id", id);
+        return role;
+    }
+
     private String expiredAccessToken() {
         JwtTokenProvider expiredProvider = new JwtTokenProvider(SECRET, -1_000L, 604_800_000L);
         return expiredProvider.generateAccessToken("testuser", List.of("ROLE_USER"));
@@ -0,0 +1,125 @@
+package org.example.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.jsonwebtoken.JwtException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class VerifiedTokenCacheTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    @Test
+    @DisplayName("같은 토큰의 두 번째 검증은 캐시에서 반환되고 hit/miss가 기록된다")
+    void get_returnsCachedToken_onRepeatRequest() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, fixedClock(NOW));
+        Function<String, VerifiedToken> verifier = countingVerifier(NOW.plusSeconds(3_600));
+
+        VerifiedToken first = cache.get("token-a", verifier);
+        VerifiedToken second = cache.get("token-a", verifier);
+
+        assertThat(second).isSameAs(first);
+        assertThat(verifications).hasValue(1);
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("캐시된 토큰의 exp가 지나면 캐시를 사용하지 않고 다시 검증한다")
+    void get_reverifies_whenCachedTokenHasExpired() {
+        MutableClock clock = new MutableClock(NOW);
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, clock);
+        Function<String, VerifiedToken> verifier = countingVerifier(NOW.plusSeconds(60));
+
+        cache.get("token-a", verifier);
+        clock.now = NOW.plusSeconds(61);
+        cache.get("token-a", verifier);
+
+        assertThat(verifications).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("검증 실패는 캐시하지 않고 예외를 그대로 전파한다")
+    void get_doesNotCacheFailures() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, fixedClock(NOW));
+        Function<String, VerifiedToken> failing = token -> {
+            verifications.incrementAndGet();
+            throw new JwtException("invalid");
+        };
+
+        assertThatThrownBy(() -> cache.get("bad-token", failing)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> cache.get("bad-token", failing)).isInstanceOf(JwtException.class);
+
+        assertThat(verifications).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("비활성화된 캐시는 매번 검증기에 위임한다")
+    void get_alwaysDelegates_whenDisabled() {
+        VerifiedTokenCache cache = VerifiedTokenCache.disabled();
+        Function<String, VerifiedToken> verifier = countingVerifier(Instant.now().plusSeconds(60));
+
+        cache.get("token-a", verifier);
+        cache.get("token-a", verifier);
+
+        assertThat(verifications).hasValue(2);
+        assertThat(cache.stats().requestCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("JwtTokenProvider는 캐시가 켜져 있으면 같은 토큰에 같은 검증 결과를 재사용한다")
+    void jwtTokenProvider_reusesVerifiedToken_whenCacheEnabled() {
+        JwtTokenProvider provider = new JwtTokenProvider(
+                "dGVzdC1zZWNyZXQta2V5LWZvci10ZXN0aW5nLW11c3QtYmUtYXQtbGVhc3QtMzItYnl0ZXMtbG9uZw==",
+                3_600_000L, 604_800_000L, new VerifiedTokenCache(true, 100),
+                CompactClaimSchema.disabled());
+        String token = provider.generateAccessToken("testuser", List.of("ROLE_USER"));
+
+        assertThat(provider.verify(token)).isSameAs(provider.verify(token));
+    }
+
+    private Function<String, VerifiedToken> countingVerifier(Instant expiresAt) {
+        return token -> {
+            verifications.incrementAndGet();
+            return new VerifiedToken(token, "testuser", List.of("ROLE_USER"), NOW, expiresAt);
+        };
+    }
+
+    private static Clock fixedClock(Instant instant) {
+        return Clock.fixed(instant, ZoneOffset.UTC);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class VerifiedTokenTest {
+
+    private static final Instant ISSUED_AT = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    @DisplayName("남은 유효 시간은 기준 시각부터 exp까지의 밀리초이다")
+    void remainingMillis_returnsTimeUntilExpiration() {
+        VerifiedToken token = token(ISSUED_AT.plusSeconds(3_600));
+
+        assertThat(token.remainingMillis(ISSUED_AT)).isEqualTo(3_600_000L);
+        assertThat(token.remainingMillis(ISSUED_AT.plusMillis(1_500))).isEqualTo(3_598_500L);
+    }
+
+    @Test
+    @DisplayName("exp가 지난 기준 시각의 남은 유효 시간은 0이다")
+    void remainingMillis_returnsZero_afterExpiration() {
+        VerifiedToken token = token(ISSUED_AT.plusSeconds(3_600));
+
+        assertThat(token.remainingMillis(ISSUED_AT.plusSeconds(3_600))).isZero();
+        assertThat(token.remainingMillis(ISSUED_AT.plusSeconds(7_200))).isZero();
+    }
+
+    private static VerifiedToken token(Instant expiresAt) {
+        return new VerifiedToken("access-token", "testuser", null, List.of("ROLE_USER"),
+                ISSUED_AT, expiresAt, "token-id");
+    }
+}
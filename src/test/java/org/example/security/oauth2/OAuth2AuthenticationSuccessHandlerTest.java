@@ -56,12 +56,12 @@ class OAuth2AuthenticationSuccessHandlerTest {
     UsernamePasswordAuthenticationToken authentication =
         new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
 
-    when(tokenLifecycleService.issue(eq("GOOGLE_123"), any()))
+    when(tokenLifecycleService.issue(eq(1L), eq("GOOGLE_123"), any()))
         .thenReturn(tokenResponse("access-token", "refresh-token"));
 
     successHandler.onAuthenticationSuccess(request, response, authentication);
 
-    verify(tokenLifecycleService).issue(eq("GOOGLE_123"), any());
+    verify(tokenLifecycleService).issue(eq(1L), eq("GOOGLE_123"), any());
     verify(tokenDeliveryService).addRefreshTokenCookie(response, "refresh-token");
     verify(cookieAuthorizationRequestRepository).deleteCookie(
         request,
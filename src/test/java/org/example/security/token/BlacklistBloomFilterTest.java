@@ -0,0 +1,39 @@
+package org.example.security.token;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BlacklistBloomFilterTest {
+
+  @Test
+  @DisplayName("never misses an added id and stays near the target false positive rate")
+  void mightContain_hasNoFalseNegativesAndFewFalsePositives() {
+    BlacklistBloomFilter filter = new BlacklistBloomFilter(10_000, 0.001);
+    for (int i = 0; i < 10_000; i++) {
+      filter.add("blacklisted-" + i);
+    }
+
+    int falsePositives = 0;
+    for (int i = 0; i < 100_000; i++) {
+      assertThat(filter.mightContain("blacklisted-" + (i % 10_000))).isTrue();
+      if (filter.mightContain("allowed-" + i)) {
+        falsePositives++;
+      }
+    }
+
+    // 목표 0.1%의 다섯 배까지 허용한다.
+    assertThat(falsePositives).isLessThan(500);
+  }
+
+  @Test
+  @DisplayName("rejects a false positive rate outside (0, 1)")
+  void constructor_rejectsInvalidFalsePositiveRate() {
+    assertThatThrownBy(() -> new BlacklistBloomFilter(1_000, 0))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new BlacklistBloomFilter(1_000, 1))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
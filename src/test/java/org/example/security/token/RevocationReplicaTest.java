@@ -0,0 +1,160 @@
+package org.example.security.token;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.example.repository.TokenRedisRepository;
+import org.example.security.jwt.VerifiedToken;
+import org.example.security.token.RevocationReplica.Verdict;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+
+@ExtendWith(MockitoExtension.class)
+class RevocationReplicaTest {
+
+  private static final Instant ISSUED_AT = Instant.parse("2026-01-01T00:00:00Z");
+  private static final byte[] CHANNEL =
+      RevocationReplica.TOPIC.getTopic().getBytes(StandardCharsets.UTF_8);
+
+  @Mock
+  private TokenRedisRepository tokenRedisRepository;
+
+  private RevocationReplica replica;
+
+  @BeforeEach
+  void setUp() {
+    replica = new RevocationReplica(tokenRedisRepository, true, 1_000, 0.001);
+  }
+
+  @Test
+  @DisplayName("asks Redis until a rebuild completes after subscription")
+  void check_returnsUnknown_untilSynced() {
+    replica.resync();
+    assertThat(replica.check(token("token-id", "testuser"))).isEqualTo(Verdict.UNKNOWN);
+
+    synced(Set.of(), Map.of());
+
+    assertThat(replica.check(token("token-id", "testuser"))).isEqualTo(Verdict.ALLOWED);
+  }
+
+  @Test
+  @DisplayName("asks Redis only for blacklisted ids loaded at rebuild or published later")
+  void check_returnsUnknown_forBlacklistedIds() {
+    synced(new HashSet<>(Set.of("scanned-id")), Map.of());
+
+    replica.onMessage(message("B|published-id"), null);
+
+    assertThat(replica.check(token("scanned-id", "testuser"))).isEqualTo(Verdict.UNKNOWN);
+    assertThat(replica.check(token("published-id", "testuser"))).isEqualTo(Verdict.UNKNOWN);
+    assertThat(replica.check(token("other-id", "testuser"))).isEqualTo(Verdict.ALLOWED);
+  }
+
+  @Test
+  @DisplayName("rejects tokens under a User, User id or global watermark without Redis")
+  void check_returnsRevoked_underWatermark() {
+    long revokedThrough = ISSUED_AT.getEpochSecond();
+    synced(Set.of(), Map.of("RB:testuser", revokedThrough));
+
+    replica.onMessage(message("W|" + revokedThrough + "|RBID:42"), null);
+
+    assertThat(replica.check(token("token-id", "testuser"))).isEqualTo(Verdict.REVOKED);
+    assertThat(replica.check(new VerifiedToken("access-token", null, 42L, List.of(),
+        ISSUED_AT, ISSUED_AT.plusSeconds(3_600), "token-id"))).isEqualTo(Verdict.REVOKED);
+    assertThat(replica.check(token("token-id", "otheruser"))).isEqualTo(Verdict.ALLOWED);
+
+    replica.onMessage(message("W|" + revokedThrough + "|RBALL"), null);
+
+    assertThat(replica.check(token("token-id", "otheruser"))).isEqualTo(Verdict.REVOKED);
+  }
+
+  @Test
+  @DisplayName("falls back to Redis after unsubscription, a malformed message or a failed rebuild")
+  void check_returnsUnknown_whenReplicaMayHaveMissedWrites() {
+    synced(Set.of(), Map.of());
+    replica.onMessage(message("garbage"), null);
+    assertThat(replica.check(token("token-id", "testuser"))).isEqualTo(Verdict.UNKNOWN);
+
+    synced(Set.of(), Map.of());
+    replica.onChannelUnsubscribed(CHANNEL, 0L);
+    assertThat(replica.check(token("token-id", "testuser"))).isEqualTo(Verdict.UNKNOWN);
+
+    replica.onChannelSubscribed(CHANNEL, 1L);
+    given(tokenRedisRepository.findBlacklistedIds())
+        .willThrow(new DataAccessResourceFailureException("redis down"));
+    replica.resync();
+    assertThat(replica.check(token("token-id", "testuser"))).isEqualTo(Verdict.UNKNOWN);
+  }
+
+  @Test
+  @DisplayName("does not scan Redis again while the replica stays synced")
+  void resync_skipsScan_whileSynced() {
+    synced(Set.of(), Map.of());
+
+    replica.resync();
+    replica.resync();
+
+    then(tokenRedisRepository).should(times(1)).findBlacklistedIds();
+    assertThat(replica.check(token("token-id", "testuser"))).isEqualTo(Verdict.ALLOWED);
+  }
+
+  @Test
+  @DisplayName("rescans after resubscription or once more ids were added than the filter holds")
+  void resync_rescans_afterResubscriptionOrWhenOverCapacity() {
+    replica = new RevocationReplica(tokenRedisRepository, true, 2, 0.001);
+    synced(Set.of(), Map.of());
+
+    replica.onChannelSubscribed(CHANNEL, 1L);
+    replica.resync();
+    then(tokenRedisRepository).should(times(2)).findBlacklistedIds();
+
+    replica.onMessage(message("B|first-id"), null);
+    replica.onMessage(message("B|second-id"), null);
+    replica.resync();
+    then(tokenRedisRepository).should(times(2)).findBlacklistedIds();
+
+    replica.onMessage(message("B|third-id"), null);
+    replica.resync();
+    then(tokenRedisRepository).should(times(3)).findBlacklistedIds();
+  }
+
+  @Test
+  @DisplayName("always asks Redis when disabled")
+  void check_returnsUnknown_whenDisabled() {
+    replica = new RevocationReplica(tokenRedisRepository, false, 1_000, 0.001);
+
+    replica.onChannelSubscribed(CHANNEL, 1L);
+    replica.resync();
+
+    assertThat(replica.check(token("token-id", "testuser"))).isEqualTo(Verdict.UNKNOWN);
+  }
+
+  private void synced(Set<String> blacklisted, Map<String, Long> watermarks) {
+    given(tokenRedisRepository.findBlacklistedIds()).willReturn(blacklisted);
+    given(tokenRedisRepository.findRevocationWatermarks()).willReturn(watermarks);
+    replica.onChannelSubscribed(CHANNEL, 1L);
+    replica.resync();
+  }
+
+  private static VerifiedToken token(String tokenId, String subject) {
+    return new VerifiedToken("access-token", subject, null, List.of(),
+        ISSUED_AT, ISSUED_AT.plusSeconds(3_600), tokenId);
+  }
+
+  private static DefaultMessage message(String body) {
+    return new DefaultMessage(CHANNEL, body.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,133 @@
+package org.example.security.token;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.example.repository.TokenRedisRepository;
+import org.example.repository.TokenRedisRepository.RevocationLookup;
+import org.example.repository.TokenRedisRepository.RevocationState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+@ExtendWith(MockitoExtension.class)
+class RevocationStateBatcherTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+  @Mock
+  private TokenRedisRepository tokenRedisRepository;
+
+  private RevocationStateBatcher batcher;
+
+  @AfterEach
+  void tearDown() {
+    if (batcher != null) {
+      batcher.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("answers concurrent lookups with a few MGET batches, each caller getting its state")
+  void find_coalescesConcurrentLookups() throws Exception {
+    batcher = new RevocationStateBatcher(tokenRedisRepository, true, 64, Duration.ofMillis(200),
+        TIMEOUT);
+    given(tokenRedisRepository.findRevocationStates(any())).willAnswer(invocation -> {
+      List<RevocationLookup> lookups = invocation.getArgument(0);
+      return lookups.stream()
+          .map(lookup -> new RevocationState(lookup.revocationId().startsWith("bl-"), null))
+          .toList();
+    });
+
+    ExecutorService executor = Executors.newFixedThreadPool(32);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<RevocationState>> results = new ArrayList<>();
+    try {
+      for (int i = 0; i < 32; i++) {
+        String revocationId = (i % 2 == 0 ? "bl-" : "ok-") + i;
+        results.add(executor.submit(() -> {
+          start.await();
+          return batcher.find(RevocationLookup.forSubject(revocationId, "testuser"));
+        }));
+      }
+      start.countDown();
+
+      for (int i = 0; i < 32; i++) {
+        assertThat(results.get(i).get().blacklisted()).isEqualTo(i % 2 == 0);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    verify(tokenRedisRepository, atMost(4)).findRevocationStates(any());
+  }
+
+  @Test
+  @DisplayName("fails every lookup of a failed batch with the Redis exception")
+  void find_rethrowsRedisFailure() {
+    batcher = new RevocationStateBatcher(tokenRedisRepository, true, 64, Duration.ZERO, TIMEOUT);
+    given(tokenRedisRepository.findRevocationStates(any()))
+        .willThrow(new DataAccessResourceFailureException("redis down"));
+
+    assertThatThrownBy(() -> batcher.find(RevocationLookup.forSubject("token-id", "testuser")))
+        .isInstanceOf(DataAccessException.class);
+  }
+
+  @Test
+  @DisplayName("looks up directly when the batch does not answer within the timeout")
+  void find_looksUpDirectly_whenBatchTimesOut() throws Exception {
+    batcher = new RevocationStateBatcher(tokenRedisRepository, true, 64, Duration.ZERO,
+        Duration.ofMillis(50));
+    RevocationLookup stuck = RevocationLookup.forSubject("stuck-id", "testuser");
+    RevocationLookup lookup = RevocationLookup.forSubject("token-id", "testuser");
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    given(tokenRedisRepository.findRevocationStates(List.of(stuck))).willAnswer(invocation -> {
+      started.countDown();
+      release.await();
+      return List.of(new RevocationState(false, null));
+    });
+    given(tokenRedisRepository.findRevocationStates(List.of(lookup)))
+        .willReturn(List.of(new RevocationState(true, null)));
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<RevocationState> first = executor.submit(() -> batcher.find(stuck));
+      started.await();
+      assertThat(batcher.find(lookup).blacklisted()).isTrue();
+
+      release.countDown();
+      assertThat(first.get().blacklisted()).isFalse();
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  @DisplayName("looks up directly when disabled")
+  void find_looksUpDirectly_whenDisabled() {
+    batcher = new RevocationStateBatcher(tokenRedisRepository, false, 64, Duration.ZERO, TIMEOUT);
+    RevocationLookup lookup = RevocationLookup.forUserId("token-id", 42L);
+    given(tokenRedisRepository.findRevocationStates(List.of(lookup)))
+        .willReturn(List.of(new RevocationState(true, null)));
+
+    assertThat(batcher.isEnabled()).isFalse();
+    assertThat(batcher.find(lookup).blacklisted()).isTrue();
+  }
+}
@@ -3,24 +3,34 @@ package org.example.security.token;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.longThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import org.example.domain.entity.Role;
 import org.example.domain.entity.User;
 import org.example.dto.response.TokenResponseDto;
 import org.example.repository.TokenRedisRepository;
+import org.example.repository.TokenRedisRepository.RevocationLookup;
+import org.example.repository.TokenRedisRepository.RevocationState;
+import org.example.repository.TokenRedisRepository.RotationResult;
 import org.example.repository.UserRepository;
 import org.example.security.failure.AuthFailureCode;
 import org.example.security.failure.AuthFailureException;
 import org.example.security.jwt.JwtTokenProvider;
+import org.example.security.jwt.VerifiedToken;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -42,6 +52,12 @@ class TokenLifecycleServiceImplTest {
   @Mock
   private UserRepository userRepository;
 
+  @Mock
+  private RevocationReplica revocationReplica;
+
+  @Mock
+  private RevocationStateBatcher revocationStateBatcher;
+
   @Spy
   private RedisFailurePolicy redisFailurePolicy = new RedisFailurePolicy();
 
@@ -51,14 +67,14 @@ class TokenLifecycleServiceImplTest {
   @Test
   @DisplayName("issue stores the Refresh Token in the Token Store for the JWT Subject")
   void issue_storesRefreshTokenForJwtSubject() {
-    given(jwtTokenProvider.generateAccessToken(eq("testuser"), any()))
+    given(jwtTokenProvider.generateAccessToken(eq(1L), eq("testuser"), any()))
         .willReturn("access-token");
     given(jwtTokenProvider.generateRefreshToken("testuser"))
         .willReturn("refresh-token");
     given(jwtTokenProvider.getRefreshTokenExpiration())
         .willReturn(604_800_000L);
 
-    TokenResponseDto result = tokenLifecycleService.issue("testuser", List.of("ROLE_USER"));
+    TokenResponseDto result = tokenLifecycleService.issue(1L, "testuser", List.of("ROLE_USER"));
 
     assertThat(result.getAccessToken()).isEqualTo("access-token");
     assertThat(result.getRefreshToken()).isEqualTo("refresh-token");
@@ -66,10 +82,28 @@ class TokenLifecycleServiceImplTest {
     verify(tokenRedisRepository).saveRefreshToken("testuser", "refresh-token", 604_800L);
   }
 
+  @Test
+  @DisplayName("issueForLogin stores the Refresh Token and clears login failures in one write")
+  void issueForLogin_savesLoginSession() {
+    given(jwtTokenProvider.generateAccessToken(eq(1L), eq("testuser"), any()))
+        .willReturn("access-token");
+    given(jwtTokenProvider.generateRefreshToken("testuser"))
+        .willReturn("refresh-token");
+    given(jwtTokenProvider.getRefreshTokenExpiration())
+        .willReturn(604_800_000L);
+
+    TokenResponseDto result =
+        tokenLifecycleService.issueForLogin(1L, "testuser", List.of("ROLE_USER"));
+
+    assertThat(result.getRefreshToken()).isEqualTo("refresh-token");
+    verify(tokenRedisRepository).saveLoginSession("testuser", "refresh-token", 604_800L);
+    verify(tokenRedisRepository, never()).saveRefreshToken(anyString(), anyString(), anyLong());
+  }
+
   @Test
   @DisplayName("issue fails closed when the Token Store is unavailable")
   void issue_throwsTokenStoreUnavailable_whenRedisSaveFails() {
-    given(jwtTokenProvider.generateAccessToken(eq("testuser"), any()))
+    given(jwtTokenProvider.generateAccessToken(eq(1L), eq("testuser"), any()))
         .willReturn("access-token");
     given(jwtTokenProvider.generateRefreshToken("testuser"))
         .willReturn("refresh-token");
@@ -79,7 +113,7 @@ class TokenLifecycleServiceImplTest {
         .when(tokenRedisRepository)
         .saveRefreshToken("testuser", "refresh-token", 604_800L);
 
-    assertThatThrownBy(() -> tokenLifecycleService.issue("testuser", List.of("ROLE_USER")))
+    assertThatThrownBy(() -> tokenLifecycleService.issue(1L, "testuser", List.of("ROLE_USER")))
         .isInstanceOfSatisfying(AuthFailureException.class, failure ->
             assertThat(failure.getCode()).isEqualTo(AuthFailureCode.TOKEN_STORE_UNAVAILABLE));
   }
@@ -87,23 +121,26 @@ class TokenLifecycleServiceImplTest {
   @Test
   @DisplayName("rotate rejects a reused Refresh Token that differs from the Token Store value")
   void rotate_rejectsReusedRefreshToken() {
-    given(jwtTokenProvider.parseClaims("old-refresh-token"))
-        .willReturn(claims("testuser"));
-    given(tokenRedisRepository.findRefreshToken("testuser"))
-        .willReturn(Optional.of("current-refresh-token"));
+    given(jwtTokenProvider.verify("old-refresh-token"))
+        .willReturn(verifiedToken("old-refresh-token", "testuser"));
+    given(tokenRedisRepository.rotateRefreshToken(
+        eq("testuser"), eq("old-refresh-token"), any(), anyLong(), anyLong()))
+        .willReturn(RotationResult.REUSED);
 
     assertThatThrownBy(() -> tokenLifecycleService.rotate("old-refresh-token"))
         .isInstanceOfSatisfying(AuthFailureException.class, failure ->
             assertThat(failure.getCode()).isEqualTo(AuthFailureCode.REFRESH_TOKEN_REUSED));
+    verifyNoInteractions(userRepository);
   }
 
   @Test
   @DisplayName("rotate rejects a Refresh Token that is missing from the Token Store")
   void rotate_rejectsMissingRefreshToken() {
-    given(jwtTokenProvider.parseClaims("missing-refresh-token"))
-        .willReturn(claims("testuser"));
-    given(tokenRedisRepository.findRefreshToken("testuser"))
-        .willReturn(Optional.empty());
+    given(jwtTokenProvider.verify("missing-refresh-token"))
+        .willReturn(verifiedToken("missing-refresh-token", "testuser"));
+    given(tokenRedisRepository.rotateRefreshToken(
+        eq("testuser"), eq("missing-refresh-token"), any(), anyLong(), anyLong()))
+        .willReturn(RotationResult.MISSING);
 
     assertThatThrownBy(() -> tokenLifecycleService.rotate("missing-refresh-token"))
         .isInstanceOfSatisfying(AuthFailureException.class, failure ->
@@ -111,11 +148,12 @@ class TokenLifecycleServiceImplTest {
   }
 
   @Test
-  @DisplayName("rotate fails closed when the Token Store cannot read the active Refresh Token")
-  void rotate_throwsTokenStoreUnavailable_whenRedisReadFails() {
-    given(jwtTokenProvider.parseClaims("refresh-token"))
-        .willReturn(claims("testuser"));
-    given(tokenRedisRepository.findRefreshToken("testuser"))
+  @DisplayName("rotate fails closed when the Token Store cannot swap the active Refresh Token")
+  void rotate_throwsTokenStoreUnavailable_whenRedisScriptFails() {
+    given(jwtTokenProvider.verify("refresh-token"))
+        .willReturn(verifiedToken("refresh-token", "testuser"));
+    given(tokenRedisRepository.rotateRefreshToken(
+        eq("testuser"), eq("refresh-token"), any(), anyLong(), anyLong()))
         .willThrow(new DataAccessResourceFailureException("redis down"));
 
     assertThatThrownBy(() -> tokenLifecycleService.rotate("refresh-token"))
@@ -124,7 +162,7 @@ class TokenLifecycleServiceImplTest {
   }
 
   @Test
-  @DisplayName("rotate replaces the active Refresh Token for the same JWT Subject")
+  @DisplayName("rotate swaps the active Refresh Token in one Token Store call")
   void rotate_replacesActiveRefreshToken() {
     User user = User.builder()
         .username("testuser")
@@ -133,13 +171,14 @@ class TokenLifecycleServiceImplTest {
         .build();
     user.addRole(new Role("ROLE_USER"));
 
-    given(jwtTokenProvider.parseClaims("old-refresh-token"))
-        .willReturn(claims("testuser"));
-    given(tokenRedisRepository.findRefreshToken("testuser"))
-        .willReturn(Optional.of("old-refresh-token"));
+    VerifiedToken refreshToken = verifiedToken("old-refresh-token", "testuser");
+    given(jwtTokenProvider.verify("old-refresh-token")).willReturn(refreshToken);
+    given(tokenRedisRepository.rotateRefreshToken("testuser", "old-refresh-token",
+        "new-refresh-token", 604_800L, refreshToken.issuedAt().getEpochSecond()))
+        .willReturn(RotationResult.ROTATED);
     given(userRepository.findByUsername("testuser"))
         .willReturn(Optional.of(user));
-    given(jwtTokenProvider.generateAccessToken(anyString(), any()))
+    given(jwtTokenProvider.generateAccessToken(any(), anyString(), any()))
         .willReturn("new-access-token");
     given(jwtTokenProvider.generateRefreshToken("testuser"))
         .willReturn("new-refresh-token");
@@ -150,29 +189,73 @@ class TokenLifecycleServiceImplTest {
 
     assertThat(result.getAccessToken()).isEqualTo("new-access-token");
     assertThat(result.getRefreshToken()).isEqualTo("new-refresh-token");
-    verify(tokenRedisRepository).saveRefreshToken("testuser", "new-refresh-token", 604_800L);
+    verify(tokenRedisRepository, never()).saveRefreshToken(anyString(), anyString(), anyLong());
+  }
+
+  @Test
+  @DisplayName("rotate rejects a User locked after the Refresh Token was issued")
+  void rotate_rejectsLockedUser() {
+    User user = User.builder()
+        .username("testuser")
+        .password("encoded")
+        .nickname("tester")
+        .build();
+    user.lock();
+    given(jwtTokenProvider.verify("refresh-token"))
+        .willReturn(verifiedToken("refresh-token", "testuser"));
+    given(tokenRedisRepository.rotateRefreshToken(
+        eq("testuser"), eq("refresh-token"), any(), anyLong(), anyLong()))
+        .willReturn(RotationResult.ROTATED);
+    given(userRepository.findByUsername("testuser")).willReturn(Optional.of(user));
+
+    assertThatThrownBy(() -> tokenLifecycleService.rotate("refresh-token"))
+        .isInstanceOfSatisfying(AuthFailureException.class, failure ->
+            assertThat(failure.getCode()).isEqualTo(AuthFailureCode.ACCOUNT_LOCKED));
+    verify(jwtTokenProvider, never()).generateAccessToken(any(), anyString(), any());
   }
 
   @Test
-  @DisplayName("logout removes the active Refresh Token and blacklists the Access Token")
+  @DisplayName("logout removes the Refresh Token and blacklists the Access Token in one call")
   void logout_removesRefreshTokenAndBlacklistsAccessToken() {
-    given(jwtTokenProvider.getRemainingExpiration("access-token"))
-        .willReturn(3_600_000L);
+    tokenLifecycleService.logout("testuser", verifiedToken("access-token", "testuser"));
+
+    verify(tokenRedisRepository).logout(eq("testuser"), eq("token-id"), longThat(ttl -> ttl > 0));
+    verifyNoMoreInteractions(tokenRedisRepository);
+  }
+
+  @Test
+  @DisplayName("logout blacklists a token without jti under a fixed-length digest")
+  void logout_blacklistsLegacyTokenByDigest() {
+    Instant now = Instant.now();
+    VerifiedToken legacy = new VerifiedToken(
+        "access-token", "testuser", List.of(), now, now.plusSeconds(3_600));
 
-    tokenLifecycleService.logout("testuser", "access-token");
+    tokenLifecycleService.logout("testuser", legacy);
 
-    verify(tokenRedisRepository).deleteRefreshToken("testuser");
-    verify(tokenRedisRepository).addToBlacklist("access-token", 3_600_000L);
+    verify(tokenRedisRepository).logout(eq("testuser"),
+        argThat(id -> id.length() == 43 && !id.contains("access-token")), longThat(ttl -> ttl > 0));
+  }
+
+  @Test
+  @DisplayName("logout does not blacklist an Access Token that has already expired")
+  void logout_skipsBlacklist_whenAccessTokenAlreadyExpired() {
+    VerifiedToken expired = new VerifiedToken(
+        "access-token", "testuser", List.of("ROLE_USER"),
+        Instant.now().minusSeconds(120), Instant.now().minusSeconds(60));
+
+    tokenLifecycleService.logout("testuser", expired);
+
+    verify(tokenRedisRepository).logout(eq("testuser"), isNull(), longThat(ttl -> ttl <= 0));
   }
 
   @Test
   @DisplayName("logout fails closed when the Token Store cannot revoke tokens")
-  void logout_throwsTokenStoreUnavailable_whenRedisDeleteFails() {
-    doThrow(new DataAccessResourceFailureException("redis down"))
-        .when(tokenRedisRepository)
-        .deleteRefreshToken("testuser");
+  void logout_throwsTokenStoreUnavailable_whenRedisPipelineFails() {
+    given(tokenRedisRepository.logout(eq("testuser"), eq("token-id"), anyLong()))
+        .willThrow(new DataAccessResourceFailureException("redis down"));
 
-    assertThatThrownBy(() -> tokenLifecycleService.logout("testuser", "access-token"))
+    assertThatThrownBy(() -> tokenLifecycleService.logout(
+        "testuser", verifiedToken("access-token", "testuser")))
         .isInstanceOfSatisfying(AuthFailureException.class, failure ->
             assertThat(failure.getCode()).isEqualTo(AuthFailureCode.TOKEN_STORE_UNAVAILABLE));
   }
@@ -180,31 +263,140 @@ class TokenLifecycleServiceImplTest {
   @Test
   @DisplayName("allows a non-blacklisted Access Token")
   void isAccessTokenAllowed_returnsTrueForNonBlacklistedToken() {
-    given(tokenRedisRepository.isBlacklisted("access-token")).willReturn(false);
+    given(tokenRedisRepository.findRevocationState("token-id", "testuser"))
+        .willReturn(new RevocationState(false, null));
 
-    assertThat(tokenLifecycleService.isAccessTokenAllowed("access-token")).isTrue();
+    assertThat(tokenLifecycleService.isAccessTokenAllowed(verifiedToken("access-token", "testuser")))
+        .isTrue();
   }
 
   @Test
   @DisplayName("rejects a Blacklisted Access Token")
   void isAccessTokenAllowed_returnsFalseForBlacklistedToken() {
-    given(tokenRedisRepository.isBlacklisted("access-token")).willReturn(true);
+    given(tokenRedisRepository.findRevocationState("token-id", "testuser"))
+        .willReturn(new RevocationState(true, null));
 
-    assertThat(tokenLifecycleService.isAccessTokenAllowed("access-token")).isFalse();
+    assertThat(tokenLifecycleService.isAccessTokenAllowed(verifiedToken("access-token", "testuser")))
+        .isFalse();
   }
 
   @Test
   @DisplayName("Access Token validation fails closed when the Logout Blacklist cannot be checked")
   void isAccessTokenAllowed_throwsTokenStoreUnavailable_whenRedisReadFails() {
-    given(tokenRedisRepository.isBlacklisted("access-token"))
+    given(tokenRedisRepository.findRevocationState("token-id", "testuser"))
         .willThrow(new DataAccessResourceFailureException("redis down"));
 
-    assertThatThrownBy(() -> tokenLifecycleService.isAccessTokenAllowed("access-token"))
+    assertThatThrownBy(() -> tokenLifecycleService.isAccessTokenAllowed(
+        verifiedToken("access-token", "testuser")))
+        .isInstanceOfSatisfying(AuthFailureException.class, failure ->
+            assertThat(failure.getCode()).isEqualTo(AuthFailureCode.TOKEN_STORE_UNAVAILABLE));
+  }
+
+  @Test
+  @DisplayName("skips the Token Store when the local revocation replica decides")
+  void isAccessTokenAllowed_usesLocalReplicaVerdict() {
+    VerifiedToken allowed = verifiedToken("access-token", "testuser");
+    VerifiedToken revoked = verifiedToken("revoked-token", "testuser");
+    given(revocationReplica.check(allowed)).willReturn(RevocationReplica.Verdict.ALLOWED);
+    given(revocationReplica.check(revoked)).willReturn(RevocationReplica.Verdict.REVOKED);
+
+    assertThat(tokenLifecycleService.isAccessTokenAllowed(allowed)).isTrue();
+    assertThat(tokenLifecycleService.isAccessTokenAllowed(revoked)).isFalse();
+    verifyNoInteractions(tokenRedisRepository);
+  }
+
+  @Test
+  @DisplayName("asks the Token Store when the local replica reports a Bloom filter hit")
+  void isAccessTokenAllowed_checksTokenStore_whenReplicaIsUnsure() {
+    VerifiedToken accessToken = verifiedToken("access-token", "testuser");
+    given(revocationReplica.check(accessToken)).willReturn(RevocationReplica.Verdict.UNKNOWN);
+    given(tokenRedisRepository.findRevocationState("token-id", "testuser"))
+        .willReturn(new RevocationState(true, null));
+
+    assertThat(tokenLifecycleService.isAccessTokenAllowed(accessToken)).isFalse();
+  }
+
+  @Test
+  @DisplayName("sends the lookup through the batcher when batching is enabled")
+  void isAccessTokenAllowed_usesBatcher_whenEnabled() {
+    given(revocationStateBatcher.isEnabled()).willReturn(true);
+    given(revocationStateBatcher.find(RevocationLookup.forSubject("token-id", "testuser")))
+        .willReturn(new RevocationState(true, null));
+    VerifiedToken accessToken = verifiedToken("access-token", "testuser");
+
+    assertThat(tokenLifecycleService.isAccessTokenAllowed(accessToken)).isFalse();
+    verifyNoInteractions(tokenRedisRepository);
+  }
+
+  @Test
+  @DisplayName("rejects an Access Token issued no later than the revocation watermark")
+  void isAccessTokenAllowed_returnsFalse_whenIssuedBeforeRevocationWatermark() {
+    VerifiedToken accessToken = verifiedToken("access-token", "testuser");
+    long issuedAt = accessToken.issuedAt().getEpochSecond();
+    given(tokenRedisRepository.findRevocationState("token-id", "testuser"))
+        .willReturn(new RevocationState(false, issuedAt))
+        .willReturn(new RevocationState(false, issuedAt - 1));
+
+    assertThat(tokenLifecycleService.isAccessTokenAllowed(accessToken)).isFalse();
+    assertThat(tokenLifecycleService.isAccessTokenAllowed(accessToken)).isTrue();
+  }
+
+  @Test
+  @DisplayName("checks the User id watermark for a compact Access Token without subject")
+  void isAccessTokenAllowed_checksUserIdWatermark_forNumericSubject() {
+    Instant now = Instant.now();
+    VerifiedToken accessToken = new VerifiedToken(
+        "access-token", null, 42L, List.of(), now, now.plusSeconds(3_600), "token-id");
+    given(tokenRedisRepository.findRevocationStateById("token-id", 42L))
+        .willReturn(new RevocationState(false, now.getEpochSecond()));
+
+    assertThat(tokenLifecycleService.isAccessTokenAllowed(accessToken)).isFalse();
+  }
+
+  @Test
+  @DisplayName("rotate rejects a Refresh Token issued before the revocation watermark")
+  void rotate_rejectsRevokedRefreshToken() {
+    VerifiedToken refreshToken = verifiedToken("refresh-token", "testuser");
+    given(jwtTokenProvider.verify("refresh-token")).willReturn(refreshToken);
+    given(tokenRedisRepository.rotateRefreshToken(
+        eq("testuser"), eq("refresh-token"), any(), anyLong(),
+        eq(refreshToken.issuedAt().getEpochSecond())))
+        .willReturn(RotationResult.REVOKED);
+
+    assertThatThrownBy(() -> tokenLifecycleService.rotate("refresh-token"))
+        .isInstanceOfSatisfying(AuthFailureException.class, failure ->
+            assertThat(failure.getCode()).isEqualTo(AuthFailureCode.REFRESH_TOKEN_INVALID));
+    verifyNoInteractions(userRepository);
+  }
+
+  @Test
+  @DisplayName("revokeIssuedTokens sets Subject and User id watermarks for the RT lifetime")
+  void revokeIssuedTokens_storesWatermarksForSubjectsAndUserIds() {
+    given(userRepository.findIdsByUsernameIn(List.of("testuser", "missing")))
+        .willReturn(List.of(42L));
+    given(jwtTokenProvider.getRefreshTokenExpiration()).willReturn(604_800_000L);
+
+    Instant revokedAt = tokenLifecycleService.revokeIssuedTokens(List.of("testuser", "missing"));
+
+    verify(tokenRedisRepository).revokeUsers(
+        List.of("testuser", "missing"), List.of(42L), revokedAt.getEpochSecond(), 604_801L);
+  }
+
+  @Test
+  @DisplayName("revokeAllIssuedTokens fails closed when the Token Store is unavailable")
+  void revokeAllIssuedTokens_throwsTokenStoreUnavailable_whenRedisWriteFails() {
+    given(jwtTokenProvider.getRefreshTokenExpiration()).willReturn(604_800_000L);
+    doThrow(new DataAccessResourceFailureException("redis down"))
+        .when(tokenRedisRepository).revokeAll(anyLong(), eq(604_801L));
+
+    assertThatThrownBy(() -> tokenLifecycleService.revokeAllIssuedTokens())
         .isInstanceOfSatisfying(AuthFailureException.class, failure ->
             assertThat(failure.getCode()).isEqualTo(AuthFailureCode.TOKEN_STORE_UNAVAILABLE));
   }
 
-  private Claims claims(String subject) {
-    return Jwts.claims().subject(subject).build();
+  private VerifiedToken verifiedToken(String token, String subject) {
+    Instant now = Instant.now();
+    return new VerifiedToken(
+        token, subject, null, List.of(), now, now.plusSeconds(3_600), "token-id");
   }
 }
@@ -3,21 +3,29 @@ package org.example.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import org.example.domain.entity.User;
 import org.example.repository.UserRepository;
 import org.example.security.account.LoginFailureCounter;
 import org.example.security.failure.AuthFailureCode;
 import org.example.security.failure.AuthFailureException;
+import org.example.security.jwt.JwtKeyRotator;
+import org.example.security.token.RedisFailurePolicy;
+import org.example.security.token.TokenLifecycleService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
 
 @ExtendWith(MockitoExtension.class)
 class AdminServiceImplTest {
@@ -28,6 +36,15 @@ class AdminServiceImplTest {
   @Mock
   private LoginFailureCounter loginFailureCounter;
 
+  @Mock
+  private JwtKeyRotator jwtKeyRotator;
+
+  @Mock
+  private TokenLifecycleService tokenLifecycleService;
+
+  @Spy
+  private RedisFailurePolicy redisFailurePolicy = new RedisFailurePolicy();
+
   @InjectMocks
   private AdminServiceImpl adminService;
 
@@ -41,6 +58,7 @@ class AdminServiceImplTest {
     adminService.unlockUser("testuser");
 
     assertThat(user.isAccountNonLocked()).isTrue();
+    verify(userRepository).save(user);
     verify(loginFailureCounter).clear("testuser");
   }
 
@@ -56,6 +74,43 @@ class AdminServiceImplTest {
     verify(loginFailureCounter, never()).clear("missing");
   }
 
+  @Test
+  @DisplayName("rotateSigningKey stages a new signing key and returns its kid")
+  void rotateSigningKey_returnsNewKeyId() {
+    given(jwtKeyRotator.rotate()).willReturn("new-kid");
+
+    assertThat(adminService.rotateSigningKey()).isEqualTo("new-kid");
+  }
+
+  @Test
+  @DisplayName("rotateSigningKey throws TOKEN_STORE_UNAVAILABLE when Redis is down")
+  void rotateSigningKey_throwsTokenStoreUnavailable_whenRedisIsDown() {
+    willThrow(new RedisConnectionFailureException("down")).given(jwtKeyRotator).rotate();
+
+    assertThatThrownBy(() -> adminService.rotateSigningKey())
+        .isInstanceOfSatisfying(AuthFailureException.class, failure ->
+            assertThat(failure.getCode()).isEqualTo(AuthFailureCode.TOKEN_STORE_UNAVAILABLE));
+  }
+
+  @Test
+  @DisplayName("revokeUserTokens revokes the listed Users and returns the watermark")
+  void revokeUserTokens_delegatesToTokenLifecycleService() {
+    Instant watermark = Instant.parse("2026-01-01T00:00:00Z");
+    given(tokenLifecycleService.revokeIssuedTokens(List.of("testuser", "other")))
+        .willReturn(watermark);
+
+    assertThat(adminService.revokeUserTokens(List.of("testuser", "other"))).isEqualTo(watermark);
+  }
+
+  @Test
+  @DisplayName("revokeAllTokens revokes the tokens of every User")
+  void revokeAllTokens_delegatesToTokenLifecycleService() {
+    Instant watermark = Instant.parse("2026-01-01T00:00:00Z");
+    given(tokenLifecycleService.revokeAllIssuedTokens()).willReturn(watermark);
+
+    assertThat(adminService.revokeAllTokens()).isEqualTo(watermark);
+  }
+
   private User user(String username) {
     return User.builder()
         .username(username)
@@ -3,11 +3,14 @@ package org.example.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import org.example.domain.entity.Role;
@@ -17,8 +20,10 @@ import org.example.dto.response.TokenResponseDto;
 import org.example.repository.UserRepository;
 import org.example.security.CustomUserDetails;
 import org.example.security.account.LoginFailureCounter;
+import org.example.security.account.PreloadedUserAuthenticationToken;
 import org.example.security.failure.AuthFailureCode;
 import org.example.security.failure.AuthFailureException;
+import org.example.security.jwt.VerifiedToken;
 import org.example.security.token.TokenLifecycleService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -56,15 +61,34 @@ class AuthServiceImplTest {
         .willReturn(Optional.of(user("testuser", true)));
     given(authenticationManager.authenticate(any()))
         .willReturn(authentication("principal-subject"));
-    given(tokenLifecycleService.issue(eq("principal-subject"), eq(List.of("ROLE_USER"))))
+    given(tokenLifecycleService.issueForLogin(
+        any(), eq("principal-subject"), eq(List.of("ROLE_USER"))))
         .willReturn(tokenResponse("access-token", "refresh-token"));
 
     TokenResponseDto result = authServiceImpl.login(createLoginRequest("testuser", "password123"));
 
     assertThat(result.getAccessToken()).isEqualTo("access-token");
     assertThat(result.getRefreshToken()).isEqualTo("refresh-token");
-    verify(loginFailureCounter).clear("testuser");
-    verify(tokenLifecycleService).issue("principal-subject", List.of("ROLE_USER"));
+    verify(tokenLifecycleService).issueForLogin(
+        any(), eq("principal-subject"), eq(List.of("ROLE_USER")));
+  }
+
+  @Test
+  @DisplayName("login authenticates against the User loaded for the lock check")
+  void login_passesPreloadedUserToAuthenticationManager() {
+    given(userRepository.findByUsername("testuser"))
+        .willReturn(Optional.of(user("testuser", true)));
+    given(authenticationManager.authenticate(any())).willReturn(authentication());
+    given(tokenLifecycleService.issueForLogin(any(), eq("testuser"), any()))
+        .willReturn(tokenResponse("access-token", "refresh-token"));
+
+    authServiceImpl.login(createLoginRequest("testuser", "password123"));
+
+    verify(authenticationManager).authenticate(argThat(request ->
+        request instanceof PreloadedUserAuthenticationToken preloaded
+            && preloaded.getPreloadedUser().getUsername().equals("testuser")
+            && "password123".equals(preloaded.getCredentials())));
+    verify(userRepository, times(1)).findByUsername("testuser");
   }
 
   @Test
@@ -85,7 +109,7 @@ class AuthServiceImplTest {
 
     assertThat(user.isAccountNonLocked()).isFalse();
     verify(userRepository).save(user);
-    verify(tokenLifecycleService, never()).issue(any(), any());
+    verify(tokenLifecycleService, never()).issueForLogin(any(), any(), any());
   }
 
   @Test
@@ -106,7 +130,7 @@ class AuthServiceImplTest {
 
     assertThat(user.isAccountNonLocked()).isTrue();
     verify(userRepository, never()).save(any());
-    verify(tokenLifecycleService, never()).issue(any(), any());
+    verify(tokenLifecycleService, never()).issueForLogin(any(), any(), any());
   }
 
   @Test
@@ -122,46 +146,53 @@ class AuthServiceImplTest {
     verify(authenticationManager, never()).authenticate(any());
     verify(loginFailureCounter, never()).recordFailure(any());
     verify(loginFailureCounter, never()).clear(any());
-    verify(tokenLifecycleService, never()).issue(any(), any());
+    verify(tokenLifecycleService, never()).issueForLogin(any(), any(), any());
   }
 
   @Test
-  @DisplayName("login clears failure counter after successful authentication")
+  @DisplayName("login clears failure counter in the same Token Store write as the Refresh Token")
   void login_clearsFailureCounter_whenAuthenticationSucceeds() {
     given(userRepository.findByUsername("testuser"))
         .willReturn(Optional.of(user("testuser", true)));
     given(authenticationManager.authenticate(any())).willReturn(authentication());
-    given(tokenLifecycleService.issue(eq("testuser"), any()))
+    given(tokenLifecycleService.issueForLogin(any(), eq("testuser"), any()))
         .willReturn(tokenResponse("access-token", "refresh-token"));
 
     TokenResponseDto result = authServiceImpl.login(createLoginRequest("testuser", "password123"));
 
     assertThat(result.getAccessToken()).isEqualTo("access-token");
     assertThat(result.getRefreshToken()).isEqualTo("refresh-token");
-    verify(loginFailureCounter).clear("testuser");
-    verify(tokenLifecycleService).issue(eq("testuser"), any());
+    verify(tokenLifecycleService).issueForLogin(any(), eq("testuser"), any());
+    verify(loginFailureCounter, never()).clear(any());
   }
 
   @Test
-  @DisplayName("login rejects unknown User as bad credentials")
+  @DisplayName("login rejects unknown User as bad credentials after the provider's password check")
   void login_throwsBadCredentials_whenUserIsUnknown() {
     given(userRepository.findByUsername("missing")).willReturn(Optional.empty());
+    given(authenticationManager.authenticate(argThat(authentication ->
+        authentication instanceof PreloadedUserAuthenticationToken preloaded
+            && preloaded.getPreloadedUser() == null
+            && "missing".equals(preloaded.getName()))))
+        .willThrow(new BadCredentialsException("Bad credentials"));
 
     assertThatThrownBy(() -> authServiceImpl.login(createLoginRequest("missing", "password123")))
         .isInstanceOfSatisfying(AuthFailureException.class, failure ->
             assertThat(failure.getCode()).isEqualTo(AuthFailureCode.BAD_CREDENTIALS));
 
     verify(loginFailureCounter, never()).recordFailure(any());
-    verify(authenticationManager, never()).authenticate(any());
-    verify(tokenLifecycleService, never()).issue(any(), any());
+    verify(tokenLifecycleService, never()).issueForLogin(any(), any(), any());
   }
 
   @Test
   @DisplayName("logout delegates token revocation to TokenLifecycleService")
   void logout_delegatesTokenRevocationToTokenLifecycleService() {
-    authServiceImpl.logout("testuser", "access-token");
+    VerifiedToken accessToken = new VerifiedToken(
+        "access-token", "testuser", List.of("ROLE_USER"), Instant.now(), Instant.now().plusSeconds(60));
+
+    authServiceImpl.logout("testuser", accessToken);
 
-    verify(tokenLifecycleService).logout("testuser", "access-token");
+    verify(tokenLifecycleService).logout("testuser", accessToken);
   }
 
   @Test